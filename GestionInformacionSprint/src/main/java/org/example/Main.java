@@ -3,8 +3,14 @@ package org.example;
 
 import org.example.gestion.*;
 
-import java.util.Scanner;
-import java.util.InputMismatchException;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.NoSuchElementException;
 
 import static org.example.gestion.IngresarDatos.*;
 /*
@@ -20,73 +26,146 @@ import static org.example.gestion.IngresarDatos.*;
  * Es responsable de la interacción con el usuario y delega el trabajo a otras clases.
  */
 public class Main {
+
+    /**
+     * Sesión representativa que se ejecuta con {@code --entrenar-cds} para registrar las clases que usa el programa
+     * en el archivo de clases compartidas (AppCDS).
+     */
+    private static final String GUION_CDS = String.join("\n",
+            "1", "JUAN CARLOS", "PEREZ SOTO", "01/02/1980", "11111111", "912345678", "MODELO", "1",
+            "CALLE UNO 123", "NUNOA",
+            "2", "MARIA JOSE", "LOPEZ ROJAS", "03/04/1985", "22222222", "INGENIERA EN PREVENCION", "01/01/2015",
+            "3", "PEDRO PABLO", "DIAZ MUNOZ", "05/06/1990", "33333333", "RECURSOS HUMANOS", "CINCO ANOS",
+            "4", "11111111", "Lunes", "10:00", "SALA GRANDE NORTE", "60", "12",
+            "6", "7", "1", "8", "5", "33333333", "9", "");
+
+    /**
+     * Prefijo del parámetro que indica el directorio al que se exportan los datos al salir.
+     */
+    private static final String OPCION_EXPORTAR = "--exportar=";
+
      /**
      * Este método se encarga de iniciar la ejecución del programar
      * Este es el método principal del proyecto
+     * Con el parámetro {@code --tuberia} no se muestra el menú, para ejecutar comandos enviados por un script.
+     * Con el parámetro {@code --entrenar-cds} se ejecuta una sesión de ejemplo sin mostrar nada, para generar el
+     * archivo de clases compartidas.
+     * Con el parámetro {@code --exportar=<directorio>}, que puede ir después de los anteriores, al salir se
+     * exportan los datos en formato columnar a ese directorio y se muestra el rendimiento de cada tabla.
      * @param args es un arreglo con los parámetros que él reciba por consola
      *
      */
 
     // SRP: La clase Main es responsable de la interacción con el usuario y delega el trabajo a otras clases.
     public static void main(String[] args) {
+        String modo = args.length > 0 ? args[0] : "";
+        Path exportacion = null;
+        for (String arg : args) {
+            if (arg.startsWith(OPCION_EXPORTAR)) {
+                exportacion = Paths.get(arg.substring(OPCION_EXPORTAR.length()));
+            }
+        }
+        if (modo.equals("--entrenar-cds")) {
+            try (Consola consola = new Consola(new ByteArrayInputStream(GUION_CDS.getBytes(StandardCharsets.UTF_8)),
+                    OutputStream.nullOutputStream(), StandardCharsets.UTF_8)) {
+                ejecutar(consola, true, exportacion);
+            }
+        } else {
+            try (Consola consola = new Consola()) {
+                ejecutar(consola, modo.equals("--tuberia"), exportacion);
+            }
+        }
+    }
+
+    /**
+     * Ejecuta el menú principal con la salida de la consola instalada como {@link System#out}, y al terminar deja la
+     * salida estándar que había antes. Quien crea la consola la cierra.
+     *
+     * @param consola La consola de la que se leen los comandos.
+     * @param modoTuberia true para no mostrar el menú.
+     * @param exportacion El directorio al que se exportan los datos al salir, o null para no exportarlos.
+     */
+    private static void ejecutar(Consola consola, boolean modoTuberia, Path exportacion) {
+        PrintStream salidaOriginal = System.out;
+        System.setOut(consola.getSalida());
+        try {
+            menu(consola, modoTuberia, exportacion);
+        } finally {
+            System.setOut(salidaOriginal);
+        }
+    }
+
+    /**
+     * Ejecuta el menú principal hasta que se elige salir o se acaba la entrada.
+     *
+     * @param consola La consola de la que se leen los comandos.
+     * @param modoTuberia true para no mostrar el menú.
+     * @param exportacion El directorio al que se exportan los datos al salir, o null para no exportarlos.
+     */
+    private static void menu(Consola consola, boolean modoTuberia, Path exportacion) {
 
         Contenedor contenedor = new Contenedor();
-        Scanner scanner = new Scanner(System.in);
 
         int opcion = 0;
 
         do {
-            System.out.println();
-            System.out.println("********************************************");
-            System.out.println("**** ASESORÍAS EN PREVENCIÓN DE RIESGOS ****");
-            System.out.println("********************************************");
-            System.out.println("Menu Principal:");
-            System.out.println("Ingrese el número de la opción que desea ejecutar:");
-            System.out.println("1. Almacenar cliente");
-            System.out.println("2. Almacenar profesional");
-            System.out.println("3. Almacenar administrativo");
-            System.out.println("4. Almacenar capacitación");
-            System.out.println("5. Eliminar usuario");
-            System.out.println("6. Listar usuarios");
-            System.out.println("7. Listar usuarios por tipo");
-            System.out.println("8. Listar capacitaciones");
-            System.out.println("9. Salir");
-            System.out.print("Ingrese una opción: ");
+            if (!modoTuberia) {
+                System.out.println();
+                System.out.println("********************************************");
+                System.out.println("**** ASESORÍAS EN PREVENCIÓN DE RIESGOS ****");
+                System.out.println("********************************************");
+                System.out.println("Menu Principal:");
+                System.out.println("Ingrese el número de la opción que desea ejecutar:");
+                System.out.println("1. Almacenar cliente");
+                System.out.println("2. Almacenar profesional");
+                System.out.println("3. Almacenar administrativo");
+                System.out.println("4. Almacenar capacitación");
+                System.out.println("5. Eliminar usuario");
+                System.out.println("6. Listar usuarios");
+                System.out.println("7. Listar usuarios por tipo");
+                System.out.println("8. Listar capacitaciones");
+                System.out.println("9. Salir");
+                System.out.print("Ingrese una opción: ");
+            }
+            MedidorInicio.primerMenu();
 
             try {
-                opcion = scanner.nextInt();
-                scanner.nextLine(); // Limpiar el buffer
+                opcion = consola.leerEntero();
 
                 switch (opcion) {
                     case 1:
-                        Cliente cliente = crearCliente(scanner);
+                        Cliente cliente = crearCliente(consola);
                         if (contenedor.almacenarCliente(cliente)) {
                             System.out.println("El cliente ha sido almacenado exitosamente.");
+                            MedidorInicio.primerAlmacenamiento();
                         } else {
                             System.out.println("No se pudo almacenar el cliente.");
                         }
                         break;
                     case 2:
-                        Profesional profesional = crearProfesional(scanner);
+                        Profesional profesional = crearProfesional(consola);
                         if (contenedor.almacenarProfesional(profesional)) {
                             System.out.println("El profesional ha sido almacenado exitosamente.");
+                            MedidorInicio.primerAlmacenamiento();
                         } else {
                             System.out.println("No se pudo almacenar el profesional.");
                         }
                         break;
                     case 3:
-                        Administrativo administrativo = crearAdministrativo(scanner);
+                        Administrativo administrativo = crearAdministrativo(consola);
                         if (contenedor.almacenarAdministrativo(administrativo)) {
                             System.out.println("El administrativo ha sido almacenado exitosamente.");
+                            MedidorInicio.primerAlmacenamiento();
                         } else {
                             System.out.println("No se pudo almacenar el administrativo.");
                         }
                         break;
                     case 4:
-                        Capacitacion capacitacion = crearCapacitacion(scanner, contenedor);
+                        Capacitacion capacitacion = crearCapacitacion(consola, contenedor);
                         if (capacitacion != null) {
                             if (contenedor.almacenarCapacitacion(capacitacion)) {
                                 System.out.println("La capacitación ha sido almacenada exitosamente.");
+                                MedidorInicio.primerAlmacenamiento();
                             } else {
                                 System.out.println("No se pudo almacenar la capacitación.");
                             }
@@ -96,7 +175,7 @@ public class Main {
                         break;
                     case 5:
                         System.out.print("Ingrese el RUN del usuario a eliminar: ");
-                        long runEliminar = scanner.nextLong();
+                        long runEliminar = Long.parseLong(consola.leerLinea().trim());
                         contenedor.eliminarUsuario(runEliminar);
                         break;
                     case 6:
@@ -104,7 +183,7 @@ public class Main {
                         break;
                     case 7:
                         System.out.print("Ingrese el tipo de usuario (1. Cliente, 2. Profesional, 3. Administrativo): ");
-                        int tipoUsuario = scanner.nextInt();
+                        int tipoUsuario = consola.leerEntero();
                         switch (tipoUsuario) {
                             case 1:
                                 contenedor.listarUsuariosPorTipo(Cliente.class);
@@ -128,13 +207,34 @@ public class Main {
                     default:
                         System.out.println("Opción incorrecta, por favor intente nuevamente.");
                 }
-            } catch (InputMismatchException e) {
+            } catch (NumberFormatException e) {
                 System.out.println("Entrada inválida, por favor ingrese un número entre 1 y 9.");
-                scanner.nextLine(); // Limpiar el buffer
+            } catch (NoSuchElementException e) {
+                opcion = 9; // Fin de la entrada
             }
         } while (opcion != 9);
 
-        scanner.close();
+        if (exportacion != null) {
+            exportar(contenedor, exportacion);
+        }
+    }
+
+    /**
+     * Exporta los datos del contenedor en formato columnar y muestra el rendimiento de cada tabla.
+     *
+     * @param contenedor El contenedor.
+     * @param directorio El directorio de destino.
+     */
+    private static void exportar(Contenedor contenedor, Path directorio) {
+        try {
+            for (ExportadorColumnar.Resultado resultado : new ExportadorColumnar().exportar(contenedor, directorio)) {
+                System.out.printf("%s: %d filas, %d bytes en %d ms (%.0f filas/s, %.1f MB/s)%n", resultado.tabla(),
+                        resultado.filas(), resultado.bytes(), resultado.milisegundos(), resultado.filasPorSegundo(),
+                        resultado.megabytesPorSegundo());
+            }
+        } catch (IOException e) {
+            System.out.println("No se pudieron exportar los datos: " + e.getMessage());
+        }
     }
 }
 //Principios SOLID
@@ -1,7 +1,6 @@
 package org.example.gestion;
 
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 
 /*
  *
@@ -92,6 +91,7 @@ public class Accidente {
      */
     public void setIdentificador(int identificador) {
         this.identificador = identificador;
+        invalidarTexto();
     }
     /**
      * Obtiene el RUT del cliente asociado con el accidente.
@@ -112,6 +112,7 @@ public class Accidente {
             throw new IllegalArgumentException("El RUT del cliente debe ser un número menor a 99.999.999.");
         }
         this.rutCliente = rutCliente;
+        invalidarTexto();
     }
 
     /**
@@ -133,6 +134,7 @@ public class Accidente {
             throw new IllegalArgumentException("La fecha del accidente no puede ser nula.");
         }
         this.dia = dia;
+        invalidarTexto();
     }
     /**
      * Obtiene la hora del accidente.
@@ -153,6 +155,7 @@ public class Accidente {
             throw new IllegalArgumentException("La hora debe estar en formato HH:MM (24 horas).");
         }
         this.hora = hora;
+        invalidarTexto();
     }
     /**
      * Obtiene el lugar donde ocurrió el accidente.
@@ -173,6 +176,7 @@ public class Accidente {
             throw new IllegalArgumentException("El lugar debe tener entre 10 y 50 caracteres.");
         }
         this.lugar = lugar;
+        invalidarTexto();
     }
     /**
      * Obtiene el origen del accidente.
@@ -193,6 +197,7 @@ public class Accidente {
             throw new IllegalArgumentException("El origen no puede tener más de 100 caracteres.");
         }
         this.origen = origen;
+        invalidarTexto();
     }
     /**
      * Obtiene las consecuencias del accidente.
@@ -213,22 +218,40 @@ public class Accidente {
             throw new IllegalArgumentException("Las consecuencias no pueden tener más de 100 caracteres.");
         }
         this.consecuencias = consecuencias;
+        invalidarTexto();
     }
 
     /**
      * Devuelve una representación en forma de cadena del accidente.
      *
+     * El texto se guarda en {@link CacheTexto} hasta que algún setter modifique el accidente.
+     *
      * @return una representación en forma de cadena del accidente
      */
     @Override
     public String toString() {
-        DateTimeFormatter dateFormat = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+        return CacheTexto.DESCRIPCIONES.obtener(this, this::describir);
+    }
+
+    /**
+     * Genera la representación en forma de cadena del accidente.
+     *
+     * @return una representación en forma de cadena del accidente
+     */
+    private String describir() {
         return "Accidente #" + identificador +
-                "\nFecha: " + dateFormat.format(dia) +
+                "\nFecha: " + Formatos.FECHA.format(dia) +
                 "\nHora: " + hora +
                 "\nLugar: " + lugar +
                 "\nOrigen: " + origen +
                 "\nConsecuencias: " + consecuencias;
     }
 
+    /**
+     * Descarta el texto guardado del accidente. Se llama desde cada setter.
+     */
+    private void invalidarTexto() {
+        CacheTexto.DESCRIPCIONES.invalidar(this);
+    }
+
 }
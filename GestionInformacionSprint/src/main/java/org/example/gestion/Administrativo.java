@@ -60,6 +60,7 @@ public class Administrativo extends Usuario{
      */
     public void setArea(String area) {
         this.area = area;
+        invalidarTexto();
     }
     /**
      * Obtiene la experiencia previa del administrativo.
@@ -76,17 +77,18 @@ public class Administrativo extends Usuario{
      */
     public void setExperienciaPrevia(String experienciaPrevia) {
         this.experienciaPrevia = experienciaPrevia;
+        invalidarTexto();
     }
 
     /**
-     * Representa la información del administrativo en formato de cadena, incluyendo información adicional a la de la clase {@link Usuario}.
+     * Genera la información del administrativo en formato de cadena, incluyendo información adicional a la de la clase {@link Usuario}.
      *
      * @return Cadena con la información del administrativo.
      */
     @Override
-    public String toString() {
+    protected String describir() {
         return "Administrativo: " +
-                "\n" + super.toString()+
+                "\n" + super.describir()+
                 "\n  Área: '" + area + '\'' +
                 "\n  Experiencia Previa: '" + experienciaPrevia;
     }
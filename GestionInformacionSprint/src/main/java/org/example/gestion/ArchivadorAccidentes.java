@@ -0,0 +1,110 @@
+package org.example.gestion;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ *
+ * @author Judith Vergara
+ * @version 1.0
+ */
+
+/**
+ * Mueve periódicamente al {@link ArchivoAccidentes} los accidentes de más de un año de un {@link Contenedor}.
+ * <p>
+ * Un hilo propio llama a {@link Contenedor#archivarAccidentesAntiguos()} al crearse el archivador y luego cada vez
+ * que pasa el período indicado. Si un archivado falla, con un error de escritura o cualquier otra excepción, los
+ * accidentes siguen en memoria, el error se guarda y se vuelve a intentar en el período siguiente.
+ * </p>
+ */
+public class ArchivadorAccidentes implements AutoCloseable {
+
+    // Principio de Responsabilidad Única (SRP): el archivador solo decide cuándo archivar; qué y cómo lo deciden el contenedor y el archivo.
+
+    /**
+     * Contenedor cuyos accidentes se archivan.
+     */
+    private final Contenedor contenedor;
+    /**
+     * Programador del hilo que archiva.
+     */
+    private final ScheduledExecutorService programador;
+    /**
+     * Cantidad de accidentes archivados desde que se creó el archivador.
+     */
+    private final AtomicLong archivados = new AtomicLong();
+    /**
+     * Error del último archivado, o null si terminó bien.
+     */
+    private volatile Exception ultimoError;
+
+    /**
+     * Crea el archivador y programa el primer archivado de inmediato.
+     *
+     * @param contenedor El contenedor, que debe tener archivo de accidentes.
+     * @param periodo El tiempo entre un archivado y el siguiente.
+     * @throws IllegalArgumentException si el contenedor no tiene archivo de accidentes o el período no es positivo.
+     */
+    public ArchivadorAccidentes(Contenedor contenedor, Duration periodo) {
+        if (contenedor == null || contenedor.getArchivoAccidentes() == null) {
+            throw new IllegalArgumentException("El contenedor debe tener un archivo de accidentes.");
+        }
+        if (periodo == null || periodo.isNegative() || periodo.isZero()) {
+            throw new IllegalArgumentException("El período de archivado debe ser positivo.");
+        }
+        this.contenedor = contenedor;
+        this.programador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "archivador-accidentes");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        programador.scheduleWithFixedDelay(this::archivar, 0, periodo.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Obtiene la cantidad de accidentes archivados desde que se creó el archivador.
+     *
+     * @return La cantidad de accidentes.
+     */
+    public long getArchivados() {
+        return archivados.get();
+    }
+
+    /**
+     * Obtiene el error del último archivado.
+     *
+     * @return El error, o null si el último archivado terminó bien o todavía no se ejecuta.
+     */
+    public Exception getUltimoError() {
+        return ultimoError;
+    }
+
+    /**
+     * Detiene el archivador, esperando a que termine el archivado en curso.
+     */
+    @Override
+    public void close() {
+        programador.shutdown();
+        try {
+            programador.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Archiva los accidentes antiguos y guarda el resultado. Ninguna excepción sale de aquí, ya que cancelaría el
+     * archivado periódico sin aviso.
+     */
+    private void archivar() {
+        try {
+            archivados.addAndGet(contenedor.archivarAccidentesAntiguos());
+            ultimoError = null;
+        } catch (Exception e) {
+            ultimoError = e;
+        }
+    }
+}
@@ -0,0 +1,346 @@
+package org.example.gestion;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/*
+ *
+ * @author Judith Vergara
+ * @version 1.0
+ */
+
+/**
+ * Archivo en disco de accidentes antiguos, dividido en un segmento comprimido por mes.
+ * <p>
+ * Cada segmento es un archivo gzip con un accidente por línea, en el formato de {@link CodificadorRegistro}. Archivar
+ * más accidentes de un mes agrega un nuevo miembro gzip al final del segmento, sin reescribirlo. Un índice
+ * ({@code indice.tsv}) guarda la fecha mínima, la fecha máxima y la cantidad de accidentes de cada segmento, de modo
+ * que una consulta por fechas solo descomprime los segmentos que se superponen con el intervalo pedido.
+ * </p>
+ * <p>
+ * El índice también guarda el largo confirmado de cada segmento, y reemplazarlo es lo último que hace
+ * {@link #archivar(Collection)}: los bytes de un segmento más allá de su largo confirmado son de un archivado que no
+ * terminó. Si el archivado falla se descartan en el momento, y si el proceso se detuvo a medias, al abrir el archivo.
+ * Así cada archivado queda completo o no queda, y los accidentes que no alcanzaron a archivarse siguen en memoria.
+ * </p>
+ * <p>
+ * El {@link Contenedor} recibe el archivo al crearse, {@link Contenedor#archivarAccidentes(LocalDate)} mueve los
+ * accidentes a él y las consultas de accidentes del contenedor unen los que siguen en memoria con los archivados.
+ * </p>
+ */
+public class ArchivoAccidentes {
+
+    // Principio de Responsabilidad Única (SRP): solo guarda y recupera accidentes del disco; decidir qué archivar es tarea del contenedor.
+
+    /**
+     * Nombre del archivo de índice.
+     */
+    private static final String INDICE = "indice.tsv";
+
+    /**
+     * Resumen de un segmento mensual.
+     *
+     * @param mes El mes del segmento.
+     * @param minimo La fecha del accidente más antiguo.
+     * @param maximo La fecha del accidente más reciente.
+     * @param cantidad La cantidad de accidentes.
+     */
+    public record Segmento(YearMonth mes, LocalDate minimo, LocalDate maximo, int cantidad) {
+
+        /**
+         * Combina el resumen con el de accidentes agregados al mismo mes.
+         *
+         * @param otro El resumen de los accidentes agregados.
+         * @return El resumen combinado.
+         */
+        Segmento combinar(Segmento otro) {
+            return new Segmento(mes, minimo.isBefore(otro.minimo) ? minimo : otro.minimo,
+                    maximo.isAfter(otro.maximo) ? maximo : otro.maximo, cantidad + otro.cantidad);
+        }
+    }
+
+    /**
+     * Directorio del archivo.
+     */
+    private final Path directorio;
+    /**
+     * Segmentos por mes.
+     */
+    private final NavigableMap<YearMonth, Segmento> segmentos = new TreeMap<>();
+    /**
+     * Largo confirmado de cada segmento en bytes, por mes.
+     */
+    private final Map<YearMonth, Long> longitudes = new HashMap<>();
+
+    /**
+     * Abre el archivo del directorio indicado, creándolo si no existe. Descarta lo que haya quedado escrito por un
+     * archivado que no terminó.
+     *
+     * @param directorio El directorio del archivo.
+     * @throws IOException si no se puede crear el directorio, leer el índice o descartar un archivado incompleto, o
+     *                     si algún segmento es más corto que su largo confirmado.
+     */
+    public ArchivoAccidentes(Path directorio) throws IOException {
+        this.directorio = Files.createDirectories(directorio);
+        Path indice = directorio.resolve(INDICE);
+        if (Files.exists(indice)) {
+            for (String linea : Files.readAllLines(indice, StandardCharsets.UTF_8)) {
+                String[] campos = CodificadorRegistro.separar(linea);
+                CodificadorRegistro.Lector lector = new CodificadorRegistro.Lector(campos);
+                YearMonth mes = YearMonth.parse(lector.texto());
+                segmentos.put(mes, new Segmento(mes, lector.fecha(), lector.fecha(), (int) lector.entero()));
+                // Los índices escritos antes de guardar el largo confían en el segmento completo
+                longitudes.put(mes, campos.length > 4 ? lector.entero() : Files.size(archivoDe(mes)));
+            }
+        }
+        recuperar();
+    }
+
+    /**
+     * Agrega accidentes al archivo, cada uno al segmento de su mes. Si falla, el archivo queda como estaba.
+     *
+     * @param accidentes Los accidentes a archivar; todos deben tener fecha.
+     * @throws IllegalArgumentException si algún accidente no tiene fecha.
+     * @throws IOException si no se puede escribir algún segmento o el índice.
+     */
+    public synchronized void archivar(Collection<Accidente> accidentes) throws IOException {
+        Map<YearMonth, List<Accidente>> porMes = new TreeMap<>();
+        for (Accidente accidente : accidentes) {
+            if (accidente.getDia() == null) {
+                throw new IllegalArgumentException("Solo se pueden archivar accidentes con fecha.");
+            }
+            porMes.computeIfAbsent(YearMonth.from(accidente.getDia()), m -> new ArrayList<>()).add(accidente);
+        }
+        NavigableMap<YearMonth, Segmento> segmentosAnteriores = new TreeMap<>(segmentos);
+        Map<YearMonth, Long> longitudesAnteriores = new HashMap<>(longitudes);
+        try {
+            for (Map.Entry<YearMonth, List<Accidente>> mes : porMes.entrySet()) {
+                escribirSegmento(mes.getKey(), mes.getValue());
+            }
+            guardarIndice();
+        } catch (IOException | RuntimeException e) {
+            segmentos.clear();
+            segmentos.putAll(segmentosAnteriores);
+            longitudes.clear();
+            longitudes.putAll(longitudesAnteriores);
+            try {
+                recuperar();
+            } catch (IOException recuperacion) {
+                e.addSuppressed(recuperacion);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Lee los accidentes archivados ocurridos entre dos fechas. Solo se descomprimen los segmentos cuyo intervalo
+     * de fechas se superpone con el pedido.
+     *
+     * @param desde La fecha inicial, inclusiva.
+     * @param hasta La fecha final, inclusiva.
+     * @return Los accidentes del intervalo, en el orden en que se archivaron dentro de cada mes.
+     * @throws IOException si no se puede leer algún segmento.
+     */
+    public synchronized List<Accidente> leerEntre(LocalDate desde, LocalDate hasta) throws IOException {
+        List<Accidente> resultado = new ArrayList<>();
+        for (Segmento segmento : segmentos.subMap(YearMonth.from(desde), true, YearMonth.from(hasta), true).values()) {
+            if (segmento.maximo().isBefore(desde) || segmento.minimo().isAfter(hasta)) {
+                continue;
+            }
+            for (Accidente accidente : leer(segmento)) {
+                if (!accidente.getDia().isBefore(desde) && !accidente.getDia().isAfter(hasta)) {
+                    resultado.add(accidente);
+                }
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Cuenta los accidentes archivados ocurridos entre dos fechas. Los segmentos que caen completos dentro del
+     * intervalo se cuentan con el índice, sin descomprimirlos.
+     *
+     * @param desde La fecha inicial, inclusiva.
+     * @param hasta La fecha final, inclusiva.
+     * @return La cantidad de accidentes del intervalo.
+     * @throws IOException si no se puede leer algún segmento.
+     */
+    public synchronized int contarEntre(LocalDate desde, LocalDate hasta) throws IOException {
+        int total = 0;
+        for (Segmento segmento : segmentos.subMap(YearMonth.from(desde), true, YearMonth.from(hasta), true).values()) {
+            if (segmento.maximo().isBefore(desde) || segmento.minimo().isAfter(hasta)) {
+                continue;
+            }
+            if (!segmento.minimo().isBefore(desde) && !segmento.maximo().isAfter(hasta)) {
+                total += segmento.cantidad();
+                continue;
+            }
+            for (Accidente accidente : leer(segmento)) {
+                if (!accidente.getDia().isBefore(desde) && !accidente.getDia().isAfter(hasta)) {
+                    total++;
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Lee todos los accidentes de un segmento.
+     *
+     * @param segmento El segmento, uno de {@link #getSegmentos()}.
+     * @return Los accidentes del segmento, en el orden en que se archivaron.
+     * @throws IOException si no se puede leer el segmento.
+     */
+    public synchronized List<Accidente> leer(Segmento segmento) throws IOException {
+        List<Accidente> resultado = new ArrayList<>(segmento.cantidad());
+        try (BufferedReader lector = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(archivoDe(segmento.mes()))), StandardCharsets.UTF_8))) {
+            String linea;
+            while ((linea = lector.readLine()) != null) {
+                resultado.add(CodificadorRegistro.leerAccidente(
+                        new CodificadorRegistro.Lector(CodificadorRegistro.separar(linea))));
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Obtiene el resumen de los segmentos del archivo.
+     *
+     * @return Los segmentos, ordenados por mes.
+     */
+    public synchronized List<Segmento> getSegmentos() {
+        return Collections.unmodifiableList(new ArrayList<>(segmentos.values()));
+    }
+
+    /**
+     * Obtiene la cantidad total de accidentes archivados.
+     *
+     * @return La cantidad de accidentes.
+     */
+    public synchronized int tamano() {
+        return segmentos.values().stream().mapToInt(Segmento::cantidad).sum();
+    }
+
+    /**
+     * Agrega los accidentes de un mes al final de su segmento, como un nuevo miembro gzip.
+     *
+     * @param mes El mes.
+     * @param accidentes Los accidentes del mes.
+     * @throws IOException si no se puede escribir el segmento.
+     */
+    private void escribirSegmento(YearMonth mes, List<Accidente> accidentes) throws IOException {
+        LocalDate minimo = accidentes.get(0).getDia();
+        LocalDate maximo = minimo;
+        List<Object> campos = new ArrayList<>(7);
+        try (FileChannel canal = FileChannel.open(archivoDe(mes), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            // Se escribe a continuación del largo confirmado, sobre lo que haya dejado un archivado incompleto
+            canal.truncate(longitudes.getOrDefault(mes, 0L));
+            canal.position(canal.size());
+            GZIPOutputStream comprimido = new GZIPOutputStream(Channels.newOutputStream(canal));
+            Writer escritor = new BufferedWriter(new OutputStreamWriter(comprimido, StandardCharsets.UTF_8));
+            for (Accidente accidente : accidentes) {
+                campos.clear();
+                CodificadorRegistro.agregarAccidente(campos, accidente);
+                escritor.write(CodificadorRegistro.unir(campos));
+                escritor.write('\n');
+                minimo = accidente.getDia().isBefore(minimo) ? accidente.getDia() : minimo;
+                maximo = accidente.getDia().isAfter(maximo) ? accidente.getDia() : maximo;
+            }
+            escritor.flush();
+            comprimido.finish();
+            // El segmento queda en disco antes de que el índice confirme su nuevo largo
+            canal.force(true);
+            longitudes.put(mes, canal.size());
+        }
+        segmentos.merge(mes, new Segmento(mes, minimo, maximo, accidentes.size()), Segmento::combinar);
+    }
+
+    /**
+     * Descarta lo escrito después del largo confirmado de cada segmento y los segmentos que el índice no tiene,
+     * que son restos de un archivado que no terminó.
+     *
+     * @throws IOException si no se pueden descartar, o si un segmento es más corto que su largo confirmado.
+     */
+    private void recuperar() throws IOException {
+        try (DirectoryStream<Path> archivos = Files.newDirectoryStream(directorio, "accidentes-*.gz")) {
+            for (Path archivo : archivos) {
+                String nombre = archivo.getFileName().toString();
+                YearMonth mes = YearMonth.parse(nombre.substring("accidentes-".length(), nombre.length() - ".gz".length()));
+                Long confirmado = longitudes.get(mes);
+                if (confirmado == null) {
+                    Files.delete(archivo);
+                    continue;
+                }
+                try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.WRITE)) {
+                    if (canal.size() < confirmado) {
+                        throw new IOException("El segmento " + archivo + " es más corto que lo registrado en el índice.");
+                    }
+                    if (canal.size() > confirmado) {
+                        canal.truncate(confirmado);
+                        canal.force(true);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Reescribe el índice de segmentos, reemplazando el anterior de una sola vez.
+     *
+     * @throws IOException si no se puede escribir el índice.
+     */
+    private void guardarIndice() throws IOException {
+        StringBuilder lineas = new StringBuilder();
+        for (Segmento segmento : segmentos.values()) {
+            lineas.append(CodificadorRegistro.unir(List.of(segmento.mes(), segmento.minimo(), segmento.maximo(),
+                    segmento.cantidad(), longitudes.get(segmento.mes())))).append('\n');
+        }
+        Path temporal = directorio.resolve(INDICE + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            canal.write(StandardCharsets.UTF_8.encode(lineas.toString()));
+            canal.force(true);
+        }
+        try {
+            Files.move(temporal, directorio.resolve(INDICE), StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporal, directorio.resolve(INDICE), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Obtiene el archivo del segmento de un mes.
+     *
+     * @param mes El mes.
+     * @return La ruta del segmento.
+     */
+    private Path archivoDe(YearMonth mes) {
+        return directorio.resolve("accidentes-" + mes + ".gz");
+    }
+}
@@ -0,0 +1,570 @@
+package org.example.gestion;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+/*
+ *
+ * @author Judith Vergara
+ * @version 1.0
+ */
+
+/**
+ * Asigna profesionales a las visitas en terreno, equilibrando la cantidad de visitas de cada uno.
+ * <p>
+ * Una visita puede exigir una especialidad: solo la pueden atender los profesionales cuyo título normalizado
+ * contiene esa especialidad normalizada. Un profesional no puede tener dos visitas que se traslapen, considerando
+ * que cada visita dura una cantidad fija de minutos.
+ * </p>
+ * <p>
+ * Los profesionales que pueden atender cada especialidad se mantienen en un conjunto ordenado por carga, por lo
+ * que el menos cargado se obtiene en tiempo logarítmico; la agenda de cada profesional está ordenada por hora, y
+ * revisar si una visita choca con otra es una búsqueda en ella. Cada visita nueva se asigna al profesional menos
+ * cargado que esté libre; al cancelar una se intenta ubicar las pendientes y traer una visita del profesional más
+ * cargado, sin volver a planificar el resto. {@link #rebalancear()} aplica una búsqueda local que mueve visitas
+ * de los profesionales más cargados a los menos cargados hasta que ninguno tenga más de una visita sobre el
+ * mínimo de su especialidad, o no haya movimientos posibles.
+ * </p>
+ * <p>
+ * Las visitas sin fecha o sin hora no se pueden ubicar en una agenda: quedan pendientes, sin asignarse a nadie,
+ * hasta que se cancelan. Para asignarlas una vez completadas se cancelan y se vuelven a agregar.
+ * </p>
+ */
+public class AsignadorVisitas {
+
+    // Principio Abierto/Cerrado (OCP): la especialidad que exige cada visita se recibe como función, sin modificar la clase.
+
+    /**
+     * Duración de una visita, en minutos, si no se indica otra.
+     */
+    public static final int DURACION_POR_DEFECTO = 120;
+    /**
+     * Cantidad máxima de pasadas de la búsqueda local.
+     */
+    private static final int PASADAS_BUSQUEDA_LOCAL = 4;
+
+    /**
+     * Duración de cada visita, en minutos.
+     */
+    private final int duracion;
+    /**
+     * Especialidad que exige una visita, o null si la puede atender cualquier profesional.
+     */
+    private final Function<VisitaEnTerreno, String> especialidad;
+    /**
+     * Profesionales por RUN, con su carga.
+     */
+    private final Map<Long, Carga> profesionales = new HashMap<>();
+    /**
+     * Profesionales que pueden atender cada especialidad normalizada, ordenados por carga.
+     */
+    private final Map<String, TreeSet<Carga>> grupos = new HashMap<>();
+    /**
+     * Visitas asignadas, con su profesional.
+     */
+    private final Map<VisitaEnTerreno, Asignacion> asignaciones = new IdentityHashMap<>();
+    /**
+     * Visitas sin profesional disponible, por especialidad normalizada.
+     */
+    private final Map<String, Set<VisitaEnTerreno>> pendientes = new HashMap<>();
+    /**
+     * Visitas pendientes que no tienen fecha u hora.
+     */
+    private final Set<VisitaEnTerreno> sinHorario = Collections.newSetFromMap(new IdentityHashMap<>());
+    /**
+     * Contador para desempatar profesionales con la misma carga.
+     */
+    private int ordenProfesionales;
+
+    /**
+     * Crea un asignador sin exigencias de especialidad y con visitas de {@value #DURACION_POR_DEFECTO} minutos.
+     */
+    public AsignadorVisitas() {
+        this(visita -> null, DURACION_POR_DEFECTO);
+    }
+
+    /**
+     * Crea un asignador.
+     *
+     * @param especialidad Función que indica la especialidad que exige cada visita, o null si no exige ninguna.
+     * @param duracion La duración de cada visita, en minutos.
+     * @throws IllegalArgumentException si la función es nula o la duración no es positiva.
+     */
+    public AsignadorVisitas(Function<VisitaEnTerreno, String> especialidad, int duracion) {
+        if (especialidad == null) {
+            throw new IllegalArgumentException("La función de especialidad no puede ser nula.");
+        }
+        if (duracion <= 0) {
+            throw new IllegalArgumentException("La duración de las visitas debe ser mayor que cero.");
+        }
+        this.especialidad = especialidad;
+        this.duracion = duracion;
+    }
+
+    /**
+     * Agrega un profesional y le asigna las visitas pendientes que pueda atender.
+     *
+     * @param profesional El profesional.
+     * @return true si se agregó, false si es nulo o ya estaba agregado.
+     */
+    public boolean agregarProfesional(Profesional profesional) {
+        if (profesional == null || profesionales.containsKey(profesional.getRun())) {
+            return false;
+        }
+        Carga carga = new Carga(profesional, Indices.clave(profesional.getTitulo()), ordenProfesionales++);
+        profesionales.put(profesional.getRun(), carga);
+        for (Map.Entry<String, TreeSet<Carga>> grupo : grupos.entrySet()) {
+            if (carga.atiende(grupo.getKey())) {
+                grupo.getValue().add(carga);
+                carga.grupos.add(grupo.getKey());
+            }
+        }
+        asignarPendientes(carga);
+        return true;
+    }
+
+    /**
+     * Quita un profesional y reasigna sus visitas a los demás; las que no se pueden reasignar quedan pendientes.
+     *
+     * @param run El RUN del profesional.
+     * @return true si se quitó, false si no estaba agregado.
+     */
+    public boolean quitarProfesional(long run) {
+        Carga carga = profesionales.remove(run);
+        if (carga == null) {
+            return false;
+        }
+        for (String clave : carga.grupos) {
+            grupos.get(clave).remove(carga);
+        }
+        for (VisitaEnTerreno visita : carga.agenda.values()) {
+            asignaciones.remove(visita);
+            asignar(visita);
+        }
+        return true;
+    }
+
+    /**
+     * Planifica desde cero un conjunto de visitas, descartando las asignaciones anteriores.
+     * <p>
+     * Se asignan primero las visitas con menos profesionales que las pueden atender, cada una al menos cargado
+     * que esté libre, y luego se aplica la búsqueda local de {@link #rebalancear()}.
+     * </p>
+     *
+     * @param visitas Las visitas a planificar.
+     * @return La cantidad de visitas que quedaron asignadas.
+     */
+    public int planificar(Collection<VisitaEnTerreno> visitas) {
+        for (Carga carga : profesionales.values()) {
+            for (String clave : carga.grupos) {
+                grupos.get(clave).remove(carga);
+            }
+            carga.agenda.clear();
+            for (String clave : carga.grupos) {
+                grupos.get(clave).add(carga);
+            }
+        }
+        asignaciones.clear();
+        pendientes.clear();
+        sinHorario.clear();
+
+        List<VisitaEnTerreno> orden = new ArrayList<>(visitas.size());
+        for (VisitaEnTerreno visita : visitas) {
+            if (tieneHorario(visita)) {
+                orden.add(visita);
+            } else {
+                sinHorario.add(visita);
+            }
+        }
+        Map<VisitaEnTerreno, Integer> candidatos = new IdentityHashMap<>();
+        for (VisitaEnTerreno visita : orden) {
+            candidatos.put(visita, grupo(claveEspecialidad(visita)).size());
+        }
+        orden.sort(Comparator.comparing((VisitaEnTerreno visita) -> candidatos.get(visita))
+                .thenComparingLong(this::inicio));
+        int asignadas = 0;
+        for (VisitaEnTerreno visita : orden) {
+            if (asignar(visita) != null) {
+                asignadas++;
+            }
+        }
+        rebalancear();
+        return asignadas;
+    }
+
+    /**
+     * Asigna una visita nueva al profesional menos cargado que la pueda atender y esté libre a esa hora.
+     * Si no hay ninguno, la visita queda pendiente hasta que se libere o se agregue un profesional. Si no tiene
+     * fecha u hora, queda pendiente hasta que se cancele.
+     *
+     * @param visita La visita.
+     * @return El profesional asignado, o null si la visita quedó pendiente.
+     * @throws IllegalArgumentException si la visita es nula o ya fue agregada.
+     */
+    public Profesional agregar(VisitaEnTerreno visita) {
+        if (visita == null) {
+            throw new IllegalArgumentException("La visita no puede ser nula.");
+        }
+        String clave = claveEspecialidad(visita);
+        if (asignaciones.containsKey(visita) || sinHorario.contains(visita)
+                || pendientes.getOrDefault(clave, Set.of()).contains(visita)) {
+            throw new IllegalArgumentException("La visita ya fue agregada.");
+        }
+        if (!tieneHorario(visita)) {
+            sinHorario.add(visita);
+            return null;
+        }
+        return asignar(visita);
+    }
+
+    /**
+     * Cancela una visita. El profesional que la tenía intenta tomar una visita pendiente y, si queda con dos o
+     * más visitas menos que el más cargado de su especialidad, una de las de ese profesional.
+     *
+     * @param visita La visita.
+     * @return true si se canceló, false si no estaba agregada.
+     */
+    public boolean cancelar(VisitaEnTerreno visita) {
+        Asignacion asignacion = asignaciones.remove(visita);
+        if (asignacion == null) {
+            if (sinHorario.remove(visita)) {
+                return true;
+            }
+            for (Set<VisitaEnTerreno> visitas : pendientes.values()) {
+                if (visitas.remove(visita)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        Carga carga = asignacion.carga();
+        actualizar(carga, () -> carga.agenda.remove(asignacion.inicio()));
+        if (!asignarPendientes(carga)) {
+            for (String clave : carga.grupos) {
+                Carga masCargada = grupos.get(clave).last();
+                if (masCargada.agenda.size() > carga.agenda.size() + 1 && moverUna(masCargada, clave, carga)) {
+                    break;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Mueve visitas de los profesionales más cargados a los menos cargados de cada especialidad, mientras alguno
+     * tenga más de una visita sobre el mínimo y exista un profesional libre a la hora de alguna de sus visitas.
+     * Cada movimiento reduce la diferencia entre ambos, por lo que la búsqueda siempre termina.
+     *
+     * @return La cantidad de visitas movidas.
+     */
+    public int rebalancear() {
+        int movidas = 0;
+        for (int pasada = 0; pasada < PASADAS_BUSQUEDA_LOCAL; pasada++) {
+            int movidasPasada = 0;
+            for (Map.Entry<String, TreeSet<Carga>> grupo : grupos.entrySet()) {
+                movidasPasada += equilibrar(grupo.getKey(), grupo.getValue());
+            }
+            movidas += movidasPasada;
+            if (movidasPasada == 0) {
+                break;
+            }
+        }
+        return movidas;
+    }
+
+    /**
+     * Obtiene el profesional asignado a una visita.
+     *
+     * @param visita La visita.
+     * @return El profesional, o null si la visita está pendiente o no fue agregada.
+     */
+    public Profesional getProfesional(VisitaEnTerreno visita) {
+        Asignacion asignacion = asignaciones.get(visita);
+        return asignacion == null ? null : asignacion.carga().profesional;
+    }
+
+    /**
+     * Obtiene las visitas asignadas a un profesional, ordenadas por fecha y hora.
+     *
+     * @param run El RUN del profesional.
+     * @return Las visitas, o una lista vacía si el profesional no está agregado.
+     */
+    public List<VisitaEnTerreno> getAgenda(long run) {
+        Carga carga = profesionales.get(run);
+        return carga == null ? List.of() : List.copyOf(carga.agenda.values());
+    }
+
+    /**
+     * Obtiene las visitas que no tienen profesional asignado, incluidas las que no tienen fecha u hora.
+     *
+     * @return Las visitas pendientes.
+     */
+    public List<VisitaEnTerreno> getPendientes() {
+        List<VisitaEnTerreno> resultado = new ArrayList<>();
+        pendientes.values().forEach(resultado::addAll);
+        resultado.addAll(sinHorario);
+        return resultado;
+    }
+
+    /**
+     * Asigna una visita al profesional menos cargado que la pueda atender, o la deja pendiente.
+     *
+     * @param visita La visita.
+     * @return El profesional asignado, o null si quedó pendiente.
+     */
+    private Profesional asignar(VisitaEnTerreno visita) {
+        String clave = claveEspecialidad(visita);
+        long inicio = inicio(visita);
+        for (Carga carga : grupo(clave)) {
+            if (carga.libre(inicio, duracion)) {
+                ocupar(carga, visita, inicio, clave);
+                return carga.profesional;
+            }
+        }
+        pendientes.computeIfAbsent(clave, k -> new LinkedHashSet<>()).add(visita);
+        return null;
+    }
+
+    /**
+     * Asigna a un profesional las visitas pendientes que puede atender y que no chocan con su agenda.
+     *
+     * @param carga El profesional.
+     * @return true si tomó alguna visita.
+     */
+    private boolean asignarPendientes(Carga carga) {
+        boolean asignada = false;
+        for (String clave : carga.grupos) {
+            Set<VisitaEnTerreno> visitas = pendientes.get(clave);
+            if (visitas == null) {
+                continue;
+            }
+            for (Iterator<VisitaEnTerreno> iterador = visitas.iterator(); iterador.hasNext(); ) {
+                VisitaEnTerreno visita = iterador.next();
+                long inicio = inicio(visita);
+                if (carga.libre(inicio, duracion)) {
+                    iterador.remove();
+                    ocupar(carga, visita, inicio, clave);
+                    asignada = true;
+                }
+            }
+        }
+        return asignada;
+    }
+
+    /**
+     * Equilibra la carga de los profesionales de una especialidad.
+     *
+     * @param clave La especialidad normalizada.
+     * @param grupo Los profesionales de la especialidad.
+     * @return La cantidad de visitas movidas.
+     */
+    private int equilibrar(String clave, TreeSet<Carga> grupo) {
+        int movidas = 0;
+        for (Carga origen : new ArrayList<>(grupo.descendingSet())) {
+            if (origen.agenda.size() <= grupo.first().agenda.size() + 1) {
+                break;
+            }
+            while (origen.agenda.size() > grupo.first().agenda.size() + 1 && moverUna(origen, clave, null)) {
+                movidas++;
+            }
+        }
+        return movidas;
+    }
+
+    /**
+     * Mueve una visita de la especialidad indicada desde un profesional a otro con al menos dos visitas menos.
+     *
+     * @param origen El profesional que entrega la visita.
+     * @param clave La especialidad normalizada de la visita.
+     * @param destino El profesional que la recibe, o null para buscar el menos cargado que esté libre.
+     * @return true si se movió una visita.
+     */
+    private boolean moverUna(Carga origen, String clave, Carga destino) {
+        TreeSet<Carga> grupo = grupos.get(clave);
+        for (VisitaEnTerreno visita : origen.agenda.values()) {
+            Asignacion asignacion = asignaciones.get(visita);
+            if (!asignacion.especialidad().equals(clave)) {
+                continue;
+            }
+            Iterable<Carga> candidatos = destino == null ? grupo : List.of(destino);
+            for (Carga candidato : candidatos) {
+                if (candidato.agenda.size() + 1 >= origen.agenda.size()) {
+                    break;
+                }
+                if (candidato.libre(asignacion.inicio(), duracion)) {
+                    actualizar(origen, () -> origen.agenda.remove(asignacion.inicio()));
+                    ocupar(candidato, visita, asignacion.inicio(), clave);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Agrega una visita a la agenda de un profesional.
+     *
+     * @param carga El profesional.
+     * @param visita La visita.
+     * @param inicio La clave temporal del inicio de la visita.
+     * @param clave La especialidad normalizada de la visita.
+     */
+    private void ocupar(Carga carga, VisitaEnTerreno visita, long inicio, String clave) {
+        actualizar(carga, () -> carga.agenda.put(inicio, visita));
+        asignaciones.put(visita, new Asignacion(carga, inicio, clave));
+    }
+
+    /**
+     * Aplica un cambio a la agenda de un profesional, reubicándolo en los conjuntos ordenados por carga.
+     *
+     * @param carga El profesional.
+     * @param cambio El cambio a su agenda.
+     */
+    private void actualizar(Carga carga, Runnable cambio) {
+        for (String clave : carga.grupos) {
+            grupos.get(clave).remove(carga);
+        }
+        cambio.run();
+        for (String clave : carga.grupos) {
+            grupos.get(clave).add(carga);
+        }
+    }
+
+    /**
+     * Obtiene los profesionales que pueden atender una especialidad, creando el grupo la primera vez.
+     *
+     * @param clave La especialidad normalizada; la cadena vacía la pueden atender todos.
+     * @return Los profesionales, ordenados de menor a mayor carga.
+     */
+    private TreeSet<Carga> grupo(String clave) {
+        TreeSet<Carga> grupo = grupos.get(clave);
+        if (grupo == null) {
+            grupo = new TreeSet<>(Comparator.comparingInt((Carga carga) -> carga.agenda.size())
+                    .thenComparingInt(carga -> carga.orden));
+            for (Carga carga : profesionales.values()) {
+                if (carga.atiende(clave)) {
+                    grupo.add(carga);
+                    carga.grupos.add(clave);
+                }
+            }
+            grupos.put(clave, grupo);
+        }
+        return grupo;
+    }
+
+    /**
+     * Obtiene la especialidad normalizada que exige una visita.
+     *
+     * @param visita La visita.
+     * @return La especialidad, o la cadena vacía si no exige ninguna.
+     */
+    private String claveEspecialidad(VisitaEnTerreno visita) {
+        return Indices.clave(especialidad.apply(visita));
+    }
+
+    /**
+     * Indica si una visita tiene fecha y hora, y por lo tanto se puede ubicar en una agenda.
+     *
+     * @param visita La visita.
+     * @return true si tiene fecha y hora.
+     */
+    private static boolean tieneHorario(VisitaEnTerreno visita) {
+        return visita.getDia() != null && visita.getHora() != null;
+    }
+
+    /**
+     * Obtiene la clave temporal del inicio de una visita con fecha y hora.
+     *
+     * @param visita La visita.
+     * @return La clave temporal.
+     */
+    private long inicio(VisitaEnTerreno visita) {
+        return LineaDeTiempo.clave(visita.getDia(), visita.getHora());
+    }
+
+    /**
+     * Asignación de una visita, con los datos con que se agregó a la agenda.
+     *
+     * @param carga El profesional asignado.
+     * @param inicio La clave temporal del inicio de la visita.
+     * @param especialidad La especialidad normalizada de la visita.
+     */
+    private record Asignacion(Carga carga, long inicio, String especialidad) {
+    }
+
+    /**
+     * Profesional con su agenda.
+     */
+    private static final class Carga {
+
+        /**
+         * El profesional.
+         */
+        private final Profesional profesional;
+        /**
+         * Título normalizado del profesional.
+         */
+        private final String titulo;
+        /**
+         * Orden en que se agregó, para desempatar.
+         */
+        private final int orden;
+        /**
+         * Visitas asignadas por clave temporal de inicio.
+         */
+        private final TreeMap<Long, VisitaEnTerreno> agenda = new TreeMap<>();
+        /**
+         * Especialidades normalizadas que atiende, entre las de los grupos creados.
+         */
+        private final List<String> grupos = new ArrayList<>();
+
+        /**
+         * Crea la carga de un profesional sin visitas.
+         *
+         * @param profesional El profesional.
+         * @param titulo Su título normalizado.
+         * @param orden Su orden de llegada.
+         */
+        Carga(Profesional profesional, String titulo, int orden) {
+            this.profesional = profesional;
+            this.titulo = titulo;
+            this.orden = orden;
+        }
+
+        /**
+         * Indica si el profesional puede atender una especialidad.
+         *
+         * @param especialidad La especialidad normalizada.
+         * @return true si su título la contiene.
+         */
+        boolean atiende(String especialidad) {
+            return titulo.contains(especialidad);
+        }
+
+        /**
+         * Indica si el profesional no tiene visitas que se traslapen con un horario.
+         *
+         * @param inicio La clave temporal del inicio.
+         * @param duracion La duración en minutos.
+         * @return true si está libre.
+         */
+        boolean libre(long inicio, int duracion) {
+            Long anterior = agenda.floorKey(inicio);
+            Long siguiente = agenda.ceilingKey(inicio);
+            return (anterior == null || anterior + duracion <= inicio)
+                    && (siguiente == null || siguiente >= inicio + duracion);
+        }
+    }
+}
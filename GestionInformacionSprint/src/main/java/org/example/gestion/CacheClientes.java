@@ -0,0 +1,487 @@
+package org.example.gestion;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongFunction;
+
+/*
+ *
+ * @author Judith Vergara
+ * @version 1.0
+ */
+
+/**
+ * Caché acotada de clientes por RUN, con expulsión según frecuencia de uso al estilo W-TinyLFU.
+ * <p>
+ * Los clientes nuevos entran a una ventana pequeña ordenada por uso reciente (1% de la capacidad). Al salir de la
+ * ventana compiten por un lugar en la zona principal: solo desplazan a la víctima de la zona principal si se han
+ * pedido más veces que ella. La frecuencia se estima con un contador aproximado (Count-Min) de 4 bits por celda
+ * que se reduce a la mitad periódicamente, de modo que los clientes consultados muchas veces se quedan en memoria
+ * aunque un recorrido de clientes fríos pase por la caché. La zona principal se divide en un segmento de prueba y
+ * uno protegido (80%) para los clientes que se volvieron a pedir.
+ * </p>
+ * <p>
+ * Los aciertos se responden desde un mapa concurrente sin tomar el bloqueo: el uso se anota en un búfer que se
+ * aplica a las frecuencias y al orden de los segmentos cuando se llena y el bloqueo está libre. Si el búfer está
+ * lleno el uso se descarta, ya que las frecuencias son aproximadas de todas formas. Los fallos sí toman el bloqueo.
+ * </p>
+ * <p>
+ * Los clientes se cargan con la función indicada fuera del bloqueo, como en {@link CacheTexto}. La caché guarda
+ * la misma instancia que entrega la función, por lo que los cambios hechos con los setters se ven sin invalidar.
+ * Una entrada cuyo cliente cambió de RUN se descarta al encontrarla y es la primera en expulsarse al faltar
+ * espacio. {@link #invalidar(long)} debe llamarse con el RUN anterior y el nuevo al cambiar el RUN de un cliente,
+ * y al eliminarlo.
+ * </p>
+ */
+public class CacheClientes {
+
+    // Principio de Abierto/Cerrado (OCP): la caché no sabe de dónde vienen los clientes; el origen se inyecta como función.
+
+    /**
+     * Estadísticas de uso de la caché.
+     *
+     * @param aciertos Consultas respondidas desde la caché.
+     * @param fallos Consultas que tuvieron que cargar el cliente.
+     * @param expulsiones Clientes descartados por falta de capacidad.
+     * @param tamano Cantidad de clientes en la caché.
+     */
+    public record Estadisticas(long aciertos, long fallos, long expulsiones, int tamano) {
+
+        /**
+         * Obtiene la proporción de consultas respondidas desde la caché.
+         *
+         * @return La tasa de aciertos, entre 0 y 1.
+         */
+        public double tasaAciertos() {
+            long total = aciertos + fallos;
+            return total == 0 ? 0 : (double) aciertos / total;
+        }
+    }
+
+    /**
+     * Usos anotados en el búfer que se aplican de una vez.
+     */
+    private static final int LOTE_LECTURAS = 64;
+    /**
+     * Usos que puede acumular el búfer antes de empezar a descartarlos.
+     */
+    private static final int MAXIMO_LECTURAS = 16 * LOTE_LECTURAS;
+
+    /**
+     * Capacidad de la ventana de admisión.
+     */
+    private final int capacidadVentana;
+    /**
+     * Capacidad del segmento protegido.
+     */
+    private final int capacidadProtegido;
+    /**
+     * Capacidad total de la zona principal.
+     */
+    private final int capacidadPrincipal;
+    /**
+     * Clientes recién cargados, en orden de uso.
+     */
+    private final LinkedHashMap<Long, Cliente> ventana = new LinkedHashMap<>(16, 0.75f, true);
+    /**
+     * Clientes admitidos en la zona principal que no se han vuelto a pedir, en orden de uso.
+     */
+    private final LinkedHashMap<Long, Cliente> prueba = new LinkedHashMap<>(16, 0.75f, true);
+    /**
+     * Clientes de la zona principal pedidos más de una vez, en orden de uso.
+     */
+    private final LinkedHashMap<Long, Cliente> protegido = new LinkedHashMap<>(16, 0.75f, true);
+    /**
+     * Todos los clientes de los tres segmentos, para responder los aciertos sin bloquear.
+     */
+    private final Map<Long, Cliente> residentes = new ConcurrentHashMap<>();
+    /**
+     * RUN de los aciertos que todavía no se aplican a las frecuencias ni al orden de uso.
+     */
+    private final Queue<Long> lecturas = new ConcurrentLinkedQueue<>();
+    /**
+     * Cantidad de usos en el búfer.
+     */
+    private final AtomicInteger lecturasPendientes = new AtomicInteger();
+    /**
+     * Protege los segmentos, el estimador de frecuencia y los contadores de fallos y expulsiones.
+     */
+    private final ReentrantLock bloqueo = new ReentrantLock();
+    /**
+     * Estimador de frecuencia.
+     */
+    private final Frecuencias frecuencias;
+    /**
+     * Se incrementa en cada invalidación, para no guardar un cliente cargado antes de ser invalidado.
+     */
+    private long generacion;
+    /**
+     * Consultas respondidas desde la caché.
+     */
+    private final LongAdder aciertos = new LongAdder();
+    /**
+     * Consultas que tuvieron que cargar el cliente.
+     */
+    private long fallos;
+    /**
+     * Clientes descartados por falta de capacidad.
+     */
+    private long expulsiones;
+
+    /**
+     * Crea una caché con la capacidad indicada.
+     *
+     * @param capacidad Cantidad máxima de clientes que se conservan.
+     * @throws IllegalArgumentException si la capacidad es menor a 2.
+     */
+    public CacheClientes(int capacidad) {
+        if (capacidad < 2) {
+            throw new IllegalArgumentException("La capacidad de la caché debe ser al menos 2.");
+        }
+        this.capacidadVentana = Math.max(1, capacidad / 100);
+        this.capacidadPrincipal = capacidad - capacidadVentana;
+        this.capacidadProtegido = capacidadPrincipal * 4 / 5;
+        this.frecuencias = new Frecuencias(capacidad);
+    }
+
+    /**
+     * Obtiene un cliente, cargándolo solo si no está en la caché.
+     *
+     * @param run El RUN del cliente.
+     * @param cargador Carga el cliente cuando no está en la caché; puede devolver null.
+     * @return El cliente, o null si el cargador no lo encuentra.
+     */
+    public Cliente obtener(long run, LongFunction<Cliente> cargador) {
+        Cliente residente = residentes.get(run);
+        if (residente != null && residente.getRun() == run) {
+            aciertos.increment();
+            anotarLectura(run);
+            return residente;
+        }
+        long generacionCarga;
+        bloqueo.lock();
+        try {
+            aplicarLecturas();
+            frecuencias.incrementar(run);
+            Cliente cliente = buscar(run);
+            if (cliente != null) {
+                aciertos.increment();
+                return cliente;
+            }
+            fallos++;
+            generacionCarga = generacion;
+        } finally {
+            bloqueo.unlock();
+        }
+        // El cliente se carga fuera del bloqueo para no detener a otros hilos mientras se lee del origen
+        Cliente cliente = cargador.apply(run);
+        if (cliente == null) {
+            return null;
+        }
+        bloqueo.lock();
+        try {
+            if (generacion == generacionCarga && cliente.getRun() == run && !contiene(run)) {
+                admitir(run, cliente);
+            }
+        } finally {
+            bloqueo.unlock();
+        }
+        return cliente;
+    }
+
+    /**
+     * Descarta el cliente con el RUN indicado, si está en la caché. Las cargas que estaban en curso no se guardan.
+     *
+     * @param run El RUN del cliente.
+     */
+    public void invalidar(long run) {
+        bloqueo.lock();
+        try {
+            generacion++;
+            quitar(run);
+        } finally {
+            bloqueo.unlock();
+        }
+    }
+
+    /**
+     * Obtiene las estadísticas de uso de la caché.
+     *
+     * @return Aciertos, fallos, expulsiones y tamaño actual.
+     */
+    public Estadisticas getEstadisticas() {
+        bloqueo.lock();
+        try {
+            return new Estadisticas(aciertos.sum(), fallos, expulsiones, ventana.size() + prueba.size() + protegido.size());
+        } finally {
+            bloqueo.unlock();
+        }
+    }
+
+    /**
+     * Anota un acierto en el búfer, o lo descarta si está lleno. Si el búfer completó un lote y nadie tiene el
+     * bloqueo, aplica los usos anotados.
+     *
+     * @param run El RUN del cliente.
+     */
+    private void anotarLectura(long run) {
+        int pendientes = lecturasPendientes.incrementAndGet();
+        if (pendientes > MAXIMO_LECTURAS) {
+            lecturasPendientes.decrementAndGet();
+        } else {
+            lecturas.offer(run);
+        }
+        if (pendientes >= LOTE_LECTURAS && bloqueo.tryLock()) {
+            try {
+                aplicarLecturas();
+            } finally {
+                bloqueo.unlock();
+            }
+        }
+    }
+
+    /**
+     * Aplica los usos del búfer a las frecuencias y al orden de los segmentos. Se llama con el bloqueo tomado.
+     */
+    private void aplicarLecturas() {
+        Long run;
+        while ((run = lecturas.poll()) != null) {
+            lecturasPendientes.decrementAndGet();
+            frecuencias.incrementar(run);
+            buscar(run);
+        }
+    }
+
+    /**
+     * Busca un cliente en los tres segmentos, ascendiendo al protegido si estaba a prueba.
+     * Descarta la entrada si el cliente cambió de RUN.
+     *
+     * @param run El RUN del cliente.
+     * @return El cliente, o null si no está.
+     */
+    private Cliente buscar(long run) {
+        Cliente cliente = protegido.get(run);
+        if (cliente == null) {
+            cliente = ventana.get(run);
+        }
+        if (cliente == null) {
+            cliente = prueba.remove(run);
+            if (cliente != null) {
+                protegido.put(run, cliente);
+                degradarProtegido();
+            }
+        }
+        if (cliente != null && cliente.getRun() != run) {
+            quitar(run);
+            return null;
+        }
+        return cliente;
+    }
+
+    /**
+     * Indica si el RUN está en algún segmento.
+     *
+     * @param run El RUN del cliente.
+     * @return true si está en la caché.
+     */
+    private boolean contiene(long run) {
+        return ventana.containsKey(run) || prueba.containsKey(run) || protegido.containsKey(run);
+    }
+
+    /**
+     * Quita un RUN de todos los segmentos.
+     *
+     * @param run El RUN del cliente.
+     */
+    private void quitar(long run) {
+        if (ventana.remove(run) == null && prueba.remove(run) == null) {
+            protegido.remove(run);
+        }
+        residentes.remove(run);
+    }
+
+    /**
+     * Si el segmento protegido superó su capacidad, devuelve a prueba su cliente usado hace más tiempo.
+     */
+    private void degradarProtegido() {
+        if (protegido.size() > capacidadProtegido) {
+            Map.Entry<Long, Cliente> degradado = quitarMayor(protegido);
+            prueba.put(degradado.getKey(), degradado.getValue());
+        }
+    }
+
+    /**
+     * Agrega un cliente recién cargado a la ventana. Si la ventana se llena, su cliente usado hace más tiempo
+     * compite con la víctima de la zona principal y se queda el que se ha pedido más veces.
+     *
+     * @param run El RUN del cliente.
+     * @param cliente El cliente.
+     */
+    private void admitir(long run, Cliente cliente) {
+        ventana.put(run, cliente);
+        residentes.put(run, cliente);
+        if (ventana.size() <= capacidadVentana) {
+            return;
+        }
+        Map.Entry<Long, Cliente> candidato = quitarMayor(ventana);
+        if (prueba.size() + protegido.size() >= capacidadPrincipal) {
+            quitarObsoleta();
+        }
+        if (prueba.size() + protegido.size() < capacidadPrincipal) {
+            prueba.put(candidato.getKey(), candidato.getValue());
+            return;
+        }
+        LinkedHashMap<Long, Cliente> segmentoVictima = prueba.isEmpty() ? protegido : prueba;
+        long victima = segmentoVictima.keySet().iterator().next();
+        expulsiones++;
+        if (frecuencias.estimar(candidato.getKey()) > frecuencias.estimar(victima)) {
+            segmentoVictima.remove(victima);
+            residentes.remove(victima);
+            prueba.put(candidato.getKey(), candidato.getValue());
+        } else {
+            residentes.remove(candidato.getKey());
+        }
+    }
+
+    /**
+     * Quita de la zona principal la entrada usada hace más tiempo cuyo cliente cambió de RUN, si la hay entre las
+     * primeras de cada segmento, para que ocupe el lugar antes que un cliente vigente.
+     */
+    private void quitarObsoleta() {
+        for (LinkedHashMap<Long, Cliente> segmento : List.of(prueba, protegido)) {
+            int revisadas = 0;
+            for (Map.Entry<Long, Cliente> entrada : segmento.entrySet()) {
+                if (entrada.getValue().getRun() != entrada.getKey()) {
+                    quitar(entrada.getKey());
+                    return;
+                }
+                if (++revisadas == LOTE_LECTURAS) {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Quita y devuelve la entrada usada hace más tiempo de un segmento.
+     *
+     * @param segmento El segmento.
+     * @return La entrada quitada.
+     */
+    private static Map.Entry<Long, Cliente> quitarMayor(LinkedHashMap<Long, Cliente> segmento) {
+        Iterator<Map.Entry<Long, Cliente>> iterador = segmento.entrySet().iterator();
+        Map.Entry<Long, Cliente> entrada = iterador.next();
+        Map.Entry<Long, Cliente> mayor = Map.entry(entrada.getKey(), entrada.getValue());
+        iterador.remove();
+        return mayor;
+    }
+
+    /**
+     * Estimador aproximado de frecuencias (Count-Min) con contadores de 4 bits, 16 por cada {@code long}.
+     * Cuando la cantidad de incrementos alcanza diez veces la capacidad de la caché, todos los contadores se
+     * reducen a la mitad para que las frecuencias antiguas pierdan peso.
+     */
+    private static final class Frecuencias {
+
+        /**
+         * Semillas de las cuatro funciones de dispersión.
+         */
+        private static final long[] SEMILLAS = {
+                0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L};
+        /**
+         * Máscara de los bits altos de cada contador, para reducirlos a la mitad.
+         */
+        private static final long MASCARA_MITAD = 0x7777777777777777L;
+
+        /**
+         * Contadores, 16 por elemento.
+         */
+        private final long[] tabla;
+        /**
+         * Incrementos que provocan la reducción a la mitad.
+         */
+        private final int limiteMuestras;
+        /**
+         * Incrementos desde la última reducción.
+         */
+        private int muestras;
+
+        /**
+         * Crea un estimador dimensionado para la capacidad de la caché.
+         *
+         * @param capacidad La capacidad de la caché.
+         */
+        Frecuencias(int capacidad) {
+            int largo = Integer.highestOneBit(Math.max(4, capacidad / 4) - 1) << 1;
+            this.tabla = new long[largo];
+            this.limiteMuestras = 10 * capacidad;
+        }
+
+        /**
+         * Registra un uso del RUN.
+         *
+         * @param run El RUN.
+         */
+        void incrementar(long run) {
+            boolean incrementado = false;
+            for (long semilla : SEMILLAS) {
+                int celda = celda(run, semilla);
+                int desplazamiento = desplazamiento(run, semilla);
+                if (((tabla[celda] >>> desplazamiento) & 0xF) < 0xF) {
+                    tabla[celda] += 1L << desplazamiento;
+                    incrementado = true;
+                }
+            }
+            if (incrementado && ++muestras >= limiteMuestras) {
+                for (int i = 0; i < tabla.length; i++) {
+                    tabla[i] = (tabla[i] >>> 1) & MASCARA_MITAD;
+                }
+                muestras /= 2;
+            }
+        }
+
+        /**
+         * Estima cuántas veces se usó el RUN desde las últimas reducciones.
+         *
+         * @param run El RUN.
+         * @return La menor cuenta de las cuatro funciones de dispersión.
+         */
+        int estimar(long run) {
+            int minimo = 0xF;
+            for (long semilla : SEMILLAS) {
+                minimo = Math.min(minimo, (int) ((tabla[celda(run, semilla)] >>> desplazamiento(run, semilla)) & 0xF));
+            }
+            return minimo;
+        }
+
+        /**
+         * Calcula la dispersión del RUN para una semilla.
+         */
+        private static long dispersar(long run, long semilla) {
+            long h = (run + semilla) * semilla;
+            return h ^ (h >>> 29);
+        }
+
+        /**
+         * Elemento de la tabla donde está el contador.
+         */
+        private int celda(long run, long semilla) {
+            return (int) (dispersar(run, semilla) >>> 32) & (tabla.length - 1);
+        }
+
+        /**
+         * Posición en bits del contador dentro de su elemento.
+         */
+        private static int desplazamiento(long run, long semilla) {
+            return (int) (dispersar(run, semilla) & 0xF) << 2;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package org.example.gestion;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/*
+ *
+ * @author Judith Vergara
+ * @version 1.0
+ */
+
+/**
+ * Caché acotada del texto generado para cada entidad.
+ * <p>
+ * Guarda el resultado de {@code toString()} o {@code mostrarDetalle()} para no volver a concatenarlo mientras
+ * la entidad no cambie. Las entidades invalidan su entrada desde cada setter. Cuando la caché supera su
+ * capacidad se descartan las entradas usadas hace más tiempo (LRU), por lo que la memoria queda acotada.
+ * </p>
+ * <p>
+ * Los aciertos se responden desde un mapa concurrente sin tomar ningún bloqueo, como en {@link CacheClientes}: cada
+ * entrada anota el momento de su último uso, y solo la expulsión toma un bloqueo. Para no ordenar las entradas en
+ * cada almacenamiento, la caché puede pasarse de su capacidad en una holgura de 1/16 y luego expulsa de una vez las
+ * menos usadas hasta volver a la capacidad.
+ * </p>
+ * <p>
+ * Las entradas se identifican por la instancia de la entidad: las entidades no redefinen {@code equals()} ni
+ * {@code hashCode()}, por lo que dos objetos distintos nunca comparten entrada.
+ * </p>
+ */
+public class CacheTexto {
+
+    // Principio de Responsabilidad Única (SRP): esta clase solo administra el texto ya generado; generarlo sigue siendo tarea de cada entidad.
+
+    /**
+     * Capacidad por defecto de las cachés compartidas.
+     */
+    public static final int CAPACIDAD_POR_DEFECTO = 10_000;
+
+    /**
+     * Caché compartida para el resultado de {@code toString()}.
+     */
+    static final CacheTexto DESCRIPCIONES = new CacheTexto(CAPACIDAD_POR_DEFECTO);
+
+    /**
+     * Caché compartida para el resultado de {@link Capacitacion#mostrarDetalle()}.
+     */
+    static final CacheTexto DETALLES = new CacheTexto(CAPACIDAD_POR_DEFECTO);
+
+    /**
+     * Cantidad máxima de textos que se conservan después de una expulsión.
+     */
+    private final int capacidad;
+    /**
+     * Cantidad de textos a partir de la cual se expulsan los menos usados.
+     */
+    private final int limite;
+    /**
+     * Textos generados, por entidad.
+     */
+    private final Map<Object, Entrada> textos = new ConcurrentHashMap<>();
+    /**
+     * Reloj lógico que avanza con cada texto guardado; marca el último uso de cada entrada.
+     */
+    private final AtomicLong reloj = new AtomicLong();
+    /**
+     * Se incrementa en cada invalidación, para no guardar un texto generado antes de que la entidad cambiara.
+     */
+    private final AtomicLong generacion = new AtomicLong();
+    /**
+     * Impide que dos hilos expulsen a la vez.
+     */
+    private final ReentrantLock expulsion = new ReentrantLock();
+
+    /**
+     * Crea una caché con la capacidad indicada.
+     *
+     * @param capacidad Cantidad máxima de textos que se conservan.
+     */
+    public CacheTexto(int capacidad) {
+        if (capacidad <= 0) {
+            throw new IllegalArgumentException("La capacidad de la caché debe ser mayor a 0.");
+        }
+        this.capacidad = capacidad;
+        this.limite = capacidad + Math.max(1, capacidad / 16);
+    }
+
+    /**
+     * Obtiene el texto de una entidad, generándolo solo si no está en la caché.
+     *
+     * @param entidad La entidad cuyo texto se solicita.
+     * @param generador Genera el texto cuando no está en la caché.
+     * @return El texto de la entidad.
+     */
+    public String obtener(Object entidad, Supplier<String> generador) {
+        Entrada entrada = textos.get(entidad);
+        if (entrada != null) {
+            long ahora = reloj.get();
+            if (entrada.usado != ahora) {
+                entrada.usado = ahora;
+            }
+            return entrada.texto;
+        }
+        long generacionTexto = generacion.get();
+        String texto = generador.get();
+        Entrada nueva = new Entrada(texto, reloj.incrementAndGet());
+        if (textos.putIfAbsent(entidad, nueva) == null) {
+            // Si hubo una invalidación mientras se generaba, el texto puede describir valores anteriores
+            if (generacion.get() != generacionTexto) {
+                textos.remove(entidad, nueva);
+            } else if (textos.size() > limite) {
+                expulsar();
+            }
+        }
+        return texto;
+    }
+
+    /**
+     * Descarta el texto guardado de una entidad. Se llama cada vez que la entidad cambia.
+     *
+     * @param entidad La entidad modificada.
+     */
+    public void invalidar(Object entidad) {
+        generacion.incrementAndGet();
+        textos.remove(entidad);
+    }
+
+    /**
+     * Obtiene la cantidad de textos guardados.
+     *
+     * @return La cantidad de textos en la caché.
+     */
+    public int tamano() {
+        return textos.size();
+    }
+
+    /**
+     * Descarta las entradas usadas hace más tiempo hasta dejar la caché en su capacidad. Si otro hilo ya está
+     * expulsando, no espera.
+     */
+    private void expulsar() {
+        if (!expulsion.tryLock()) {
+            return;
+        }
+        try {
+            int sobrantes = textos.size() - capacidad;
+            if (sobrantes <= 0) {
+                return;
+            }
+            // El último uso se copia antes de ordenar, ya que otros hilos lo siguen cambiando
+            List<Candidata> candidatas = new ArrayList<>(textos.size());
+            textos.forEach((entidad, entrada) -> candidatas.add(new Candidata(entidad, entrada, entrada.usado)));
+            candidatas.sort(Comparator.comparingLong(Candidata::usado));
+            for (int i = 0; i < sobrantes && i < candidatas.size(); i++) {
+                textos.remove(candidatas.get(i).entidad(), candidatas.get(i).entrada());
+            }
+        } finally {
+            expulsion.unlock();
+        }
+    }
+
+    /**
+     * Entrada que se considera para la expulsión, con su último uso al momento de considerarla.
+     *
+     * @param entidad La entidad.
+     * @param entrada La entrada.
+     * @param usado El último uso de la entrada.
+     */
+    private record Candidata(Object entidad, Entrada entrada, long usado) {
+    }
+
+    /**
+     * Texto guardado de una entidad.
+     */
+    private static final class Entrada {
+
+        /**
+         * El texto.
+         */
+        private final String texto;
+        /**
+         * Valor del reloj en el último uso. Se escribe sin bloqueo; un uso perdido solo adelanta la expulsión.
+         */
+        private volatile long usado;
+
+        /**
+         * Crea una entrada.
+         *
+         * @param texto El texto.
+         * @param usado Valor del reloj al guardarla.
+         */
+        private Entrada(String texto, long usado) {
+            this.texto = texto;
+            this.usado = usado;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.gestion;
+
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/*
+ *
+ * @author Judith Vergara
+ * @version 1.0
+ */
+
+/**
+ * Campos de una {@link Capacitacion} que se pueden modificar con
+ * {@link Contenedor#actualizarCapacitacion(int, java.util.Map)}.
+ */
+public enum CampoCapacitacion {
+
+    RUT_CLIENTE(Long.class, Capacitacion::getRutCliente, (c, v) -> c.setRutCliente((Long) v)),
+    DIA(String.class, Capacitacion::getDia, (c, v) -> c.setDia((String) v)),
+    HORA(String.class, Capacitacion::getHora, (c, v) -> c.setHora((String) v)),
+    LUGAR(String.class, Capacitacion::getLugar, (c, v) -> c.setLugar((String) v)),
+    DURACION(Integer.class, Capacitacion::getDuracion, (c, v) -> c.setDuracion((Integer) v)),
+    CANTIDAD_ASISTENTES(Integer.class, Capacitacion::getCantidadAsistentes,
+            (c, v) -> c.setCantidadAsistentes((Integer) v));
+
+    // Principio de Sustitución de Liskov (LSP): todas las constantes se leen y asignan igual, sea cual sea el tipo del valor.
+
+    /**
+     * Tipo del valor del campo.
+     */
+    private final Class<?> tipo;
+    /**
+     * Lee el valor del campo.
+     */
+    private final Function<Capacitacion, Object> lector;
+    /**
+     * Asigna el valor del campo.
+     */
+    private final BiConsumer<Capacitacion, Object> escritor;
+
+    CampoCapacitacion(Class<?> tipo, Function<Capacitacion, Object> lector, BiConsumer<Capacitacion, Object> escritor) {
+        this.tipo = tipo;
+        this.lector = lector;
+        this.escritor = escritor;
+    }
+
+    /**
+     * Obtiene el tipo del valor del campo.
+     *
+     * @return La clase del valor.
+     */
+    public Class<?> getTipo() {
+        return tipo;
+    }
+
+    /**
+     * Lee el valor del campo en una capacitación.
+     *
+     * @param capacitacion La capacitación.
+     * @return El valor actual del campo.
+     */
+    Object leer(Capacitacion capacitacion) {
+        return lector.apply(capacitacion);
+    }
+
+    /**
+     * Asigna el valor del campo en una capacitación, con las validaciones del setter.
+     *
+     * @param capacitacion La capacitación.
+     * @param valor El nuevo valor.
+     * @throws IllegalArgumentException si el valor no es del tipo del campo o el setter lo rechaza.
+     */
+    void escribir(Capacitacion capacitacion, Object valor) {
+        if (valor == null ? Number.class.isAssignableFrom(tipo) : !tipo.isInstance(valor)) {
+            throw new IllegalArgumentException("El campo " + this + " debe ser de tipo " + tipo.getSimpleName() + ".");
+        }
+        escritor.accept(capacitacion, valor);
+    }
+}
@@ -0,0 +1,111 @@
+package org.example.gestion;
+
+import java.time.LocalDate;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/*
+ *
+ * @author Judith Vergara
+ * @version 1.0
+ */
+
+/**
+ * Campos de un {@link Usuario} que se pueden modificar con {@link Contenedor#actualizarUsuario(long, java.util.Map)}.
+ * <p>
+ * Cada campo sabe a qué tipo de usuario pertenece, de qué tipo es su valor y cómo leerlo y asignarlo con los getters y
+ * setters de la entidad, de modo que un cambio se describe solo con el campo y su nuevo valor.
+ * </p>
+ */
+public enum CampoUsuario {
+
+    NOMBRE(Usuario.class, String.class, Usuario::getNombre, (u, v) -> u.setNombre((String) v)),
+    APELLIDOS(Usuario.class, String.class, Usuario::getApellidos, (u, v) -> u.setApellidos((String) v)),
+    FECHA_NACIMIENTO(Usuario.class, LocalDate.class, Usuario::getFechaNacimiento,
+            (u, v) -> u.setFechaNacimiento((LocalDate) v)),
+    RUN(Usuario.class, Long.class, Usuario::getRun, (u, v) -> u.setRun((Long) v)),
+    TELEFONO(Cliente.class, String.class, u -> ((Cliente) u).getTelefono(), (u, v) -> ((Cliente) u).setTelefono((String) v)),
+    AFP(Cliente.class, String.class, u -> ((Cliente) u).getAfp(), (u, v) -> ((Cliente) u).setAfp((String) v)),
+    SISTEMA_SALUD(Cliente.class, Integer.class, u -> ((Cliente) u).getSistemaSalud(),
+            (u, v) -> ((Cliente) u).setSistemaSalud((Integer) v)),
+    DIRECCION(Cliente.class, String.class, u -> ((Cliente) u).getDireccion(), (u, v) -> ((Cliente) u).setDireccion((String) v)),
+    COMUNA(Cliente.class, String.class, u -> ((Cliente) u).getComuna(), (u, v) -> ((Cliente) u).setComuna((String) v)),
+    EDAD(Cliente.class, Integer.class, u -> ((Cliente) u).getEdad(), (u, v) -> ((Cliente) u).setEdad((Integer) v)),
+    TITULO(Profesional.class, String.class, u -> ((Profesional) u).getTitulo(), (u, v) -> ((Profesional) u).setTitulo((String) v)),
+    FECHA_INGRESO(Profesional.class, LocalDate.class, u -> ((Profesional) u).getFechaIngreso(),
+            (u, v) -> ((Profesional) u).setFechaIngreso((LocalDate) v)),
+    AREA(Administrativo.class, String.class, u -> ((Administrativo) u).getArea(),
+            (u, v) -> ((Administrativo) u).setArea((String) v)),
+    EXPERIENCIA_PREVIA(Administrativo.class, String.class, u -> ((Administrativo) u).getExperienciaPrevia(),
+            (u, v) -> ((Administrativo) u).setExperienciaPrevia((String) v));
+
+    // Principio de Abierto/Cerrado (OCP): un campo nuevo se agrega como constante, sin tocar el contenedor ni el registro.
+
+    /**
+     * Tipo de usuario al que pertenece el campo.
+     */
+    private final Class<? extends Usuario> propietario;
+    /**
+     * Tipo del valor del campo.
+     */
+    private final Class<?> tipo;
+    /**
+     * Lee el valor del campo.
+     */
+    private final Function<Usuario, Object> lector;
+    /**
+     * Asigna el valor del campo.
+     */
+    private final BiConsumer<Usuario, Object> escritor;
+
+    CampoUsuario(Class<? extends Usuario> propietario, Class<?> tipo, Function<Usuario, Object> lector,
+                 BiConsumer<Usuario, Object> escritor) {
+        this.propietario = propietario;
+        this.tipo = tipo;
+        this.lector = lector;
+        this.escritor = escritor;
+    }
+
+    /**
+     * Obtiene el tipo del valor del campo.
+     *
+     * @return La clase del valor.
+     */
+    public Class<?> getTipo() {
+        return tipo;
+    }
+
+    /**
+     * Indica si el campo existe en el usuario indicado.
+     *
+     * @param usuario El usuario.
+     * @return true si el usuario es del tipo al que pertenece el campo.
+     */
+    public boolean aplicaA(Usuario usuario) {
+        return propietario.isInstance(usuario);
+    }
+
+    /**
+     * Lee el valor del campo en un usuario.
+     *
+     * @param usuario El usuario.
+     * @return El valor actual del campo.
+     */
+    Object leer(Usuario usuario) {
+        return lector.apply(usuario);
+    }
+
+    /**
+     * Asigna el valor del campo en un usuario, con las validaciones del setter.
+     *
+     * @param usuario El usuario.
+     * @param valor El nuevo valor.
+     * @throws IllegalArgumentException si el valor no es del tipo del campo o el setter lo rechaza.
+     */
+    void escribir(Usuario usuario, Object valor) {
+        if (valor == null ? Number.class.isAssignableFrom(tipo) : !tipo.isInstance(valor)) {
+            throw new IllegalArgumentException("El campo " + this + " debe ser de tipo " + tipo.getSimpleName() + ".");
+        }
+        escritor.accept(usuario, valor);
+    }
+}
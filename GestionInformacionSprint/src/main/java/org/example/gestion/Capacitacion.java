@@ -87,6 +87,7 @@ public class Capacitacion {
      */
     public void setRutCliente(long rutCliente) {
         this.rutCliente = rutCliente;
+        invalidarTexto();
     }
     /**
      * Obtiene el identificador de la capacitación.
@@ -98,11 +99,17 @@ public class Capacitacion {
     }
     /**
      * Establece el identificador de la capacitación.
+     * Las capacitaciones que se creen después reciben identificadores mayores, para que una capacitación leída de
+     * un registro o replicada desde otro proceso no choque con las nuevas.
      *
      * @param identificador El nuevo identificador de la capacitación.
      */
     public void setIdentificador(int identificador) {
         this.identificador = identificador;
+        if (identificador > contadorIdentificadores) {
+            contadorIdentificadores = identificador;
+        }
+        invalidarTexto();
     }
 
     /**
@@ -121,6 +128,7 @@ public class Capacitacion {
      */
     public void setDia(String dia) {
         this.dia = dia;
+        invalidarTexto();
     }
     /**
      * Obtiene la hora de inicio de la capacitación.
@@ -137,6 +145,7 @@ public class Capacitacion {
      */
     public void setHora(String hora) {
         this.hora = hora;
+        invalidarTexto();
     }
     /**
      * Obtiene el lugar de la capacitación.
@@ -153,6 +162,7 @@ public class Capacitacion {
      */
     public void setLugar(String lugar) {
         this.lugar = lugar;
+        invalidarTexto();
     }
     /**
      * Obtiene la duración de la capacitación en minutos.
@@ -169,6 +179,7 @@ public class Capacitacion {
      */
     public void setDuracion(int duracion) {
         this.duracion = duracion;
+        invalidarTexto();
     }
     /**
      * Obtiene la cantidad de asistentes esperados para la capacitación.
@@ -185,16 +196,28 @@ public class Capacitacion {
      */
     public void setCantidadAsistentes(int cantidadAsistentes) {
         this.cantidadAsistentes = cantidadAsistentes;
+        invalidarTexto();
     }
 
     /**
      * Devuelve una representación en cadena de texto de la capacitación.
      * La representación incluye el identificador, el RUT del cliente, el día, la hora, el lugar, la duración y la cantidad de asistentes.
      *
+     * El texto se guarda en {@link CacheTexto} hasta que algún setter modifique la capacitación.
+     *
      * @return Una cadena que representa la capacitación.
      */
     @Override
     public String toString() {
+        return CacheTexto.DESCRIPCIONES.obtener(this, this::describir);
+    }
+
+    /**
+     * Genera la representación en cadena de texto de la capacitación.
+     *
+     * @return Una cadena que representa la capacitación.
+     */
+    private String describir() {
         return "Capacitacion:" +
                 "\n  Identificador: " + identificador +
                 "\n  RUT del Cliente: " + rutCliente +
@@ -209,10 +232,21 @@ public class Capacitacion {
      * Muestra un detalle de la capacitación.
      * El detalle incluye el lugar, la hora, el día y la duración de la capacitación.
      *
+     * El texto se guarda en {@link CacheTexto} hasta que algún setter modifique la capacitación.
+     *
      * @return Una cadena que describe la capacitación.
      */
     public String mostrarDetalle() {
-        return "La capacitación será en " + lugar + " a las " + hora + " del día " + dia + ", y durará " + duracion + " minutos";
+        return CacheTexto.DETALLES.obtener(this, () ->
+                "La capacitación será en " + lugar + " a las " + hora + " del día " + dia + ", y durará " + duracion + " minutos");
+    }
+
+    /**
+     * Descarta los textos guardados de la capacitación. Se llama desde cada setter y al eliminarla.
+     */
+    void invalidarTexto() {
+        CacheTexto.DESCRIPCIONES.invalidar(this);
+        CacheTexto.DETALLES.invalidar(this);
     }
 
 }
@@ -39,7 +39,7 @@ public class Cliente extends Usuario{
     private String comuna;
 
     /**
-     * Edad del cliente.
+     * Edad declarada del cliente. Solo se usa cuando no se conoce su fecha de nacimiento.
      */
     private int edad;
 
@@ -50,7 +50,8 @@ public class Cliente extends Usuario{
     public Cliente() {}
 
     /**
-     * Constructor con parámetros para inicializar los atributos del cliente.
+     * Constructor con parámetros para inicializar los atributos del cliente. La edad se calcula a partir de la fecha
+     * de nacimiento.
      *
      * @param nombre Nombre del cliente.
      * @param apellidos Apellidos del cliente.
@@ -61,17 +62,36 @@ public class Cliente extends Usuario{
      * @param sistemaSalud Sistema de salud del cliente (1 para Fonasa, 2 para Isapre).
      * @param direccion Dirección del cliente.
      * @param comuna Comuna del cliente.
-     * @param edad Edad del cliente.
      */
     public Cliente(String nombre, String apellidos, LocalDate fechaNacimiento, long run, String telefono,
-                   String afp, int sistemaSalud, String direccion, String comuna, int edad) {
+                   String afp, int sistemaSalud, String direccion, String comuna) {
         super(nombre, apellidos, fechaNacimiento, run);
         this.telefono = telefono;
         this.afp = afp;
         this.sistemaSalud = sistemaSalud;
         this.direccion = direccion;
         this.comuna = comuna;
-        this.edad = edad;
+    }
+
+    /**
+     * Constructor con parámetros para inicializar los atributos del cliente, con su edad declarada.
+     *
+     * @param nombre Nombre del cliente.
+     * @param apellidos Apellidos del cliente.
+     * @param fechaNacimiento Fecha de nacimiento del cliente.
+     * @param run RUN del cliente.
+     * @param telefono Teléfono del cliente.
+     * @param afp AFP del cliente.
+     * @param sistemaSalud Sistema de salud del cliente (1 para Fonasa, 2 para Isapre).
+     * @param direccion Dirección del cliente.
+     * @param comuna Comuna del cliente.
+     * @param edad Edad del cliente; si se conoce la fecha de nacimiento, debe corresponder a ella.
+     * @throws IllegalArgumentException si la edad no corresponde a la fecha de nacimiento.
+     */
+    public Cliente(String nombre, String apellidos, LocalDate fechaNacimiento, long run, String telefono,
+                   String afp, int sistemaSalud, String direccion, String comuna, int edad) {
+        this(nombre, apellidos, fechaNacimiento, run, telefono, afp, sistemaSalud, direccion, comuna);
+        setEdad(edad);
     }
 
     /**
@@ -89,6 +109,7 @@ public class Cliente extends Usuario{
      */
     public void setTelefono(String telefono) {
         this.telefono = telefono;
+        invalidarTexto();
     }
     /**
      * Obtiene el AFP del cliente.
@@ -105,6 +126,7 @@ public class Cliente extends Usuario{
      */
     public void setAfp(String afp) {
         this.afp = afp;
+        invalidarTexto();
     }
     /**
      * Obtiene el sistema de salud del cliente.
@@ -121,6 +143,7 @@ public class Cliente extends Usuario{
      */
     public void setSistemaSalud(int sistemaSalud) {
         this.sistemaSalud = sistemaSalud;
+        invalidarTexto();
     }
     /**
      * Obtiene la dirección del cliente.
@@ -137,6 +160,7 @@ public class Cliente extends Usuario{
      */
     public void setDireccion(String direccion) {
         this.direccion = direccion;
+        invalidarTexto();
     }
     /**
      * Obtiene la comuna del cliente.
@@ -153,39 +177,66 @@ public class Cliente extends Usuario{
      */
     public void setComuna(String comuna) {
         this.comuna = comuna;
+        invalidarTexto();
     }
     /**
      * Obtiene la edad del cliente.
+     * La fecha de nacimiento es la fuente de la edad: si se conoce, la edad se calcula a partir de ella, y solo si
+     * no se conoce se usa la edad declarada.
      *
      * @return Edad del cliente.
      */
     public int getEdad() {
-        return edad;
+        return fechaNacimiento != null ? calcularEdad(LocalDate.now()) : edad;
     }
     /**
-     * Establece la edad del cliente.
+     * Establece la edad declarada del cliente.
+     * Si se conoce la fecha de nacimiento, la edad sale de ella: solo se acepta la edad que ya tiene, y la fecha
+     * nunca se modifica, por lo que los índices por fecha de nacimiento no cambian.
      *
      * @param edad Edad del cliente.
+     * @throws IllegalArgumentException si se conoce la fecha de nacimiento y la edad no corresponde a ella.
      */
     public void setEdad(int edad) {
+        if (fechaNacimiento != null) {
+            if (edad != calcularEdad(LocalDate.now())) {
+                throw new IllegalArgumentException("La edad " + edad + " no corresponde a la fecha de nacimiento.");
+            }
+            return;
+        }
         this.edad = edad;
+        invalidarTexto();
     }
 
     /**
-     * Representa la información del cliente en formato de cadena, incluyendo información adicional a la de la clase {@link Usuario}.
+     * Representa la información del cliente en formato de cadena.
+     * <p>
+     * La edad se agrega en cada llamada, fuera del texto guardado en {@link CacheTexto}, porque cambia con la fecha
+     * aunque ningún setter modifique al cliente.
+     * </p>
      *
      * @return Cadena con la información del cliente.
      */
     @Override
     public String toString() {
+        return super.toString() + "\n  Edad: " + getEdad();
+    }
+
+    /**
+     * Genera la información del cliente en formato de cadena, incluyendo información adicional a la de la clase
+     * {@link Usuario}. No incluye la edad, que agrega {@link #toString()}.
+     *
+     * @return Cadena con la información del cliente.
+     */
+    @Override
+    protected String describir() {
         return "Cliente: " +
-                "\n " + super.toString()+
+                "\n " + super.describir()+
                 "\n  Teléfono: '" + telefono + '\'' +
                 "\n  AFP: '" + afp + '\'' +
                 "\n  Sistema de Salud: " + sistemaSalud +
                 "\n  Dirección: '" + direccion + '\'' +
-                "\n  Comuna: '" + comuna + '\'' +
-                "\n  Edad: " + edad;
+                "\n  Comuna: '" + comuna + '\'';
     }
     /**
      * Obtiene el nombre del cliente.
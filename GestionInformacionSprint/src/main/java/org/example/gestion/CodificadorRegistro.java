@@ -0,0 +1,550 @@
+package org.example.gestion;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/*
+ *
+ * @author Judith Vergara
+ * @version 1.0
+ */
+
+/**
+ * Convierte los {@link EventoContenedor} en líneas de texto y viceversa, para escribirlos en un registro de mutaciones.
+ * <p>
+ * Cada evento ocupa una línea. Los campos se separan con tabuladores; las barras invertidas, tabuladores y saltos
+ * de línea dentro de un campo se escapan, y un campo nulo se escribe como {@code \0}. Las fechas se escriben en
+ * formato ISO (yyyy-MM-dd). Las actualizaciones solo llevan los campos modificados, como pares de nombre del campo
+ * y nuevo valor, en lugar de la entidad completa.
+ * </p>
+ */
+public final class CodificadorRegistro {
+
+    // Principio de Responsabilidad Única (SRP): solo traduce entre eventos y texto; no lee ni escribe archivos.
+
+    /**
+     * Separador de campos.
+     */
+    private static final char SEPARADOR = '\t';
+
+    /**
+     * Representación de un campo nulo.
+     */
+    private static final String NULO = "\\0";
+
+    /**
+     * Clase de utilidad, no se instancia.
+     */
+    private CodificadorRegistro() {}
+
+    /**
+     * Convierte un evento en una línea de texto, sin el salto de línea final.
+     *
+     * @param evento El evento a convertir.
+     * @return La línea que representa al evento.
+     */
+    public static String codificar(EventoContenedor evento) {
+        List<Object> campos = new ArrayList<>();
+        campos.add(evento.secuencia());
+        campos.add(evento.instante());
+        if (evento instanceof EventoContenedor.UsuarioAlmacenado e) {
+            campos.add("UA");
+            agregarUsuario(campos, e.usuario());
+        } else if (evento instanceof EventoContenedor.UsuariosAlmacenados e) {
+            campos.add("UL");
+            campos.add(e.usuarios().size());
+            for (Usuario usuario : e.usuarios()) {
+                agregarUsuario(campos, usuario);
+            }
+        } else if (evento instanceof EventoContenedor.UsuarioEliminado e) {
+            campos.add("UE");
+            campos.add(e.run());
+        } else if (evento instanceof EventoContenedor.UsuariosEliminados e) {
+            campos.add("UB");
+            campos.add(e.runs().size());
+            campos.addAll(e.runs());
+            campos.add(e.capacitaciones().size());
+            for (Capacitacion capacitacion : e.capacitaciones()) {
+                agregarCapacitacion(campos, capacitacion);
+            }
+        } else if (evento instanceof EventoContenedor.CapacitacionAlmacenada e) {
+            campos.add("CA");
+            agregarCapacitacion(campos, e.capacitacion());
+        } else if (evento instanceof EventoContenedor.CapacitacionesAlmacenadas e) {
+            campos.add("CL");
+            campos.add(e.capacitaciones().size());
+            for (Capacitacion capacitacion : e.capacitaciones()) {
+                agregarCapacitacion(campos, capacitacion);
+            }
+        } else if (evento instanceof EventoContenedor.UsuarioActualizado e) {
+            campos.add("UU");
+            campos.add(e.run());
+            agregarCambios(campos, e.cambios());
+        } else if (evento instanceof EventoContenedor.CapacitacionActualizada e) {
+            campos.add("CU");
+            campos.add(e.identificador());
+            agregarCambios(campos, e.cambios());
+        } else if (evento instanceof EventoContenedor.CapacitacionesEliminadasEnCascada e) {
+            campos.add("CC");
+            campos.add(e.rutCliente());
+            campos.add(e.capacitaciones().size());
+            for (Capacitacion capacitacion : e.capacitaciones()) {
+                agregarCapacitacion(campos, capacitacion);
+            }
+        } else if (evento instanceof EventoContenedor.Instantanea e) {
+            campos.add("IN");
+            campos.add(e.usuarios().size());
+            for (Usuario usuario : e.usuarios()) {
+                agregarUsuario(campos, usuario);
+            }
+            campos.add(e.capacitaciones().size());
+            for (Capacitacion capacitacion : e.capacitaciones()) {
+                agregarCapacitacion(campos, capacitacion);
+            }
+        }
+        return unir(campos);
+    }
+
+    /**
+     * Reconstruye un evento a partir de una línea de texto.
+     *
+     * @param linea La línea, sin el salto de línea final.
+     * @return El evento reconstruido.
+     * @throws IllegalArgumentException si la línea no representa un evento válido.
+     */
+    public static EventoContenedor decodificar(String linea) {
+        Lector lector = new Lector(separar(linea));
+        try {
+            long secuencia = lector.entero();
+            long instante = lector.entero();
+            String tipo = lector.texto();
+            switch (tipo) {
+                case "UA":
+                    return new EventoContenedor.UsuarioAlmacenado(secuencia, instante, leerUsuario(lector));
+                case "UL":
+                    int cantidadUsuarios = (int) lector.entero();
+                    List<Usuario> usuarios = new ArrayList<>(cantidadUsuarios);
+                    for (int i = 0; i < cantidadUsuarios; i++) {
+                        usuarios.add(leerUsuario(lector));
+                    }
+                    return new EventoContenedor.UsuariosAlmacenados(secuencia, instante, usuarios);
+                case "UE":
+                    return new EventoContenedor.UsuarioEliminado(secuencia, instante, lector.entero());
+                case "UB":
+                    int cantidadRuns = (int) lector.entero();
+                    List<Long> runs = new ArrayList<>(cantidadRuns);
+                    for (int i = 0; i < cantidadRuns; i++) {
+                        runs.add(lector.entero());
+                    }
+                    int cantidadEliminadas = (int) lector.entero();
+                    List<Capacitacion> eliminadas = new ArrayList<>(cantidadEliminadas);
+                    for (int i = 0; i < cantidadEliminadas; i++) {
+                        eliminadas.add(leerCapacitacion(lector));
+                    }
+                    return new EventoContenedor.UsuariosEliminados(secuencia, instante, runs, eliminadas);
+                case "CA":
+                    return new EventoContenedor.CapacitacionAlmacenada(secuencia, instante, leerCapacitacion(lector));
+                case "CL":
+                    int cantidadLote = (int) lector.entero();
+                    List<Capacitacion> lote = new ArrayList<>(cantidadLote);
+                    for (int i = 0; i < cantidadLote; i++) {
+                        lote.add(leerCapacitacion(lector));
+                    }
+                    return new EventoContenedor.CapacitacionesAlmacenadas(secuencia, instante, lote);
+                case "CC":
+                    long rutCliente = lector.entero();
+                    int cantidad = (int) lector.entero();
+                    List<Capacitacion> capacitaciones = new ArrayList<>(cantidad);
+                    for (int i = 0; i < cantidad; i++) {
+                        capacitaciones.add(leerCapacitacion(lector));
+                    }
+                    return new EventoContenedor.CapacitacionesEliminadasEnCascada(secuencia, instante, rutCliente, capacitaciones);
+                case "IN":
+                    int cantidadEstado = (int) lector.entero();
+                    List<Usuario> usuariosEstado = new ArrayList<>(cantidadEstado);
+                    for (int i = 0; i < cantidadEstado; i++) {
+                        usuariosEstado.add(leerUsuario(lector));
+                    }
+                    cantidadEstado = (int) lector.entero();
+                    List<Capacitacion> capacitacionesEstado = new ArrayList<>(cantidadEstado);
+                    for (int i = 0; i < cantidadEstado; i++) {
+                        capacitacionesEstado.add(leerCapacitacion(lector));
+                    }
+                    return new EventoContenedor.Instantanea(secuencia, instante, usuariosEstado, capacitacionesEstado);
+                case "UU":
+                    long run = lector.entero();
+                    return new EventoContenedor.UsuarioActualizado(secuencia, instante, run,
+                            leerCambios(lector, CampoUsuario.class, CampoUsuario::getTipo));
+                case "CU":
+                    int identificador = (int) lector.entero();
+                    return new EventoContenedor.CapacitacionActualizada(secuencia, instante, identificador,
+                            leerCambios(lector, CampoCapacitacion.class, CampoCapacitacion::getTipo));
+                default:
+                    throw new IllegalArgumentException("Tipo de evento desconocido: " + tipo);
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Línea de registro no válida: " + linea, e);
+        }
+    }
+
+    /**
+     * Agrega los campos de un usuario, precedidos por su tipo (C, P o A).
+     *
+     * @param campos Los campos de la línea.
+     * @param usuario El usuario a agregar.
+     */
+    static void agregarUsuario(List<Object> campos, Usuario usuario) {
+        if (usuario instanceof Cliente c) {
+            campos.add("C");
+            agregarBase(campos, c);
+            campos.addAll(List.of(texto(c.getTelefono()), texto(c.getAfp()), c.getSistemaSalud(),
+                    texto(c.getDireccion()), texto(c.getComuna()), c.getEdad()));
+        } else if (usuario instanceof Profesional p) {
+            campos.add("P");
+            agregarBase(campos, p);
+            campos.add(texto(p.getTitulo()));
+            campos.add(texto(p.getFechaIngreso()));
+        } else if (usuario instanceof Administrativo a) {
+            campos.add("A");
+            agregarBase(campos, a);
+            campos.add(texto(a.getArea()));
+            campos.add(texto(a.getExperienciaPrevia()));
+        } else {
+            throw new IllegalArgumentException("Tipo de usuario no soportado: " + usuario.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Lee un usuario escrito con {@link #agregarUsuario(List, Usuario)}.
+     *
+     * @param lector El lector posicionado en el tipo de usuario.
+     * @return El usuario leído.
+     */
+    static Usuario leerUsuario(Lector lector) {
+        String tipo = lector.texto();
+        String nombre = lector.texto();
+        String apellidos = lector.texto();
+        LocalDate fechaNacimiento = lector.fecha();
+        long run = lector.entero();
+        switch (tipo) {
+            case "C": {
+                String telefono = lector.texto();
+                String afp = lector.texto();
+                int sistemaSalud = (int) lector.entero();
+                String direccion = lector.texto();
+                String comuna = lector.texto();
+                int edad = (int) lector.entero();
+                // Con fecha de nacimiento, la edad escrita puede ser de otro año: se vuelve a calcular al leer
+                return fechaNacimiento != null
+                        ? new Cliente(nombre, apellidos, fechaNacimiento, run, telefono, afp, sistemaSalud, direccion, comuna)
+                        : new Cliente(nombre, apellidos, null, run, telefono, afp, sistemaSalud, direccion, comuna, edad);
+            }
+            case "P":
+                return new Profesional(nombre, apellidos, fechaNacimiento, run, lector.texto(), lector.fecha());
+            case "A":
+                return new Administrativo(nombre, apellidos, fechaNacimiento, run, lector.texto(), lector.texto());
+            default:
+                throw new IllegalArgumentException("Tipo de usuario desconocido: " + tipo);
+        }
+    }
+
+    /**
+     * Agrega los campos comunes a todos los usuarios.
+     *
+     * @param campos Los campos de la línea.
+     * @param usuario El usuario a agregar.
+     */
+    private static void agregarBase(List<Object> campos, Usuario usuario) {
+        campos.add(texto(usuario.getNombre()));
+        campos.add(texto(usuario.getApellidos()));
+        campos.add(texto(usuario.getFechaNacimiento()));
+        campos.add(usuario.getRun());
+    }
+
+    /**
+     * Agrega los campos de un accidente.
+     *
+     * @param campos Los campos de la línea.
+     * @param accidente El accidente.
+     */
+    static void agregarAccidente(List<Object> campos, Accidente accidente) {
+        campos.addAll(List.of(accidente.getIdentificador(), accidente.getRutCliente(), texto(accidente.getDia()),
+                texto(accidente.getHora()), texto(accidente.getLugar()), texto(accidente.getOrigen()),
+                texto(accidente.getConsecuencias())));
+    }
+
+    /**
+     * Lee un accidente escrito con {@link #agregarAccidente(List, Accidente)}.
+     *
+     * @param lector El lector de la línea.
+     * @return El accidente leído.
+     */
+    static Accidente leerAccidente(Lector lector) {
+        int identificador = (int) lector.entero();
+        long rutCliente = lector.entero();
+        LocalDate dia = lector.fecha();
+        String hora = lector.texto();
+        String lugar = lector.texto();
+        String origen = lector.texto();
+        String consecuencias = lector.texto();
+        if (dia != null && hora != null && lugar != null) {
+            return new Accidente(identificador, rutCliente, dia, hora, lugar, origen, consecuencias);
+        }
+        // Un accidente creado con el constructor vacío puede no tener cliente, fecha, hora o lugar
+        Accidente accidente = new Accidente();
+        accidente.setIdentificador(identificador);
+        if (rutCliente > 0) {
+            accidente.setRutCliente(rutCliente);
+        }
+        if (dia != null) {
+            accidente.setDia(dia);
+        }
+        if (hora != null) {
+            accidente.setHora(hora);
+        }
+        if (lugar != null) {
+            accidente.setLugar(lugar);
+        }
+        accidente.setOrigen(origen);
+        accidente.setConsecuencias(consecuencias);
+        return accidente;
+    }
+
+    /**
+     * Agrega los campos de una capacitación.
+     *
+     * @param campos Los campos de la línea.
+     * @param capacitacion La capacitación a agregar.
+     */
+    static void agregarCapacitacion(List<Object> campos, Capacitacion capacitacion) {
+        campos.addAll(List.of(capacitacion.getIdentificador(), capacitacion.getRutCliente(), texto(capacitacion.getDia()),
+                texto(capacitacion.getHora()), texto(capacitacion.getLugar()), capacitacion.getDuracion(),
+                capacitacion.getCantidadAsistentes()));
+    }
+
+    /**
+     * Lee una capacitación escrita con {@link #agregarCapacitacion(List, Capacitacion)}, conservando su identificador.
+     *
+     * @param lector El lector posicionado en el identificador de la capacitación.
+     * @return La capacitación leída.
+     */
+    static Capacitacion leerCapacitacion(Lector lector) {
+        int identificador = (int) lector.entero();
+        Capacitacion capacitacion = new Capacitacion(lector.entero(), lector.texto(), lector.texto(), lector.texto(),
+                (int) lector.entero(), (int) lector.entero());
+        capacitacion.setIdentificador(identificador);
+        return capacitacion;
+    }
+
+    /**
+     * Agrega los campos modificados de un evento de actualización: la cantidad de campos y luego cada nombre de
+     * campo seguido de su nuevo valor.
+     *
+     * @param campos Los campos de la línea.
+     * @param cambios Los campos modificados con sus nuevos valores.
+     */
+    private static void agregarCambios(List<Object> campos, Map<? extends Enum<?>, Object> cambios) {
+        campos.add(cambios.size());
+        cambios.forEach((campo, valor) -> {
+            campos.add(campo.name());
+            campos.add(texto(valor));
+        });
+    }
+
+    /**
+     * Lee los campos modificados de un evento de actualización.
+     *
+     * @param lector El lector de la línea.
+     * @param clase La clase de los campos.
+     * @param tipo Obtiene el tipo del valor de cada campo.
+     * @param <C> El tipo de los campos.
+     * @return Los campos modificados con sus nuevos valores.
+     */
+    private static <C extends Enum<C>> Map<C, Object> leerCambios(Lector lector, Class<C> clase, Function<C, Class<?>> tipo) {
+        int cantidad = (int) lector.entero();
+        Map<C, Object> cambios = new EnumMap<>(clase);
+        for (int i = 0; i < cantidad; i++) {
+            C campo = Enum.valueOf(clase, lector.texto());
+            cambios.put(campo, lector.valor(tipo.apply(campo)));
+        }
+        return Collections.unmodifiableMap(cambios);
+    }
+
+    /**
+     * Convierte un valor posiblemente nulo en el texto que se escribirá en el campo.
+     *
+     * @param valor El valor.
+     * @return El texto del valor, o la marca de nulo.
+     */
+    private static String texto(Object valor) {
+        return valor == null ? NULO : escapar(valor.toString());
+    }
+
+    /**
+     * Une los campos con el separador. Los textos ya vienen escapados por {@link #texto(Object)}.
+     *
+     * @param campos Los campos a unir.
+     * @return La línea resultante.
+     */
+    static String unir(List<Object> campos) {
+        StringBuilder linea = new StringBuilder();
+        for (int i = 0; i < campos.size(); i++) {
+            if (i > 0) {
+                linea.append(SEPARADOR);
+            }
+            linea.append(campos.get(i));
+        }
+        return linea.toString();
+    }
+
+    /**
+     * Separa una línea en campos y quita el escape de cada uno.
+     *
+     * @param linea La línea a separar.
+     * @return Los campos, con {@code null} para los campos nulos.
+     */
+    static String[] separar(String linea) {
+        List<String> campos = new ArrayList<>();
+        int inicio = 0;
+        for (int i = 0; i <= linea.length(); i++) {
+            if (i == linea.length() || linea.charAt(i) == SEPARADOR) {
+                String campo = linea.substring(inicio, i);
+                campos.add(NULO.equals(campo) ? null : desescapar(campo));
+                inicio = i + 1;
+            }
+        }
+        return campos.toArray(new String[0]);
+    }
+
+    /**
+     * Escapa barras invertidas, tabuladores y saltos de línea.
+     *
+     * @param texto El texto a escapar.
+     * @return El texto escapado.
+     */
+    private static String escapar(String texto) {
+        if (texto.indexOf('\\') < 0 && texto.indexOf('\t') < 0 && texto.indexOf('\n') < 0 && texto.indexOf('\r') < 0) {
+            return texto;
+        }
+        StringBuilder escapado = new StringBuilder(texto.length() + 8);
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            switch (c) {
+                case '\\' -> escapado.append("\\\\");
+                case '\t' -> escapado.append("\\t");
+                case '\n' -> escapado.append("\\n");
+                case '\r' -> escapado.append("\\r");
+                default -> escapado.append(c);
+            }
+        }
+        return escapado.toString();
+    }
+
+    /**
+     * Quita el escape aplicado por {@link #escapar(String)}.
+     *
+     * @param texto El texto escapado.
+     * @return El texto original.
+     */
+    private static String desescapar(String texto) {
+        if (texto.indexOf('\\') < 0) {
+            return texto;
+        }
+        StringBuilder original = new StringBuilder(texto.length());
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c == '\\' && i + 1 < texto.length()) {
+                char siguiente = texto.charAt(++i);
+                switch (siguiente) {
+                    case 't' -> original.append('\t');
+                    case 'n' -> original.append('\n');
+                    case 'r' -> original.append('\r');
+                    default -> original.append(siguiente);
+                }
+            } else {
+                original.append(c);
+            }
+        }
+        return original.toString();
+    }
+
+    /**
+     * Recorre los campos de una línea en orden.
+     */
+    static class Lector {
+
+        /**
+         * Campos de la línea.
+         */
+        private final String[] campos;
+        /**
+         * Posición del próximo campo a leer.
+         */
+        private int posicion;
+
+        /**
+         * Crea un lector sobre los campos indicados.
+         *
+         * @param campos Los campos de la línea.
+         */
+        Lector(String[] campos) {
+            this.campos = campos;
+        }
+
+        /**
+         * Lee el siguiente campo como texto.
+         *
+         * @return El texto del campo, o {@code null}.
+         */
+        String texto() {
+            if (posicion >= campos.length) {
+                throw new IllegalArgumentException("Faltan campos en la línea.");
+            }
+            return campos[posicion++];
+        }
+
+        /**
+         * Lee el siguiente campo como número entero.
+         *
+         * @return El número leído.
+         */
+        long entero() {
+            return Long.parseLong(texto());
+        }
+
+        /**
+         * Lee el siguiente campo como fecha ISO.
+         *
+         * @return La fecha leída, o {@code null}.
+         */
+        LocalDate fecha() {
+            String texto = texto();
+            return texto == null ? null : LocalDate.parse(texto);
+        }
+
+        /**
+         * Lee el siguiente campo como un valor del tipo indicado.
+         *
+         * @param tipo El tipo del valor: {@link String}, {@link Integer}, {@link Long} o {@link LocalDate}.
+         * @return El valor, o null si el campo es nulo.
+         */
+        Object valor(Class<?> tipo) {
+            String texto = texto();
+            if (texto == null || tipo == String.class) {
+                return texto;
+            } else if (tipo == Integer.class) {
+                return Integer.valueOf(texto);
+            } else if (tipo == Long.class) {
+                return Long.valueOf(texto);
+            } else if (tipo == LocalDate.class) {
+                return LocalDate.parse(texto);
+            }
+            throw new IllegalArgumentException("Tipo de valor no soportado: " + tipo.getSimpleName());
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package org.example.gestion;
+
+import java.io.BufferedOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/*
+ *
+ * @author Judith Vergara
+ * @version 1.0
+ */
+
+/**
+ * Entrada y salida de consola con búfer, para el menú interactivo y para el modo tubería.
+ * <p>
+ * La entrada se lee en bloques de 64 KB y se separa en líneas a mano, sin las expresiones regulares de
+ * {@link java.util.Scanner}. La salida se acumula en un búfer del mismo tamaño y solo se vacía cuando está lleno o
+ * antes de que una lectura tenga que esperar datos. Así, en modo interactivo cada pregunta aparece antes de esperar
+ * la respuesta, y cuando la entrada llega por una tubería desde un script, miles de comandos se procesan con pocas
+ * llamadas al sistema.
+ * </p>
+ * <p>
+ * {@link #getSalida()} puede instalarse con {@link System#setOut(PrintStream)}, de modo que los mensajes que imprimen
+ * {@link Validar}, {@link Contenedor} y las demás clases usen el mismo búfer.
+ * </p>
+ */
+public class Consola implements AutoCloseable {
+
+    // Principio de Inversión de Dependencias (DIP): la consola trabaja sobre flujos cualesquiera, no sobre System.in.
+
+    /**
+     * Tamaño de los búferes de entrada y salida.
+     */
+    private static final int TAMANO_BUFER = 64 * 1024;
+
+    /**
+     * Flujo de entrada.
+     */
+    private final InputStream entrada;
+    /**
+     * Flujo de salida sin búfer.
+     */
+    private final OutputStream destino;
+    /**
+     * Salida con búfer, sin vaciado automático.
+     */
+    private final PrintStream salida;
+    /**
+     * Codificación de la entrada y la salida.
+     */
+    private final Charset codificacion;
+    /**
+     * Bloque de entrada leído.
+     */
+    private final byte[] bloque = new byte[TAMANO_BUFER];
+    /**
+     * Posición del siguiente byte sin procesar del bloque.
+     */
+    private int posicion;
+    /**
+     * Cantidad de bytes válidos del bloque.
+     */
+    private int limite;
+    /**
+     * Bytes de una línea que continúa en el bloque siguiente.
+     */
+    private byte[] linea = new byte[256];
+    /**
+     * Indica si la entrada llegó a su fin.
+     */
+    private boolean finEntrada;
+
+    /**
+     * Crea una consola sobre la entrada y salida estándar del proceso, con la codificación por defecto.
+     */
+    public Consola() {
+        this(new FileInputStream(FileDescriptor.in), new FileOutputStream(FileDescriptor.out), Charset.defaultCharset());
+    }
+
+    /**
+     * Crea una consola sobre los flujos indicados.
+     *
+     * @param entrada El flujo de entrada.
+     * @param destino El flujo de salida.
+     * @param codificacion La codificación de ambos flujos.
+     * @throws IllegalArgumentException si algún argumento es nulo.
+     */
+    public Consola(InputStream entrada, OutputStream destino, Charset codificacion) {
+        if (entrada == null || destino == null || codificacion == null) {
+            throw new IllegalArgumentException("La entrada, la salida y la codificación son obligatorias.");
+        }
+        this.entrada = entrada;
+        this.destino = destino;
+        this.codificacion = codificacion;
+        this.salida = new PrintStream(new BufferedOutputStream(destino, TAMANO_BUFER), false, codificacion);
+    }
+
+    /**
+     * Obtiene la salida con búfer de la consola.
+     *
+     * @return La salida de la consola.
+     */
+    public PrintStream getSalida() {
+        return salida;
+    }
+
+    /**
+     * Lee la siguiente línea de la entrada, sin el salto de línea final.
+     *
+     * @return La línea leída.
+     * @throws NoSuchElementException si la entrada llegó a su fin.
+     * @throws UncheckedIOException si no se puede leer la entrada.
+     */
+    public String leerLinea() {
+        int largo = 0;
+        while (true) {
+            if (posicion == limite && !llenar()) {
+                if (largo == 0) {
+                    throw new NoSuchElementException("Fin de la entrada.");
+                }
+                return decodificar(linea, 0, largo);
+            }
+            int inicio = posicion;
+            while (posicion < limite && bloque[posicion] != '\n') {
+                posicion++;
+            }
+            if (posicion < limite) {
+                int fin = posicion++;
+                if (largo == 0) {
+                    return decodificar(bloque, inicio, fin - inicio);
+                }
+                largo = copiar(inicio, fin, largo);
+                return decodificar(linea, 0, largo);
+            }
+            largo = copiar(inicio, limite, largo);
+        }
+    }
+
+    /**
+     * Lee la siguiente línea de la entrada y la interpreta como un número entero.
+     *
+     * @return El número leído.
+     * @throws NumberFormatException si la línea no es un número entero.
+     * @throws NoSuchElementException si la entrada llegó a su fin.
+     */
+    public int leerEntero() {
+        return Integer.parseInt(leerLinea().trim());
+    }
+
+    /**
+     * Escribe en la salida todo lo acumulado en el búfer.
+     */
+    public void vaciar() {
+        salida.flush();
+    }
+
+    /**
+     * Vacía la salida. No cierra los flujos de la consola, que pertenecen a quien la creó.
+     */
+    @Override
+    public void close() {
+        vaciar();
+    }
+
+    /**
+     * Lee el siguiente bloque de la entrada. Si la lectura puede tener que esperar, vacía antes la salida para que
+     * el usuario vea la pregunta pendiente.
+     *
+     * @return true si se leyeron datos, false si la entrada llegó a su fin.
+     */
+    private boolean llenar() {
+        if (finEntrada) {
+            return false;
+        }
+        try {
+            if (entrada.available() == 0) {
+                vaciar();
+            }
+            int leidos = entrada.read(bloque, 0, bloque.length);
+            if (leidos <= 0) {
+                finEntrada = true;
+                vaciar();
+                return false;
+            }
+            posicion = 0;
+            limite = leidos;
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Copia una parte del bloque al final de la línea en construcción.
+     *
+     * @param desde Inicio de la parte, inclusivo.
+     * @param hasta Fin de la parte, exclusivo.
+     * @param largo Largo actual de la línea.
+     * @return El nuevo largo de la línea.
+     */
+    private int copiar(int desde, int hasta, int largo) {
+        int nuevoLargo = largo + hasta - desde;
+        if (nuevoLargo > linea.length) {
+            linea = Arrays.copyOf(linea, Math.max(nuevoLargo, linea.length * 2));
+        }
+        System.arraycopy(bloque, desde, linea, largo, hasta - desde);
+        return nuevoLargo;
+    }
+
+    /**
+     * Convierte los bytes de una línea en texto, quitando el retorno de carro final si lo hay.
+     *
+     * @param bytes Los bytes.
+     * @param desde Inicio de la línea.
+     * @param largo Largo de la línea.
+     * @return La línea como texto.
+     */
+    private String decodificar(byte[] bytes, int desde, int largo) {
+        if (largo > 0 && bytes[desde + largo - 1] == '\r') {
+            largo--;
+        }
+        return new String(bytes, desde, largo, codificacion);
+    }
+}
@@ -0,0 +1,287 @@
+package org.example.gestion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+
+/*
+ *
+ * @author Judith Vergara
+ * @version 1.0
+ */
+
+/**
+ * Consulta sobre los datos de un {@link Contenedor}, con filtros combinables y un planificador simple.
+ * <p>
+ * Antes de ejecutar, el planificador compara las fuentes posibles (el recorrido completo y los índices que
+ * correspondan a los filtros indicados) y elige la que tiene menos candidatos. Los filtros que ya cubre el índice
+ * elegido no se vuelven a evaluar. Los resultados se entregan uno a uno mediante un {@link Iterator}, sin
+ * construir la lista de resultados. Cuando la fuente elegida es grande, los candidatos se filtran en paralelo por
+ * bloques, manteniendo los resultados de un solo bloque a la vez.
+ * </p>
+ * <p>
+ * Las fuentes de los índices son {@link VistaProtegida}: al ejecutar la consulta, los candidatos de la entrada
+ * elegida se copian con el bloqueo de lectura del índice, y el filtrado recorre esa copia. Así el plan indexado
+ * puede ejecutarse mientras otros hilos almacenan y eliminan datos, y ve el índice tal como estaba al empezar; el
+ * costo es una copia del tamaño de la entrada, que el planificador ya eligió por ser la más pequeña. El recorrido
+ * completo no se copia: como los listados del contenedor, debe recorrerse sin modificar el contenedor al mismo
+ * tiempo.
+ * </p>
+ *
+ * @param <T> El tipo de los resultados.
+ */
+public abstract class Consulta<T> {
+
+    // Principio de Abierto/Cerrado (OCP): cada tipo de consulta agrega sus filtros y fuentes sin modificar el planificador.
+
+    /**
+     * Cantidad de candidatos desde la que los filtros se evalúan en paralelo.
+     */
+    public static final int UMBRAL_PARALELO = 50_000;
+
+    /**
+     * Cantidad de candidatos que filtra cada hilo en un bloque paralelo.
+     */
+    private static final int CANDIDATOS_POR_HILO = 4096;
+
+    /**
+     * Una fuente de candidatos: el recorrido completo o una entrada de un índice.
+     *
+     * @param descripcion Descripción de la fuente, usada por {@link #explicar()}.
+     * @param candidatos Los candidatos de la fuente.
+     * @param filtroCubierto El filtro que la fuente ya garantiza, o {@code null}.
+     */
+    protected record Fuente(String descripcion, Collection<?> candidatos, Predicate<?> filtroCubierto) {}
+
+    /**
+     * Tipo de los resultados.
+     */
+    private final Class<T> tipo;
+
+    /**
+     * Filtros que debe cumplir cada resultado.
+     */
+    private final List<Predicate<? super T>> filtros = new ArrayList<>();
+
+    /**
+     * Crea una consulta sobre resultados del tipo indicado.
+     *
+     * @param tipo El tipo de los resultados.
+     */
+    protected Consulta(Class<T> tipo) {
+        this.tipo = tipo;
+    }
+
+    /**
+     * Agrega un filtro a la consulta.
+     *
+     * @param filtro El filtro a agregar.
+     * @return El mismo filtro, para que la subclase pueda asociarlo a un índice.
+     */
+    protected Predicate<? super T> agregarFiltro(Predicate<? super T> filtro) {
+        filtros.add(filtro);
+        return filtro;
+    }
+
+    /**
+     * Obtiene las fuentes posibles para esta consulta. La primera debe ser el recorrido completo.
+     *
+     * @return Las fuentes posibles.
+     */
+    protected abstract List<Fuente> fuentes();
+
+    /**
+     * Elige la fuente con menos candidatos.
+     *
+     * @return La fuente elegida.
+     */
+    private Fuente planificar() {
+        return fuentes().stream()
+                .min(Comparator.comparingInt(fuente -> fuente.candidatos().size()))
+                .orElseThrow();
+    }
+
+    /**
+     * Ejecuta la consulta.
+     *
+     * @return Un iterador que entrega los resultados a medida que se recorre.
+     */
+    public Iterator<T> ejecutar() {
+        Fuente fuente = planificar();
+        List<Predicate<? super T>> pendientes = new ArrayList<>(filtros);
+        pendientes.remove(fuente.filtroCubierto());
+        Predicate<Object> cumple = elemento -> {
+            if (!tipo.isInstance(elemento)) {
+                return false;
+            }
+            T candidato = tipo.cast(elemento);
+            for (Predicate<? super T> filtro : pendientes) {
+                if (!filtro.test(candidato)) {
+                    return false;
+                }
+            }
+            return true;
+        };
+        if (fuente.candidatos().size() >= UMBRAL_PARALELO) {
+            return new IteradorParalelo<>(fuente.candidatos().iterator(), cumple, tipo);
+        }
+        return new IteradorFiltrado<>(fuente.candidatos().iterator(), cumple, tipo);
+    }
+
+    /**
+     * Ejecuta la consulta y reúne todos los resultados en una lista.
+     *
+     * @return Los resultados de la consulta.
+     */
+    public List<T> obtenerLista() {
+        List<T> resultados = new ArrayList<>();
+        ejecutar().forEachRemaining(resultados::add);
+        return resultados;
+    }
+
+    /**
+     * Describe el plan que se usaría al ejecutar la consulta.
+     *
+     * @return La descripción del plan.
+     */
+    public String explicar() {
+        Fuente fuente = planificar();
+        int candidatos = fuente.candidatos().size();
+        return fuente.descripcion() + " (" + candidatos + " candidatos), " + filtros.size() + " filtros, "
+                + (candidatos >= UMBRAL_PARALELO ? "paralelo" : "secuencial");
+    }
+
+    /**
+     * Iterador que entrega los candidatos que cumplen el filtro, evaluándolos uno a uno.
+     *
+     * @param <T> El tipo de los resultados.
+     */
+    private static class IteradorFiltrado<T> implements Iterator<T> {
+
+        /**
+         * Candidatos por evaluar.
+         */
+        private final Iterator<?> candidatos;
+        /**
+         * Filtro que deben cumplir los resultados.
+         */
+        private final Predicate<Object> cumple;
+        /**
+         * Tipo de los resultados.
+         */
+        private final Class<T> tipo;
+        /**
+         * Próximo resultado, o {@code null} si hay que buscarlo.
+         */
+        private T proximo;
+
+        /**
+         * Crea el iterador.
+         *
+         * @param candidatos Candidatos por evaluar.
+         * @param cumple Filtro que deben cumplir los resultados.
+         * @param tipo Tipo de los resultados.
+         */
+        IteradorFiltrado(Iterator<?> candidatos, Predicate<Object> cumple, Class<T> tipo) {
+            this.candidatos = candidatos;
+            this.cumple = cumple;
+            this.tipo = tipo;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (proximo == null && candidatos.hasNext()) {
+                Object candidato = candidatos.next();
+                if (cumple.test(candidato)) {
+                    proximo = tipo.cast(candidato);
+                }
+            }
+            return proximo != null;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T resultado = proximo;
+            proximo = null;
+            return resultado;
+        }
+    }
+
+    /**
+     * Iterador que toma los candidatos por bloques y filtra cada bloque en paralelo.
+     * Además de la copia que haga la fuente, solo el bloque actual y sus resultados están en memoria.
+     *
+     * @param <T> El tipo de los resultados.
+     */
+    private static class IteradorParalelo<T> implements Iterator<T> {
+
+        /**
+         * Candidatos por evaluar.
+         */
+        private final Iterator<?> candidatos;
+        /**
+         * Filtro que deben cumplir los resultados.
+         */
+        private final Predicate<Object> cumple;
+        /**
+         * Tipo de los resultados.
+         */
+        private final Class<T> tipo;
+        /**
+         * Bloque de candidatos, reutilizado entre bloques.
+         */
+        private final Object[] bloque;
+        /**
+         * Resultados del bloque actual.
+         */
+        private Iterator<T> resultados = List.<T>of().iterator();
+
+        /**
+         * Crea el iterador.
+         *
+         * @param candidatos Candidatos por evaluar.
+         * @param cumple Filtro que deben cumplir los resultados.
+         * @param tipo Tipo de los resultados.
+         */
+        IteradorParalelo(Iterator<?> candidatos, Predicate<Object> cumple, Class<T> tipo) {
+            this.candidatos = candidatos;
+            this.cumple = cumple;
+            this.tipo = tipo;
+            this.bloque = new Object[CANDIDATOS_POR_HILO * ForkJoinPool.getCommonPoolParallelism()];
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!resultados.hasNext() && candidatos.hasNext()) {
+                int cantidad = 0;
+                while (cantidad < bloque.length && candidatos.hasNext()) {
+                    bloque[cantidad++] = candidatos.next();
+                }
+                resultados = Arrays.stream(bloque, 0, cantidad).parallel()
+                        .filter(cumple)
+                        .map(tipo::cast)
+                        .toList()
+                        .iterator();
+                Arrays.fill(bloque, 0, cantidad, null);
+            }
+            return resultados.hasNext();
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return resultados.next();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package org.example.gestion;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/*
+ *
+ * @author Judith Vergara
+ * @version 1.0
+ */
+
+/**
+ * Consulta de capacitaciones de un {@link Contenedor}.
+ * <p>
+ * Ejemplo: capacitaciones de los martes en un lugar, de más de 60 minutos.
+ * </p>
+ * <pre>
+ * contenedor.consultarCapacitaciones().enDia("Martes").enLugar("Sala Central").duracionMayorA(60).ejecutar();
+ * </pre>
+ */
+public class ConsultaCapacitaciones extends Consulta<Capacitacion> {
+
+    /**
+     * Contenedor consultado.
+     */
+    private final Contenedor contenedor;
+    /**
+     * Fuentes que aportan los índices según los filtros indicados. Se obtienen al ejecutar la consulta, para que
+     * reflejen los índices de ese momento.
+     */
+    private final List<Supplier<Fuente>> fuentesIndexadas = new ArrayList<>();
+
+    /**
+     * Crea una consulta sobre las capacitaciones del contenedor indicado.
+     *
+     * @param contenedor El contenedor a consultar.
+     */
+    ConsultaCapacitaciones(Contenedor contenedor) {
+        super(Capacitacion.class);
+        this.contenedor = contenedor;
+    }
+
+    /**
+     * Filtra las capacitaciones de un día. La comparación ignora acentos y mayúsculas.
+     *
+     * @param dia El día de la semana.
+     * @return Esta consulta.
+     */
+    public ConsultaCapacitaciones enDia(String dia) {
+        String clave = Indices.clave(dia);
+        Predicate<?> filtro = agregarFiltro(capacitacion -> Indices.clave(capacitacion.getDia()).equals(clave));
+        fuentesIndexadas.add(() -> new Fuente("Índice por día", contenedor.getIndices().capacitacionesEnDia(dia), filtro));
+        return this;
+    }
+
+    /**
+     * Filtra las capacitaciones de un lugar. La comparación ignora acentos y mayúsculas.
+     *
+     * @param lugar El lugar.
+     * @return Esta consulta.
+     */
+    public ConsultaCapacitaciones enLugar(String lugar) {
+        String clave = Indices.clave(lugar);
+        Predicate<?> filtro = agregarFiltro(capacitacion -> Indices.clave(capacitacion.getLugar()).equals(clave));
+        fuentesIndexadas.add(() -> new Fuente("Índice por lugar", contenedor.getIndices().capacitacionesEnLugar(lugar), filtro));
+        return this;
+    }
+
+    /**
+     * Filtra las capacitaciones de un cliente.
+     *
+     * @param rutCliente El RUT del cliente.
+     * @return Esta consulta.
+     */
+    public ConsultaCapacitaciones deCliente(long rutCliente) {
+        Predicate<?> filtro = agregarFiltro(capacitacion -> capacitacion.getRutCliente() == rutCliente);
+        fuentesIndexadas.add(() -> new Fuente("Índice por cliente", contenedor.getIndices().capacitacionesDeCliente(rutCliente), filtro));
+        return this;
+    }
+
+    /**
+     * Filtra las capacitaciones que duran más de una cantidad de minutos.
+     *
+     * @param minutos La duración en minutos, exclusiva.
+     * @return Esta consulta.
+     */
+    public ConsultaCapacitaciones duracionMayorA(int minutos) {
+        agregarFiltro(capacitacion -> capacitacion.getDuracion() > minutos);
+        return this;
+    }
+
+    /**
+     * Filtra las capacitaciones con más de una cantidad de asistentes.
+     *
+     * @param asistentes La cantidad de asistentes, exclusiva.
+     * @return Esta consulta.
+     */
+    public ConsultaCapacitaciones conAsistentesMayorA(int asistentes) {
+        agregarFiltro(capacitacion -> capacitacion.getCantidadAsistentes() > asistentes);
+        return this;
+    }
+
+    /**
+     * Agrega un filtro cualquiera. Se evalúa sobre los candidatos de la fuente elegida.
+     *
+     * @param filtro El filtro a agregar.
+     * @return Esta consulta.
+     */
+    public ConsultaCapacitaciones donde(Predicate<? super Capacitacion> filtro) {
+        agregarFiltro(filtro);
+        return this;
+    }
+
+    @Override
+    protected List<Fuente> fuentes() {
+        List<Fuente> fuentes = new ArrayList<>();
+        fuentes.add(new Fuente("Recorrido completo de capacitaciones", contenedor.getCapacitaciones(), null));
+        fuentesIndexadas.forEach(fuente -> fuentes.add(fuente.get()));
+        return fuentes;
+    }
+}
@@ -0,0 +1,125 @@
+package org.example.gestion;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/*
+ *
+ * @author Judith Vergara
+ * @version 1.0
+ */
+
+/**
+ * Consulta de clientes de un {@link Contenedor}.
+ * <p>
+ * Ejemplo: clientes de una comuna, con Isapre y mayores de 50 años.
+ * </p>
+ * <pre>
+ * contenedor.consultarClientes().enComuna("Ñuñoa").conSistemaSalud(2).edadMayorA(50).ejecutar();
+ * </pre>
+ */
+public class ConsultaClientes extends Consulta<Cliente> {
+
+    /**
+     * Contenedor consultado.
+     */
+    private final Contenedor contenedor;
+    /**
+     * Fuentes que aportan los índices según los filtros indicados. Se obtienen al ejecutar la consulta, para que
+     * reflejen los índices de ese momento.
+     */
+    private final List<Supplier<Fuente>> fuentesIndexadas = new ArrayList<>();
+    /**
+     * Fecha en que se calculan las edades, fijada al planificar cada ejecución.
+     */
+    private LocalDate hoy = LocalDate.now();
+
+    /**
+     * Crea una consulta sobre los clientes del contenedor indicado.
+     *
+     * @param contenedor El contenedor a consultar.
+     */
+    ConsultaClientes(Contenedor contenedor) {
+        super(Cliente.class);
+        this.contenedor = contenedor;
+    }
+
+    /**
+     * Filtra los clientes de una comuna. La comparación ignora acentos y mayúsculas.
+     *
+     * @param comuna La comuna.
+     * @return Esta consulta.
+     */
+    public ConsultaClientes enComuna(String comuna) {
+        String clave = Indices.clave(comuna);
+        Predicate<?> filtro = agregarFiltro(cliente -> Indices.clave(cliente.getComuna()).equals(clave));
+        fuentesIndexadas.add(() -> new Fuente("Índice por comuna", contenedor.getIndices().clientesEnComuna(comuna), filtro));
+        return this;
+    }
+
+    /**
+     * Filtra los clientes con un sistema de salud.
+     *
+     * @param sistemaSalud El sistema de salud (1 para Fonasa, 2 para Isapre).
+     * @return Esta consulta.
+     */
+    public ConsultaClientes conSistemaSalud(int sistemaSalud) {
+        agregarFiltro(cliente -> cliente.getSistemaSalud() == sistemaSalud);
+        return this;
+    }
+
+    /**
+     * Filtra los clientes mayores a una edad.
+     *
+     * @param edad La edad, exclusiva.
+     * @return Esta consulta.
+     */
+    public ConsultaClientes edadMayorA(int edad) {
+        return edadEntre((int) Math.min(edad + 1L, Integer.MAX_VALUE), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Filtra los clientes con una edad dentro de un rango. La edad se calcula a partir de la fecha de nacimiento,
+     * por lo que puede usarse el índice por fecha de nacimiento. Los clientes sin fecha de nacimiento no tienen una
+     * edad calculable y no cumplen el filtro, cualquiera sea la fuente elegida.
+     *
+     * @param minima La edad mínima, inclusiva.
+     * @param maxima La edad máxima, inclusiva.
+     * @return Esta consulta.
+     */
+    public ConsultaClientes edadEntre(int minima, int maxima) {
+        Predicate<?> filtro = agregarFiltro(cliente -> {
+            if (cliente.getFechaNacimiento() == null) {
+                return false;
+            }
+            int edad = cliente.calcularEdad(hoy);
+            return edad >= minima && edad <= maxima;
+        });
+        fuentesIndexadas.add(() -> new Fuente("Índice por fecha de nacimiento",
+                contenedor.getIndices().usuariosConEdadEntre(minima, maxima, hoy), filtro));
+        return this;
+    }
+
+    /**
+     * Agrega un filtro cualquiera. Se evalúa sobre los candidatos de la fuente elegida.
+     *
+     * @param filtro El filtro a agregar.
+     * @return Esta consulta.
+     */
+    public ConsultaClientes donde(Predicate<? super Cliente> filtro) {
+        agregarFiltro(filtro);
+        return this;
+    }
+
+    @Override
+    protected List<Fuente> fuentes() {
+        hoy = LocalDate.now();
+        List<Fuente> fuentes = new ArrayList<>();
+        fuentes.add(new Fuente("Recorrido completo de usuarios", contenedor.getUsuarios(), null));
+        fuentesIndexadas.forEach(fuente -> fuentes.add(fuente.get()));
+        return fuentes;
+    }
+}
@@ -1,7 +1,24 @@
 package org.example.gestion;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.Month;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongFunction;
 
 /*
  *
@@ -10,7 +27,7 @@ import java.util.List;
  */
 
 /**
- * Representa un contenedor para almacenar y gestionar usuarios y capacitaciones.
+ * Representa un contenedor para almacenar y gestionar usuarios, capacitaciones, accidentes y visitas en terreno.
  *
  */
 public class Contenedor {
@@ -19,20 +36,111 @@ public class Contenedor {
 
     /**
      * Lista de usuarios, que puede contener instancias de {@link Cliente}, {@link Profesional}, {@link Administrativo}.
+     * Eliminar un usuario deja una lápida que se compacta en segundo plano.
      */
-    private List<Usuario> usuarios;
+    private ListaConLapidas<Usuario> usuarios;
 
     /**
-     * Lista de capacitaciones registradas.
+     * Lista de capacitaciones registradas, con la misma eliminación por lápidas que los usuarios.
      */
-    private List<Capacitacion> capacitaciones;
+    private ListaConLapidas<Capacitacion> capacitaciones;
 
     /**
-     * Constructor por defecto que inicializa las listas de usuarios y capacitaciones.
+     * Lista de accidentes registrados.
+     */
+    private List<Accidente> accidentes;
+
+    /**
+     * Lista de visitas en terreno registradas.
+     */
+    private List<VisitaEnTerreno> visitas;
+
+    /**
+     * Índice de usuarios por RUN, mantenido junto con la lista {@code usuarios}. Es concurrente para que los
+     * listados puedan buscar clientes mientras otro hilo modifica el contenedor.
+     */
+    private Map<Long, Usuario> usuariosPorRun;
+
+    /**
+     * Flujo de eventos donde se publica cada cambio del contenedor. Se crea con el primer cambio o la primera
+     * suscripción, para no reservar sus casilleros antes de mostrar el primer menú.
+     */
+    private volatile FlujoEventos eventos;
+
+    /**
+     * Índices secundarios por comuna, día, lugar y cliente. Se crean con el primer usuario o la primera consulta.
+     */
+    private volatile Indices indices;
+
+    /**
+     * Vista materializada de minutos, asistentes y sesiones de capacitación por cliente y por día. Se crea con la
+     * primera capacitación o la primera consulta.
+     */
+    private volatile VistaCoberturaCapacitaciones cobertura;
+
+    /**
+     * Línea de tiempo de los accidentes por fecha y hora. Se crea con el primer accidente o la primera consulta,
+     * para que un contenedor que no registra accidentes no cargue sus clases al iniciar.
+     */
+    private volatile LineaDeTiempo<Accidente> lineaAccidentes;
+
+    /**
+     * Índice de las palabras del origen y las consecuencias de los accidentes. Se crea con el primer accidente o la
+     * primera consulta, como la línea de tiempo de los accidentes.
+     */
+    private volatile IndiceCausasAccidentes indiceCausas;
+
+    /**
+     * Línea de tiempo de las visitas en terreno por fecha y hora. Se crea al usarla por primera vez.
+     */
+    private volatile LineaDeTiempo<VisitaEnTerreno> lineaVisitas;
+
+    /**
+     * Accidentes en memoria que tienen fecha pero no hora, por día, ya que no tienen lugar en la línea de tiempo.
+     */
+    private final IndiceOrdenado<Accidente> accidentesSinHora = new IndiceOrdenado<>();
+
+    /**
+     * Archivo en disco de los accidentes antiguos, o null si el contenedor no archiva accidentes.
+     */
+    private final ArchivoAccidentes archivoAccidentes;
+
+    /**
+     * Planificador que controla la capacidad de los lugares de capacitación, si se configuró uno.
+     */
+    private PlanificadorLugares planificador;
+
+    /**
+     * Historial de auditoría que registra cada evento al publicarse, si se configuró uno.
+     */
+    private HistorialAuditoria historial;
+
+    /**
+     * Emisores de registro que reciben cada evento ya codificado, en el hilo que lo publica.
+     */
+    private final List<EmisorRegistro> emisores = new CopyOnWriteArrayList<>();
+
+    /**
+     * Constructor por defecto que inicializa las listas de usuarios, capacitaciones, accidentes y visitas en terreno.
+     * El contenedor no archiva accidentes.
      */
     public Contenedor() {
-        this.usuarios = new ArrayList<>();
-        this.capacitaciones = new ArrayList<>();
+        this(null);
+    }
+
+    /**
+     * Crea un contenedor que mueve sus accidentes antiguos al archivo indicado. Los accidentes que el archivo ya
+     * tiene se incluyen desde el principio en las consultas de accidentes.
+     *
+     * @param archivoAccidentes El archivo de accidentes, o null para no archivar.
+     */
+    public Contenedor(ArchivoAccidentes archivoAccidentes) {
+        this.usuarios = new ListaConLapidas<>();
+        this.capacitaciones = new ListaConLapidas<>();
+        this.accidentes = new ArrayList<>();
+        this.visitas = new ArrayList<>();
+        this.usuariosPorRun = new ConcurrentHashMap<>();
+        this.archivoAccidentes = archivoAccidentes;
     }
 
     /**
@@ -42,7 +150,7 @@ public class Contenedor {
      * @return true si el cliente fue almacenado exitosamente, false en caso contrario.
      */
     public boolean almacenarCliente(Cliente cliente) {
-        return usuarios.add(cliente);
+        return almacenarUsuario(cliente);
     }
 
     /**
@@ -52,7 +160,7 @@ public class Contenedor {
      * @return true si el profesional fue almacenado exitosamente, false en caso contrario.
      */
     public boolean almacenarProfesional(Profesional profesional) {
-        return usuarios.add(profesional);
+        return almacenarUsuario(profesional);
     }
 
 
@@ -63,20 +171,298 @@ public class Contenedor {
      * @return true si el administrativo fue almacenado exitosamente, false en caso contrario.
      */
     public boolean almacenarAdministrativo(Administrativo administrativo) {
-        return usuarios.add(administrativo);
+        return almacenarUsuario(administrativo);
+    }
+
+    /**
+     * Almacena un usuario en la lista de usuarios y en el índice por RUN.
+     * No se almacena si el usuario es nulo o si ya existe otro usuario con el mismo RUN. El RUN se reserva en el
+     * índice antes de agregar el usuario a la lista, de modo que dos hilos no almacenan el mismo RUN.
+     *
+     * @param usuario El usuario a almacenar.
+     * @return true si el usuario fue almacenado exitosamente, false en caso contrario.
+     */
+    private boolean almacenarUsuario(Usuario usuario) {
+        if (usuario == null || usuariosPorRun.putIfAbsent(usuario.getRun(), usuario) != null) {
+            return false;
+        }
+        try {
+            usuarios.add(usuario);
+        } catch (IllegalArgumentException e) {
+            // Otro hilo almacenó la misma instancia con otro RUN
+            usuariosPorRun.remove(usuario.getRun(), usuario);
+            return false;
+        }
+        getIndices().agregarUsuario(usuario);
+        publicarUsuarioAlmacenado(usuario);
+        return true;
+    }
+
+    /**
+     * Almacena un lote de usuarios ({@link Cliente}, {@link Profesional} o {@link Administrativo}) en una sola operación.
+     *
+     * <p>El lote se valida completo antes de modificar la lista: si algún usuario es nulo, tiene un RUN repetido
+     * dentro del lote o ya registrado, no se almacena ninguno. Los RUN se reservan uno a uno en el índice por RUN;
+     * si otro hilo registró alguno entretanto, se liberan los ya reservados y el lote se rechaza. Si el lote es
+     * válido se agrega a la lista con una sola copia y se publica un solo evento con todo el lote.</p>
+     *
+     * @param lote Los usuarios a almacenar.
+     * @return true si el lote completo fue almacenado, false si fue rechazado.
+     */
+    public boolean almacenarUsuarios(List<? extends Usuario> lote) {
+        if (lote == null) {
+            return false;
+        }
+        Set<Long> runsLote = new HashSet<>(lote.size() * 2);
+        for (Usuario usuario : lote) {
+            if (usuario == null || usuariosPorRun.containsKey(usuario.getRun()) || !runsLote.add(usuario.getRun())) {
+                return false;
+            }
+        }
+        List<Usuario> reservados = new ArrayList<>(lote.size());
+        for (Usuario usuario : lote) {
+            if (usuariosPorRun.putIfAbsent(usuario.getRun(), usuario) != null) {
+                // Otro hilo registró el RUN después de la verificación
+                liberarRuns(reservados);
+                return false;
+            }
+            reservados.add(usuario);
+        }
+        try {
+            usuarios.addAll(lote);
+        } catch (IllegalArgumentException e) {
+            // Otro hilo almacenó alguna instancia con otro RUN; la lista no agregó ninguna
+            liberarRuns(reservados);
+            return false;
+        }
+        lote.forEach(getIndices()::agregarUsuario);
+        if (!lote.isEmpty()) {
+            long instante = System.currentTimeMillis();
+            List<Usuario> almacenados = List.copyOf(lote);
+            publicar(secuencia -> new EventoContenedor.UsuariosAlmacenados(secuencia, instante, almacenados));
+        }
+        return true;
+    }
+
+    /**
+     * Libera los RUN reservados por un lote que no se pudo almacenar.
+     *
+     * @param reservados Los usuarios cuyo RUN se reservó.
+     */
+    private void liberarRuns(List<Usuario> reservados) {
+        for (Usuario usuario : reservados) {
+            usuariosPorRun.remove(usuario.getRun(), usuario);
+        }
     }
 
     /**
      * Almacena una capacitación en la lista de capacitaciones.
+     * No debe estar ya almacenada, su cliente debe estar registrado y, si hay un {@link PlanificadorLugares}
+     * configurado, la capacitación debe caber en su lugar, igual que en {@link #almacenarCapacitaciones(List)}.
      *
      * @param capacitacion La capacitación a almacenar.
      * @return true si la capacitación fue almacenada exitosamente, false en caso contrario.
      */
     public boolean almacenarCapacitacion(Capacitacion capacitacion) {
-        return capacitaciones.add(capacitacion);
+        // Se verifica antes de reservar: reservar una capacitación ya almacenada reemplazaría su reserva
+        PlanificadorLugares lugares = planificador;
+        if (capacitacion == null || capacitaciones.contains(capacitacion)
+                || buscarClientePorRut(capacitacion.getRutCliente()) == null
+                || (lugares != null && !lugares.reservar(capacitacion))) {
+            return false;
+        }
+        try {
+            capacitaciones.add(capacitacion);
+        } catch (IllegalArgumentException e) {
+            // Otro hilo la almacenó después de la verificación
+            if (lugares != null) {
+                lugares.liberar(capacitacion);
+            }
+            return false;
+        }
+        indexarCapacitacion(capacitacion);
+        publicarCapacitacionAlmacenada(capacitacion);
+        return true;
+    }
+
+    /**
+     * Almacena un lote de capacitaciones en una sola operación.
+     *
+     * <p>El lote se valida completo antes de modificar el contenedor: si alguna capacitación es nula, está repetida
+     * dentro del lote o ya almacenada, o su cliente no está registrado, o si con un {@link PlanificadorLugares}
+     * configurado alguna no cabe en su lugar, no se almacena ninguna. Si el lote es válido se publica un solo evento
+     * con todas las capacitaciones.</p>
+     *
+     * @param lote Las capacitaciones a almacenar.
+     * @return true si el lote completo fue almacenado, false si fue rechazado.
+     */
+    public boolean almacenarCapacitaciones(List<Capacitacion> lote) {
+        if (lote == null) {
+            return false;
+        }
+        // Las capacitaciones se reconocen por identidad, como en la lista
+        Set<Capacitacion> vistas = Collections.newSetFromMap(new IdentityHashMap<>(lote.size() * 2));
+        for (Capacitacion capacitacion : lote) {
+            if (capacitacion == null || !vistas.add(capacitacion) || capacitaciones.contains(capacitacion)
+                    || buscarClientePorRut(capacitacion.getRutCliente()) == null) {
+                return false;
+            }
+        }
+        PlanificadorLugares lugares = planificador;
+        if (lugares != null && !lugares.reservarTodas(lote)) {
+            return false;
+        }
+        try {
+            capacitaciones.addAll(lote);
+        } catch (IllegalArgumentException e) {
+            // Otro hilo almacenó alguna después de la verificación; la lista no agregó ninguna
+            if (lugares != null) {
+                lote.forEach(lugares::liberar);
+            }
+            return false;
+        }
+        lote.forEach(this::indexarCapacitacion);
+        if (!lote.isEmpty()) {
+            long instante = System.currentTimeMillis();
+            List<Capacitacion> almacenadas = List.copyOf(lote);
+            publicar(secuencia -> new EventoContenedor.CapacitacionesAlmacenadas(secuencia, instante, almacenadas));
+        }
+        return true;
     }
 
 
+    /**
+     * Almacena un accidente en la lista de accidentes.
+     *
+     * @param accidente El accidente a almacenar.
+     * @return true si el accidente fue almacenado exitosamente, false en caso contrario.
+     */
+    public boolean almacenarAccidente(Accidente accidente) {
+        if (accidente == null) {
+            return false;
+        }
+        synchronized (accidentes) {
+            if (accidente.getDia() != null && accidente.getHora() != null) {
+                getLineaAccidentes().agregar(accidente);
+            } else if (accidente.getDia() != null) {
+                accidentesSinHora.agregar(accidente.getDia().toEpochDay(), accidente);
+            }
+            getIndiceCausas().agregar(accidente);
+            return accidentes.add(accidente);
+        }
+    }
+
+    /**
+     * Almacena una visita en terreno en la lista de visitas.
+     *
+     * @param visita La visita en terreno a almacenar.
+     * @return true si la visita fue almacenada exitosamente, false en caso contrario.
+     */
+    public boolean almacenarVisitaEnTerreno(VisitaEnTerreno visita) {
+        if (visita == null) {
+            return false;
+        }
+        if (visita.getDia() != null && visita.getHora() != null) {
+            getLineaVisitas().agregar(visita);
+        }
+        return visitas.add(visita);
+    }
+
+    /**
+     * Mueve al archivo en disco los accidentes de hace más de un año. Lo ejecuta periódicamente un
+     * {@link ArchivadorAccidentes}.
+     *
+     * @return La cantidad de accidentes archivados.
+     * @throws IllegalStateException si el contenedor se creó sin archivo de accidentes.
+     * @throws IOException si no se pueden escribir; en ese caso los accidentes siguen en memoria.
+     */
+    public int archivarAccidentesAntiguos() throws IOException {
+        return archivarAccidentes(LocalDate.now().minusYears(1));
+    }
+
+    /**
+     * Mueve al archivo en disco los accidentes ocurridos antes de la fecha indicada, con o sin hora, liberando la
+     * memoria que ocupan. Las consultas de accidentes del contenedor siguen encontrándolos. Los accidentes sin fecha
+     * se quedan en memoria.
+     *
+     * @param limite Se archivan los accidentes anteriores a esta fecha.
+     * @return La cantidad de accidentes archivados.
+     * @throws IllegalArgumentException si la fecha límite es nula.
+     * @throws IllegalStateException si el contenedor se creó sin archivo de accidentes.
+     * @throws IOException si no se pueden escribir; en ese caso los accidentes siguen en memoria.
+     */
+    public int archivarAccidentes(LocalDate limite) throws IOException {
+        if (limite == null) {
+            throw new IllegalArgumentException("La fecha límite es obligatoria.");
+        }
+        if (archivoAccidentes == null) {
+            throw new IllegalStateException("El contenedor se creó sin archivo de accidentes.");
+        }
+        synchronized (accidentes) {
+            List<Accidente> antiguos = new ArrayList<>(getLineaAccidentes().entre(LocalDate.MIN.atStartOfDay(),
+                    limite.minusDays(1).atTime(23, 59)));
+            List<Accidente> antiguosSinHora = new ArrayList<>(accidentesSinHora.rango(Long.MIN_VALUE,
+                    limite.toEpochDay() - 1));
+            antiguos.addAll(antiguosSinHora);
+            if (antiguos.isEmpty()) {
+                return 0;
+            }
+            archivoAccidentes.archivar(antiguos);
+            Set<Accidente> archivados = Collections.newSetFromMap(new IdentityHashMap<>());
+            archivados.addAll(antiguos);
+            accidentes.removeIf(archivados::contains);
+            for (Accidente accidente : antiguosSinHora) {
+                accidentesSinHora.quitar(accidente.getDia().toEpochDay(), accidente);
+                archivados.remove(accidente);
+            }
+            for (Accidente accidente : archivados) {
+                getLineaAccidentes().archivar(accidente);
+            }
+            antiguos.forEach(CacheTexto.DESCRIPCIONES::invalidar);
+            return antiguos.size();
+        }
+    }
+
+    /**
+     * Busca los accidentes ocurridos entre dos fechas, tanto los que están en memoria como los archivados.
+     *
+     * @param desde La fecha inicial, inclusiva.
+     * @param hasta La fecha final, inclusiva.
+     * @return Los accidentes del intervalo, ordenados por fecha y hora; los que no tienen hora van al inicio de su día.
+     * @throws IOException si no se puede leer el archivo.
+     */
+    public List<Accidente> buscarAccidentesEntre(LocalDate desde, LocalDate hasta) throws IOException {
+        List<Accidente> resultado;
+        synchronized (accidentes) {
+            resultado = new ArrayList<>(getLineaAccidentes().entre(desde.atStartOfDay(), hasta.atTime(23, 59)));
+            resultado.addAll(accidentesSinHora.rango(desde.toEpochDay(), hasta.toEpochDay()));
+            if (archivoAccidentes != null) {
+                resultado.addAll(archivoAccidentes.leerEntre(desde, hasta));
+            }
+        }
+        resultado.sort(Comparator.comparingLong(accidente -> accidente.getHora() == null
+                ? accidente.getDia().toEpochDay() * LineaDeTiempo.MINUTOS_POR_DIA
+                : LineaDeTiempo.clave(accidente.getDia(), accidente.getHora())));
+        return resultado;
+    }
+
+    /**
+     * Cuenta los accidentes ocurridos entre dos fechas, tanto los que están en memoria como los archivados, sin
+     * cargar los segmentos del archivo que caen completos dentro del intervalo.
+     *
+     * @param desde La fecha inicial, inclusiva.
+     * @param hasta La fecha final, inclusiva.
+     * @return La cantidad de accidentes del intervalo.
+     * @throws IOException si no se puede leer el archivo.
+     */
+    public int contarAccidentesEntre(LocalDate desde, LocalDate hasta) throws IOException {
+        synchronized (accidentes) {
+            int total = getLineaAccidentes().contarEntre(desde.atStartOfDay(), hasta.atTime(23, 59))
+                    + accidentesSinHora.rango(desde.toEpochDay(), hasta.toEpochDay()).size();
+            return archivoAccidentes == null ? total : total + archivoAccidentes.contarEntre(desde, hasta);
+        }
+    }
+
     /**
      * Elimina un usuario de la lista de usuarios y las capacitaciones asociadas.
      *
@@ -87,13 +473,7 @@ public class Contenedor {
      * @param run El RUN del usuario que se desea eliminar. Este valor se utiliza para identificar al usuario en la lista y también para encontrar y eliminar las capacitaciones asociadas a dicho usuario.
      */
     public void eliminarUsuario(long run) {
-        // Elimina al usuario si existe
-        boolean eliminado = usuarios.removeIf(usuario -> usuario.getRun() == run);
-
-        if (eliminado) {
-            // Elimina las capacitaciones asociadas
-            capacitaciones.removeIf(capacitacion -> capacitacion.getRutCliente() == run);
-
+        if (eliminarSinAviso(run)) {
             System.out.println("Usuario con RUN " + run + " eliminado con éxito.");
             System.out.println("Si tenía Capacitaciones asociadas también han sido eliminadas.");
         } else {
@@ -101,15 +481,190 @@ public class Contenedor {
         }
     }
 
+    /**
+     * Elimina un usuario y sus capacitaciones asociadas sin imprimir mensajes.
+     * La usan los componentes que aplican cambios en segundo plano, como {@link ReplicaSeguidora}.
+     *
+     * @param run El RUN del usuario que se desea eliminar.
+     * @return true si el usuario existía y fue eliminado, false en caso contrario.
+     */
+    boolean eliminarSinAviso(long run) {
+        List<Capacitacion> eliminadas = new ArrayList<>();
+        if (!quitarUsuario(run, eliminadas)) {
+            return false;
+        }
+        publicarUsuarioEliminado(run, eliminadas);
+        return true;
+    }
+
+    /**
+     * Quita un usuario y sus capacitaciones asociadas de las listas, los índices y la vista de cobertura, sin
+     * publicar eventos.
+     *
+     * @param run El RUN del usuario.
+     * @param eliminadas Recibe las capacitaciones eliminadas junto con el usuario.
+     * @return true si el usuario existía y fue eliminado, false en caso contrario.
+     */
+    private boolean quitarUsuario(long run, List<Capacitacion> eliminadas) {
+        // Elimina al usuario si existe
+        Usuario eliminado = usuariosPorRun.remove(run);
+        if (eliminado == null) {
+            return false;
+        }
+        usuarios.remove(eliminado);
+        getIndices().quitarUsuario(eliminado);
+        CacheTexto.DESCRIPCIONES.invalidar(eliminado);
+        // Elimina las capacitaciones asociadas, que se encuentran por el índice de cliente
+        List<Capacitacion> asociadas = new ArrayList<>(getIndices().capacitacionesDeCliente(run));
+        asociadas.forEach(capacitaciones::remove);
+        asociadas.forEach(this::desindexarCapacitacion);
+        asociadas.forEach(Capacitacion::invalidarTexto);
+        eliminadas.addAll(asociadas);
+        return true;
+    }
+
+    /**
+     * Elimina un conjunto de usuarios y todas sus capacitaciones asociadas en una sola operación, sin imprimir
+     * mensajes.
+     *
+     * <p>A diferencia de llamar a {@link #eliminarUsuario(long)} por cada RUN, se publica un solo evento
+     * {@link EventoContenedor.UsuariosEliminados} con todos los RUN eliminados y sus capacitaciones. Cada eliminación
+     * deja una lápida en las listas, sin recorrerlas. Los RUN que no correspondan a ningún usuario registrado se
+     * ignoran.</p>
+     *
+     * @param runs Los RUN de los usuarios que se desean eliminar.
+     * @return La cantidad de usuarios eliminados, o 0 si el conjunto es nulo.
+     */
+    public int eliminarUsuarios(Set<Long> runs) {
+        if (runs == null) {
+            return 0;
+        }
+        List<Long> eliminados = new ArrayList<>();
+        List<Capacitacion> eliminadas = new ArrayList<>();
+        for (Long run : runs) {
+            if (run != null && quitarUsuario(run, eliminadas)) {
+                eliminados.add(run);
+            }
+        }
+        if (!eliminados.isEmpty()) {
+            long instante = System.currentTimeMillis();
+            List<Long> runsEliminados = List.copyOf(eliminados);
+            List<Capacitacion> capacitacionesEliminadas = List.copyOf(eliminadas);
+            publicar(secuencia -> new EventoContenedor.UsuariosEliminados(secuencia, instante, runsEliminados,
+                    capacitacionesEliminadas));
+        }
+        return eliminados.size();
+    }
+
+    /**
+     * Modifica campos de un usuario almacenado, manteniendo consistentes los índices.
+     *
+     * <p>Solo se vuelven a indexar las entradas que dependen de los campos que cambian: el RUN, la comuna y la fecha
+     * de nacimiento. La edad de un cliente con fecha de nacimiento se aplica y se publica como un cambio de su fecha
+     * de nacimiento. Si cambia el RUN, las capacitaciones del usuario pasan al nuevo RUN. Los campos que ya tienen el
+     * valor indicado se ignoran, y el cambio se publica como un solo evento con los campos modificados.</p>
+     *
+     * <p>Si un setter rechaza algún valor, los campos ya asignados vuelven a su valor anterior y el usuario queda
+     * como estaba.</p>
+     *
+     * @param run El RUN actual del usuario.
+     * @param cambios Los nuevos valores de los campos a modificar.
+     * @return true si el usuario fue actualizado, false si no existe o el nuevo RUN ya está registrado.
+     * @throws IllegalArgumentException si un campo no corresponde al tipo de usuario o su valor no es válido.
+     */
+    public boolean actualizarUsuario(long run, Map<CampoUsuario, ?> cambios) {
+        Usuario usuario = usuariosPorRun.get(run);
+        if (usuario == null || cambios == null) {
+            return false;
+        }
+        Map<CampoUsuario, Object> modificados = new EnumMap<>(CampoUsuario.class);
+        for (Map.Entry<CampoUsuario, ?> cambio : cambios.entrySet()) {
+            CampoUsuario campo = cambio.getKey();
+            if (!campo.aplicaA(usuario)) {
+                throw new IllegalArgumentException("El campo " + campo + " no corresponde a un "
+                        + usuario.getClass().getSimpleName() + ".");
+            }
+            if (!Objects.equals(campo.leer(usuario), cambio.getValue())) {
+                modificados.put(campo, cambio.getValue());
+            }
+        }
+        if (modificados.isEmpty()) {
+            return true;
+        }
+        Long nuevoRun = (Long) modificados.get(CampoUsuario.RUN);
+        // El nuevo RUN se reserva antes de modificar, como al almacenar
+        if (nuevoRun != null && usuariosPorRun.putIfAbsent(nuevoRun, usuario) != null) {
+            return false;
+        }
+        getIndices().quitarCampos(usuario, modificados.keySet());
+        try {
+            asignar(usuario, modificados);
+        } catch (RuntimeException e) {
+            if (nuevoRun != null) {
+                usuariosPorRun.remove(nuevoRun, usuario);
+            }
+            throw e;
+        } finally {
+            getIndices().agregarCampos(usuario, modificados.keySet());
+        }
+        if (nuevoRun != null) {
+            usuariosPorRun.remove(run, usuario);
+            Map<CampoCapacitacion, Object> nuevoRut = Map.of(CampoCapacitacion.RUT_CLIENTE, nuevoRun);
+            for (Capacitacion capacitacion : new ArrayList<>(getIndices().capacitacionesDeCliente(run))) {
+                modificar(capacitacion, nuevoRut);
+            }
+        }
+        publicarUsuarioActualizado(run, modificados);
+        return true;
+    }
+
+    /**
+     * Modifica campos de una capacitación almacenada, manteniendo consistentes los índices y la
+     * {@link VistaCoberturaCapacitaciones}.
+     *
+     * <p>Solo se vuelven a indexar las entradas que dependen de los campos que cambian: el día, el lugar y el cliente.
+     * Los campos que ya tienen el valor indicado se ignoran, y el cambio se publica como un solo evento.</p>
+     *
+     * @param identificador El identificador de la capacitación.
+     * @param cambios Los nuevos valores de los campos a modificar.
+     * @return true si la capacitación fue actualizada, false si no existe o el nuevo cliente no está registrado.
+     * @throws IllegalArgumentException si algún valor no es válido o el nuevo horario no cabe en el lugar; en ese caso
+     *                                  la capacitación queda como estaba.
+     */
+    public boolean actualizarCapacitacion(int identificador, Map<CampoCapacitacion, ?> cambios) {
+        Capacitacion capacitacion = getIndices().capacitacion(identificador);
+        if (capacitacion == null || cambios == null) {
+            return false;
+        }
+        Map<CampoCapacitacion, Object> modificados = new EnumMap<>(CampoCapacitacion.class);
+        cambios.forEach((campo, valor) -> {
+            if (!Objects.equals(campo.leer(capacitacion), valor)) {
+                modificados.put(campo, valor);
+            }
+        });
+        if (modificados.isEmpty()) {
+            return true;
+        }
+        Object nuevoRut = modificados.get(CampoCapacitacion.RUT_CLIENTE);
+        if (nuevoRut instanceof Long rut && buscarClientePorRut(rut) == null) {
+            return false;
+        }
+        modificar(capacitacion, modificados);
+        publicarCapacitacionActualizada(identificador, modificados);
+        return true;
+    }
+
     /**
      * Lista todos los usuarios registrados.
      * Muestra información de cada usuario si está registrado. Si no hay usuarios, muestra un mensaje indicando que no hay usuarios registrados.
      */
     public void listarUsuarios() {
-        if (usuarios.isEmpty()) {
+        // El iterador recorre una instantánea, así que el listado no se mezcla con cambios de otros hilos
+        Iterator<Usuario> registrados = usuarios.iterator();
+        if (!registrados.hasNext()) {
             System.out.println("No hay usuarios registrados.");
         } else {
-            usuarios.forEach(System.out::println);
+            registrados.forEachRemaining(System.out::println);
         }
     }
 
@@ -144,10 +699,12 @@ public class Contenedor {
      * Al final de los detalles de cada capacitación, se imprime un separador para mayor claridad.
      */
     public void listarCapacitaciones() {
-        if (capacitaciones.isEmpty()) {
+        Iterator<Capacitacion> registradas = capacitaciones.iterator();
+        if (!registradas.hasNext()) {
             System.out.println("No hay capacitaciones registradas.");
         } else {
-            for (Capacitacion capacitacion : capacitaciones) {
+            while (registradas.hasNext()) {
+                Capacitacion capacitacion = registradas.next();
                 // Mostrar detalles usando mostrarDetalle()
                 System.out.println("Resumen Capacitación:");
                 System.out.println(capacitacion.mostrarDetalle());
@@ -158,10 +715,10 @@ public class Contenedor {
 
                 // Mostrar los clientes asociados a la capacitación
                 System.out.println("Información Cliente:");
-                usuarios.stream()
-                        .filter(usuario -> usuario instanceof Cliente &&
-                                ((Cliente) usuario).getRun() == capacitacion.getRutCliente())
-                        .forEach(System.out::println);
+                Cliente cliente = buscarClientePorRut(capacitacion.getRutCliente());
+                if (cliente != null) {
+                    System.out.println(cliente);
+                }
 
                 // Separador entre capacitaciones para mayor claridad
                 System.out.println("--------------------------------------------------");
@@ -169,6 +726,476 @@ public class Contenedor {
         }
     }
 
+    /**
+     * Obtiene los usuarios registrados, sin imprimirlos.
+     * Sus iteradores y streams, también en paralelo, recorren los usuarios que había al crearlos, aunque otro hilo
+     * modifique el contenedor mientras tanto.
+     *
+     * @return Una vista no modificable de los usuarios.
+     */
+    public List<Usuario> getUsuarios() {
+        return Collections.unmodifiableList(usuarios);
+    }
+
+    /**
+     * Obtiene las capacitaciones registradas, sin imprimirlas.
+     * Sus iteradores y streams recorren, como los de {@link #getUsuarios()}, una instantánea de las capacitaciones.
+     *
+     * @return Una vista no modificable de las capacitaciones.
+     */
+    public List<Capacitacion> getCapacitaciones() {
+        return Collections.unmodifiableList(capacitaciones);
+    }
+
+    /**
+     * Obtiene los accidentes registrados: los que están en memoria y luego los archivados. Si el contenedor tiene
+     * archivo de accidentes, los archivados se leen del disco; para recorrerlos sin cargarlos todos a la vez se usa
+     * {@link #iterarAccidentes()}.
+     *
+     * @return Una copia no modificable de los accidentes.
+     * @throws UncheckedIOException si no se puede leer el archivo.
+     */
+    public List<Accidente> getAccidentes() {
+        List<Accidente> todos = new ArrayList<>();
+        iterarAccidentes().forEachRemaining(todos::add);
+        return Collections.unmodifiableList(todos);
+    }
+
+    /**
+     * Recorre los accidentes en memoria, tal como estaban al llamar al método, y luego los archivados, cargando un
+     * segmento del archivo a la vez.
+     *
+     * @return El iterador de los accidentes; lanza {@link UncheckedIOException} si no puede leer un segmento.
+     */
+    Iterator<Accidente> iterarAccidentes() {
+        List<Accidente> enMemoria;
+        List<ArchivoAccidentes.Segmento> segmentos;
+        synchronized (accidentes) {
+            enMemoria = List.copyOf(accidentes);
+            segmentos = archivoAccidentes == null ? List.of() : archivoAccidentes.getSegmentos();
+        }
+        Iterator<ArchivoAccidentes.Segmento> pendientes = segmentos.iterator();
+        return new Iterator<>() {
+            private Iterator<Accidente> actual = enMemoria.iterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!actual.hasNext() && pendientes.hasNext()) {
+                    try {
+                        actual = archivoAccidentes.leer(pendientes.next()).iterator();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                return actual.hasNext();
+            }
+
+            @Override
+            public Accidente next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return actual.next();
+            }
+        };
+    }
+
+    /**
+     * Obtiene el archivo donde se mueven los accidentes antiguos.
+     *
+     * @return El archivo, o null si el contenedor se creó sin archivo de accidentes.
+     */
+    public ArchivoAccidentes getArchivoAccidentes() {
+        return archivoAccidentes;
+    }
+
+    /**
+     * Obtiene las visitas en terreno registradas.
+     *
+     * @return Una vista no modificable de las visitas en terreno.
+     */
+    public List<VisitaEnTerreno> getVisitas() {
+        return Collections.unmodifiableList(visitas);
+    }
+
+    /**
+     * Crea una consulta sobre los clientes del contenedor.
+     *
+     * @return Una consulta nueva, sin filtros.
+     */
+    public ConsultaClientes consultarClientes() {
+        return new ConsultaClientes(this);
+    }
+
+    /**
+     * Crea una consulta sobre las capacitaciones del contenedor.
+     *
+     * @return Una consulta nueva, sin filtros.
+     */
+    public ConsultaCapacitaciones consultarCapacitaciones() {
+        return new ConsultaCapacitaciones(this);
+    }
+
+    /**
+     * Busca los usuarios con una edad dentro de un rango, calculada a partir de su fecha de nacimiento.
+     *
+     * @param minima La edad mínima, inclusiva.
+     * @param maxima La edad máxima, inclusiva.
+     * @return Los usuarios con edad dentro del rango, del más joven al mayor.
+     */
+    public List<Usuario> buscarPorRangoEdad(int minima, int maxima) {
+        List<Usuario> encontrados = new ArrayList<>(getIndices().usuariosConEdadEntre(minima, maxima, LocalDate.now()));
+        Collections.reverse(encontrados);
+        return encontrados;
+    }
+
+    /**
+     * Busca los usuarios que están de cumpleaños en un mes.
+     *
+     * @param mes El mes.
+     * @return Los usuarios que cumplen años en el mes, ordenados por día.
+     */
+    public List<Usuario> buscarCumpleanosDelMes(Month mes) {
+        return new ArrayList<>(getIndices().usuariosConCumpleanosEn(mes.getValue()));
+    }
+
+    /**
+     * Obtiene los índices secundarios del contenedor, usados por las consultas.
+     *
+     * @return Los índices del contenedor.
+     */
+    Indices getIndices() {
+        Indices creados = indices;
+        if (creados == null) {
+            synchronized (this) {
+                creados = indices;
+                if (creados == null) {
+                    creados = new Indices();
+                    indices = creados;
+                }
+            }
+        }
+        return creados;
+    }
+
+    /**
+     * Obtiene la vista de cobertura de capacitaciones, con minutos, asistentes y sesiones por cliente y por día.
+     *
+     * @return La {@link VistaCoberturaCapacitaciones} del contenedor.
+     */
+    public VistaCoberturaCapacitaciones getCobertura() {
+        VistaCoberturaCapacitaciones creada = cobertura;
+        if (creada == null) {
+            synchronized (this) {
+                creada = cobertura;
+                if (creada == null) {
+                    creada = new VistaCoberturaCapacitaciones();
+                    cobertura = creada;
+                }
+            }
+        }
+        return creada;
+    }
+
+    /**
+     * Configura el planificador que controla la capacidad de los lugares. Las capacitaciones ya almacenadas se
+     * reservan sin verificar su capacidad; las nuevas, y los cambios de horario o lugar, se rechazan si no caben.
+     *
+     * @param planificador El planificador, o null para dejar de controlar la capacidad.
+     */
+    public void usarPlanificador(PlanificadorLugares planificador) {
+        if (planificador != null) {
+            capacitaciones.stream()
+                    .filter(capacitacion -> !planificador.contiene(capacitacion))
+                    .forEach(planificador::ocupar);
+        }
+        this.planificador = planificador;
+    }
+
+    /**
+     * Configura el historial de auditoría, que desde ahora registra cada cambio de usuarios y capacitaciones.
+     * El historial guarda primero un punto de control con el estado actual.
+     *
+     * @param historial El historial, que no debe estar registrando otro contenedor.
+     * @throws IllegalArgumentException si el historial ya registra otro contenedor.
+     */
+    public void usarHistorial(HistorialAuditoria historial) {
+        historial.iniciar(this);
+        this.historial = historial;
+    }
+
+    /**
+     * Obtiene el planificador de lugares configurado.
+     *
+     * @return El planificador, o null si no se configuró uno.
+     */
+    public PlanificadorLugares getPlanificador() {
+        return planificador;
+    }
+
+    /**
+     * Obtiene la línea de tiempo de los accidentes, para contar accidentes por intervalo, hora, día de la semana o
+     * mes y para obtener los últimos accidentes de un cliente.
+     * La línea solo tiene los accidentes en memoria con fecha y hora; su historial también cuenta los archivados.
+     * Para buscar o contar incluyendo los archivados se usan {@link #buscarAccidentesEntre(LocalDate, LocalDate)} y
+     * {@link #contarAccidentesEntre(LocalDate, LocalDate)}.
+     *
+     * @return La línea de tiempo de los accidentes.
+     */
+    public LineaDeTiempo<Accidente> getLineaAccidentes() {
+        LineaDeTiempo<Accidente> creada = lineaAccidentes;
+        if (creada == null) {
+            synchronized (this) {
+                creada = lineaAccidentes;
+                if (creada == null) {
+                    creada = new LineaDeTiempo<>(Accidente::getDia, Accidente::getHora, Accidente::getRutCliente);
+                    lineaAccidentes = creada;
+                }
+            }
+        }
+        return creada;
+    }
+
+    /**
+     * Obtiene el índice de las causas de los accidentes, para buscar accidentes por palabras de su origen o sus
+     * consecuencias y para obtener las causas más frecuentes por cliente, comuna o período.
+     *
+     * @return El índice de las causas de los accidentes.
+     */
+    public IndiceCausasAccidentes getIndiceCausas() {
+        IndiceCausasAccidentes creado = indiceCausas;
+        if (creado == null) {
+            synchronized (this) {
+                creado = indiceCausas;
+                if (creado == null) {
+                    creado = new IndiceCausasAccidentes(comuna -> getIndices().clientesEnComuna(comuna).stream()
+                            .map(Cliente::getRun).toList());
+                    indiceCausas = creado;
+                }
+            }
+        }
+        return creado;
+    }
+
+    /**
+     * Obtiene la línea de tiempo de las visitas en terreno.
+     *
+     * @return La línea de tiempo de las visitas en terreno.
+     */
+    public LineaDeTiempo<VisitaEnTerreno> getLineaVisitas() {
+        LineaDeTiempo<VisitaEnTerreno> creada = lineaVisitas;
+        if (creada == null) {
+            synchronized (this) {
+                creada = lineaVisitas;
+                if (creada == null) {
+                    creada = new LineaDeTiempo<>(VisitaEnTerreno::getDia, VisitaEnTerreno::getHora, VisitaEnTerreno::getRutCliente);
+                    lineaVisitas = creada;
+                }
+            }
+        }
+        return creada;
+    }
+
+    /**
+     * Obtiene el flujo de eventos del contenedor. Los sistemas externos se suscriben a él para enterarse de cada
+     * usuario o capacitación almacenada y de cada eliminación, en el orden en que ocurrieron.
+     *
+     * @return El flujo de eventos del contenedor.
+     */
+    public FlujoEventos getEventos() {
+        FlujoEventos creado = eventos;
+        if (creado == null) {
+            synchronized (this) {
+                creado = eventos;
+                if (creado == null) {
+                    creado = new FlujoEventos();
+                    eventos = creado;
+                }
+            }
+        }
+        return creado;
+    }
+
+    /**
+     * Publica el evento de un usuario almacenado.
+     *
+     * @param usuario El usuario almacenado.
+     */
+    private void publicarUsuarioAlmacenado(Usuario usuario) {
+        long instante = System.currentTimeMillis();
+        publicar(secuencia -> new EventoContenedor.UsuarioAlmacenado(secuencia, instante, usuario));
+    }
+
+    /**
+     * Asigna los nuevos valores a un usuario. Si un setter rechaza un valor, restaura los ya asignados.
+     *
+     * @param usuario El usuario.
+     * @param valores Los nuevos valores.
+     */
+    private static void asignar(Usuario usuario, Map<CampoUsuario, Object> valores) {
+        Map<CampoUsuario, Object> anteriores = new EnumMap<>(CampoUsuario.class);
+        try {
+            for (Map.Entry<CampoUsuario, Object> valor : valores.entrySet()) {
+                anteriores.put(valor.getKey(), valor.getKey().leer(usuario));
+                valor.getKey().escribir(usuario, valor.getValue());
+            }
+        } catch (IllegalArgumentException e) {
+            anteriores.forEach((campo, anterior) -> campo.escribir(usuario, anterior));
+            throw e;
+        }
+    }
+
+    /**
+     * Asigna los nuevos valores a una capacitación y vuelve a indexar solo lo que depende de ellos.
+     * Si un setter rechaza un valor, o el nuevo horario no cabe en el lugar, restaura los ya asignados.
+     *
+     * @param capacitacion La capacitación.
+     * @param valores Los nuevos valores.
+     */
+    private void modificar(Capacitacion capacitacion, Map<CampoCapacitacion, Object> valores) {
+        boolean afectaCobertura = !Collections.disjoint(valores.keySet(), VistaCoberturaCapacitaciones.CAMPOS);
+        if (afectaCobertura) {
+            getCobertura().quitar(capacitacion);
+        }
+        boolean afectaReserva = planificador != null
+                && !Collections.disjoint(valores.keySet(), PlanificadorLugares.CAMPOS);
+        getIndices().quitarCampos(capacitacion, valores.keySet());
+        Map<CampoCapacitacion, Object> anteriores = new EnumMap<>(CampoCapacitacion.class);
+        try {
+            for (Map.Entry<CampoCapacitacion, Object> valor : valores.entrySet()) {
+                anteriores.put(valor.getKey(), valor.getKey().leer(capacitacion));
+                valor.getKey().escribir(capacitacion, valor.getValue());
+            }
+            if (afectaReserva && !planificador.reservar(capacitacion)) {
+                throw new IllegalArgumentException("El lugar no tiene capacidad para la capacitación en ese horario.");
+            }
+        } catch (IllegalArgumentException e) {
+            anteriores.forEach((campo, anterior) -> campo.escribir(capacitacion, anterior));
+            throw e;
+        } finally {
+            getIndices().agregarCampos(capacitacion, valores.keySet());
+            if (afectaCobertura) {
+                getCobertura().agregar(capacitacion);
+            }
+        }
+    }
+
+    /**
+     * Agrega una capacitación almacenada a los índices y a la {@link VistaCoberturaCapacitaciones}.
+     *
+     * @param capacitacion La capacitación almacenada.
+     */
+    private void indexarCapacitacion(Capacitacion capacitacion) {
+        getIndices().agregarCapacitacion(capacitacion);
+        getCobertura().agregar(capacitacion);
+    }
+
+    /**
+     * Quita una capacitación eliminada de los índices, de la vista de cobertura y del planificador de lugares.
+     *
+     * @param capacitacion La capacitación eliminada.
+     */
+    private void desindexarCapacitacion(Capacitacion capacitacion) {
+        getIndices().quitarCapacitacion(capacitacion);
+        getCobertura().quitar(capacitacion);
+        if (planificador != null) {
+            planificador.liberar(capacitacion);
+        }
+    }
+
+    /**
+     * Publica un evento en el flujo de eventos. Si hay un historial configurado o emisores de registro, el evento se
+     * registra y se codifica antes de que cualquier suscriptor pueda leerlo, con los datos que tiene al momento del
+     * cambio.
+     *
+     * @param fabrica Crea el evento a partir de la secuencia asignada.
+     */
+    private void publicar(LongFunction<EventoContenedor> fabrica) {
+        HistorialAuditoria auditoria = historial;
+        if (auditoria == null && emisores.isEmpty()) {
+            getEventos().publicar(fabrica);
+            return;
+        }
+        getEventos().publicar(secuencia -> {
+            EventoContenedor evento = fabrica.apply(secuencia);
+            if (auditoria != null) {
+                auditoria.registrar(evento);
+            }
+            if (!emisores.isEmpty()) {
+                String linea = CodificadorRegistro.codificar(evento);
+                emisores.forEach(emisor -> emisor.codificado(secuencia, linea));
+            }
+            return evento;
+        });
+    }
+
+    /**
+     * Registra un emisor, que desde ahora recibe cada evento codificado al momento de publicarse.
+     *
+     * @param emisor El emisor.
+     */
+    void agregarEmisor(EmisorRegistro emisor) {
+        emisores.add(emisor);
+    }
+
+    /**
+     * Deja de entregar eventos codificados a un emisor.
+     *
+     * @param emisor El emisor.
+     */
+    void quitarEmisor(EmisorRegistro emisor) {
+        emisores.remove(emisor);
+    }
+
+    /**
+     * Publica el evento de una capacitación almacenada.
+     *
+     * @param capacitacion La capacitación almacenada.
+     */
+    private void publicarCapacitacionAlmacenada(Capacitacion capacitacion) {
+        long instante = System.currentTimeMillis();
+        publicar(secuencia -> new EventoContenedor.CapacitacionAlmacenada(secuencia, instante, capacitacion));
+    }
+
+    /**
+     * Publica el evento de un usuario actualizado.
+     *
+     * @param run El RUN del usuario antes del cambio.
+     * @param cambios Los campos modificados con sus nuevos valores.
+     */
+    private void publicarUsuarioActualizado(long run, Map<CampoUsuario, Object> cambios) {
+        long instante = System.currentTimeMillis();
+        Map<CampoUsuario, Object> copia = Collections.unmodifiableMap(new EnumMap<>(cambios));
+        publicar(secuencia -> new EventoContenedor.UsuarioActualizado(secuencia, instante, run, copia));
+    }
+
+    /**
+     * Publica el evento de una capacitación actualizada.
+     *
+     * @param identificador El identificador de la capacitación.
+     * @param cambios Los campos modificados con sus nuevos valores.
+     */
+    private void publicarCapacitacionActualizada(int identificador, Map<CampoCapacitacion, Object> cambios) {
+        long instante = System.currentTimeMillis();
+        Map<CampoCapacitacion, Object> copia = Collections.unmodifiableMap(new EnumMap<>(cambios));
+        publicar(secuencia -> new EventoContenedor.CapacitacionActualizada(secuencia, instante, identificador, copia));
+    }
+
+    /**
+     * Publica el evento de un usuario eliminado y, si tenía capacitaciones, el de su eliminación en cascada.
+     *
+     * @param run El RUN del usuario eliminado.
+     * @param capacitacionesEliminadas Las capacitaciones eliminadas junto con el usuario.
+     */
+    private void publicarUsuarioEliminado(long run, List<Capacitacion> capacitacionesEliminadas) {
+        long instante = System.currentTimeMillis();
+        publicar(secuencia -> new EventoContenedor.UsuarioEliminado(secuencia, instante, run));
+        if (!capacitacionesEliminadas.isEmpty()) {
+            List<Capacitacion> eliminadas = List.copyOf(capacitacionesEliminadas);
+            publicar(secuencia -> new EventoContenedor.CapacitacionesEliminadasEnCascada(secuencia, instante, run, eliminadas));
+        }
+    }
+
     /**
      * Busca un cliente por su RUN en la lista de usuarios.
      *
@@ -176,11 +1203,20 @@ public class Contenedor {
      * @return El cliente correspondiente al RUN especificado, o {@code null} si no se encuentra.
      */
     public Cliente buscarClientePorRut(long run) {
-        for (Usuario usuario : usuarios) {
-            if (usuario instanceof Cliente && ((Cliente) usuario).getRun() == run) {
-                return (Cliente) usuario;
-            }
+        Usuario usuario = buscarUsuario(run);
+        if (usuario instanceof Cliente) {
+            return (Cliente) usuario;
         }
         return null;
     }
+
+    /**
+     * Busca un usuario de cualquier tipo por su RUN.
+     *
+     * @param run El RUN del usuario.
+     * @return El usuario, o {@code null} si no está registrado.
+     */
+    Usuario buscarUsuario(long run) {
+        return usuariosPorRun.get(run);
+    }
 }
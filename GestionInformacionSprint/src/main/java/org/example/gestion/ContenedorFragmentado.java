@@ -0,0 +1,482 @@
+package org.example.gestion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/*
+ *
+ * @author Judith Vergara
+ * @version 1.0
+ */
+
+/**
+ * Contenedor dividido por empresa cliente y, dentro de cada empresa, en fragmentos según el RUN.
+ * <p>
+ * Cada empresa tiene sus propios fragmentos, de modo que los datos de una empresa nunca se mezclan con los de otra.
+ * Cada fragmento es un {@link Contenedor} con su propio bloqueo de lectura/escritura y sus propios índices. Las
+ * capacitaciones, accidentes y visitas se ubican por el RUT del cliente, por lo que quedan en el mismo fragmento
+ * que su cliente y la eliminación en cascada de {@link Contenedor#eliminarUsuario(long)} no cruza fragmentos.
+ * </p>
+ * <p>
+ * Las operaciones sobre un RUN bloquean un solo fragmento. Las consultas que abarcan varios fragmentos los
+ * recorren en paralelo y unen los resultados.
+ * </p>
+ */
+public class ContenedorFragmentado {
+
+    // Principio de Abierto/Cerrado (OCP): reutiliza Contenedor sin modificarlo; solo decide en qué fragmento se guarda cada dato.
+
+    /**
+     * Capacidad de la caché de clientes de cada empresa.
+     */
+    private static final int CAPACIDAD_CACHE = 10_000;
+
+    /**
+     * Cantidad de fragmentos de cada empresa.
+     */
+    private final int fragmentosPorEmpresa;
+
+    /**
+     * Fragmentos de cada empresa, por identificador de empresa.
+     */
+    private final ConcurrentMap<String, Fragmento[]> empresas = new ConcurrentHashMap<>();
+
+    /**
+     * Caché de clientes de cada empresa, consultada antes de bloquear el fragmento.
+     */
+    private final ConcurrentMap<String, CacheClientes> caches = new ConcurrentHashMap<>();
+
+    /**
+     * Crea un contenedor con un fragmento por procesador disponible en cada empresa.
+     */
+    public ContenedorFragmentado() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Crea un contenedor con la cantidad de fragmentos por empresa indicada.
+     *
+     * @param fragmentosPorEmpresa Cantidad de fragmentos de cada empresa.
+     */
+    public ContenedorFragmentado(int fragmentosPorEmpresa) {
+        if (fragmentosPorEmpresa <= 0) {
+            throw new IllegalArgumentException("La cantidad de fragmentos debe ser mayor a 0.");
+        }
+        this.fragmentosPorEmpresa = fragmentosPorEmpresa;
+    }
+
+    /**
+     * Almacena un cliente de una empresa.
+     *
+     * @param empresa El identificador de la empresa.
+     * @param cliente El cliente a almacenar.
+     * @return true si el cliente fue almacenado exitosamente, false en caso contrario.
+     */
+    public boolean almacenarCliente(String empresa, Cliente cliente) {
+        if (cliente == null) {
+            return false;
+        }
+        return fragmento(empresa, cliente.getRun()).escribir(c -> c.almacenarCliente(cliente));
+    }
+
+    /**
+     * Almacena un profesional de una empresa.
+     *
+     * @param empresa El identificador de la empresa.
+     * @param profesional El profesional a almacenar.
+     * @return true si el profesional fue almacenado exitosamente, false en caso contrario.
+     */
+    public boolean almacenarProfesional(String empresa, Profesional profesional) {
+        if (profesional == null) {
+            return false;
+        }
+        return fragmento(empresa, profesional.getRun()).escribir(c -> c.almacenarProfesional(profesional));
+    }
+
+    /**
+     * Almacena un administrativo de una empresa.
+     *
+     * @param empresa El identificador de la empresa.
+     * @param administrativo El administrativo a almacenar.
+     * @return true si el administrativo fue almacenado exitosamente, false en caso contrario.
+     */
+    public boolean almacenarAdministrativo(String empresa, Administrativo administrativo) {
+        if (administrativo == null) {
+            return false;
+        }
+        return fragmento(empresa, administrativo.getRun()).escribir(c -> c.almacenarAdministrativo(administrativo));
+    }
+
+    /**
+     * Almacena una capacitación de una empresa en el fragmento de su cliente.
+     *
+     * @param empresa El identificador de la empresa.
+     * @param capacitacion La capacitación a almacenar.
+     * @return true si la capacitación fue almacenada exitosamente, false en caso contrario.
+     */
+    public boolean almacenarCapacitacion(String empresa, Capacitacion capacitacion) {
+        if (capacitacion == null) {
+            return false;
+        }
+        return fragmento(empresa, capacitacion.getRutCliente()).escribir(c -> c.almacenarCapacitacion(capacitacion));
+    }
+
+    /**
+     * Almacena un accidente de una empresa en el fragmento de su cliente.
+     *
+     * @param empresa El identificador de la empresa.
+     * @param accidente El accidente a almacenar.
+     * @return true si el accidente fue almacenado exitosamente, false en caso contrario.
+     */
+    public boolean almacenarAccidente(String empresa, Accidente accidente) {
+        if (accidente == null) {
+            return false;
+        }
+        return fragmento(empresa, accidente.getRutCliente()).escribir(c -> c.almacenarAccidente(accidente));
+    }
+
+    /**
+     * Almacena una visita en terreno de una empresa en el fragmento de su cliente.
+     *
+     * @param empresa El identificador de la empresa.
+     * @param visita La visita en terreno a almacenar.
+     * @return true si la visita fue almacenada exitosamente, false en caso contrario.
+     */
+    public boolean almacenarVisitaEnTerreno(String empresa, VisitaEnTerreno visita) {
+        if (visita == null) {
+            return false;
+        }
+        return fragmento(empresa, visita.getRutCliente()).escribir(c -> c.almacenarVisitaEnTerreno(visita));
+    }
+
+    /**
+     * Elimina un usuario de una empresa y sus capacitaciones asociadas.
+     *
+     * @param empresa El identificador de la empresa.
+     * @param run El RUN del usuario a eliminar.
+     */
+    public void eliminarUsuario(String empresa, long run) {
+        CacheClientes cache = cache(empresa);
+        // Se invalida con el fragmento bloqueado, para que ninguna lectura vuelva a guardar al cliente eliminado
+        fragmento(empresa, run).escribir(c -> {
+            cache.invalidar(run);
+            c.eliminarUsuario(run);
+            return null;
+        });
+    }
+
+    /**
+     * Modifica campos de un usuario de una empresa, como {@link Contenedor#actualizarUsuario(long, Map)}.
+     * Si cambia el RUN y el nuevo corresponde a otro fragmento, el usuario y sus capacitaciones se mueven a ese
+     * fragmento. El usuario y sus capacitaciones se almacenan en el fragmento de destino antes de eliminarlos del de
+     * origen; si el destino rechaza alguno, el cambio de RUN se revierte y el usuario queda en su fragmento.
+     * La caché de la empresa se invalida para el RUN anterior y el nuevo.
+     *
+     * @param empresa El identificador de la empresa.
+     * @param run El RUN actual del usuario.
+     * @param cambios Los nuevos valores de los campos a modificar.
+     * @return true si el usuario fue actualizado, false si no existe, el nuevo RUN ya está registrado o el fragmento
+     *         de destino rechazó al usuario o sus capacitaciones.
+     * @throws IllegalArgumentException si un campo no corresponde al tipo de usuario o su valor no es válido.
+     */
+    public boolean actualizarUsuario(String empresa, long run, Map<CampoUsuario, ?> cambios) {
+        CacheClientes cache = cache(empresa);
+        Fragmento origen = fragmento(empresa, run);
+        Object nuevoRun = cambios == null ? null : cambios.get(CampoUsuario.RUN);
+        if (!(nuevoRun instanceof Long runNuevo) || fragmento(empresa, runNuevo) == origen) {
+            return origen.escribir(c -> {
+                cache.invalidar(run);
+                if (nuevoRun instanceof Long runNuevo) {
+                    cache.invalidar(runNuevo);
+                }
+                return c.actualizarUsuario(run, cambios);
+            });
+        }
+        return Fragmento.escribir(origen, fragmento(empresa, runNuevo), (desde, hacia) -> {
+            if (desde.buscarUsuario(run) == null || hacia.buscarUsuario(runNuevo) != null) {
+                return false;
+            }
+            cache.invalidar(run);
+            cache.invalidar(runNuevo);
+            if (!desde.actualizarUsuario(run, cambios)) {
+                return false;
+            }
+            Usuario usuario = desde.buscarUsuario(runNuevo);
+            List<Capacitacion> capacitaciones = new ArrayList<>(desde.getIndices().capacitacionesDeCliente(runNuevo));
+            // Se almacena en el fragmento de destino antes de eliminar del de origen, para no perder nada si se rechaza
+            if (!hacia.almacenarUsuarios(List.of(usuario))) {
+                desde.actualizarUsuario(runNuevo, Map.of(CampoUsuario.RUN, run));
+                return false;
+            }
+            if (!hacia.almacenarCapacitaciones(capacitaciones)) {
+                hacia.eliminarSinAviso(runNuevo);
+                desde.actualizarUsuario(runNuevo, Map.of(CampoUsuario.RUN, run));
+                return false;
+            }
+            desde.eliminarSinAviso(runNuevo);
+            return true;
+        });
+    }
+
+    /**
+     * Busca un cliente de una empresa por su RUN. Los clientes consultados con frecuencia se responden desde la
+     * caché de la empresa, sin bloquear el fragmento.
+     *
+     * @param empresa El identificador de la empresa.
+     * @param run El RUN del cliente a buscar.
+     * @return El cliente correspondiente al RUN especificado, o {@code null} si no se encuentra.
+     */
+    public Cliente buscarClientePorRut(String empresa, long run) {
+        Fragmento fragmento = fragmento(empresa, run);
+        return cache(empresa).obtener(run, r -> fragmento.leer(c -> c.buscarClientePorRut(r)));
+    }
+
+    /**
+     * Obtiene las estadísticas de la caché de clientes de una empresa.
+     *
+     * @param empresa El identificador de la empresa.
+     * @return Aciertos, fallos, expulsiones y tamaño de la caché.
+     */
+    public CacheClientes.Estadisticas getEstadisticasCache(String empresa) {
+        return cache(empresa).getEstadisticas();
+    }
+
+    /**
+     * Obtiene los usuarios de una empresa.
+     *
+     * @param empresa El identificador de la empresa.
+     * @return Los usuarios de la empresa.
+     */
+    public List<Usuario> listarUsuarios(String empresa) {
+        return unir(fragmentos(empresa), Contenedor::getUsuarios);
+    }
+
+    /**
+     * Obtiene los usuarios de todas las empresas.
+     *
+     * @return Los usuarios de todas las empresas.
+     */
+    public List<Usuario> listarUsuarios() {
+        return unir(todosLosFragmentos(), Contenedor::getUsuarios);
+    }
+
+    /**
+     * Obtiene las capacitaciones de una empresa.
+     *
+     * @param empresa El identificador de la empresa.
+     * @return Las capacitaciones de la empresa.
+     */
+    public List<Capacitacion> listarCapacitaciones(String empresa) {
+        return unir(fragmentos(empresa), Contenedor::getCapacitaciones);
+    }
+
+    /**
+     * Obtiene los accidentes de una empresa.
+     *
+     * @param empresa El identificador de la empresa.
+     * @return Los accidentes de la empresa.
+     */
+    public List<Accidente> listarAccidentes(String empresa) {
+        return unir(fragmentos(empresa), Contenedor::getAccidentes);
+    }
+
+    /**
+     * Obtiene las visitas en terreno de una empresa.
+     *
+     * @param empresa El identificador de la empresa.
+     * @return Las visitas en terreno de la empresa.
+     */
+    public List<VisitaEnTerreno> listarVisitas(String empresa) {
+        return unir(fragmentos(empresa), Contenedor::getVisitas);
+    }
+
+    /**
+     * Obtiene los identificadores de las empresas registradas.
+     *
+     * @return Los identificadores de las empresas.
+     */
+    public Set<String> getEmpresas() {
+        return Set.copyOf(empresas.keySet());
+    }
+
+    /**
+     * Obtiene el fragmento que corresponde a un RUN dentro de una empresa, creando la empresa si no existe.
+     *
+     * @param empresa El identificador de la empresa.
+     * @param run El RUN que determina el fragmento.
+     * @return El fragmento correspondiente.
+     */
+    private Fragmento fragmento(String empresa, long run) {
+        Fragmento[] fragmentos = empresas.computeIfAbsent(validarEmpresa(empresa), e -> crearFragmentos());
+        // Mezcla los bits del RUN para que RUN consecutivos se repartan entre todos los fragmentos
+        int indice = Math.floorMod(Long.hashCode(run * 0x9E3779B97F4A7C15L), fragmentos.length);
+        return fragmentos[indice];
+    }
+
+    /**
+     * Obtiene la caché de clientes de una empresa, creándola si no existe.
+     *
+     * @param empresa El identificador de la empresa.
+     * @return La caché de la empresa.
+     */
+    private CacheClientes cache(String empresa) {
+        return caches.computeIfAbsent(validarEmpresa(empresa), e -> new CacheClientes(CAPACIDAD_CACHE));
+    }
+
+    /**
+     * Obtiene los fragmentos de una empresa.
+     *
+     * @param empresa El identificador de la empresa.
+     * @return Los fragmentos de la empresa, o una lista vacía si la empresa no tiene datos.
+     */
+    private List<Fragmento> fragmentos(String empresa) {
+        Fragmento[] fragmentos = empresas.get(validarEmpresa(empresa));
+        return fragmentos == null ? List.of() : Arrays.asList(fragmentos);
+    }
+
+    /**
+     * Obtiene los fragmentos de todas las empresas.
+     *
+     * @return Todos los fragmentos.
+     */
+    private List<Fragmento> todosLosFragmentos() {
+        List<Fragmento> todos = new ArrayList<>();
+        for (Fragmento[] fragmentos : empresas.values()) {
+            todos.addAll(Arrays.asList(fragmentos));
+        }
+        return todos;
+    }
+
+    /**
+     * Crea los fragmentos vacíos de una empresa nueva.
+     *
+     * @return Los fragmentos creados.
+     */
+    private Fragmento[] crearFragmentos() {
+        Fragmento[] fragmentos = new Fragmento[fragmentosPorEmpresa];
+        for (int i = 0; i < fragmentos.length; i++) {
+            fragmentos[i] = new Fragmento();
+        }
+        return fragmentos;
+    }
+
+    /**
+     * Consulta varios fragmentos en paralelo y une los resultados.
+     *
+     * @param fragmentos Los fragmentos a consultar.
+     * @param consulta Obtiene los elementos de un contenedor.
+     * @param <T> El tipo de los elementos.
+     * @return Los elementos de todos los fragmentos.
+     */
+    private static <T> List<T> unir(List<Fragmento> fragmentos, Function<Contenedor, ? extends Collection<? extends T>> consulta) {
+        return fragmentos.parallelStream()
+                .map(fragmento -> fragmento.leer(c -> List.<T>copyOf(consulta.apply(c))))
+                .flatMap(List::stream)
+                .toList();
+    }
+
+    /**
+     * Verifica que el identificador de empresa no sea nulo ni esté vacío.
+     *
+     * @param empresa El identificador de la empresa.
+     * @return El identificador validado.
+     * @throws IllegalArgumentException si el identificador es nulo o está vacío.
+     */
+    private static String validarEmpresa(String empresa) {
+        if (empresa == null || empresa.isBlank()) {
+            throw new IllegalArgumentException("El identificador de la empresa no puede estar vacío.");
+        }
+        return empresa;
+    }
+
+    /**
+     * Un fragmento: un {@link Contenedor} protegido por su propio bloqueo de lectura/escritura.
+     */
+    private static class Fragmento {
+
+        /**
+         * Numera los fragmentos en el orden en que se crean.
+         */
+        private static final AtomicLong CREADOS = new AtomicLong();
+
+        /**
+         * Número del fragmento, que fija el orden en que se bloquean dos fragmentos a la vez.
+         */
+        private final long orden = CREADOS.getAndIncrement();
+
+        /**
+         * Contenedor con los datos del fragmento.
+         */
+        private final Contenedor contenedor = new Contenedor();
+
+        /**
+         * Bloqueo del fragmento: varias lecturas a la vez o una sola escritura.
+         */
+        private final ReentrantReadWriteLock bloqueo = new ReentrantReadWriteLock();
+
+        /**
+         * Ejecuta una consulta con el bloqueo de lectura.
+         *
+         * @param consulta La consulta a ejecutar.
+         * @param <T> El tipo del resultado.
+         * @return El resultado de la consulta.
+         */
+        <T> T leer(Function<Contenedor, T> consulta) {
+            bloqueo.readLock().lock();
+            try {
+                return consulta.apply(contenedor);
+            } finally {
+                bloqueo.readLock().unlock();
+            }
+        }
+
+        /**
+         * Ejecuta una modificación con el bloqueo de escritura.
+         *
+         * @param modificacion La modificación a ejecutar.
+         * @param <T> El tipo del resultado.
+         * @return El resultado de la modificación.
+         */
+        <T> T escribir(Function<Contenedor, T> modificacion) {
+            bloqueo.writeLock().lock();
+            try {
+                return modificacion.apply(contenedor);
+            } finally {
+                bloqueo.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Ejecuta una modificación con el bloqueo de escritura de dos fragmentos distintos, tomados siempre en el
+         * orden de creación para que dos movimientos cruzados no se bloqueen mutuamente.
+         *
+         * @param primero El primer fragmento.
+         * @param segundo El segundo fragmento.
+         * @param modificacion Recibe los contenedores del primer y del segundo fragmento.
+         * @param <T> El tipo del resultado.
+         * @return El resultado de la modificación.
+         */
+        static <T> T escribir(Fragmento primero, Fragmento segundo, BiFunction<Contenedor, Contenedor, T> modificacion) {
+            Fragmento antes = primero.orden < segundo.orden ? primero : segundo;
+            Fragmento despues = antes == primero ? segundo : primero;
+            antes.bloqueo.writeLock().lock();
+            despues.bloqueo.writeLock().lock();
+            try {
+                return modificacion.apply(primero.contenedor, segundo.contenedor);
+            } finally {
+                despues.bloqueo.writeLock().unlock();
+                antes.bloqueo.writeLock().unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package org.example.gestion;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/*
+ *
+ * @author Judith Vergara
+ * @version 1.0
+ */
+
+/**
+ * Conteo de eventos por hora del día, por día de la semana y por mes.
+ * <p>
+ * Se actualiza en tiempo constante cada vez que se agrega o se quita un evento, por lo que leer las cifras nunca
+ * recorre el historial.
+ * </p>
+ */
+public class ConteoTemporal {
+
+    /**
+     * Cantidad total de eventos.
+     */
+    private int total;
+    /**
+     * Eventos por hora del día, de 0 a 23.
+     */
+    private final int[] porHora = new int[24];
+    /**
+     * Eventos por día de la semana, de lunes (0) a domingo (6).
+     */
+    private final int[] porDiaSemana = new int[7];
+    /**
+     * Eventos por mes.
+     */
+    private final Map<YearMonth, Integer> porMes = new TreeMap<>();
+
+    /**
+     * Suma o resta un evento ubicado en la clave temporal indicada.
+     *
+     * @param clave La clave temporal del evento, según {@link LineaDeTiempo#clave(LocalDate, String)}.
+     * @param cantidad 1 para agregar el evento, -1 para quitarlo.
+     */
+    void sumar(long clave, int cantidad) {
+        LocalDate dia = LocalDate.ofEpochDay(Math.floorDiv(clave, LineaDeTiempo.MINUTOS_POR_DIA));
+        int minuto = (int) Math.floorMod(clave, LineaDeTiempo.MINUTOS_POR_DIA);
+        total += cantidad;
+        porHora[minuto / 60] += cantidad;
+        porDiaSemana[dia.getDayOfWeek().getValue() - 1] += cantidad;
+        porMes.merge(YearMonth.from(dia), cantidad, (a, b) -> a + b == 0 ? null : a + b);
+    }
+
+    /**
+     * Copia el conteo, para entregar sus cifras sin que cambien mientras se leen.
+     *
+     * @return Una copia independiente del conteo.
+     */
+    ConteoTemporal copiar() {
+        ConteoTemporal copia = new ConteoTemporal();
+        copia.total = total;
+        System.arraycopy(porHora, 0, copia.porHora, 0, porHora.length);
+        System.arraycopy(porDiaSemana, 0, copia.porDiaSemana, 0, porDiaSemana.length);
+        copia.porMes.putAll(porMes);
+        return copia;
+    }
+
+    /**
+     * Obtiene la cantidad total de eventos.
+     *
+     * @return La cantidad de eventos.
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * Obtiene la cantidad de eventos ocurridos en una hora del día.
+     *
+     * @param hora La hora, de 0 a 23.
+     * @return La cantidad de eventos en esa hora.
+     */
+    public int getPorHora(int hora) {
+        return porHora[hora];
+    }
+
+    /**
+     * Obtiene la cantidad de eventos ocurridos en un día de la semana.
+     *
+     * @param dia El día de la semana.
+     * @return La cantidad de eventos en ese día.
+     */
+    public int getPorDiaSemana(DayOfWeek dia) {
+        return porDiaSemana[dia.getValue() - 1];
+    }
+
+    /**
+     * Obtiene la cantidad de eventos de cada mes con eventos.
+     *
+     * @return Una vista no modificable de la cantidad de eventos por mes, en orden cronológico.
+     */
+    public Map<YearMonth, Integer> getPorMes() {
+        return Collections.unmodifiableMap(porMes);
+    }
+}
@@ -0,0 +1,375 @@
+package org.example.gestion;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/*
+ *
+ * @author Judith Vergara
+ * @version 1.0
+ */
+
+/**
+ * Detecta usuarios que probablemente son la misma persona, aunque tengan distinto RUN, distinto tipo
+ * ({@link Cliente}, {@link Profesional}, {@link Administrativo}) o diferencias de tildes y espacios en el nombre.
+ * <p>
+ * Para no comparar cada usuario con todos los demás, cada uno se ubica en bloques según claves simples: su fecha de
+ * nacimiento, su teléfono y el comienzo de su apellido con la inicial de su nombre. Solo se comparan usuarios que
+ * comparten algún bloque, y cada par se compara una sola vez, en el primer bloque que comparten. La similitud combina
+ * la distancia de Jaro-Winkler entre los nombres normalizados con la coincidencia de fecha de nacimiento y teléfono.
+ * </p>
+ * <p>
+ * {@link #detectar(Collection)} revisa una colección completa repartiendo los bloques entre varios hilos. En modo
+ * incremental, {@link #agregar(Usuario)} compara un usuario nuevo solo con los de sus bloques y lo incorpora. Su
+ * perfil se calcula una sola vez, al agregarlo, y se compara y se quita con esos datos aunque después cambien;
+ * para que cuenten los datos nuevos se vuelve a agregar.
+ * </p>
+ */
+public class DetectorDuplicados {
+
+    // Principio de Responsabilidad Única (SRP): solo señala posibles duplicados; decidir si se fusionan es tarea de quien lo usa.
+
+    /**
+     * Similitud mínima por defecto para considerar un par como duplicado.
+     */
+    public static final double UMBRAL_POR_DEFECTO = 0.8;
+    /**
+     * Tamaño máximo de un bloque. Los bloques mayores son claves demasiado comunes y no se comparan.
+     */
+    private static final int TAMANO_MAXIMO_BLOQUE = 500;
+    /**
+     * Cantidad de letras del apellido en la clave de nombre.
+     */
+    private static final int LETRAS_APELLIDO = 4;
+    /**
+     * Espacios consecutivos.
+     */
+    private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+    /**
+     * Caracteres que no son dígitos.
+     */
+    private static final Pattern NO_DIGITOS = Pattern.compile("\\D");
+
+    /**
+     * Un par de usuarios que probablemente son la misma persona.
+     *
+     * @param primero Uno de los usuarios.
+     * @param segundo El otro usuario.
+     * @param similitud La similitud entre ambos, entre 0 y 1.
+     */
+    public record ParDuplicado(Usuario primero, Usuario segundo, double similitud) {
+    }
+
+    /**
+     * Similitud mínima para informar un par.
+     */
+    private final double umbral;
+    /**
+     * Perfiles por clave de bloque, para el modo incremental.
+     */
+    private final Map<String, List<Perfil>> bloques = new HashMap<>();
+    /**
+     * Perfil con que se agregó cada usuario en el modo incremental.
+     */
+    private final Map<Usuario, Perfil> perfiles = new IdentityHashMap<>();
+
+    /**
+     * Crea un detector con el umbral por defecto.
+     */
+    public DetectorDuplicados() {
+        this(UMBRAL_POR_DEFECTO);
+    }
+
+    /**
+     * Crea un detector con el umbral indicado.
+     *
+     * @param umbral Similitud mínima para informar un par, entre 0 y 1.
+     * @throws IllegalArgumentException si el umbral está fuera de rango.
+     */
+    public DetectorDuplicados(double umbral) {
+        if (umbral < 0 || umbral > 1) {
+            throw new IllegalArgumentException("El umbral debe estar entre 0 y 1.");
+        }
+        this.umbral = umbral;
+    }
+
+    /**
+     * Busca todos los pares de posibles duplicados de una colección, en paralelo.
+     *
+     * @param usuarios Los usuarios a revisar.
+     * @return Los pares encontrados, de mayor a menor similitud.
+     */
+    public List<ParDuplicado> detectar(Collection<? extends Usuario> usuarios) {
+        Map<String, List<Perfil>> porClave = usuarios.parallelStream()
+                .map(Perfil::new)
+                .flatMap(perfil -> Arrays.stream(perfil.claves).map(clave -> Map.entry(clave, perfil)))
+                .collect(Collectors.groupingByConcurrent(Map.Entry::getKey,
+                        Collectors.mapping(Map.Entry::getValue, Collectors.toList())));
+        return porClave.entrySet().parallelStream()
+                .filter(bloque -> bloque.getValue().size() > 1 && bloque.getValue().size() <= TAMANO_MAXIMO_BLOQUE)
+                .flatMap(bloque -> compararBloque(bloque.getKey(), bloque.getValue(),
+                        clave -> porClave.get(clave).size() <= TAMANO_MAXIMO_BLOQUE).stream())
+                .sorted(Comparator.comparingDouble(ParDuplicado::similitud).reversed())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Compara un usuario nuevo con los ya agregados que comparten algún bloque con él, y luego lo agrega.
+     * Si el usuario ya estaba agregado, primero se quita con sus datos anteriores.
+     *
+     * @param usuario El usuario nuevo.
+     * @return Los posibles duplicados del usuario, de mayor a menor similitud.
+     */
+    public synchronized List<ParDuplicado> agregar(Usuario usuario) {
+        quitar(usuario);
+        Perfil nuevo = new Perfil(usuario);
+        Map<Usuario, ParDuplicado> encontrados = new IdentityHashMap<>();
+        for (String clave : nuevo.claves) {
+            List<Perfil> bloque = bloques.computeIfAbsent(clave, c -> new ArrayList<>());
+            if (bloque.size() <= TAMANO_MAXIMO_BLOQUE) {
+                for (Perfil candidato : bloque) {
+                    if (!encontrados.containsKey(candidato.usuario)) {
+                        double similitud = similitud(nuevo, candidato);
+                        encontrados.put(candidato.usuario,
+                                similitud >= umbral ? new ParDuplicado(usuario, candidato.usuario, similitud) : null);
+                    }
+                }
+            }
+            bloque.add(nuevo);
+        }
+        perfiles.put(usuario, nuevo);
+        return encontrados.values().stream()
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparingDouble(ParDuplicado::similitud).reversed())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Quita un usuario del modo incremental, por ejemplo al eliminarlo del contenedor. Se quita de los bloques en
+     * que se agregó, aunque sus datos hayan cambiado desde entonces.
+     *
+     * @param usuario El usuario a quitar.
+     */
+    public synchronized void quitar(Usuario usuario) {
+        Perfil perfil = perfiles.remove(usuario);
+        if (perfil == null) {
+            return;
+        }
+        for (String clave : perfil.claves) {
+            List<Perfil> bloque = bloques.get(clave);
+            if (bloque != null) {
+                bloque.remove(perfil);
+                if (bloque.isEmpty()) {
+                    bloques.remove(clave);
+                }
+            }
+        }
+    }
+
+    /**
+     * Compara todos los pares de un bloque. Un par solo se informa en el primer bloque comparable que comparte, para
+     * que no se repita entre bloques.
+     *
+     * @param clave La clave del bloque.
+     * @param bloque Los perfiles del bloque.
+     * @param comparable Indica si el bloque de una clave se compara, según su tamaño.
+     * @return Los pares del bloque que superan el umbral.
+     */
+    private List<ParDuplicado> compararBloque(String clave, List<Perfil> bloque, Predicate<String> comparable) {
+        List<ParDuplicado> pares = new ArrayList<>();
+        for (int i = 0; i < bloque.size(); i++) {
+            Perfil a = bloque.get(i);
+            for (int j = i + 1; j < bloque.size(); j++) {
+                Perfil b = bloque.get(j);
+                if (a.usuario == b.usuario || !clave.equals(primeraClaveComun(a, b, comparable))) {
+                    continue;
+                }
+                double similitud = similitud(a, b);
+                if (similitud >= umbral) {
+                    pares.add(new ParDuplicado(a.usuario, b.usuario, similitud));
+                }
+            }
+        }
+        return pares;
+    }
+
+    /**
+     * Obtiene la primera clave comparable, en orden alfabético, que comparten dos perfiles.
+     *
+     * @param a Un perfil.
+     * @param b El otro perfil.
+     * @param comparable Indica si el bloque de una clave se compara.
+     * @return La primera clave común comparable.
+     */
+    private static String primeraClaveComun(Perfil a, Perfil b, Predicate<String> comparable) {
+        String primera = null;
+        for (String clave : a.claves) {
+            for (String otra : b.claves) {
+                if (clave.equals(otra) && (primera == null || clave.compareTo(primera) < 0) && comparable.test(clave)) {
+                    primera = clave;
+                }
+            }
+        }
+        return primera;
+    }
+
+    /**
+     * Calcula la similitud entre dos perfiles: el nombre pesa un 60%, la fecha de nacimiento un 25% y el teléfono
+     * un 15%. Una fecha que difiere solo en el día, el mes o el año, como ocurre con un error de tipeo, cuenta la
+     * mitad. Si alguno de los dos no tiene teléfono, el peso se reparte entre los otros criterios.
+     *
+     * @param a Un perfil.
+     * @param b El otro perfil.
+     * @return La similitud, entre 0 y 1.
+     */
+    static double similitud(Perfil a, Perfil b) {
+        double nombre = jaroWinkler(a.nombre, b.nombre);
+        double nacimiento = similitudFechas(a.usuario.getFechaNacimiento(), b.usuario.getFechaNacimiento());
+        if (a.telefono == null || b.telefono == null) {
+            return (0.6 * nombre + 0.25 * nacimiento) / 0.85;
+        }
+        return 0.6 * nombre + 0.25 * nacimiento + 0.15 * (a.telefono.equals(b.telefono) ? 1 : 0);
+    }
+
+    /**
+     * Compara dos fechas de nacimiento.
+     *
+     * @param a Una fecha, o null.
+     * @param b La otra fecha, o null.
+     * @return 1 si son iguales, 0,5 si difieren en solo uno de sus componentes, 0 en otro caso.
+     */
+    private static double similitudFechas(LocalDate a, LocalDate b) {
+        if (a == null || b == null) {
+            return 0;
+        }
+        int iguales = (a.getYear() == b.getYear() ? 1 : 0) + (a.getMonthValue() == b.getMonthValue() ? 1 : 0)
+                + (a.getDayOfMonth() == b.getDayOfMonth() ? 1 : 0);
+        return iguales == 3 ? 1 : iguales == 2 ? 0.5 : 0;
+    }
+
+    /**
+     * Calcula la similitud de Jaro-Winkler entre dos textos.
+     *
+     * @param s1 Un texto.
+     * @param s2 El otro texto.
+     * @return La similitud, entre 0 y 1.
+     */
+    static double jaroWinkler(String s1, String s2) {
+        if (s1.equals(s2)) {
+            return 1;
+        }
+        if (s1.isEmpty() || s2.isEmpty()) {
+            return 0;
+        }
+        int ventana = Math.max(0, Math.max(s1.length(), s2.length()) / 2 - 1);
+        boolean[] usados1 = new boolean[s1.length()];
+        boolean[] usados2 = new boolean[s2.length()];
+        int coincidencias = 0;
+        for (int i = 0; i < s1.length(); i++) {
+            int desde = Math.max(0, i - ventana);
+            int hasta = Math.min(s2.length() - 1, i + ventana);
+            for (int j = desde; j <= hasta; j++) {
+                if (!usados2[j] && s1.charAt(i) == s2.charAt(j)) {
+                    usados1[i] = true;
+                    usados2[j] = true;
+                    coincidencias++;
+                    break;
+                }
+            }
+        }
+        if (coincidencias == 0) {
+            return 0;
+        }
+        int transposiciones = 0;
+        for (int i = 0, j = 0; i < s1.length(); i++) {
+            if (usados1[i]) {
+                while (!usados2[j]) {
+                    j++;
+                }
+                if (s1.charAt(i) != s2.charAt(j)) {
+                    transposiciones++;
+                }
+                j++;
+            }
+        }
+        double m = coincidencias;
+        double jaro = (m / s1.length() + m / s2.length() + (m - transposiciones / 2.0) / m) / 3;
+        int prefijo = 0;
+        while (prefijo < 4 && prefijo < s1.length() && prefijo < s2.length() && s1.charAt(prefijo) == s2.charAt(prefijo)) {
+            prefijo++;
+        }
+        return jaro + prefijo * 0.1 * (1 - jaro);
+    }
+
+    /**
+     * Datos normalizados de un usuario usados para comparar y para formar bloques.
+     */
+    static final class Perfil {
+
+        /**
+         * El usuario.
+         */
+        final Usuario usuario;
+        /**
+         * Apellidos y nombre normalizados, sin tildes y con un solo espacio entre palabras.
+         */
+        final String nombre;
+        /**
+         * Teléfono con solo dígitos, o null si el usuario no tiene.
+         */
+        final String telefono;
+        /**
+         * Claves de los bloques del usuario.
+         */
+        final String[] claves;
+
+        /**
+         * Calcula el perfil de un usuario.
+         *
+         * @param usuario El usuario.
+         */
+        Perfil(Usuario usuario) {
+            this.usuario = usuario;
+            String apellidos = normalizar(usuario.getApellidos());
+            String nombres = normalizar(usuario.getNombre());
+            this.nombre = (apellidos + " " + nombres).trim();
+            String digitos = usuario instanceof Cliente cliente && cliente.getTelefono() != null
+                    ? NO_DIGITOS.matcher(cliente.getTelefono()).replaceAll("") : "";
+            this.telefono = digitos.isEmpty() ? null : digitos;
+            List<String> lista = new ArrayList<>(3);
+            if (usuario.getFechaNacimiento() != null) {
+                lista.add("F" + usuario.getFechaNacimiento().toEpochDay());
+            }
+            if (telefono != null) {
+                lista.add("T" + telefono);
+            }
+            if (!apellidos.isEmpty()) {
+                String inicioApellido = apellidos.replace(" ", "");
+                lista.add("N" + inicioApellido.substring(0, Math.min(LETRAS_APELLIDO, inicioApellido.length()))
+                        + (nombres.isEmpty() ? "" : nombres.charAt(0)));
+            }
+            this.claves = lista.toArray(new String[0]);
+        }
+
+        /**
+         * Normaliza un texto: sin tildes, en mayúsculas y con un solo espacio entre palabras.
+         *
+         * @param texto El texto, o null.
+         * @return El texto normalizado.
+         */
+        private static String normalizar(String texto) {
+            return texto == null ? "" : ESPACIOS.matcher(Validar.normalizarString(texto).trim()).replaceAll(" ");
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package org.example.gestion;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/*
+ *
+ * @author Judith Vergara
+ * @version 1.0
+ */
+
+/**
+ * Envía el registro de mutaciones de un {@link Contenedor} a un archivo compartido, del que lo leen las
+ * {@link ReplicaSeguidora}.
+ * <p>
+ * Al crearse, el emisor escribe una {@link EventoContenedor.Instantanea} con los usuarios y capacitaciones que ya
+ * tiene el contenedor, y desde ahí sigue el {@link FlujoEventos}: una réplica que lee el archivo desde el principio
+ * parte con los mismos datos que el líder. Cada evento se codifica con {@link CodificadorRegistro} en el hilo que lo
+ * publica, con los valores que tenían las entidades en ese momento, y un hilo propio escribe las líneas en orden de
+ * secuencia. Las líneas se vacían al archivo cada vez que no quedan eventos pendientes, de modo que una ráfaga de
+ * cambios se escribe en una sola operación.
+ * </p>
+ * <p>
+ * El emisor se suscribe con {@link FlujoEventos#suscribirSinExpulsion()}: si el disco es lento, el contenedor espera
+ * a que el emisor avance en lugar de expulsarlo, de modo que el registro nunca queda incompleto sin aviso y las
+ * réplicas siempre pueden ser promovidas con todos los eventos.
+ * </p>
+ * <p>
+ * Si el archivo ya tiene eventos, por ejemplo porque el líder se reinició, el emisor sigue la numeración del archivo:
+ * la instantánea y los eventos nuevos llevan secuencias mayores que la última escrita, de modo que las réplicas y
+ * {@link HistorialAuditoria#cargar(Path, int)} no los confunden con eventos repetidos.
+ * </p>
+ */
+public class EmisorRegistro implements AutoCloseable {
+
+    // Principio de Responsabilidad Única (SRP): el emisor solo transporta eventos al archivo; aplicarlos es tarea de la réplica.
+
+    /**
+     * Contenedor líder.
+     */
+    private final Contenedor contenedor;
+    /**
+     * Líneas codificadas al publicarse, por secuencia, que todavía no se escriben.
+     */
+    private final Map<Long, String> lineas = new ConcurrentHashMap<>();
+    /**
+     * Suscripción al flujo de eventos del contenedor.
+     */
+    private final FlujoEventos.Suscripcion suscripcion;
+    /**
+     * Escritor del archivo de registro.
+     */
+    private final BufferedWriter escritor;
+    /**
+     * Hilo que escribe los eventos.
+     */
+    private final Thread hilo;
+    /**
+     * Diferencia entre la secuencia que se escribe en el registro y la del flujo de eventos del contenedor.
+     */
+    private final long desplazamiento;
+    /**
+     * Primera secuencia que escribe el emisor; las anteriores están en la instantánea inicial.
+     */
+    private volatile long primeraSecuencia = Long.MAX_VALUE;
+    /**
+     * Indica si el emisor debe detenerse.
+     */
+    private volatile boolean detenido;
+    /**
+     * Error de escritura que detuvo al emisor, si lo hubo.
+     */
+    private volatile IOException error;
+
+    /**
+     * Crea un emisor que agrega al archivo indicado el estado actual del contenedor y luego los eventos que publique.
+     * Si el archivo ya tiene eventos, los nuevos continúan su numeración.
+     *
+     * @param contenedor El contenedor líder.
+     * @param registro El archivo de registro compartido.
+     * @throws IOException si no se puede abrir o escribir el archivo, o si termina con una línea incompleta.
+     */
+    public EmisorRegistro(Contenedor contenedor, Path registro) throws IOException {
+        this.contenedor = contenedor;
+        long ultimaEscrita = ultimaSecuencia(registro);
+        this.escritor = Files.newBufferedWriter(registro, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        // Se registra antes de suscribirse para recibir codificados todos los eventos que seguirá
+        contenedor.agregarEmisor(this);
+        this.suscripcion = contenedor.getEventos().suscribirSinExpulsion();
+        long desde = suscripcion.getProximaSecuencia();
+        // La instantánea lleva la secuencia anterior a la primera del flujo; ambas deben quedar después de la última
+        // escrita en el archivo
+        long primeraEscrita = desde > 0 ? desde - 1 : desde;
+        this.desplazamiento = ultimaEscrita < 0 ? 0 : ultimaEscrita + 1 - primeraEscrita;
+        primeraSecuencia = desde;
+        lineas.keySet().removeIf(secuencia -> secuencia < desde);
+        try {
+            if (desde > 0) {
+                // Los cambios que ocurran mientras se copia el estado también llegan como eventos; la réplica los
+                // aplica sin efecto si la instantánea ya los incluye
+                escritor.write(CodificadorRegistro.codificar(new EventoContenedor.Instantanea(desde - 1 + desplazamiento,
+                        System.currentTimeMillis(), List.copyOf(contenedor.getUsuarios()),
+                        List.copyOf(contenedor.getCapacitaciones()))));
+                escritor.write('\n');
+                escritor.flush();
+            }
+        } catch (IOException e) {
+            contenedor.quitarEmisor(this);
+            suscripcion.cancelar();
+            escritor.close();
+            throw e;
+        }
+        this.hilo = new Thread(this::emitir, "emisor-registro");
+        this.hilo.setDaemon(true);
+        this.hilo.start();
+    }
+
+    /**
+     * Lee la secuencia de la última línea de un registro, leyendo el archivo desde el final.
+     *
+     * @param registro El archivo de registro.
+     * @return La última secuencia escrita, o -1 si el archivo no existe o está vacío.
+     * @throws IOException si no se puede leer el archivo o termina con una línea incompleta, que una réplica uniría
+     *                     con la siguiente línea escrita.
+     */
+    static long ultimaSecuencia(Path registro) throws IOException {
+        if (!Files.exists(registro)) {
+            return -1;
+        }
+        try (FileChannel canal = FileChannel.open(registro, StandardOpenOption.READ)) {
+            long fin = canal.size();
+            if (fin == 0) {
+                return -1;
+            }
+            ByteBuffer byteFinal = ByteBuffer.allocate(1);
+            canal.read(byteFinal, fin - 1);
+            if (byteFinal.get(0) != '\n') {
+                throw new IOException("El registro " + registro + " termina con una línea incompleta.");
+            }
+            // Busca el salto de línea anterior al último, de atrás hacia adelante
+            ByteBuffer bloque = ByteBuffer.allocate(8 * 1024);
+            long inicio = 0;
+            long posicion = fin - 1;
+            buscar:
+            while (posicion > 0) {
+                int largo = (int) Math.min(bloque.capacity(), posicion);
+                bloque.clear().limit(largo);
+                canal.read(bloque, posicion - largo);
+                for (int i = largo - 1; i >= 0; i--) {
+                    if (bloque.get(i) == '\n') {
+                        inicio = posicion - largo + i + 1;
+                        break buscar;
+                    }
+                }
+                posicion -= largo;
+            }
+            // La secuencia es el primer campo de la línea, y cabe en los primeros bytes
+            ByteBuffer prefijo = ByteBuffer.allocate(32);
+            prefijo.limit((int) Math.min(prefijo.capacity(), fin - inicio));
+            canal.read(prefijo, inicio);
+            String texto = new String(prefijo.array(), 0, prefijo.position(), StandardCharsets.UTF_8);
+            int separador = texto.indexOf('\t');
+            try {
+                return Long.parseLong(separador < 0 ? texto.trim() : texto.substring(0, separador));
+            } catch (NumberFormatException e) {
+                throw new IOException("La última línea del registro " + registro + " no es válida.", e);
+            }
+        }
+    }
+
+    /**
+     * Recibe un evento codificado por el contenedor en el hilo que lo publicó.
+     *
+     * @param secuencia La secuencia del evento.
+     * @param linea La línea que representa al evento.
+     */
+    void codificado(long secuencia, String linea) {
+        if (secuencia >= primeraSecuencia || primeraSecuencia == Long.MAX_VALUE) {
+            lineas.put(secuencia, linea);
+        }
+    }
+
+    /**
+     * Escribe los eventos en el archivo hasta que el emisor se detenga.
+     */
+    private void emitir() {
+        try {
+            while (!detenido) {
+                EventoContenedor evento = suscripcion.esperar(100, TimeUnit.MILLISECONDS);
+                if (evento == null) {
+                    escritor.flush();
+                } else {
+                    escribir(evento);
+                }
+            }
+            // Escribe lo que quedó pendiente antes de cerrar
+            for (EventoContenedor evento = suscripcion.siguiente(); evento != null; evento = suscripcion.siguiente()) {
+                escribir(evento);
+            }
+            escritor.flush();
+        } catch (IOException e) {
+            error = e;
+        } finally {
+            contenedor.quitarEmisor(this);
+            suscripcion.cancelar();
+            lineas.clear();
+        }
+    }
+
+    /**
+     * Escribe la línea de un evento, la codificada al publicarlo.
+     *
+     * @param evento El evento.
+     * @throws IOException si no se puede escribir.
+     */
+    private void escribir(EventoContenedor evento) throws IOException {
+        String linea = lineas.remove(evento.secuencia());
+        if (linea == null) {
+            // Solo ocurre con un evento publicado mientras el emisor se registraba
+            linea = CodificadorRegistro.codificar(evento);
+        }
+        if (desplazamiento != 0) {
+            linea = (evento.secuencia() + desplazamiento) + linea.substring(linea.indexOf('\t'));
+        }
+        escritor.write(linea);
+        escritor.write('\n');
+    }
+
+    /**
+     * Obtiene la próxima secuencia que el emisor escribirá en el registro, en la numeración del registro.
+     *
+     * @return La próxima secuencia pendiente de escribir.
+     */
+    public long getProximaSecuencia() {
+        return suscripcion.getProximaSecuencia() + desplazamiento;
+    }
+
+    /**
+     * Obtiene el error de escritura que dejó incompleto el registro. El emisor nunca se expulsa por retraso, así que
+     * solo un error de escritura lo detiene. Un emisor con error no escribe más eventos; se cierra y se crea otro
+     * sobre un registro nuevo.
+     *
+     * @return El error, o null si el registro tiene todos los eventos publicados.
+     */
+    public IOException getUltimoError() {
+        return error;
+    }
+
+    /**
+     * Detiene el emisor después de escribir todos los eventos pendientes y cierra el archivo.
+     *
+     * @throws UncheckedIOException si hubo un error al escribir el registro.
+     */
+    @Override
+    public void close() {
+        detenido = true;
+        try {
+            hilo.join();
+            escritor.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            error = e;
+        }
+        if (error != null) {
+            throw new UncheckedIOException("Error al escribir el registro de mutaciones.", error);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package org.example.gestion;
+
+import java.util.List;
+import java.util.Map;
+
+/*
+ *
+ * @author Judith Vergara
+ * @version 1.0
+ */
+
+/**
+ * Evento publicado por {@link Contenedor} cada vez que cambia su contenido.
+ * <p>
+ * Cada evento lleva un número de secuencia asignado por {@link FlujoEventos}, único y creciente, y el instante
+ * (milisegundos desde la época) en que se produjo el cambio.
+ * </p>
+ */
+public sealed interface EventoContenedor
+        permits EventoContenedor.UsuarioAlmacenado, EventoContenedor.UsuariosAlmacenados, EventoContenedor.UsuarioEliminado,
+        EventoContenedor.UsuariosEliminados,
+        EventoContenedor.CapacitacionAlmacenada, EventoContenedor.CapacitacionesAlmacenadas,
+        EventoContenedor.CapacitacionesEliminadasEnCascada,
+        EventoContenedor.UsuarioActualizado, EventoContenedor.CapacitacionActualizada, EventoContenedor.Instantanea {
+
+    /**
+     * Obtiene el número de secuencia del evento.
+     *
+     * @return El número de secuencia del evento.
+     */
+    long secuencia();
+
+    /**
+     * Obtiene el instante en que se produjo el cambio.
+     *
+     * @return Milisegundos desde la época.
+     */
+    long instante();
+
+    /**
+     * Un usuario ({@link Cliente}, {@link Profesional} o {@link Administrativo}) fue almacenado.
+     *
+     * @param secuencia Número de secuencia del evento.
+     * @param instante Instante del cambio.
+     * @param usuario El usuario almacenado.
+     */
+    record UsuarioAlmacenado(long secuencia, long instante, Usuario usuario) implements EventoContenedor {}
+
+    /**
+     * Un lote de usuarios fue almacenado en una sola operación.
+     *
+     * @param secuencia Número de secuencia del evento.
+     * @param instante Instante del cambio.
+     * @param usuarios Los usuarios almacenados, en el orden del lote.
+     */
+    record UsuariosAlmacenados(long secuencia, long instante, List<Usuario> usuarios) implements EventoContenedor {}
+
+    /**
+     * Un usuario fue eliminado.
+     *
+     * @param secuencia Número de secuencia del evento.
+     * @param instante Instante del cambio.
+     * @param run El RUN del usuario eliminado.
+     */
+    record UsuarioEliminado(long secuencia, long instante, long run) implements EventoContenedor {}
+
+    /**
+     * Un conjunto de usuarios fue eliminado en una sola operación, junto con sus capacitaciones.
+     *
+     * @param secuencia Número de secuencia del evento.
+     * @param instante Instante del cambio.
+     * @param runs Los RUN de los usuarios eliminados.
+     * @param capacitaciones Las capacitaciones eliminadas junto con ellos.
+     */
+    record UsuariosEliminados(long secuencia, long instante, List<Long> runs, List<Capacitacion> capacitaciones)
+            implements EventoContenedor {}
+
+    /**
+     * Una capacitación fue almacenada.
+     *
+     * @param secuencia Número de secuencia del evento.
+     * @param instante Instante del cambio.
+     * @param capacitacion La capacitación almacenada.
+     */
+    record CapacitacionAlmacenada(long secuencia, long instante, Capacitacion capacitacion) implements EventoContenedor {}
+
+    /**
+     * Un lote de capacitaciones fue almacenado en una sola operación.
+     *
+     * @param secuencia Número de secuencia del evento.
+     * @param instante Instante del cambio.
+     * @param capacitaciones Las capacitaciones almacenadas, en el orden del lote.
+     */
+    record CapacitacionesAlmacenadas(long secuencia, long instante, List<Capacitacion> capacitaciones)
+            implements EventoContenedor {}
+
+    /**
+     * Las capacitaciones de un cliente fueron eliminadas junto con él.
+     *
+     * @param secuencia Número de secuencia del evento.
+     * @param instante Instante del cambio.
+     * @param rutCliente El RUT del cliente eliminado.
+     * @param capacitaciones Las capacitaciones eliminadas.
+     */
+    record CapacitacionesEliminadasEnCascada(long secuencia, long instante, long rutCliente,
+                                             List<Capacitacion> capacitaciones) implements EventoContenedor {}
+
+    /**
+     * Algunos campos de un usuario fueron modificados. Solo se incluyen los campos que cambiaron.
+     *
+     * @param secuencia Número de secuencia del evento.
+     * @param instante Instante del cambio.
+     * @param run El RUN del usuario antes del cambio.
+     * @param cambios Los nuevos valores de los campos modificados.
+     */
+    record UsuarioActualizado(long secuencia, long instante, long run, Map<CampoUsuario, Object> cambios)
+            implements EventoContenedor {}
+
+    /**
+     * Algunos campos de una capacitación fueron modificados. Solo se incluyen los campos que cambiaron.
+     *
+     * @param secuencia Número de secuencia del evento.
+     * @param instante Instante del cambio.
+     * @param identificador El identificador de la capacitación.
+     * @param cambios Los nuevos valores de los campos modificados.
+     */
+    record CapacitacionActualizada(long secuencia, long instante, int identificador,
+                                   Map<CampoCapacitacion, Object> cambios) implements EventoContenedor {}
+
+    /**
+     * Estado completo de los usuarios y capacitaciones de un contenedor. No lo publica el contenedor: lo escribe un
+     * {@link EmisorRegistro} al comenzar, para que una réplica que lee el registro desde el principio parta con los
+     * datos que ya existían.
+     *
+     * @param secuencia Secuencia del último evento incluido en el estado.
+     * @param instante Instante en que se tomó el estado.
+     * @param usuarios Los usuarios.
+     * @param capacitaciones Las capacitaciones.
+     */
+    record Instantanea(long secuencia, long instante, List<Usuario> usuarios, List<Capacitacion> capacitaciones)
+            implements EventoContenedor {}
+}
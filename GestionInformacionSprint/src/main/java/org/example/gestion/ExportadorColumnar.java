@@ -0,0 +1,413 @@
+package org.example.gestion;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+
+/*
+ *
+ * @author Judith Vergara
+ * @version 1.0
+ */
+
+/**
+ * Exporta las entidades del {@link Contenedor} a archivos columnares comprimidos, uno por tabla de
+ * {@link TablaColumnar}.
+ * <p>
+ * Las filas se leen de un iterador y se acumulan de a {@value #FILAS_POR_GRUPO}: cada grupo de filas se codifica
+ * columna por columna, se comprime con {@link Deflater} y se escribe antes de leer el siguiente, por lo que la
+ * memoria usada depende del tamaño del grupo y no de la cantidad total de filas. Solo los diccionarios se
+ * mantienen durante todo el archivo, y crecen con la cantidad de valores distintos, no de filas. Por cada bloque
+ * se guarda en el pie su posición y el mínimo y máximo de la columna, para que un lector pueda saltar los bloques
+ * que no le interesan. El formato binario se describe en {@link FormatoColumnar}.
+ * </p>
+ * <p>
+ * Cada archivo se escribe con un nombre temporal y se renombra al terminar, así que un archivo con su nombre final
+ * siempre está completo.
+ * </p>
+ */
+public class ExportadorColumnar {
+
+    // Principio de Responsabilidad Única (SRP): solo escribe los archivos; las columnas de cada tabla las define TablaColumnar.
+
+    /**
+     * Cantidad de filas de cada grupo.
+     */
+    public static final int FILAS_POR_GRUPO = 65_536;
+
+    /**
+     * Resultado de la exportación de una tabla.
+     *
+     * @param tabla El nombre de la tabla.
+     * @param filas La cantidad de filas exportadas.
+     * @param bytes El tamaño del archivo escrito.
+     * @param milisegundos La duración de la exportación.
+     */
+    public record Resultado(String tabla, long filas, long bytes, long milisegundos) {
+
+        /**
+         * Calcula las filas exportadas por segundo.
+         *
+         * @return Las filas por segundo.
+         */
+        public double filasPorSegundo() {
+            return filas * 1000.0 / Math.max(1, milisegundos);
+        }
+
+        /**
+         * Calcula los megabytes escritos por segundo.
+         *
+         * @return Los megabytes por segundo.
+         */
+        public double megabytesPorSegundo() {
+            return bytes * 1000.0 / (1024 * 1024) / Math.max(1, milisegundos);
+        }
+    }
+
+    /**
+     * Compresor reutilizado entre bloques.
+     */
+    private final Deflater compresor = new Deflater(Deflater.BEST_SPEED);
+    /**
+     * Bloque comprimido, reutilizado entre bloques.
+     */
+    private byte[] comprimido = new byte[64 * 1024];
+
+    /**
+     * Exporta todas las tablas de un contenedor a un directorio. Los accidentes incluyen los archivados, que se
+     * leen de a un segmento mensual. Las revisiones incluyen los ítems revisados del checklist de cada visita.
+     *
+     * @param contenedor El contenedor.
+     * @param directorio El directorio de destino; se crea si no existe.
+     * @return El resultado de cada tabla, con su rendimiento.
+     * @throws IOException si no se puede escribir algún archivo o leer el archivo de accidentes.
+     */
+    public List<Resultado> exportar(Contenedor contenedor, Path directorio) throws IOException {
+        Files.createDirectories(directorio);
+        List<Usuario> usuarios = contenedor.getUsuarios();
+        List<Resultado> resultados = new ArrayList<>();
+        resultados.add(exportar(TablaColumnar.CLIENTES, usuarios.stream()
+                .filter(Cliente.class::isInstance).map(Cliente.class::cast).iterator(), directorio));
+        resultados.add(exportar(TablaColumnar.PROFESIONALES, usuarios.stream()
+                .filter(Profesional.class::isInstance).map(Profesional.class::cast).iterator(), directorio));
+        resultados.add(exportar(TablaColumnar.ADMINISTRATIVOS, usuarios.stream()
+                .filter(Administrativo.class::isInstance).map(Administrativo.class::cast).iterator(), directorio));
+        resultados.add(exportar(TablaColumnar.CAPACITACIONES, contenedor.getCapacitaciones().iterator(), directorio));
+        resultados.add(exportar(TablaColumnar.ACCIDENTES, contenedor.iterarAccidentes(), directorio));
+        resultados.add(exportar(TablaColumnar.REVISIONES, contenedor.getVisitas().stream()
+                .flatMap(ExportadorColumnar::filasRevision).iterator(), directorio));
+        return resultados;
+    }
+
+    /**
+     * Obtiene las filas de revisión de una visita: primero sus revisiones sueltas y luego los ítems ya revisados de
+     * su checklist, con el nombre de la plantilla.
+     *
+     * @param visita La visita.
+     * @return Las filas, que se crean a medida que se recorren.
+     */
+    private static Stream<TablaColumnar.FilaRevision> filasRevision(VisitaEnTerreno visita) {
+        Stream<TablaColumnar.FilaRevision> sueltas = visita.getRevisiones() == null ? Stream.empty()
+                : visita.getRevisiones().stream().map(TablaColumnar.FilaRevision::de);
+        ResultadosRevision resultados = visita.getResultados();
+        if (resultados == null) {
+            return sueltas;
+        }
+        PlantillaRevision plantilla = resultados.getPlantilla();
+        Stream<TablaColumnar.FilaRevision> items = IntStream.range(0, plantilla.getCantidadItems())
+                .filter(item -> resultados.getEstado(item) != ResultadosRevision.SIN_REVISAR)
+                .mapToObj(item -> new TablaColumnar.FilaRevision(item + 1, visita.getIdentificador(),
+                        plantilla.getNombre(), plantilla.getItems().get(item), null, resultados.getEstado(item)));
+        return Stream.concat(sueltas, items);
+    }
+
+    /**
+     * Exporta una tabla al archivo que le corresponde dentro de un directorio.
+     *
+     * @param tabla El esquema de la tabla.
+     * @param filas Las filas a exportar, que se recorren una sola vez.
+     * @param directorio El directorio de destino.
+     * @param <T> El tipo de la entidad de cada fila.
+     * @return El resultado de la exportación.
+     * @throws IOException si no se puede escribir el archivo.
+     */
+    public <T> Resultado exportar(TablaColumnar<T> tabla, Iterator<? extends T> filas, Path directorio)
+            throws IOException {
+        long inicio = System.nanoTime();
+        Path destino = directorio.resolve(tabla.getArchivo());
+        Path temporal = directorio.resolve(tabla.getArchivo() + ".tmp");
+        List<TablaColumnar.Columna<T>> columnas = tabla.getColumnas();
+        Escritor<T> escritor = new Escritor<>(columnas);
+        long total = 0;
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer cabecera = ByteBuffer.allocate(FormatoColumnar.MAGICO.length + 1);
+            cabecera.put(FormatoColumnar.MAGICO).put(FormatoColumnar.VERSION).flip();
+            escribirTodo(canal, cabecera);
+
+            List<T> grupo = new ArrayList<>(FILAS_POR_GRUPO);
+            List<long[]> bloques = new ArrayList<>();
+            List<Integer> filasPorGrupo = new ArrayList<>();
+            while (filas.hasNext()) {
+                grupo.add(filas.next());
+                if (grupo.size() == FILAS_POR_GRUPO || !filas.hasNext()) {
+                    for (TablaColumnar.Columna<T> columna : columnas) {
+                        bloques.add(escribirBloque(canal, escritor, columna, grupo));
+                    }
+                    filasPorGrupo.add(grupo.size());
+                    total += grupo.size();
+                    grupo.clear();
+                }
+            }
+            byte[] pie = pie(tabla, escritor, filasPorGrupo, bloques, total);
+            ByteBuffer cola = ByteBuffer.allocate(pie.length + Integer.BYTES + FormatoColumnar.MAGICO.length);
+            cola.put(pie).putInt(pie.length).put(FormatoColumnar.MAGICO).flip();
+            escribirTodo(canal, cola);
+        } catch (UncheckedIOException e) {
+            Files.deleteIfExists(temporal);
+            throw e.getCause();
+        } catch (IOException e) {
+            Files.deleteIfExists(temporal);
+            throw e;
+        }
+        try {
+            Files.move(temporal, destino, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING);
+        }
+        long milisegundos = (System.nanoTime() - inicio) / 1_000_000;
+        return new Resultado(tabla.getNombre(), total, Files.size(destino), milisegundos);
+    }
+
+    /**
+     * Codifica, comprime y escribe el bloque de una columna para un grupo de filas.
+     *
+     * @param canal El canal del archivo.
+     * @param escritor El estado de codificación de la tabla.
+     * @param columna La columna.
+     * @param grupo Las filas del grupo.
+     * @param <T> El tipo de la entidad de cada fila.
+     * @return La posición, el largo comprimido, el largo original, el mínimo y el máximo del bloque.
+     * @throws IOException si no se puede escribir.
+     */
+    private <T> long[] escribirBloque(FileChannel canal, Escritor<T> escritor, TablaColumnar.Columna<T> columna,
+                                      List<T> grupo) throws IOException {
+        FormatoColumnar.Bufer bufer = escritor.bufer;
+        bufer.limpiar();
+        long[] estadisticas = escritor.codificar(columna, grupo);
+
+        compresor.reset();
+        compresor.setInput(bufer.datos(), 0, bufer.tamano());
+        compresor.finish();
+        int largo = 0;
+        while (!compresor.finished()) {
+            if (largo == comprimido.length) {
+                comprimido = Arrays.copyOf(comprimido, comprimido.length * 2);
+            }
+            largo += compresor.deflate(comprimido, largo, comprimido.length - largo);
+        }
+        long posicion = canal.position();
+        escribirTodo(canal, ByteBuffer.wrap(comprimido, 0, largo));
+        return new long[]{posicion, largo, bufer.tamano(), estadisticas[0], estadisticas[1]};
+    }
+
+    /**
+     * Arma el pie del archivo.
+     *
+     * @param tabla El esquema de la tabla.
+     * @param escritor El estado de codificación, con los diccionarios.
+     * @param filasPorGrupo La cantidad de filas de cada grupo.
+     * @param bloques Los datos de cada bloque, grupo por grupo y columna por columna.
+     * @param total La cantidad total de filas.
+     * @param <T> El tipo de la entidad de cada fila.
+     * @return Los bytes del pie.
+     * @throws IOException no ocurre al escribir en memoria.
+     */
+    private static <T> byte[] pie(TablaColumnar<T> tabla, Escritor<T> escritor, List<Integer> filasPorGrupo,
+                                  List<long[]> bloques, long total) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream salida = new DataOutputStream(bytes);
+        List<TablaColumnar.Columna<T>> columnas = tabla.getColumnas();
+        salida.writeUTF(tabla.getNombre());
+        salida.writeLong(total);
+        salida.writeInt(columnas.size());
+        for (TablaColumnar.Columna<T> columna : columnas) {
+            salida.writeUTF(columna.nombre());
+            salida.writeByte(columna.codificacion().ordinal());
+            if (columna.codificacion() == TablaColumnar.Codificacion.DICCIONARIO) {
+                List<String> valores = escritor.valores.get(columna.nombre());
+                salida.writeInt(valores.size());
+                for (String valor : valores) {
+                    salida.writeUTF(valor);
+                }
+            }
+        }
+        salida.writeInt(filasPorGrupo.size());
+        int bloque = 0;
+        for (int filas : filasPorGrupo) {
+            salida.writeInt(filas);
+            for (int i = 0; i < columnas.size(); i++) {
+                long[] datos = bloques.get(bloque++);
+                salida.writeLong(datos[0]);
+                salida.writeInt((int) datos[1]);
+                salida.writeInt((int) datos[2]);
+                salida.writeLong(datos[3]);
+                salida.writeLong(datos[4]);
+            }
+        }
+        salida.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Escribe todo el contenido de un buffer en un canal.
+     *
+     * @param canal El canal.
+     * @param buffer El buffer.
+     * @throws IOException si no se puede escribir.
+     */
+    private static void escribirTodo(FileChannel canal, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+    }
+
+    /**
+     * Estado de codificación de un archivo: el buffer del bloque actual y los diccionarios de sus columnas.
+     *
+     * @param <T> El tipo de la entidad de cada fila.
+     */
+    private static final class Escritor<T> {
+
+        /**
+         * Buffer del bloque que se está codificando.
+         */
+        private final FormatoColumnar.Bufer bufer = new FormatoColumnar.Bufer();
+        /**
+         * Código de cada texto, por columna con diccionario.
+         */
+        private final Map<String, Map<String, Integer>> codigos = new HashMap<>();
+        /**
+         * Textos de cada diccionario, en el orden de sus códigos.
+         */
+        private final Map<String, List<String>> valores = new HashMap<>();
+
+        /**
+         * Crea el estado de codificación de una tabla.
+         *
+         * @param columnas Las columnas de la tabla.
+         */
+        Escritor(List<TablaColumnar.Columna<T>> columnas) {
+            for (TablaColumnar.Columna<T> columna : columnas) {
+                if (columna.codificacion() == TablaColumnar.Codificacion.DICCIONARIO) {
+                    codigos.put(columna.nombre(), new HashMap<>());
+                    valores.put(columna.nombre(), new ArrayList<>());
+                }
+            }
+        }
+
+        /**
+         * Codifica una columna de un grupo de filas en el buffer.
+         *
+         * @param columna La columna.
+         * @param grupo Las filas del grupo.
+         * @return El mínimo y el máximo del bloque, sin contar los nulos; el mínimo es mayor que el máximo si el
+         *         bloque no tiene valores, y ambos son 0 en las columnas de texto sin diccionario.
+         */
+        long[] codificar(TablaColumnar.Columna<T> columna, List<T> grupo) {
+            long minimo = Long.MAX_VALUE;
+            long maximo = Long.MIN_VALUE;
+            switch (columna.codificacion()) {
+                case ENTERO -> {
+                    long anterior = 0;
+                    for (T fila : grupo) {
+                        long valor = columna.numero().applyAsLong(fila);
+                        bufer.escribirZigzag(valor - anterior);
+                        anterior = valor;
+                        if (valor != FormatoColumnar.NULO) {
+                            minimo = Math.min(minimo, valor);
+                            maximo = Math.max(maximo, valor);
+                        }
+                    }
+                }
+                case RLE, DICCIONARIO -> {
+                    long racha = 0;
+                    long actual = 0;
+                    for (T fila : grupo) {
+                        long valor = columna.codificacion() == TablaColumnar.Codificacion.RLE
+                                ? columna.numero().applyAsLong(fila)
+                                : codigo(columna.nombre(), columna.texto().apply(fila));
+                        if (racha > 0 && valor != actual) {
+                            bufer.escribirZigzag(actual);
+                            bufer.escribirVarint(racha);
+                            racha = 0;
+                        }
+                        actual = valor;
+                        racha++;
+                        boolean nulo = columna.codificacion() == TablaColumnar.Codificacion.RLE
+                                ? valor == FormatoColumnar.NULO : valor == FormatoColumnar.CODIGO_NULO;
+                        if (!nulo) {
+                            minimo = Math.min(minimo, valor);
+                            maximo = Math.max(maximo, valor);
+                        }
+                    }
+                    if (racha > 0) {
+                        bufer.escribirZigzag(actual);
+                        bufer.escribirVarint(racha);
+                    }
+                }
+                case TEXTO -> {
+                    for (T fila : grupo) {
+                        String valor = columna.texto().apply(fila);
+                        if (valor == null) {
+                            bufer.escribirVarint(0);
+                        } else {
+                            byte[] utf8 = valor.getBytes(StandardCharsets.UTF_8);
+                            bufer.escribirVarint(utf8.length + 1L);
+                            bufer.escribir(utf8);
+                        }
+                    }
+                    minimo = 0;
+                    maximo = 0;
+                }
+            }
+            return new long[]{minimo, maximo};
+        }
+
+        /**
+         * Obtiene el código de un texto en el diccionario de una columna, agregándolo si es nuevo.
+         *
+         * @param columna El nombre de la columna.
+         * @param valor El texto, o null.
+         * @return El código, o {@link FormatoColumnar#CODIGO_NULO} si el texto es nulo.
+         */
+        private int codigo(String columna, String valor) {
+            if (valor == null) {
+                return FormatoColumnar.CODIGO_NULO;
+            }
+            List<String> diccionario = valores.get(columna);
+            return codigos.get(columna).computeIfAbsent(valor, v -> {
+                diccionario.add(v);
+                return diccionario.size() - 1;
+            });
+        }
+    }
+}
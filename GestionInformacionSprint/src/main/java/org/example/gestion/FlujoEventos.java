@@ -0,0 +1,384 @@
+package org.example.gestion;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongFunction;
+
+/*
+ *
+ * @author Judith Vergara
+ * @version 1.0
+ */
+
+/**
+ * Flujo ordenado de {@link EventoContenedor} con múltiples suscriptores.
+ * <p>
+ * Los eventos se guardan en un buffer circular de capacidad fija sin bloqueos: cada publicador reserva su número
+ * de secuencia con una operación atómica, escribe el evento en su posición y luego lo marca como publicado.
+ * Cada {@link Suscripcion} avanza con su propio cursor.
+ * </p>
+ * <p>
+ * Contrapresión: un publicador no sobrescribe una posición que algún suscriptor activo todavía no ha leído; espera
+ * a que el suscriptor más lento avance. La espera está acotada: si el suscriptor no avanza en el tiempo máximo
+ * configurado, se le expulsa del flujo: {@link Suscripcion#isExpulsada()} lo indica de inmediato y su próxima lectura
+ * lanza una excepción con el retraso. Si no hay suscriptores, los eventos
+ * antiguos simplemente se sobrescriben. Una suscripción creada con {@link #suscribirSinExpulsion()}, como la del
+ * {@link EmisorRegistro}, nunca se expulsa: el publicador la espera el tiempo que haga falta.
+ * </p>
+ * <p>
+ * Como un suscriptor expulsado ya no detiene al publicador, su posición puede sobrescribirse mientras la lee. Por
+ * eso cada posición funciona como un seqlock: el publicador la marca como en escritura antes de cambiar el evento
+ * y la marca con su secuencia al terminar, y el suscriptor vuelve a leer la marca después de leer el evento; si
+ * cambió, el evento leído no es el suyo.
+ * </p>
+ */
+public class FlujoEventos {
+
+    // Principio de Responsabilidad Única (SRP): el flujo solo transporta eventos; no conoce el contenido del Contenedor.
+
+    /**
+     * Capacidad por defecto del buffer circular.
+     */
+    public static final int CAPACIDAD_POR_DEFECTO = 1024;
+
+    /**
+     * Tiempo máximo por defecto, en milisegundos, que un publicador espera a un suscriptor lento. Es corto porque
+     * mientras dura la espera el publicador, que es quien modifica el contenedor, queda detenido; se puede cambiar con
+     * la propiedad del sistema {@code gestion.esperaEventosMilis}.
+     */
+    public static final long ESPERA_MAXIMA_POR_DEFECTO = Long.getLong("gestion.esperaEventosMilis", 50);
+
+    /**
+     * Tiempo de espera entre reintentos cuando el buffer está lleno o vacío.
+     */
+    private static final long ESPERA_NANOS = 1_000;
+
+    /**
+     * Máscara para convertir una secuencia en una posición del buffer.
+     */
+    private final int mascara;
+    /**
+     * Eventos del buffer circular.
+     */
+    private final AtomicReferenceArray<EventoContenedor> eventos;
+    /**
+     * Secuencia publicada en cada posición del buffer, -1 si la posición nunca se ha usado, o la marca de
+     * {@link #enEscritura(long)} mientras un publicador la sobrescribe.
+     */
+    private final AtomicLongArray publicados;
+    /**
+     * Capacidad del buffer circular.
+     */
+    private final int capacidad;
+    /**
+     * Tiempo máximo que un publicador espera a un suscriptor lento antes de expulsarlo.
+     */
+    private final long esperaMaximaNanos;
+    /**
+     * Próxima secuencia que se entregará a un publicador.
+     */
+    private final AtomicLong siguiente = new AtomicLong();
+    /**
+     * Suscripciones activas.
+     */
+    private final List<Suscripcion> suscripciones = new CopyOnWriteArrayList<>();
+
+    /**
+     * Crea un flujo con la capacidad por defecto.
+     */
+    public FlujoEventos() {
+        this(CAPACIDAD_POR_DEFECTO);
+    }
+
+    /**
+     * Crea un flujo con la capacidad indicada y la espera máxima por defecto.
+     *
+     * @param capacidad Cantidad de eventos que caben en el buffer. Debe ser una potencia de 2.
+     */
+    public FlujoEventos(int capacidad) {
+        this(capacidad, ESPERA_MAXIMA_POR_DEFECTO, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Crea un flujo con la capacidad y la espera máxima indicadas.
+     *
+     * @param capacidad Cantidad de eventos que caben en el buffer. Debe ser una potencia de 2.
+     * @param esperaMaxima Tiempo máximo que un publicador espera a un suscriptor que no avanza.
+     * @param unidad Unidad de la espera máxima.
+     * @throws IllegalArgumentException si la capacidad no es una potencia de 2 o la espera es negativa.
+     */
+    public FlujoEventos(int capacidad, long esperaMaxima, TimeUnit unidad) {
+        if (capacidad <= 0 || Integer.bitCount(capacidad) != 1) {
+            throw new IllegalArgumentException("La capacidad del flujo debe ser una potencia de 2.");
+        }
+        if (esperaMaxima < 0) {
+            throw new IllegalArgumentException("La espera máxima no puede ser negativa.");
+        }
+        this.esperaMaximaNanos = unidad.toNanos(esperaMaxima);
+        this.mascara = capacidad - 1;
+        this.capacidad = capacidad;
+        this.eventos = new AtomicReferenceArray<>(capacidad);
+        this.publicados = new AtomicLongArray(capacidad);
+        for (int i = 0; i < capacidad; i++) {
+            publicados.set(i, -1);
+        }
+    }
+
+    /**
+     * Publica un evento. Si el buffer está lleno espera a que el suscriptor más lento avance; si no avanza dentro
+     * de la espera máxima, expulsa a los suscriptores que impiden escribir.
+     *
+     * @param fabrica Crea el evento a partir de la secuencia asignada.
+     * @return La secuencia asignada al evento.
+     */
+    public long publicar(LongFunction<EventoContenedor> fabrica) {
+        long secuencia = siguiente.getAndIncrement();
+        if (secuencia - capacidad >= secuenciaMasLenta()) {
+            long limite = System.nanoTime() + esperaMaximaNanos;
+            while (secuencia - capacidad >= secuenciaMasLenta()) {
+                if (System.nanoTime() - limite >= 0) {
+                    expulsarAnteriores(secuencia - capacidad);
+                    // Si lo sigue reteniendo una suscripción sin expulsión, se la espera
+                    if (secuencia - capacidad < secuenciaMasLenta()) {
+                        break;
+                    }
+                }
+                LockSupport.parkNanos(ESPERA_NANOS);
+            }
+        }
+        int posicion = (int) (secuencia & mascara);
+        EventoContenedor evento = fabrica.apply(secuencia);
+        publicados.set(posicion, enEscritura(secuencia));
+        eventos.set(posicion, evento);
+        // La escritura atómica publica el evento escrito en la línea anterior a los suscriptores
+        publicados.set(posicion, secuencia);
+        return secuencia;
+    }
+
+    /**
+     * Calcula la marca de una posición mientras se escribe en ella un evento. Es negativa y menor que -1, para no
+     * confundirse con una secuencia publicada ni con una posición sin usar.
+     *
+     * @param secuencia La secuencia que se está escribiendo.
+     * @return La marca de escritura.
+     */
+    private static long enEscritura(long secuencia) {
+        return -secuencia - 2;
+    }
+
+    /**
+     * Obtiene la secuencia que corresponde a la marca de una posición, esté publicada o en escritura.
+     *
+     * @param marca La marca de la posición.
+     * @return La secuencia publicada o en escritura, o -1 si la posición nunca se ha usado.
+     */
+    private static long secuenciaDe(long marca) {
+        return marca < -1 ? -marca - 2 : marca;
+    }
+
+    /**
+     * Obtiene la próxima secuencia que se asignará.
+     *
+     * @return La próxima secuencia.
+     */
+    public long getProximaSecuencia() {
+        return siguiente.get();
+    }
+
+    /**
+     * Crea una suscripción que comienza a leer desde la secuencia indicada.
+     * <p>
+     * Un suscriptor que se reinicia puede retomar desde la última secuencia que procesó más uno, siempre que esa
+     * secuencia siga en el buffer.
+     * </p>
+     *
+     * @param desde La primera secuencia que se desea leer.
+     * @return La nueva suscripción.
+     * @throws IllegalArgumentException si la secuencia ya fue sobrescrita en el buffer.
+     */
+    public Suscripcion suscribir(long desde) {
+        return suscribir(desde, true);
+    }
+
+    /**
+     * Crea una suscripción que recibe solo los eventos publicados desde ahora y que el flujo nunca expulsa: si se
+     * retrasa, los publicadores la esperan. Se usa para los suscriptores que no pueden perder eventos, como el
+     * {@link EmisorRegistro}; deben cancelarse en cuanto dejan de leer, ya que de lo contrario detienen a los
+     * publicadores.
+     *
+     * @return La nueva suscripción.
+     */
+    public Suscripcion suscribirSinExpulsion() {
+        return suscribir(siguiente.get(), false);
+    }
+
+    /**
+     * Crea una suscripción que comienza a leer desde la secuencia indicada.
+     *
+     * @param desde La primera secuencia que se desea leer.
+     * @param expulsable Indica si el flujo puede expulsarla cuando se retrasa.
+     * @return La nueva suscripción.
+     * @throws IllegalArgumentException si la secuencia ya fue sobrescrita en el buffer.
+     */
+    private Suscripcion suscribir(long desde, boolean expulsable) {
+        if (desde < 0 || desde < siguiente.get() - capacidad) {
+            throw new IllegalArgumentException("La secuencia " + desde + " ya no está disponible en el flujo.");
+        }
+        Suscripcion suscripcion = new Suscripcion(desde, expulsable);
+        suscripciones.add(suscripcion);
+        // Un publicador pudo sobrescribir la secuencia entre la validación y el registro de la suscripción
+        if (desde < siguiente.get() - capacidad) {
+            suscripciones.remove(suscripcion);
+            throw new IllegalArgumentException("La secuencia " + desde + " ya no está disponible en el flujo.");
+        }
+        return suscripcion;
+    }
+
+    /**
+     * Crea una suscripción que recibe solo los eventos publicados desde ahora.
+     *
+     * @return La nueva suscripción.
+     */
+    public Suscripcion suscribir() {
+        return suscribir(siguiente.get());
+    }
+
+    /**
+     * Obtiene la menor secuencia pendiente entre las suscripciones activas.
+     *
+     * @return La menor secuencia pendiente, o {@link Long#MAX_VALUE} si no hay suscripciones.
+     */
+    private long secuenciaMasLenta() {
+        long minima = Long.MAX_VALUE;
+        for (Suscripcion suscripcion : suscripciones) {
+            minima = Math.min(minima, suscripcion.proxima.get());
+        }
+        return minima;
+    }
+
+    /**
+     * Expulsa a los suscriptores expulsables que todavía no leen una secuencia, para que el publicador pueda
+     * sobrescribirla.
+     *
+     * @param secuencia La secuencia que se necesita sobrescribir.
+     */
+    private void expulsarAnteriores(long secuencia) {
+        for (Suscripcion suscripcion : suscripciones) {
+            if (suscripcion.expulsable && suscripcion.proxima.get() <= secuencia) {
+                suscripcion.expulsada = true;
+                suscripciones.remove(suscripcion);
+            }
+        }
+    }
+
+    /**
+     * Cursor de lectura de un suscriptor sobre el flujo.
+     */
+    public class Suscripcion {
+
+        /**
+         * Próxima secuencia que leerá el suscriptor.
+         */
+        private final AtomicLong proxima;
+        /**
+         * Indica si el flujo puede expulsar al suscriptor cuando se retrasa.
+         */
+        private final boolean expulsable;
+        /**
+         * Indica si el flujo expulsó al suscriptor por no avanzar dentro de la espera máxima.
+         */
+        private volatile boolean expulsada;
+
+        /**
+         * Crea una suscripción que comienza en la secuencia indicada.
+         *
+         * @param desde La primera secuencia que se leerá.
+         * @param expulsable Indica si el flujo puede expulsar al suscriptor cuando se retrasa.
+         */
+        private Suscripcion(long desde, boolean expulsable) {
+            this.proxima = new AtomicLong(desde);
+            this.expulsable = expulsable;
+        }
+
+        /**
+         * Obtiene el siguiente evento sin esperar.
+         *
+         * @return El siguiente evento, o {@code null} si todavía no se ha publicado.
+         * @throws IllegalStateException si el evento fue sobrescrito antes de ser leído o el suscriptor fue expulsado
+         *                               por retraso.
+         */
+        public EventoContenedor siguiente() {
+            long secuencia = proxima.get();
+            if (expulsada) {
+                throw new IllegalStateException("La suscripción fue expulsada por retraso en el evento " + secuencia + ".");
+            }
+            int posicion = (int) (secuencia & mascara);
+            long marca = publicados.get(posicion);
+            if (marca != secuencia) {
+                // Una posición en escritura con la secuencia buscada todavía no está publicada
+                if (secuenciaDe(marca) <= secuencia) {
+                    return null;
+                }
+                throw new IllegalStateException("El evento " + secuencia + " fue sobrescrito antes de ser leído.");
+            }
+            EventoContenedor evento = eventos.get(posicion);
+            // Si un publicador empezó a sobrescribir la posición mientras se leía, el evento leído puede ser otro
+            if (publicados.get(posicion) != secuencia) {
+                throw new IllegalStateException("El evento " + secuencia + " fue sobrescrito mientras se leía.");
+            }
+            if (expulsada) {
+                throw new IllegalStateException("La suscripción fue expulsada por retraso en el evento " + secuencia + ".");
+            }
+            proxima.set(secuencia + 1);
+            return evento;
+        }
+
+        /**
+         * Obtiene el siguiente evento, esperando como máximo el tiempo indicado.
+         *
+         * @param tiempo Tiempo máximo de espera.
+         * @param unidad Unidad del tiempo de espera.
+         * @return El siguiente evento, o {@code null} si no se publicó ninguno en el tiempo indicado.
+         */
+        public EventoContenedor esperar(long tiempo, TimeUnit unidad) {
+            long limite = System.nanoTime() + unidad.toNanos(tiempo);
+            EventoContenedor evento = siguiente();
+            while (evento == null && System.nanoTime() < limite) {
+                LockSupport.parkNanos(ESPERA_NANOS);
+                evento = siguiente();
+            }
+            return evento;
+        }
+
+        /**
+         * Obtiene la próxima secuencia que leerá el suscriptor. Se guarda para retomar la suscripción tras un reinicio.
+         *
+         * @return La próxima secuencia.
+         */
+        public long getProximaSecuencia() {
+            return proxima.get();
+        }
+
+        /**
+         * Indica si el flujo expulsó al suscriptor por no avanzar dentro de la espera máxima. Un suscriptor
+         * expulsado debe volver a suscribirse, o recuperar el estado por otra vía si sus eventos ya no están.
+         *
+         * @return true si el suscriptor fue expulsado.
+         */
+        public boolean isExpulsada() {
+            return expulsada;
+        }
+
+        /**
+         * Cancela la suscripción. El flujo deja de esperar a este suscriptor.
+         */
+        public void cancelar() {
+            suscripciones.remove(this);
+        }
+    }
+}
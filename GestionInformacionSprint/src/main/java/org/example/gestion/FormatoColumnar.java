@@ -0,0 +1,186 @@
+package org.example.gestion;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/*
+ *
+ * @author Judith Vergara
+ * @version 1.0
+ */
+
+/**
+ * Constantes y utilidades binarias del formato columnar compartidas por {@link ExportadorColumnar} y quien lo lea.
+ * <p>
+ * Un archivo columnar empieza con {@link #MAGICO} y {@link #VERSION}, sigue con los bloques comprimidos de cada
+ * columna, grupo de filas por grupo de filas, y termina con un pie que describe las columnas, los diccionarios y la
+ * posición y estadísticas de cada bloque. Los últimos ocho bytes son el largo del pie y otra vez {@link #MAGICO},
+ * de modo que el pie se encuentra leyendo desde el final.
+ * </p>
+ * <p>
+ * Los enteros se guardan como varint: siete bits por byte, con el bit alto indicando que sigue otro byte. Los
+ * valores con signo pasan antes por zigzag, para que los negativos pequeños también ocupen pocos bytes.
+ * </p>
+ */
+final class FormatoColumnar {
+
+    // Principio de Responsabilidad Única (SRP): solo define el formato binario; qué columnas tiene cada tabla lo define TablaColumnar.
+
+    /**
+     * Marca al inicio y al final de cada archivo columnar.
+     */
+    static final byte[] MAGICO = "GCOL".getBytes(StandardCharsets.US_ASCII);
+    /**
+     * Versión del formato.
+     */
+    static final byte VERSION = 1;
+    /**
+     * Extensión de los archivos columnares.
+     */
+    static final String EXTENSION = ".gcol";
+    /**
+     * Valor que representa un número o una fecha ausente.
+     */
+    static final long NULO = Long.MIN_VALUE;
+    /**
+     * Código de diccionario que representa un texto ausente.
+     */
+    static final int CODIGO_NULO = -1;
+
+    /**
+     * Clase de utilidades; no se instancia.
+     */
+    private FormatoColumnar() {
+    }
+
+    /**
+     * Lee un varint sin signo.
+     *
+     * @param entrada El buffer, posicionado en el varint.
+     * @return El valor leído.
+     */
+    static long leerVarint(ByteBuffer entrada) {
+        long valor = 0;
+        int desplazamiento = 0;
+        byte actual;
+        do {
+            actual = entrada.get();
+            valor |= (long) (actual & 0x7F) << desplazamiento;
+            desplazamiento += 7;
+        } while (actual < 0);
+        return valor;
+    }
+
+    /**
+     * Lee un varint con signo codificado en zigzag.
+     *
+     * @param entrada El buffer, posicionado en el varint.
+     * @return El valor leído.
+     */
+    static long leerZigzag(ByteBuffer entrada) {
+        long valor = leerVarint(entrada);
+        return (valor >>> 1) ^ -(valor & 1);
+    }
+
+    /**
+     * Buffer de bytes que crece según se necesita, reutilizable entre bloques.
+     */
+    static final class Bufer {
+
+        /**
+         * Los bytes escritos.
+         */
+        private byte[] datos;
+        /**
+         * Cantidad de bytes escritos.
+         */
+        private int tamano;
+
+        /**
+         * Crea un buffer con espacio para un bloque típico.
+         */
+        Bufer() {
+            this(4096);
+        }
+
+        /**
+         * Crea un buffer con una capacidad inicial, para cuando se mantienen muchos buffers pequeños.
+         *
+         * @param capacidad La capacidad inicial, en bytes.
+         */
+        Bufer(int capacidad) {
+            this.datos = new byte[Math.max(capacidad, 1)];
+        }
+
+        /**
+         * Escribe un varint sin signo.
+         *
+         * @param valor El valor, tratado como sin signo.
+         */
+        void escribirVarint(long valor) {
+            asegurar(10);
+            while ((valor & ~0x7FL) != 0) {
+                datos[tamano++] = (byte) ((valor & 0x7F) | 0x80);
+                valor >>>= 7;
+            }
+            datos[tamano++] = (byte) valor;
+        }
+
+        /**
+         * Escribe un varint con signo codificado en zigzag.
+         *
+         * @param valor El valor.
+         */
+        void escribirZigzag(long valor) {
+            escribirVarint((valor << 1) ^ (valor >> 63));
+        }
+
+        /**
+         * Escribe bytes tal cual.
+         *
+         * @param bytes Los bytes.
+         */
+        void escribir(byte[] bytes) {
+            asegurar(bytes.length);
+            System.arraycopy(bytes, 0, datos, tamano, bytes.length);
+            tamano += bytes.length;
+        }
+
+        /**
+         * Obtiene el arreglo interno; solo los primeros {@link #tamano()} bytes son válidos.
+         *
+         * @return El arreglo interno.
+         */
+        byte[] datos() {
+            return datos;
+        }
+
+        /**
+         * Obtiene la cantidad de bytes escritos.
+         *
+         * @return La cantidad de bytes.
+         */
+        int tamano() {
+            return tamano;
+        }
+
+        /**
+         * Descarta lo escrito, conservando la capacidad.
+         */
+        void limpiar() {
+            tamano = 0;
+        }
+
+        /**
+         * Asegura espacio para escribir más bytes.
+         *
+         * @param adicionales La cantidad de bytes a escribir.
+         */
+        private void asegurar(int adicionales) {
+            if (tamano + adicionales > datos.length) {
+                datos = Arrays.copyOf(datos, Math.max(datos.length * 2, tamano + adicionales));
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.gestion;
+
+import java.time.format.DateTimeFormatter;
+
+/*
+ *
+ * @author Judith Vergara
+ * @version 1.0
+ */
+
+/**
+ * Formatos compartidos por las entidades del sistema.
+ * <p>
+ * {@link DateTimeFormatter} es inmutable y seguro para hilos, por lo que una sola instancia puede ser usada por
+ * todas las entidades en lugar de crear un formateador nuevo en cada llamada a {@code toString()}.
+ * </p>
+ */
+public final class Formatos {
+
+    /**
+     * Formato de fecha usado para mostrar y leer fechas (dd/MM/yyyy).
+     */
+    public static final DateTimeFormatter FECHA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    /**
+     * Clase de utilidad, no se instancia.
+     */
+    private Formatos() {}
+}
@@ -0,0 +1,363 @@
+package org.example.gestion;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/*
+ *
+ * @author Judith Vergara
+ * @version 1.0
+ */
+
+/**
+ * Genera el informe mensual de cumplimiento de cada {@link Cliente} de un {@link Contenedor}: sus capacitaciones,
+ * sus accidentes del mes, incluidos los archivados, y sus visitas en terreno del mes con el estado de cada
+ * {@link Revision}.
+ * <p>
+ * Los clientes se reparten entre los hilos de un {@link ForkJoinPool}. Cada informe se escribe en su propio archivo
+ * de texto mediante un {@link FileChannel}, usando un texto y un búfer de bytes que cada hilo reutiliza, de modo que
+ * la memoria usada no depende de la cantidad de clientes. Cada archivo se escribe primero con extensión
+ * {@code .tmp} y luego se renombra, así que un informe existente siempre está completo: si la generación se
+ * interrumpe, volver a ejecutarla omite los informes ya escritos y continúa con el resto.
+ * </p>
+ * <p>
+ * El contenedor no debe modificarse mientras se generan los informes.
+ * </p>
+ */
+public class GeneradorInformes {
+
+    // Principio de Abierto/Cerrado (OCP): el informe se arma a partir de las consultas del contenedor sin modificarlo.
+
+    /**
+     * Cantidad máxima de clientes que procesa una tarea sin dividirse.
+     */
+    private static final int CLIENTES_POR_TAREA = 256;
+    /**
+     * Tamaño del búfer de escritura de cada hilo.
+     */
+    private static final int TAMANO_BUFER = 64 * 1024;
+    /**
+     * Descripción de cada estado de revisión, indexada por estado.
+     */
+    private static final String[] ESTADOS_REVISION = {"", "Sin problemas", "Con observaciones", "No aprueba"};
+
+    /**
+     * Texto del informe en construcción, reutilizado por cada hilo.
+     */
+    private static final ThreadLocal<StringBuilder> TEXTO = ThreadLocal.withInitial(() -> new StringBuilder(4096));
+    /**
+     * Búfer de escritura, reutilizado por cada hilo.
+     */
+    private static final ThreadLocal<ByteBuffer> BUFER = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(TAMANO_BUFER));
+    /**
+     * Codificador UTF-8, reutilizado por cada hilo.
+     */
+    private static final ThreadLocal<CharsetEncoder> CODIFICADOR = ThreadLocal.withInitial(StandardCharsets.UTF_8::newEncoder);
+
+    /**
+     * Contenedor del que se leen los datos.
+     */
+    private final Contenedor contenedor;
+    /**
+     * Directorio donde se escriben los informes.
+     */
+    private final Path directorio;
+    /**
+     * Pool de hilos que genera los informes.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Resultado de una generación de informes.
+     *
+     * @param generados Cantidad de informes escritos en esta ejecución.
+     * @param omitidos Cantidad de informes que ya existían de una ejecución anterior.
+     * @param milisegundos Duración de la generación.
+     */
+    public record Resultado(int generados, int omitidos, long milisegundos) {
+    }
+
+    /**
+     * Crea un generador que usa el pool común de hilos.
+     *
+     * @param contenedor El contenedor del que se leen los datos.
+     * @param directorio El directorio donde se escriben los informes.
+     */
+    public GeneradorInformes(Contenedor contenedor, Path directorio) {
+        this(contenedor, directorio, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Crea un generador que usa el pool de hilos indicado.
+     *
+     * @param contenedor El contenedor del que se leen los datos.
+     * @param directorio El directorio donde se escriben los informes.
+     * @param pool El pool de hilos.
+     * @throws IllegalArgumentException si algún argumento es nulo.
+     */
+    public GeneradorInformes(Contenedor contenedor, Path directorio, ForkJoinPool pool) {
+        if (contenedor == null || directorio == null || pool == null) {
+            throw new IllegalArgumentException("El contenedor, el directorio y el pool son obligatorios.");
+        }
+        this.contenedor = contenedor;
+        this.directorio = directorio;
+        this.pool = pool;
+    }
+
+    /**
+     * Genera el informe del mes indicado para cada cliente, en el subdirectorio {@code aaaa-mm} del directorio.
+     * Los informes que ya existen no se vuelven a generar.
+     *
+     * @param mes El mes del informe.
+     * @return La cantidad de informes generados y omitidos.
+     * @throws IOException si no se puede crear el directorio o escribir algún informe.
+     */
+    public Resultado generar(YearMonth mes) throws IOException {
+        long inicio = System.nanoTime();
+        Path destino = Files.createDirectories(directorio.resolve(mes.toString()));
+        Cliente[] clientes = contenedor.getUsuarios().stream()
+                .filter(Cliente.class::isInstance)
+                .map(Cliente.class::cast)
+                .toArray(Cliente[]::new);
+        AtomicInteger generados = new AtomicInteger();
+        AtomicInteger omitidos = new AtomicInteger();
+        // Los accidentes del mes se buscan una sola vez, incluidos los archivados, y se reparten por cliente
+        Map<Long, List<Accidente>> accidentes = contenedor.buscarAccidentesEntre(mes.atDay(1), mes.atEndOfMonth())
+                .stream()
+                .collect(Collectors.groupingBy(Accidente::getRutCliente));
+        // La línea de tiempo se crea al pedirla por primera vez; se crea aquí para que los hilos solo la lean
+        contenedor.getLineaVisitas();
+        try {
+            pool.invoke(new Tarea(clientes, 0, clientes.length, mes, destino, accidentes, generados, omitidos));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return new Resultado(generados.get(), omitidos.get(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    /**
+     * Obtiene el archivo del informe de un cliente.
+     *
+     * @param destino El directorio del mes.
+     * @param cliente El cliente.
+     * @return El archivo del informe.
+     */
+    static Path archivoDe(Path destino, Cliente cliente) {
+        return destino.resolve("cliente-" + cliente.getRun() + ".txt");
+    }
+
+    /**
+     * Escribe el informe de un cliente, salvo que ya exista.
+     *
+     * @param cliente El cliente.
+     * @param mes El mes del informe.
+     * @param destino El directorio del mes.
+     * @param accidentes Los accidentes del mes por RUN del cliente.
+     * @return true si el informe se escribió, false si ya existía.
+     * @throws IOException si no se puede escribir el informe.
+     */
+    private boolean escribirInforme(Cliente cliente, YearMonth mes, Path destino, Map<Long, List<Accidente>> accidentes)
+            throws IOException {
+        Path archivo = archivoDe(destino, cliente);
+        if (Files.exists(archivo)) {
+            return false;
+        }
+        StringBuilder texto = TEXTO.get();
+        texto.setLength(0);
+        redactar(texto, cliente, mes, accidentes.getOrDefault(cliente.getRun(), List.of()));
+        Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            escribir(canal, texto);
+        }
+        try {
+            Files.move(temporal, archivo, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return true;
+    }
+
+    /**
+     * Redacta el informe de un cliente.
+     *
+     * @param texto El texto donde se redacta el informe.
+     * @param cliente El cliente.
+     * @param mes El mes del informe.
+     * @param accidentes Los accidentes del cliente en el mes, en orden cronológico.
+     */
+    private void redactar(StringBuilder texto, Cliente cliente, YearMonth mes, List<Accidente> accidentes) {
+        long run = cliente.getRun();
+        LocalDateTime desde = mes.atDay(1).atStartOfDay();
+        LocalDateTime hasta = mes.atEndOfMonth().atTime(23, 59);
+        texto.append("INFORME DE CUMPLIMIENTO ").append(mes).append('\n')
+                .append("Cliente: ").append(cliente.getNombre()).append(' ').append(cliente.getApellidos()).append('\n')
+                .append("RUN: ").append(run).append('\n')
+                .append("Comuna: ").append(cliente.getComuna()).append('\n');
+
+        texto.append("\nCAPACITACIONES\n");
+        for (Capacitacion capacitacion : contenedor.getIndices().capacitacionesDeCliente(run)) {
+            texto.append("- ").append(capacitacion.getIdentificador()).append(' ')
+                    .append(capacitacion.getDia()).append(' ').append(capacitacion.getHora())
+                    .append(", ").append(capacitacion.getLugar())
+                    .append(", ").append(capacitacion.getDuracion()).append(" min")
+                    .append(", ").append(capacitacion.getCantidadAsistentes()).append(" asistentes\n");
+        }
+
+        texto.append("\nACCIDENTES DEL MES\n");
+        for (Accidente accidente : accidentes) {
+            texto.append("- ").append(accidente.getIdentificador()).append(' ')
+                    .append(accidente.getDia().format(Formatos.FECHA)).append(' ')
+                    .append(accidente.getHora() == null ? "sin hora" : accidente.getHora())
+                    .append(", ").append(accidente.getLugar())
+                    .append(": ").append(accidente.getOrigen())
+                    .append(" / ").append(accidente.getConsecuencias()).append('\n');
+        }
+
+        texto.append("\nVISITAS EN TERRENO DEL MES\n");
+        for (VisitaEnTerreno visita : contenedor.getLineaVisitas().deClienteEntre(run, desde, hasta)) {
+            texto.append("- ").append(visita.getIdentificador()).append(' ')
+                    .append(visita.getDia().format(Formatos.FECHA)).append(' ').append(visita.getHora())
+                    .append(", ").append(visita.getLugar()).append('\n');
+            ResultadosRevision resultados = visita.getResultados();
+            if (resultados != null) {
+                texto.append("    * ").append(resultados.getPlantilla().getNombre())
+                        .append(": ").append(resultados.contar(1)).append(' ').append(ESTADOS_REVISION[1].toLowerCase())
+                        .append(", ").append(resultados.contar(2)).append(' ').append(ESTADOS_REVISION[2].toLowerCase())
+                        .append(", ").append(resultados.contar(3)).append(' ').append(ESTADOS_REVISION[3].toLowerCase()).append('\n');
+            }
+            if (visita.getRevisiones() == null) {
+                continue;
+            }
+            for (Revision revision : visita.getRevisiones()) {
+                texto.append("    * ").append(revision.getNombreRevision())
+                        .append(": ").append(ESTADOS_REVISION[revision.getEstado()]).append('\n');
+            }
+        }
+    }
+
+    /**
+     * Codifica el texto en UTF-8 y lo escribe en el canal, por partes del tamaño del búfer del hilo.
+     *
+     * @param canal El canal de escritura.
+     * @param texto El texto a escribir.
+     * @throws IOException si no se puede escribir.
+     */
+    private static void escribir(FileChannel canal, CharSequence texto) throws IOException {
+        CharsetEncoder codificador = CODIFICADOR.get().reset();
+        ByteBuffer bufer = BUFER.get();
+        CharBuffer caracteres = CharBuffer.wrap(texto);
+        boolean terminado = false;
+        while (!terminado) {
+            bufer.clear();
+            CoderResult resultado = codificador.encode(caracteres, bufer, true);
+            if (!resultado.isOverflow()) {
+                codificador.flush(bufer);
+                terminado = true;
+            }
+            bufer.flip();
+            while (bufer.hasRemaining()) {
+                canal.write(bufer);
+            }
+        }
+    }
+
+    /**
+     * Tarea que genera los informes de un tramo de clientes, dividiéndose mientras el tramo sea grande.
+     */
+    private final class Tarea extends RecursiveAction {
+
+        /**
+         * Versión de serialización de la tarea.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Todos los clientes.
+         */
+        private final Cliente[] clientes;
+        /**
+         * Inicio del tramo, inclusivo.
+         */
+        private final int desde;
+        /**
+         * Fin del tramo, exclusivo.
+         */
+        private final int hasta;
+        /**
+         * Mes del informe.
+         */
+        private final YearMonth mes;
+        /**
+         * Directorio del mes.
+         */
+        private final Path destino;
+        /**
+         * Accidentes del mes por RUN del cliente.
+         */
+        private final Map<Long, List<Accidente>> accidentes;
+        /**
+         * Cantidad de informes escritos.
+         */
+        private final AtomicInteger generados;
+        /**
+         * Cantidad de informes omitidos.
+         */
+        private final AtomicInteger omitidos;
+
+        /**
+         * Crea una tarea para un tramo de clientes.
+         */
+        Tarea(Cliente[] clientes, int desde, int hasta, YearMonth mes, Path destino,
+              Map<Long, List<Accidente>> accidentes, AtomicInteger generados, AtomicInteger omitidos) {
+            this.clientes = clientes;
+            this.desde = desde;
+            this.hasta = hasta;
+            this.mes = mes;
+            this.destino = destino;
+            this.accidentes = accidentes;
+            this.generados = generados;
+            this.omitidos = omitidos;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde > CLIENTES_POR_TAREA) {
+                int medio = (desde + hasta) >>> 1;
+                invokeAll(new Tarea(clientes, desde, medio, mes, destino, accidentes, generados, omitidos),
+                        new Tarea(clientes, medio, hasta, mes, destino, accidentes, generados, omitidos));
+                return;
+            }
+            for (int i = desde; i < hasta; i++) {
+                try {
+                    if (escribirInforme(clientes[i], mes, destino, accidentes)) {
+                        generados.incrementAndGet();
+                    } else {
+                        omitidos.incrementAndGet();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package org.example.gestion;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/*
+ *
+ * @author Judith Vergara
+ * @version 1.0
+ */
+
+/**
+ * Historial de auditoría de los usuarios y capacitaciones de un {@link Contenedor}, que permite reconstruir el
+ * estado que tenían en cualquier instante desde que se empezó a registrar.
+ * <p>
+ * Cada evento se registra en el momento en que el contenedor lo publica, con su secuencia y su instante guardados
+ * como diferencias con el evento anterior y el resto en el formato de {@link CodificadorRegistro}. Las
+ * actualizaciones ya contienen solo los campos que cambiaron, así que el historial no repite los datos que no
+ * cambian. Los usuarios eliminados siguen en el historial aunque el contenedor ya no los tenga.
+ * </p>
+ * <p>
+ * Cada cierta cantidad de eventos se guarda un punto de control comprimido con el estado completo. Para reconstruir
+ * un instante se carga el último punto de control anterior y se aplican solo los eventos registrados después de él.
+ * La distancia entre puntos es el mayor entre el intervalo configurado y el tamaño del estado, de modo que los
+ * puntos de control no ocupan más que los eventos que los separan y la reconstrucción aplica a lo más esa cantidad
+ * de eventos. El estado de los puntos de control no se lee del contenedor, que durante un lote ya puede tener
+ * cambios cuyos eventos aún no se publican, sino de una copia propia a la que se aplica cada evento registrado.
+ * </p>
+ * <p>
+ * El historial vive en memoria. Para conservarlo entre ejecuciones se escribe el registro con un
+ * {@link EmisorRegistro} y se vuelve a armar con {@link #cargar(Path, int)}.
+ * </p>
+ */
+public class HistorialAuditoria {
+
+    // Principio de Responsabilidad Única (SRP): solo guarda y reproduce el historial; los cambios los sigue haciendo el Contenedor.
+
+    /**
+     * Cantidad mínima de eventos entre puntos de control, si no se indica otra.
+     */
+    public static final int INTERVALO_POR_DEFECTO = 10_000;
+
+    /**
+     * Cantidad mínima de eventos entre puntos de control.
+     */
+    private final int intervalo;
+    /**
+     * Eventos registrados, codificados uno tras otro.
+     */
+    private final FormatoColumnar.Bufer registro = new FormatoColumnar.Bufer();
+    /**
+     * Puntos de control, en orden de instante.
+     */
+    private final List<PuntoControl> puntos = new ArrayList<>();
+    /**
+     * Estado posterior a los eventos registrados, armado con copias decodificadas de sus entidades.
+     */
+    private final Contenedor estado = new Contenedor();
+    /**
+     * Secuencia del último evento registrado.
+     */
+    private long ultimaSecuencia;
+    /**
+     * Instante del último evento registrado.
+     */
+    private long ultimoInstante;
+    /**
+     * Cantidad de eventos registrados.
+     */
+    private long eventos;
+    /**
+     * Eventos registrados desde el último punto de control.
+     */
+    private int desdeUltimoPunto;
+    /**
+     * Bytes ocupados por los puntos de control.
+     */
+    private long bytesPuntos;
+
+    /**
+     * Estadísticas del historial.
+     *
+     * @param eventos La cantidad de eventos registrados.
+     * @param puntosControl La cantidad de puntos de control.
+     * @param bytesEventos Los bytes que ocupan los eventos.
+     * @param bytesPuntosControl Los bytes que ocupan los puntos de control.
+     */
+    public record Estadisticas(long eventos, int puntosControl, long bytesEventos, long bytesPuntosControl) {
+    }
+
+    /**
+     * Crea un historial con puntos de control cada {@value #INTERVALO_POR_DEFECTO} eventos como mínimo.
+     */
+    public HistorialAuditoria() {
+        this(INTERVALO_POR_DEFECTO);
+    }
+
+    /**
+     * Crea un historial.
+     *
+     * @param intervalo La cantidad mínima de eventos entre puntos de control.
+     * @throws IllegalArgumentException si el intervalo no es positivo.
+     */
+    public HistorialAuditoria(int intervalo) {
+        if (intervalo <= 0) {
+            throw new IllegalArgumentException("El intervalo entre puntos de control debe ser mayor que cero.");
+        }
+        this.intervalo = intervalo;
+    }
+
+    /**
+     * Arma el historial de un registro de mutaciones escrito por un {@link EmisorRegistro}, como si hubiera
+     * auditado al contenedor desde que se empezó a escribir el registro. Los eventos repetidos, con una secuencia
+     * que ya se registró, se omiten como lo hace {@link ReplicaSeguidora}.
+     *
+     * @param registro El archivo de registro.
+     * @param intervalo La cantidad mínima de eventos entre puntos de control.
+     * @return El historial, que no puede auditar otro contenedor.
+     * @throws IOException si no se puede leer el archivo.
+     * @throws IllegalArgumentException si el intervalo no es positivo.
+     */
+    public static HistorialAuditoria cargar(Path registro, int intervalo) throws IOException {
+        HistorialAuditoria historial = new HistorialAuditoria(intervalo);
+        try (BufferedReader lector = Files.newBufferedReader(registro, StandardCharsets.UTF_8)) {
+            String linea;
+            while ((linea = lector.readLine()) != null) {
+                if (linea.isEmpty()) {
+                    continue;
+                }
+                EventoContenedor evento = CodificadorRegistro.decodificar(linea);
+                if (historial.puntos.isEmpty()) {
+                    // El registro parte de un contenedor vacío o de la instantánea de su primera línea
+                    historial.guardarPunto(evento.instante());
+                } else if (evento.secuencia() <= historial.ultimaSecuencia) {
+                    continue;
+                }
+                historial.registrar(evento, linea);
+            }
+        }
+        return historial;
+    }
+
+    /**
+     * Empieza a auditar un contenedor, con un punto de control de su estado actual.
+     * Se llama desde {@link Contenedor#usarHistorial(HistorialAuditoria)}.
+     *
+     * @param contenedor El contenedor.
+     * @throws IllegalArgumentException si el historial ya audita otro contenedor o se cargó de un registro.
+     */
+    synchronized void iniciar(Contenedor contenedor) {
+        if (!puntos.isEmpty()) {
+            throw new IllegalArgumentException("El historial ya registra los cambios de otro contenedor.");
+        }
+        String instantanea = CodificadorRegistro.codificar(new EventoContenedor.Instantanea(0, 0,
+                List.copyOf(contenedor.getUsuarios()), List.copyOf(contenedor.getCapacitaciones())));
+        ReplicaSeguidora.aplicar(estado, CodificadorRegistro.decodificar(instantanea));
+        guardarPunto(System.currentTimeMillis());
+    }
+
+    /**
+     * Registra un evento publicado por el contenedor auditado, y guarda un punto de control si corresponde.
+     *
+     * @param evento El evento.
+     */
+    synchronized void registrar(EventoContenedor evento) {
+        String linea = CodificadorRegistro.codificar(evento);
+        // El estado propio recibe copias: las entidades del evento son las del contenedor, que pueden seguir cambiando
+        registrar(CodificadorRegistro.decodificar(linea), linea);
+    }
+
+    /**
+     * Registra un evento ya codificado, lo aplica al estado propio y guarda un punto de control si corresponde.
+     *
+     * @param evento El evento, con entidades que no comparte con ningún contenedor auditado.
+     * @param linea La línea que representa al evento.
+     */
+    private void registrar(EventoContenedor evento, String linea) {
+        // La secuencia y el instante se guardan como diferencias; el resto de la línea, tal cual
+        int inicio = linea.indexOf('\t', linea.indexOf('\t') + 1) + 1;
+        byte[] datos = linea.substring(inicio).getBytes(StandardCharsets.UTF_8);
+        registro.escribirZigzag(evento.secuencia() - ultimaSecuencia);
+        registro.escribirZigzag(evento.instante() - ultimoInstante);
+        registro.escribirVarint(datos.length);
+        registro.escribir(datos);
+        ultimaSecuencia = evento.secuencia();
+        ultimoInstante = evento.instante();
+        eventos++;
+        desdeUltimoPunto++;
+        ReplicaSeguidora.aplicar(estado, evento);
+        int tamanoEstado = estado.getUsuarios().size() + estado.getCapacitaciones().size();
+        if (desdeUltimoPunto >= Math.max(intervalo, tamanoEstado)) {
+            guardarPunto(evento.instante());
+        }
+    }
+
+    /**
+     * Reconstruye los usuarios y capacitaciones que tenía el contenedor auditado al final de un día.
+     *
+     * @param fecha El día, en la zona horaria del sistema.
+     * @return Un contenedor nuevo con ese estado.
+     * @throws IllegalArgumentException si el día es anterior al inicio del historial.
+     */
+    public Contenedor reconstruir(LocalDate fecha) {
+        long finDelDia = fecha.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli() - 1;
+        return reconstruir(finDelDia);
+    }
+
+    /**
+     * Reconstruye los usuarios y capacitaciones que tenía el contenedor auditado en un instante.
+     * El contenedor devuelto es independiente: modificarlo no afecta al historial ni al contenedor auditado.
+     *
+     * @param instante El instante, en milisegundos desde la época.
+     * @return Un contenedor nuevo con el estado posterior a todos los eventos registrados hasta ese instante.
+     * @throws IllegalArgumentException si el instante es anterior al inicio del historial.
+     */
+    public synchronized Contenedor reconstruir(long instante) {
+        PuntoControl punto = puntoAnterior(instante);
+        if (punto == null) {
+            throw new IllegalArgumentException("El historial no tiene registros anteriores a ese instante.");
+        }
+        Contenedor estado = new Contenedor();
+        try (BufferedReader lector = new BufferedReader(new InputStreamReader(
+                new InflaterInputStream(new ByteArrayInputStream(punto.estado())), StandardCharsets.UTF_8))) {
+            String linea;
+            while ((linea = lector.readLine()) != null) {
+                ReplicaSeguidora.aplicar(estado, CodificadorRegistro.decodificar(linea));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        ByteBuffer entrada = ByteBuffer.wrap(registro.datos(), punto.posicion(), registro.tamano() - punto.posicion());
+        long secuencia = punto.secuencia();
+        long instanteEvento = punto.instanteBase();
+        while (entrada.hasRemaining()) {
+            secuencia += FormatoColumnar.leerZigzag(entrada);
+            instanteEvento += FormatoColumnar.leerZigzag(entrada);
+            int largo = (int) FormatoColumnar.leerVarint(entrada);
+            if (instanteEvento > instante) {
+                break;
+            }
+            String resto = new String(entrada.array(), entrada.position(), largo, StandardCharsets.UTF_8);
+            entrada.position(entrada.position() + largo);
+            ReplicaSeguidora.aplicar(estado, CodificadorRegistro.decodificar(secuencia + "\t" + instanteEvento + "\t" + resto));
+        }
+        return estado;
+    }
+
+    /**
+     * Obtiene las estadísticas del historial.
+     *
+     * @return Las estadísticas.
+     */
+    public synchronized Estadisticas getEstadisticas() {
+        return new Estadisticas(eventos, puntos.size(), registro.tamano(), bytesPuntos);
+    }
+
+    /**
+     * Busca el último punto de control anterior o igual a un instante.
+     *
+     * @param instante El instante.
+     * @return El punto de control, o null si todos son posteriores.
+     */
+    private PuntoControl puntoAnterior(long instante) {
+        int bajo = 0;
+        int alto = puntos.size();
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (puntos.get(medio).instante() <= instante) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo == 0 ? null : puntos.get(bajo - 1);
+    }
+
+    /**
+     * Guarda un punto de control con el estado posterior a los eventos registrados.
+     * El estado se codifica como eventos de almacenamiento, uno por línea, comprimidos.
+     *
+     * @param instante El instante del punto de control.
+     */
+    private void guardarPunto(long instante) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (Writer salida = new OutputStreamWriter(new DeflaterOutputStream(bytes), StandardCharsets.UTF_8)) {
+            for (Usuario usuario : estado.getUsuarios()) {
+                salida.write(CodificadorRegistro.codificar(new EventoContenedor.UsuarioAlmacenado(0, 0, usuario)));
+                salida.write('\n');
+            }
+            for (Capacitacion capacitacion : estado.getCapacitaciones()) {
+                salida.write(CodificadorRegistro.codificar(new EventoContenedor.CapacitacionAlmacenada(0, 0, capacitacion)));
+                salida.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] estado = bytes.toByteArray();
+        puntos.add(new PuntoControl(Math.max(instante, ultimoInstante), ultimaSecuencia, ultimoInstante,
+                registro.tamano(), estado));
+        bytesPuntos += estado.length;
+        desdeUltimoPunto = 0;
+    }
+
+    /**
+     * Punto de control del historial.
+     *
+     * @param instante El instante desde el que vale el punto de control.
+     * @param secuencia La secuencia del último evento registrado antes del punto, base de las diferencias siguientes.
+     * @param instanteBase El instante del último evento registrado antes del punto, base de las diferencias siguientes.
+     * @param posicion La posición en el registro del primer evento posterior al punto.
+     * @param estado El estado comprimido.
+     */
+    private record PuntoControl(long instante, long secuencia, long instanteBase, int posicion, byte[] estado) {
+    }
+}
@@ -0,0 +1,557 @@
+package org.example.gestion;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Function;
+
+/*
+ *
+ * @author Judith Vergara
+ * @version 1.0
+ */
+
+/**
+ * Índice invertido de las palabras del origen y las consecuencias de los accidentes, para encontrar las causas que
+ * se repiten.
+ * <p>
+ * Los textos se normalizan con {@link Validar#normalizarString(String)}, se separan en palabras y se descartan los
+ * números y las {@link #PALABRAS_VACIAS}. Cada término guarda la lista de accidentes que lo contienen como
+ * diferencias entre posiciones consecutivas en varint, de modo que un término frecuente ocupa cerca de un byte por
+ * accidente.
+ * </p>
+ * <p>
+ * Para los rankings, cada accidente guarda además sus términos, y los accidentes quedan encadenados por cliente
+ * y por mes; cada mes tiene también sus conteos por término ya sumados. Así el ranking de un cliente solo recorre
+ * sus accidentes, y el de un período suma los meses completos y recorre solo los días de los meses en los bordes.
+ * El ranking de una comuna recorre los accidentes de los clientes que viven en ella al momento de consultar, de
+ * modo que un cliente que se cambia de comuna lleva consigo sus accidentes. Los conteos son de accidentes: un
+ * término repetido en un mismo accidente cuenta una vez.
+ * </p>
+ * <p>
+ * El índice guarda solo números, no los accidentes, así que conserva las estadísticas de los accidentes que el
+ * {@link Contenedor} ya movió a su {@link ArchivoAccidentes}.
+ * </p>
+ * <p>
+ * Los arreglos crecen al indexar, por lo que indexar y consultar se sincronizan sobre el índice; así un ranking
+ * puede calcularse mientras se siguen almacenando accidentes.
+ * </p>
+ */
+public class IndiceCausasAccidentes {
+
+    // Principio de Responsabilidad Única (SRP): solo indexa y cuenta términos; guardar los accidentes sigue a cargo del Contenedor.
+
+    /**
+     * Palabras frecuentes que no describen una causa, ya normalizadas.
+     */
+    static final Set<String> PALABRAS_VACIAS = Set.of(
+            "AL", "ANTE", "BAJO", "CON", "CONTRA", "DE", "DEL", "DESDE", "DURANTE", "EN", "ENTRE", "HACIA", "HASTA",
+            "MEDIANTE", "PARA", "POR", "SEGUN", "SIN", "SOBRE", "TRAS",
+            "EL", "LA", "LOS", "LAS", "LO", "UN", "UNA", "UNO", "UNOS", "UNAS",
+            "NI", "QUE", "SE", "SU", "SUS", "LE", "LES", "ME", "TE", "NOS", "MI", "TU",
+            "ES", "FUE", "ERA", "SON", "SER", "HA", "HAN", "HABIA", "ESTA", "ESTABA", "ESTAN", "ESTABAN",
+            "ESTE", "ESTO", "ESE", "ESA", "ESO", "ESOS", "ESAS", "ESTOS", "ESTAS", "AQUEL",
+            "COMO", "MAS", "MUY", "PERO", "SI", "NO", "YA", "CUANDO", "DONDE", "QUIEN", "CUAL", "TAMBIEN",
+            "OTRO", "OTRA", "OTROS", "OTRAS");
+
+    /**
+     * Valor de {@code dias} para un accidente sin fecha.
+     */
+    private static final int SIN_DIA = Integer.MIN_VALUE;
+
+    /**
+     * Término y cantidad de accidentes que lo contienen.
+     *
+     * @param termino El término normalizado.
+     * @param accidentes La cantidad de accidentes.
+     */
+    public record Termino(String termino, int accidentes) {
+    }
+
+    /**
+     * RUT de los clientes que viven actualmente en una comuna.
+     */
+    private final Function<String, Collection<Long>> clientesDeComuna;
+    /**
+     * Número de cada término.
+     */
+    private final Map<String, Integer> numeros = new HashMap<>();
+    /**
+     * Términos por número.
+     */
+    private final List<String> terminos = new ArrayList<>();
+    /**
+     * Lista de accidentes de cada término, como diferencias en varint.
+     */
+    private final List<FormatoColumnar.Bufer> listas = new ArrayList<>();
+    /**
+     * Último accidente agregado a la lista de cada término, o -1.
+     */
+    private int[] ultimoDelTermino = new int[256];
+    /**
+     * Cantidad de accidentes de cada término.
+     */
+    private int[] accidentesDelTermino = new int[256];
+
+    /**
+     * Cantidad de accidentes indexados.
+     */
+    private int documentos;
+    /**
+     * Identificador de cada accidente.
+     */
+    private int[] identificadores = new int[1024];
+    /**
+     * Días desde la época de cada accidente, o {@link #SIN_DIA}.
+     */
+    private int[] dias = new int[1024];
+    /**
+     * Posición en {@code terminosDocumento} donde empiezan los términos de cada accidente; la del siguiente marca
+     * el fin.
+     */
+    private int[] inicioTerminos = new int[1025];
+    /**
+     * Términos de todos los accidentes, uno tras otro.
+     */
+    private int[] terminosDocumento = new int[8192];
+    /**
+     * Accidente anterior del mismo cliente, o -1.
+     */
+    private int[] anteriorDelCliente = new int[1024];
+    /**
+     * Accidente anterior del mismo mes, o -1.
+     */
+    private int[] anteriorDelMes = new int[1024];
+    /**
+     * Último accidente de cada cliente.
+     */
+    private final Map<Long, Integer> ultimoDelCliente = new HashMap<>();
+    /**
+     * Último accidente de cada mes, por {@link #mes(LocalDate)}.
+     */
+    private final Map<Integer, Integer> ultimoDelMes = new HashMap<>();
+    /**
+     * Accidentes por término de cada mes, con un largo que crece según aparecen términos.
+     */
+    private final Map<Integer, int[]> conteosDelMes = new HashMap<>();
+
+    /**
+     * Crea un índice vacío.
+     *
+     * @param clientesDeComuna Función que entrega los RUT de los clientes que viven en una comuna al consultarla.
+     * @throws IllegalArgumentException si la función es nula.
+     */
+    public IndiceCausasAccidentes(Function<String, Collection<Long>> clientesDeComuna) {
+        if (clientesDeComuna == null) {
+            throw new IllegalArgumentException("La función de clientes por comuna no puede ser nula.");
+        }
+        this.clientesDeComuna = clientesDeComuna;
+    }
+
+    /**
+     * Separa un texto en términos normalizados, sin números ni palabras vacías.
+     *
+     * @param texto El texto, o null.
+     * @return Los términos, en el orden del texto y con repeticiones.
+     */
+    public static List<String> tokenizar(String texto) {
+        List<String> resultado = new ArrayList<>();
+        if (texto == null || texto.isBlank()) {
+            return resultado;
+        }
+        String normalizado = Validar.normalizarString(texto);
+        int inicio = -1;
+        boolean soloDigitos = true;
+        for (int i = 0; i <= normalizado.length(); i++) {
+            char caracter = i < normalizado.length() ? normalizado.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(caracter)) {
+                if (inicio < 0) {
+                    inicio = i;
+                    soloDigitos = true;
+                }
+                soloDigitos &= Character.isDigit(caracter);
+            } else if (inicio >= 0) {
+                String palabra = normalizado.substring(inicio, i);
+                if (palabra.length() > 1 && !soloDigitos && !PALABRAS_VACIAS.contains(palabra)) {
+                    resultado.add(palabra);
+                }
+                inicio = -1;
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Indexa un accidente recién almacenado.
+     *
+     * @param accidente El accidente.
+     */
+    synchronized void agregar(Accidente accidente) {
+        int documento = documentos;
+        asegurarDocumentos(documento + 1);
+        identificadores[documento] = accidente.getIdentificador();
+        LocalDate dia = accidente.getDia();
+        dias[documento] = dia == null ? SIN_DIA : (int) dia.toEpochDay();
+
+        int[] conteosMes = null;
+        if (dia != null) {
+            int mes = mes(dia);
+            anteriorDelMes[documento] = ultimoDelMes.getOrDefault(mes, -1);
+            ultimoDelMes.put(mes, documento);
+            conteosMes = conteosDelMes.computeIfAbsent(mes, m -> new int[terminos.size() + 16]);
+        } else {
+            anteriorDelMes[documento] = -1;
+        }
+        anteriorDelCliente[documento] = ultimoDelCliente.getOrDefault(accidente.getRutCliente(), -1);
+        ultimoDelCliente.put(accidente.getRutCliente(), documento);
+
+        int posicion = inicioTerminos[documento];
+        List<String> palabras = tokenizar(accidente.getOrigen());
+        palabras.addAll(tokenizar(accidente.getConsecuencias()));
+        for (String palabra : palabras) {
+            int termino = numero(palabra);
+            if (ultimoDelTermino[termino] == documento) {
+                continue;
+            }
+            // La lista guarda la distancia al accidente anterior del término; la primera, desde -1
+            listas.get(termino).escribirVarint(documento - ultimoDelTermino[termino]);
+            ultimoDelTermino[termino] = documento;
+            accidentesDelTermino[termino]++;
+            if (posicion == terminosDocumento.length) {
+                terminosDocumento = Arrays.copyOf(terminosDocumento, posicion * 2);
+            }
+            terminosDocumento[posicion++] = termino;
+            if (conteosMes != null) {
+                if (termino >= conteosMes.length) {
+                    conteosMes = Arrays.copyOf(conteosMes, Math.max(terminos.size(), conteosMes.length * 2));
+                    conteosDelMes.put(mes(dia), conteosMes);
+                }
+                conteosMes[termino]++;
+            }
+        }
+        inicioTerminos[documento + 1] = posicion;
+        documentos++;
+    }
+
+    /**
+     * Busca los accidentes cuyo origen o consecuencias contienen todas las palabras de un texto.
+     *
+     * @param texto Las palabras, que se normalizan igual que los accidentes.
+     * @return Los identificadores de los accidentes, en el orden en que se almacenaron; vacío si el texto no tiene
+     *         palabras indexables.
+     */
+    public synchronized List<Integer> buscar(String texto) {
+        List<String> palabras = tokenizar(texto);
+        List<Integer> resultado = new ArrayList<>();
+        if (palabras.isEmpty()) {
+            return resultado;
+        }
+        // Se parte del término con menos accidentes y se descartan los que falten en los demás
+        int[] consulta = new int[palabras.size()];
+        for (int i = 0; i < consulta.length; i++) {
+            Integer termino = numeros.get(palabras.get(i));
+            if (termino == null) {
+                return resultado;
+            }
+            consulta[i] = termino;
+        }
+        Integer[] ordenados = Arrays.stream(consulta).distinct().boxed().toArray(Integer[]::new);
+        Arrays.sort(ordenados, (a, b) -> Integer.compare(accidentesDelTermino[a], accidentesDelTermino[b]));
+        int[] candidatos = documentos(ordenados[0]);
+        int cantidad = candidatos.length;
+        for (int i = 1; i < ordenados.length && cantidad > 0; i++) {
+            cantidad = intersectar(candidatos, cantidad, listas.get(ordenados[i]));
+        }
+        for (int i = 0; i < cantidad; i++) {
+            resultado.add(identificadores[candidatos[i]]);
+        }
+        return resultado;
+    }
+
+    /**
+     * Obtiene los términos más frecuentes entre todos los accidentes indexados.
+     *
+     * @param k La cantidad de términos.
+     * @return Los términos, del más frecuente al menos frecuente; a igual frecuencia, en orden alfabético.
+     * @throws IllegalArgumentException si k no es positivo.
+     */
+    public synchronized List<Termino> principales(int k) {
+        return seleccionar(accidentesDelTermino, k);
+    }
+
+    /**
+     * Obtiene los términos más frecuentes en los accidentes de un cliente.
+     *
+     * @param rutCliente El RUT del cliente.
+     * @param k La cantidad de términos.
+     * @return Los términos, del más frecuente al menos frecuente.
+     * @throws IllegalArgumentException si k no es positivo.
+     */
+    public synchronized List<Termino> principalesDelCliente(long rutCliente, int k) {
+        int[] conteos = new int[terminos.size()];
+        contarCadena(conteos, ultimoDelCliente.getOrDefault(rutCliente, -1), anteriorDelCliente);
+        return seleccionar(conteos, k);
+    }
+
+    /**
+     * Obtiene los términos más frecuentes en los accidentes de los clientes que viven en una comuna. Los accidentes
+     * de clientes que ya no están registrados no cuentan en ninguna comuna.
+     *
+     * @param comuna La comuna; no distingue mayúsculas ni acentos.
+     * @param k La cantidad de términos.
+     * @return Los términos, del más frecuente al menos frecuente.
+     * @throws IllegalArgumentException si k no es positivo.
+     */
+    public synchronized List<Termino> principalesDeComuna(String comuna, int k) {
+        int[] conteos = new int[terminos.size()];
+        if (comuna != null) {
+            for (long rutCliente : clientesDeComuna.apply(comuna)) {
+                contarCadena(conteos, ultimoDelCliente.getOrDefault(rutCliente, -1), anteriorDelCliente);
+            }
+        }
+        return seleccionar(conteos, k);
+    }
+
+    /**
+     * Obtiene los términos más frecuentes en los accidentes ocurridos en un período.
+     *
+     * @param desde El primer día, inclusivo.
+     * @param hasta El último día, inclusivo.
+     * @param k La cantidad de términos.
+     * @return Los términos, del más frecuente al menos frecuente.
+     * @throws IllegalArgumentException si k no es positivo o si {@code desde} es posterior a {@code hasta}.
+     */
+    public synchronized List<Termino> principalesEntre(LocalDate desde, LocalDate hasta, int k) {
+        if (desde.isAfter(hasta)) {
+            throw new IllegalArgumentException("La fecha inicial no puede ser posterior a la final.");
+        }
+        int[] conteos = new int[terminos.size()];
+        long primerDia = desde.toEpochDay();
+        long ultimoDia = hasta.toEpochDay();
+        for (YearMonth mes = YearMonth.from(desde); !mes.isAfter(YearMonth.from(hasta)); mes = mes.plusMonths(1)) {
+            int clave = mes(mes.atDay(1));
+            if (!desde.isAfter(mes.atDay(1)) && !hasta.isBefore(mes.atEndOfMonth())) {
+                int[] delMes = conteosDelMes.get(clave);
+                if (delMes != null) {
+                    for (int termino = 0; termino < delMes.length && termino < conteos.length; termino++) {
+                        conteos[termino] += delMes[termino];
+                    }
+                }
+            } else {
+                // Mes del borde: solo los accidentes dentro del período
+                for (int documento = ultimoDelMes.getOrDefault(clave, -1); documento >= 0;
+                     documento = anteriorDelMes[documento]) {
+                    if (dias[documento] >= primerDia && dias[documento] <= ultimoDia) {
+                        contar(conteos, documento);
+                    }
+                }
+            }
+        }
+        return seleccionar(conteos, k);
+    }
+
+    /**
+     * Obtiene la cantidad de accidentes que contienen un término.
+     *
+     * @param termino El término; se normaliza igual que los accidentes.
+     * @return La cantidad de accidentes, o 0 si el término no está indexado.
+     */
+    public synchronized int getAccidentes(String termino) {
+        Integer numero = termino == null ? null : numeros.get(Validar.normalizarString(termino.trim()));
+        return numero == null ? 0 : accidentesDelTermino[numero];
+    }
+
+    /**
+     * Obtiene la cantidad de accidentes indexados.
+     *
+     * @return La cantidad de accidentes.
+     */
+    public synchronized int getDocumentos() {
+        return documentos;
+    }
+
+    /**
+     * Obtiene la cantidad de términos distintos indexados.
+     *
+     * @return La cantidad de términos.
+     */
+    public synchronized int getTerminos() {
+        return terminos.size();
+    }
+
+    /**
+     * Obtiene los bytes que ocupan las listas de accidentes de todos los términos.
+     *
+     * @return Los bytes escritos en las listas.
+     */
+    public synchronized long getBytesListas() {
+        long total = 0;
+        for (FormatoColumnar.Bufer lista : listas) {
+            total += lista.tamano();
+        }
+        return total;
+    }
+
+    /**
+     * Obtiene el número de un término, registrándolo si es nuevo.
+     *
+     * @param palabra El término normalizado.
+     * @return El número del término.
+     */
+    private int numero(String palabra) {
+        Integer numero = numeros.get(palabra);
+        if (numero != null) {
+            return numero;
+        }
+        int nuevo = terminos.size();
+        numeros.put(palabra, nuevo);
+        terminos.add(palabra);
+        listas.add(new FormatoColumnar.Bufer(8));
+        if (nuevo == ultimoDelTermino.length) {
+            ultimoDelTermino = Arrays.copyOf(ultimoDelTermino, nuevo * 2);
+            accidentesDelTermino = Arrays.copyOf(accidentesDelTermino, nuevo * 2);
+        }
+        ultimoDelTermino[nuevo] = -1;
+        return nuevo;
+    }
+
+    /**
+     * Decodifica la lista de accidentes de un término.
+     *
+     * @param termino El número del término.
+     * @return Las posiciones de los accidentes, en orden.
+     */
+    private int[] documentos(int termino) {
+        FormatoColumnar.Bufer lista = listas.get(termino);
+        ByteBuffer entrada = ByteBuffer.wrap(lista.datos(), 0, lista.tamano());
+        int[] resultado = new int[accidentesDelTermino[termino]];
+        int documento = -1;
+        for (int i = 0; i < resultado.length; i++) {
+            documento += (int) FormatoColumnar.leerVarint(entrada);
+            resultado[i] = documento;
+        }
+        return resultado;
+    }
+
+    /**
+     * Deja en los candidatos solo los accidentes que también están en una lista, recorriendo ambas en orden.
+     *
+     * @param candidatos Los candidatos, en orden; se sobrescriben con el resultado.
+     * @param cantidad La cantidad de candidatos válidos.
+     * @param lista La lista del otro término.
+     * @return La cantidad de candidatos que quedan.
+     */
+    private static int intersectar(int[] candidatos, int cantidad, FormatoColumnar.Bufer lista) {
+        ByteBuffer entrada = ByteBuffer.wrap(lista.datos(), 0, lista.tamano());
+        int quedan = 0;
+        int documento = -1;
+        for (int i = 0; i < cantidad; i++) {
+            while (documento < candidatos[i]) {
+                if (!entrada.hasRemaining()) {
+                    return quedan;
+                }
+                documento += (int) FormatoColumnar.leerVarint(entrada);
+            }
+            if (documento == candidatos[i]) {
+                candidatos[quedan++] = candidatos[i];
+            }
+        }
+        return quedan;
+    }
+
+    /**
+     * Suma los términos de los accidentes de una cadena.
+     *
+     * @param conteos Los conteos por término.
+     * @param ultimo El último accidente de la cadena, o -1.
+     * @param anterior El enlace de cada accidente con el anterior de su cadena.
+     */
+    private void contarCadena(int[] conteos, int ultimo, int[] anterior) {
+        for (int documento = ultimo; documento >= 0; documento = anterior[documento]) {
+            contar(conteos, documento);
+        }
+    }
+
+    /**
+     * Suma los términos de un accidente.
+     *
+     * @param conteos Los conteos por término.
+     * @param documento La posición del accidente.
+     */
+    private void contar(int[] conteos, int documento) {
+        for (int i = inicioTerminos[documento]; i < inicioTerminos[documento + 1]; i++) {
+            conteos[terminosDocumento[i]]++;
+        }
+    }
+
+    /**
+     * Elige los k términos con más accidentes.
+     *
+     * @param conteos Los accidentes por término.
+     * @param k La cantidad de términos.
+     * @return Los términos, del más frecuente al menos frecuente; a igual frecuencia, en orden alfabético.
+     * @throws IllegalArgumentException si k no es positivo.
+     */
+    private List<Termino> seleccionar(int[] conteos, int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("La cantidad de términos debe ser mayor que cero.");
+        }
+        // Montículo de mínimos con los k mejores vistos; en la raíz, el que saldría primero
+        PriorityQueue<Integer> mejores = new PriorityQueue<>(k + 1, (a, b) -> conteos[a] != conteos[b]
+                ? Integer.compare(conteos[a], conteos[b])
+                : terminos.get(b).compareTo(terminos.get(a)));
+        int cantidad = Math.min(conteos.length, terminos.size());
+        for (int termino = 0; termino < cantidad; termino++) {
+            if (conteos[termino] == 0) {
+                continue;
+            }
+            if (mejores.size() < k) {
+                mejores.add(termino);
+            } else if (mejores.comparator().compare(termino, mejores.peek()) > 0) {
+                mejores.poll();
+                mejores.add(termino);
+            }
+        }
+        Termino[] resultado = new Termino[mejores.size()];
+        for (int i = resultado.length - 1; i >= 0; i--) {
+            int termino = mejores.poll();
+            resultado[i] = new Termino(terminos.get(termino), conteos[termino]);
+        }
+        return List.of(resultado);
+    }
+
+    /**
+     * Asegura espacio para los datos de una cantidad de accidentes.
+     *
+     * @param cantidad La cantidad de accidentes.
+     */
+    private void asegurarDocumentos(int cantidad) {
+        if (cantidad <= identificadores.length) {
+            return;
+        }
+        int nuevo = Math.max(cantidad, identificadores.length * 2);
+        identificadores = Arrays.copyOf(identificadores, nuevo);
+        dias = Arrays.copyOf(dias, nuevo);
+        inicioTerminos = Arrays.copyOf(inicioTerminos, nuevo + 1);
+        anteriorDelCliente = Arrays.copyOf(anteriorDelCliente, nuevo);
+        anteriorDelMes = Arrays.copyOf(anteriorDelMes, nuevo);
+    }
+
+    /**
+     * Calcula la clave del mes de un día.
+     *
+     * @param dia El día.
+     * @return El año por doce más el mes desde cero.
+     */
+    private static int mes(LocalDate dia) {
+        return dia.getYear() * 12 + dia.getMonthValue() - 1;
+    }
+}
@@ -0,0 +1,358 @@
+package org.example.gestion;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.stream.IntStream;
+
+/*
+ *
+ * @author Judith Vergara
+ * @version 1.0
+ */
+
+/**
+ * Índice ordenado por una clave numérica, para consultas por rango.
+ * <p>
+ * Los elementos se guardan en un arreglo primitivo de claves ordenado, junto con un arreglo paralelo de valores.
+ * Para no desplazar el arreglo en cada cambio, los elementos nuevos se acumulan en un buffer pequeño y las
+ * eliminaciones en un conjunto de pendientes; cuando cualquiera de los dos se llena, se fusionan con el arreglo
+ * principal en una sola pasada. Una consulta por rango hace dos búsquedas binarias sobre el arreglo principal y
+ * revisa el buffer, cuyo tamaño está acotado, por lo que cuesta tiempo logarítmico más el tamaño del resultado.
+ * </p>
+ * <p>
+ * Los valores se identifican por instancia. Los rangos devueltos son vistas del índice que buscan sus posiciones
+ * cada vez que se recorren, por lo que siguen siendo válidos después de una fusión; cada recorrido debe hacerse
+ * sin modificar el índice al mismo tiempo.
+ * </p>
+ *
+ * @param <T> El tipo de los valores indexados.
+ */
+class IndiceOrdenado<T> {
+
+    // Principio de Responsabilidad Única (SRP): solo ordena y busca por clave; qué clave usar lo decide quien lo mantiene.
+
+    /**
+     * Cantidad de cambios pendientes que provoca una fusión con el arreglo principal.
+     */
+    private static final int LIMITE_PENDIENTES = 1024;
+    /**
+     * Capacidad inicial del buffer de agregados. Crece hasta {@link #LIMITE_PENDIENTES}, para que los índices
+     * pequeños, como los de un solo cliente, no reserven el buffer completo.
+     */
+    private static final int CAPACIDAD_INICIAL = 8;
+
+    /**
+     * Claves del arreglo principal, ordenadas.
+     */
+    private long[] claves = new long[0];
+    /**
+     * Valores del arreglo principal, en el mismo orden que las claves.
+     */
+    private Object[] valores = new Object[0];
+    /**
+     * Claves agregadas desde la última fusión, sin ordenar.
+     */
+    private long[] clavesNuevas = new long[CAPACIDAD_INICIAL];
+    /**
+     * Valores agregados desde la última fusión.
+     */
+    private Object[] valoresNuevos = new Object[CAPACIDAD_INICIAL];
+    /**
+     * Cantidad de elementos agregados desde la última fusión.
+     */
+    private int cantidadNuevos;
+    /**
+     * Valores del arreglo principal eliminados desde la última fusión, con su clave.
+     */
+    private final Map<Object, Long> eliminados = new IdentityHashMap<>();
+
+    /**
+     * Agrega un valor con su clave.
+     *
+     * @param clave La clave del valor.
+     * @param valor El valor a agregar.
+     */
+    void agregar(long clave, T valor) {
+        if (cantidadNuevos == LIMITE_PENDIENTES) {
+            fusionar();
+        } else if (cantidadNuevos == clavesNuevas.length) {
+            clavesNuevas = Arrays.copyOf(clavesNuevas, cantidadNuevos * 2);
+            valoresNuevos = Arrays.copyOf(valoresNuevos, cantidadNuevos * 2);
+        }
+        clavesNuevas[cantidadNuevos] = clave;
+        valoresNuevos[cantidadNuevos] = valor;
+        cantidadNuevos++;
+    }
+
+    /**
+     * Quita un valor que fue agregado con la clave indicada. Si el índice no tiene el valor con esa clave, no
+     * cambia nada.
+     *
+     * @param clave La clave con que se agregó el valor.
+     * @param valor El valor a quitar.
+     * @return true si el valor estaba en el índice con esa clave.
+     */
+    boolean quitar(long clave, T valor) {
+        for (int i = 0; i < cantidadNuevos; i++) {
+            if (valoresNuevos[i] == valor && clavesNuevas[i] == clave) {
+                cantidadNuevos--;
+                clavesNuevas[i] = clavesNuevas[cantidadNuevos];
+                valoresNuevos[i] = valoresNuevos[cantidadNuevos];
+                valoresNuevos[cantidadNuevos] = null;
+                return true;
+            }
+        }
+        // Solo se marca como eliminado un valor que está en el arreglo principal, para que el tamaño siga exacto
+        if (eliminados.containsKey(valor) || !contienePrincipal(clave, valor)) {
+            return false;
+        }
+        eliminados.put(valor, clave);
+        if (eliminados.size() >= LIMITE_PENDIENTES) {
+            fusionar();
+        }
+        return true;
+    }
+
+    /**
+     * Indica si el arreglo principal tiene un valor con la clave indicada.
+     *
+     * @param clave La clave.
+     * @param valor El valor.
+     * @return true si el valor está en el arreglo principal con esa clave.
+     */
+    private boolean contienePrincipal(long clave, Object valor) {
+        for (int i = primeraPosicion(clave); i < claves.length && claves[i] == clave; i++) {
+            if (valores[i] == valor) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Indica si el valor de una posición del arreglo principal fue eliminado desde la última fusión.
+     *
+     * @param posicion La posición en el arreglo principal.
+     * @return true si el valor fue eliminado con la clave de esa posición.
+     */
+    private boolean eliminado(int posicion) {
+        Long clave = eliminados.get(valores[posicion]);
+        return clave != null && clave == claves[posicion];
+    }
+
+    /**
+     * Obtiene la cantidad de valores indexados.
+     *
+     * @return La cantidad de valores.
+     */
+    int tamano() {
+        return claves.length - eliminados.size() + cantidadNuevos;
+    }
+
+    /**
+     * Obtiene los valores con clave dentro de un rango, en orden de clave.
+     *
+     * @param desde La clave mínima, inclusiva.
+     * @param hasta La clave máxima, inclusiva.
+     * @return Una vista de los valores del rango.
+     */
+    Collection<T> rango(long desde, long hasta) {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<T> iterator() {
+                return new IteradorRango(primeraPosicion(desde), finRango(hasta), desde, hasta);
+            }
+
+            @Override
+            public int size() {
+                int cantidad = Math.max(0, finRango(hasta) - primeraPosicion(desde));
+                for (Long clave : eliminados.values()) {
+                    if (clave >= desde && clave <= hasta) {
+                        cantidad--;
+                    }
+                }
+                for (int i = 0; i < cantidadNuevos; i++) {
+                    if (clavesNuevas[i] >= desde && clavesNuevas[i] <= hasta) {
+                        cantidad++;
+                    }
+                }
+                return cantidad;
+            }
+        };
+    }
+
+    /**
+     * Obtiene los valores con las claves más altas, de mayor a menor.
+     *
+     * @param cantidad La cantidad máxima de valores.
+     * @return Hasta {@code cantidad} valores, empezando por el de clave más alta.
+     */
+    @SuppressWarnings("unchecked")
+    List<T> ultimos(int cantidad) {
+        int[] nuevos = IntStream.range(0, cantidadNuevos)
+                .boxed()
+                .sorted((a, b) -> Long.compare(clavesNuevas[b], clavesNuevas[a]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        List<T> resultado = new ArrayList<>(Math.min(cantidad, tamano()));
+        int posicion = claves.length - 1;
+        int posicionNuevos = 0;
+        while (resultado.size() < cantidad && (posicion >= 0 || posicionNuevos < nuevos.length)) {
+            if (posicion >= 0 && eliminado(posicion)) {
+                posicion--;
+            } else if (posicionNuevos >= nuevos.length
+                    || (posicion >= 0 && claves[posicion] >= clavesNuevas[nuevos[posicionNuevos]])) {
+                resultado.add((T) valores[posicion--]);
+            } else {
+                resultado.add((T) valoresNuevos[nuevos[posicionNuevos++]]);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Busca la posición final, exclusiva, de un rango en el arreglo principal.
+     *
+     * @param hasta La clave máxima del rango, inclusiva.
+     * @return La primera posición con clave mayor a la indicada.
+     */
+    private int finRango(long hasta) {
+        return hasta == Long.MAX_VALUE ? claves.length : primeraPosicion(hasta + 1);
+    }
+
+    /**
+     * Busca la primera posición del arreglo principal con clave mayor o igual a la indicada.
+     *
+     * @param clave La clave buscada.
+     * @return La posición encontrada, o el largo del arreglo si todas las claves son menores.
+     */
+    private int primeraPosicion(long clave) {
+        int bajo = 0;
+        int alto = claves.length;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (claves[medio] < clave) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo;
+    }
+
+    /**
+     * Fusiona los elementos agregados y las eliminaciones pendientes con el arreglo principal.
+     */
+    private void fusionar() {
+        // Ordena los elementos nuevos por clave
+        Integer[] orden = new Integer[cantidadNuevos];
+        for (int i = 0; i < cantidadNuevos; i++) {
+            orden[i] = i;
+        }
+        Arrays.sort(orden, (a, b) -> Long.compare(clavesNuevas[a], clavesNuevas[b]));
+
+        long[] nuevasClaves = new long[claves.length + cantidadNuevos];
+        Object[] nuevosValores = new Object[claves.length + cantidadNuevos];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < claves.length || j < cantidadNuevos) {
+            if (i < claves.length && eliminado(i)) {
+                i++;
+            } else if (j >= cantidadNuevos || (i < claves.length && claves[i] <= clavesNuevas[orden[j]])) {
+                nuevasClaves[k] = claves[i];
+                nuevosValores[k++] = valores[i++];
+            } else {
+                nuevasClaves[k] = clavesNuevas[orden[j]];
+                nuevosValores[k++] = valoresNuevos[orden[j++]];
+            }
+        }
+        // El tamaño final es la cantidad de valores copiados
+        claves = k == nuevasClaves.length ? nuevasClaves : Arrays.copyOf(nuevasClaves, k);
+        valores = k == nuevosValores.length ? nuevosValores : Arrays.copyOf(nuevosValores, k);
+        Arrays.fill(valoresNuevos, 0, cantidadNuevos, null);
+        cantidadNuevos = 0;
+        eliminados.clear();
+    }
+
+    /**
+     * Recorre un rango mezclando en orden el arreglo principal con los elementos agregados desde la última fusión.
+     */
+    private class IteradorRango implements Iterator<T> {
+
+        /**
+         * Posición actual en el arreglo principal.
+         */
+        private int posicion;
+        /**
+         * Posición final, exclusiva, en el arreglo principal.
+         */
+        private final int fin;
+        /**
+         * Posiciones del buffer de nuevos que caen en el rango, ordenadas por clave.
+         */
+        private final int[] nuevosEnRango;
+        /**
+         * Posición actual en {@code nuevosEnRango}.
+         */
+        private int posicionNuevos;
+
+        /**
+         * Crea el iterador del rango.
+         *
+         * @param inicio Posición inicial en el arreglo principal.
+         * @param fin Posición final, exclusiva, en el arreglo principal.
+         * @param desde Clave mínima del rango.
+         * @param hasta Clave máxima del rango.
+         */
+        IteradorRango(int inicio, int fin, long desde, long hasta) {
+            this.posicion = inicio;
+            this.fin = fin;
+            this.nuevosEnRango = IntStream.range(0, cantidadNuevos)
+                    .filter(n -> clavesNuevas[n] >= desde && clavesNuevas[n] <= hasta)
+                    .boxed()
+                    .sorted((a, b) -> Long.compare(clavesNuevas[a], clavesNuevas[b]))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            saltarEliminados();
+        }
+
+        /**
+         * Avanza la posición del arreglo principal hasta un valor no eliminado.
+         */
+        private void saltarEliminados() {
+            while (posicion < fin && eliminado(posicion)) {
+                posicion++;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return posicion < fin || posicionNuevos < nuevosEnRango.length;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Object valor;
+            if (posicionNuevos >= nuevosEnRango.length
+                    || (posicion < fin && claves[posicion] <= clavesNuevas[nuevosEnRango[posicionNuevos]])) {
+                valor = valores[posicion++];
+                saltarEliminados();
+            } else {
+                valor = valoresNuevos[nuevosEnRango[posicionNuevos++]];
+            }
+            return (T) valor;
+        }
+    }
+}
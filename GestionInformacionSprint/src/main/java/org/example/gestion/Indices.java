@@ -0,0 +1,395 @@
+package org.example.gestion;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/*
+ *
+ * @author Judith Vergara
+ * @version 1.0
+ */
+
+/**
+ * Índices secundarios de un {@link Contenedor}, mantenidos cada vez que se almacena o elimina un dato.
+ * <p>
+ * Indexa los clientes por comuna, los usuarios por fecha de nacimiento y por día de cumpleaños, y las
+ * capacitaciones por día, por lugar y por cliente. Las claves de texto se
+ * normalizan con {@link Validar#normalizarString(String)}, de modo que "Ñuñoa", "ñuñoa " y "NUNOA" caen en la misma
+ * entrada. Cada entrada conserva el orden de inserción y permite quitar un elemento en tiempo constante.
+ * </p>
+ * <p>
+ * Las consultas pueden correr mientras otros hilos siguen almacenando: los cambios toman el bloqueo de escritura y
+ * las consultas devuelven una {@link VistaProtegida}, que lee con el bloqueo de lectura.
+ * </p>
+ */
+class Indices {
+
+    // Principio de Responsabilidad Única (SRP): solo mantiene los índices; decidir cuándo usarlos es tarea de Consulta.
+
+    /**
+     * Clientes por comuna normalizada.
+     */
+    private final Map<String, Set<Cliente>> clientesPorComuna = new HashMap<>();
+    /**
+     * Capacitaciones por día normalizado.
+     */
+    private final Map<String, Set<Capacitacion>> capacitacionesPorDia = new HashMap<>();
+    /**
+     * Capacitaciones por lugar normalizado.
+     */
+    private final Map<String, Set<Capacitacion>> capacitacionesPorLugar = new HashMap<>();
+    /**
+     * Capacitaciones por RUT del cliente.
+     */
+    private final Map<Long, Set<Capacitacion>> capacitacionesPorCliente = new HashMap<>();
+    /**
+     * Capacitaciones por identificador.
+     */
+    private final Map<Integer, Capacitacion> capacitacionesPorIdentificador = new HashMap<>();
+    /**
+     * Edad desde la que un rango se considera sin límite, para no salir del rango de {@link LocalDate}.
+     */
+    private static final int EDAD_SIN_LIMITE = 1_000_000;
+
+    /**
+     * Usuarios ordenados por fecha de nacimiento, como cantidad de días desde la época.
+     */
+    private final IndiceOrdenado<Usuario> usuariosPorNacimiento = new IndiceOrdenado<>();
+    /**
+     * Usuarios ordenados por día de cumpleaños dentro del año, con la clave de {@link #claveCumpleanos(LocalDate)}.
+     */
+    private final IndiceOrdenado<Usuario> usuariosPorCumpleanos = new IndiceOrdenado<>();
+    /**
+     * Bloqueo de los índices: varias consultas a la vez o un solo cambio.
+     */
+    private final ReentrantReadWriteLock bloqueo = new ReentrantReadWriteLock();
+
+    /**
+     * Agrega un usuario a los índices que le correspondan.
+     *
+     * @param usuario El usuario almacenado.
+     */
+    void agregarUsuario(Usuario usuario) {
+        bloqueo.writeLock().lock();
+        try {
+            LocalDate nacimiento = usuario.getFechaNacimiento();
+            if (nacimiento != null) {
+                usuariosPorNacimiento.agregar(nacimiento.toEpochDay(), usuario);
+                usuariosPorCumpleanos.agregar(claveCumpleanos(nacimiento), usuario);
+            }
+            if (usuario instanceof Cliente cliente) {
+                agregar(clientesPorComuna, clave(cliente.getComuna()), cliente);
+            }
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Quita un usuario de los índices.
+     *
+     * @param usuario El usuario eliminado.
+     */
+    void quitarUsuario(Usuario usuario) {
+        bloqueo.writeLock().lock();
+        try {
+            LocalDate nacimiento = usuario.getFechaNacimiento();
+            if (nacimiento != null) {
+                usuariosPorNacimiento.quitar(nacimiento.toEpochDay(), usuario);
+                usuariosPorCumpleanos.quitar(claveCumpleanos(nacimiento), usuario);
+            }
+            if (usuario instanceof Cliente cliente) {
+                quitar(clientesPorComuna, clave(cliente.getComuna()), cliente);
+            }
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Agrega una capacitación a los índices.
+     *
+     * @param capacitacion La capacitación almacenada.
+     */
+    void agregarCapacitacion(Capacitacion capacitacion) {
+        bloqueo.writeLock().lock();
+        try {
+            agregar(capacitacionesPorDia, clave(capacitacion.getDia()), capacitacion);
+            agregar(capacitacionesPorLugar, clave(capacitacion.getLugar()), capacitacion);
+            agregar(capacitacionesPorCliente, capacitacion.getRutCliente(), capacitacion);
+            capacitacionesPorIdentificador.put(capacitacion.getIdentificador(), capacitacion);
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Quita una capacitación de los índices.
+     *
+     * @param capacitacion La capacitación eliminada.
+     */
+    void quitarCapacitacion(Capacitacion capacitacion) {
+        bloqueo.writeLock().lock();
+        try {
+            quitar(capacitacionesPorDia, clave(capacitacion.getDia()), capacitacion);
+            quitar(capacitacionesPorLugar, clave(capacitacion.getLugar()), capacitacion);
+            quitar(capacitacionesPorCliente, capacitacion.getRutCliente(), capacitacion);
+            capacitacionesPorIdentificador.remove(capacitacion.getIdentificador(), capacitacion);
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Quita un usuario solo de los índices que dependen de los campos indicados, antes de modificarlos.
+     *
+     * @param usuario El usuario, aún con sus valores anteriores.
+     * @param campos Los campos que van a cambiar.
+     */
+    void quitarCampos(Usuario usuario, Set<CampoUsuario> campos) {
+        bloqueo.writeLock().lock();
+        try {
+            LocalDate nacimiento = usuario.getFechaNacimiento();
+            if (campos.contains(CampoUsuario.FECHA_NACIMIENTO) && nacimiento != null) {
+                usuariosPorNacimiento.quitar(nacimiento.toEpochDay(), usuario);
+                usuariosPorCumpleanos.quitar(claveCumpleanos(nacimiento), usuario);
+            }
+            if (campos.contains(CampoUsuario.COMUNA) && usuario instanceof Cliente cliente) {
+                quitar(clientesPorComuna, clave(cliente.getComuna()), cliente);
+            }
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Vuelve a agregar un usuario a los índices que dependen de los campos indicados, después de modificarlos.
+     *
+     * @param usuario El usuario, con sus valores nuevos.
+     * @param campos Los campos que cambiaron.
+     */
+    void agregarCampos(Usuario usuario, Set<CampoUsuario> campos) {
+        bloqueo.writeLock().lock();
+        try {
+            LocalDate nacimiento = usuario.getFechaNacimiento();
+            if (campos.contains(CampoUsuario.FECHA_NACIMIENTO) && nacimiento != null) {
+                usuariosPorNacimiento.agregar(nacimiento.toEpochDay(), usuario);
+                usuariosPorCumpleanos.agregar(claveCumpleanos(nacimiento), usuario);
+            }
+            if (campos.contains(CampoUsuario.COMUNA) && usuario instanceof Cliente cliente) {
+                agregar(clientesPorComuna, clave(cliente.getComuna()), cliente);
+            }
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Quita una capacitación solo de los índices que dependen de los campos indicados, antes de modificarlos.
+     *
+     * @param capacitacion La capacitación, aún con sus valores anteriores.
+     * @param campos Los campos que van a cambiar.
+     */
+    void quitarCampos(Capacitacion capacitacion, Set<CampoCapacitacion> campos) {
+        bloqueo.writeLock().lock();
+        try {
+            if (campos.contains(CampoCapacitacion.DIA)) {
+                quitar(capacitacionesPorDia, clave(capacitacion.getDia()), capacitacion);
+            }
+            if (campos.contains(CampoCapacitacion.LUGAR)) {
+                quitar(capacitacionesPorLugar, clave(capacitacion.getLugar()), capacitacion);
+            }
+            if (campos.contains(CampoCapacitacion.RUT_CLIENTE)) {
+                quitar(capacitacionesPorCliente, capacitacion.getRutCliente(), capacitacion);
+            }
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Vuelve a agregar una capacitación a los índices que dependen de los campos indicados, después de modificarlos.
+     *
+     * @param capacitacion La capacitación, con sus valores nuevos.
+     * @param campos Los campos que cambiaron.
+     */
+    void agregarCampos(Capacitacion capacitacion, Set<CampoCapacitacion> campos) {
+        bloqueo.writeLock().lock();
+        try {
+            if (campos.contains(CampoCapacitacion.DIA)) {
+                agregar(capacitacionesPorDia, clave(capacitacion.getDia()), capacitacion);
+            }
+            if (campos.contains(CampoCapacitacion.LUGAR)) {
+                agregar(capacitacionesPorLugar, clave(capacitacion.getLugar()), capacitacion);
+            }
+            if (campos.contains(CampoCapacitacion.RUT_CLIENTE)) {
+                agregar(capacitacionesPorCliente, capacitacion.getRutCliente(), capacitacion);
+            }
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Obtiene una capacitación por su identificador.
+     *
+     * @param identificador El identificador de la capacitación.
+     * @return La capacitación, o null si no existe.
+     */
+    Capacitacion capacitacion(int identificador) {
+        bloqueo.readLock().lock();
+        try {
+            return capacitacionesPorIdentificador.get(identificador);
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Obtiene los clientes de una comuna.
+     *
+     * @param comuna La comuna, sin normalizar.
+     * @return Los clientes de la comuna.
+     */
+    Collection<Cliente> clientesEnComuna(String comuna) {
+        return obtener(clientesPorComuna, clave(comuna));
+    }
+
+    /**
+     * Obtiene las capacitaciones de un día.
+     *
+     * @param dia El día, sin normalizar.
+     * @return Las capacitaciones del día.
+     */
+    Collection<Capacitacion> capacitacionesEnDia(String dia) {
+        return obtener(capacitacionesPorDia, clave(dia));
+    }
+
+    /**
+     * Obtiene las capacitaciones de un lugar.
+     *
+     * @param lugar El lugar, sin normalizar.
+     * @return Las capacitaciones del lugar.
+     */
+    Collection<Capacitacion> capacitacionesEnLugar(String lugar) {
+        return obtener(capacitacionesPorLugar, clave(lugar));
+    }
+
+    /**
+     * Obtiene las capacitaciones de un cliente.
+     *
+     * @param rutCliente El RUT del cliente.
+     * @return Las capacitaciones del cliente.
+     */
+    Collection<Capacitacion> capacitacionesDeCliente(long rutCliente) {
+        return obtener(capacitacionesPorCliente, rutCliente);
+    }
+
+    /**
+     * Obtiene los usuarios nacidos dentro de un rango de fechas.
+     *
+     * @param desde La primera fecha, inclusiva.
+     * @param hasta La última fecha, inclusiva.
+     * @return Los usuarios nacidos en el rango, ordenados por fecha de nacimiento.
+     */
+    Collection<Usuario> usuariosNacidosEntre(LocalDate desde, LocalDate hasta) {
+        return new VistaProtegida<>(bloqueo.readLock(), () -> usuariosPorNacimiento.rango(desde.toEpochDay(), hasta.toEpochDay()));
+    }
+
+    /**
+     * Obtiene los usuarios con una edad dentro de un rango en una fecha dada.
+     * Tener entre {@code minima} y {@code maxima} años equivale a haber nacido después de la fecha en que se
+     * cumplen {@code maxima + 1} años y a más tardar en la que se cumplen {@code minima}.
+     *
+     * @param minima La edad mínima, inclusiva.
+     * @param maxima La edad máxima, inclusiva.
+     * @param fecha La fecha en que se calcula la edad.
+     * @return Los usuarios con edad dentro del rango; ninguno si la edad mínima supera a la máxima.
+     */
+    Collection<Usuario> usuariosConEdadEntre(int minima, int maxima, LocalDate fecha) {
+        if (minima > maxima || minima >= EDAD_SIN_LIMITE) {
+            return Collections.emptyList();
+        }
+        long desde = maxima >= EDAD_SIN_LIMITE ? Long.MIN_VALUE : fecha.minusYears(maxima + 1L).plusDays(1).toEpochDay();
+        long hasta = minima <= -EDAD_SIN_LIMITE ? Long.MAX_VALUE : fecha.minusYears(minima).toEpochDay();
+        return new VistaProtegida<>(bloqueo.readLock(), () -> usuariosPorNacimiento.rango(desde, hasta));
+    }
+
+    /**
+     * Obtiene los usuarios que están de cumpleaños en un mes.
+     *
+     * @param mes El mes, de 1 a 12.
+     * @return Los usuarios que cumplen años en el mes, ordenados por día.
+     */
+    Collection<Usuario> usuariosConCumpleanosEn(int mes) {
+        return new VistaProtegida<>(bloqueo.readLock(), () -> usuariosPorCumpleanos.rango(mes * 32L, mes * 32L + 31));
+    }
+
+    /**
+     * Calcula la clave de cumpleaños de una fecha: el mes y el día, ordenables dentro del año.
+     *
+     * @param fecha La fecha de nacimiento.
+     * @return La clave de cumpleaños.
+     */
+    private static long claveCumpleanos(LocalDate fecha) {
+        return fecha.getMonthValue() * 32L + fecha.getDayOfMonth();
+    }
+
+    /**
+     * Normaliza un texto para usarlo como clave de índice.
+     *
+     * @param texto El texto a normalizar.
+     * @return La clave normalizada; los textos nulos se indexan como cadena vacía.
+     */
+    static String clave(String texto) {
+        return texto == null ? "" : Validar.normalizarString(texto.trim());
+    }
+
+    /**
+     * Agrega un elemento a la entrada de un índice, creándola si no existe.
+     *
+     * @param indice El índice.
+     * @param clave La clave de la entrada.
+     * @param valor El elemento a agregar.
+     * @param <K> El tipo de la clave.
+     * @param <V> El tipo de los elementos.
+     */
+    private static <K, V> void agregar(Map<K, Set<V>> indice, K clave, V valor) {
+        indice.computeIfAbsent(clave, k -> new LinkedHashSet<>()).add(valor);
+    }
+
+    /**
+     * Quita un elemento de la entrada de un índice, eliminando la entrada si queda vacía.
+     *
+     * @param indice El índice.
+     * @param clave La clave de la entrada.
+     * @param valor El elemento a quitar.
+     * @param <K> El tipo de la clave.
+     * @param <V> El tipo de los elementos.
+     */
+    private static <K, V> void quitar(Map<K, Set<V>> indice, K clave, V valor) {
+        Set<V> valores = indice.get(clave);
+        if (valores != null && valores.remove(valor) && valores.isEmpty()) {
+            indice.remove(clave);
+        }
+    }
+
+    /**
+     * Obtiene una vista protegida de la entrada de un índice.
+     *
+     * @param indice El índice.
+     * @param clave La clave de la entrada.
+     * @param <K> El tipo de la clave.
+     * @param <V> El tipo de los elementos.
+     * @return Los elementos de la entrada; vacía mientras la entrada no exista.
+     */
+    private <K, V> Collection<V> obtener(Map<K, Set<V>> indice, K clave) {
+        return new VistaProtegida<>(bloqueo.readLock(), () -> indice.getOrDefault(clave, Set.of()));
+    }
+}
@@ -1,7 +1,6 @@
 package org.example.gestion;
 
 import java.time.LocalDate;
-import java.util.Scanner;
 
 import static org.example.gestion.Validar.*;
 
@@ -23,37 +22,37 @@ public class IngresarDatos {
     /**
      * Crea una nueva instancia de {@link Cliente} a partir de los datos ingresados por el usuario.
      *
-     * @param scanner El objeto {@link Scanner} usado para leer la entrada del usuario.
+     * @param consola La {@link Consola} usada para leer la entrada del usuario.
      * @return Una nueva instancia de {@link Cliente} con los datos proporcionados por el usuario.
      */
-    public static Cliente crearCliente(Scanner scanner) {
-        String nombre = validarSinNumeros("Ingrese el nombre del cliente: ", scanner, 5, 50);
-        String apellidos = validarSinNumeros("Ingrese los apellidos del cliente: ", scanner, 5, 50);
-        LocalDate fechaNacimiento = validarFecha("Ingrese la fecha de nacimiento (dd/MM/yyyy): ", scanner, "dd/MM/yyyy");
-        long run = validarLong("Ingrese el RUT del cliente sin puntos ni guión: ", scanner, 99999999);
-        String telefono = validarTelefono("Ingrese el teléfono del cliente (9 dígitos): ", scanner);
-        String afp = validarSinNumeros("Ingrese la AFP del cliente: ", scanner, 4, 30);
-        int sistemaSalud = validarEntero("Ingrese el sistema de salud (1. Fonasa, 2. Isapre): ", scanner, 1, 2);
-        String direccion = validarString("Ingrese la dirección del cliente: ", scanner, 0, 70);
-        String comuna = validarSinNumeros("Ingrese la comuna del cliente: ", scanner, 0, 50);
-        int edad = validarEntero("Ingrese la edad del cliente: ", scanner, 0, 150);
+    public static Cliente crearCliente(Consola consola) {
+        String nombre = validarSinNumeros("Ingrese el nombre del cliente: ", consola, 5, 50);
+        String apellidos = validarSinNumeros("Ingrese los apellidos del cliente: ", consola, 5, 50);
+        LocalDate fechaNacimiento = validarFecha("Ingrese la fecha de nacimiento (dd/MM/yyyy): ", consola, "dd/MM/yyyy");
+        long run = validarLong("Ingrese el RUT del cliente sin puntos ni guión: ", consola, 99999999);
+        String telefono = validarTelefono("Ingrese el teléfono del cliente (9 dígitos): ", consola);
+        String afp = validarSinNumeros("Ingrese la AFP del cliente: ", consola, 4, 30);
+        int sistemaSalud = validarEntero("Ingrese el sistema de salud (1. Fonasa, 2. Isapre): ", consola, 1, 2);
+        String direccion = validarString("Ingrese la dirección del cliente: ", consola, 0, 70);
+        String comuna = validarSinNumeros("Ingrese la comuna del cliente: ", consola, 0, 50);
 
-        return new Cliente(nombre, apellidos, fechaNacimiento, run, telefono, afp, sistemaSalud, direccion, comuna, edad);
+        // La edad se calcula a partir de la fecha de nacimiento, por lo que no se pregunta
+        return new Cliente(nombre, apellidos, fechaNacimiento, run, telefono, afp, sistemaSalud, direccion, comuna);
     }
 
     /**
      * Crea una nueva instancia de {@link Profesional} a partir de los datos ingresados por el usuario.
      *
-     * @param scanner El objeto {@link Scanner} usado para leer la entrada del usuario.
+     * @param consola La {@link Consola} usada para leer la entrada del usuario.
      * @return Una nueva instancia de {@link Profesional} con los datos proporcionados por el usuario.
      */
-    public static Profesional crearProfesional(Scanner scanner) {
-        String nombre = validarSinNumeros("Ingrese el nombre del profesional: ", scanner, 5, 50);
-        String apellidos = validarSinNumeros("Ingrese los apellidos del profesional: ", scanner, 5, 50);
-        LocalDate fechaNacimiento = validarFecha("Ingrese la fecha de nacimiento (dd/MM/yyyy): ", scanner, "dd/MM/yyyy");
-        long run = validarLong("Ingrese el RUT del profesional sin puntos ni guión: ", scanner, 99999999);
-        String titulo = validarSoloLetras("Ingrese el título del profesional: ", scanner, 10, 50);
-        LocalDate fechaIngreso = validarFecha("Ingrese la fecha de ingreso (dd/MM/yyyy): ", scanner, "dd/MM/yyyy");
+    public static Profesional crearProfesional(Consola consola) {
+        String nombre = validarSinNumeros("Ingrese el nombre del profesional: ", consola, 5, 50);
+        String apellidos = validarSinNumeros("Ingrese los apellidos del profesional: ", consola, 5, 50);
+        LocalDate fechaNacimiento = validarFecha("Ingrese la fecha de nacimiento (dd/MM/yyyy): ", consola, "dd/MM/yyyy");
+        long run = validarLong("Ingrese el RUT del profesional sin puntos ni guión: ", consola, 99999999);
+        String titulo = validarSoloLetras("Ingrese el título del profesional: ", consola, 10, 50);
+        LocalDate fechaIngreso = validarFecha("Ingrese la fecha de ingreso (dd/MM/yyyy): ", consola, "dd/MM/yyyy");
 
         return new Profesional(nombre, apellidos, fechaNacimiento, run, titulo, fechaIngreso);
     }
@@ -61,16 +60,16 @@ public class IngresarDatos {
     /**
      * Crea una nueva instancia de {@link Administrativo} a partir de los datos ingresados por el usuario.
      *
-     * @param scanner El objeto {@link Scanner} usado para leer la entrada del usuario.
+     * @param consola La {@link Consola} usada para leer la entrada del usuario.
      * @return Una nueva instancia de {@link Administrativo} con los datos proporcionados por el usuario.
      */
-    public static Administrativo crearAdministrativo(Scanner scanner) {
-        String nombre = validarSinNumeros("Ingrese el nombre del administrativo: ", scanner, 5, 50);
-        String apellidos = validarSinNumeros("Ingrese los apellidos del administrativo: ", scanner, 5, 50);
-        LocalDate fechaNacimiento = validarFecha("Ingrese la fecha de nacimiento (dd/MM/yyyy): ", scanner, "dd/MM/yyyy");
-        long run = validarLong("Ingrese el RUN del administrativo: ", scanner, 99999999);
-        String area = validarString("Ingrese el área del administrativo: ", scanner, 5, 20);
-        String experienciaPrevia = validarString("Ingrese la experiencia previa del administrativo: ", scanner, 0, 100);
+    public static Administrativo crearAdministrativo(Consola consola) {
+        String nombre = validarSinNumeros("Ingrese el nombre del administrativo: ", consola, 5, 50);
+        String apellidos = validarSinNumeros("Ingrese los apellidos del administrativo: ", consola, 5, 50);
+        LocalDate fechaNacimiento = validarFecha("Ingrese la fecha de nacimiento (dd/MM/yyyy): ", consola, "dd/MM/yyyy");
+        long run = validarLong("Ingrese el RUN del administrativo: ", consola, 99999999);
+        String area = validarString("Ingrese el área del administrativo: ", consola, 5, 20);
+        String experienciaPrevia = validarString("Ingrese la experiencia previa del administrativo: ", consola, 0, 100);
         return new Administrativo(nombre, apellidos, fechaNacimiento, run, area, experienciaPrevia);
     }
 
@@ -78,23 +77,23 @@ public class IngresarDatos {
      * Crea una nueva instancia de {@link Capacitacion} a partir de los datos ingresados por el usuario.
      * Verifica que el cliente asociado exista en el contenedor proporcionado.
      *
-     * @param scanner El objeto {@link Scanner} usado para leer la entrada del usuario.
+     * @param consola La {@link Consola} usada para leer la entrada del usuario.
      * @param contenedor El objeto {@link Contenedor} que contiene la lista de clientes.
      * @return Una nueva instancia de {@link Capacitacion} con los datos proporcionados por el usuario, o {@code null} si el cliente no se encuentra.
      */
-    public static Capacitacion crearCapacitacion(Scanner scanner, Contenedor contenedor) {
-        long runCliente = validarLongCap("Ingrese el RUN del cliente: ", scanner, 99999999);
+    public static Capacitacion crearCapacitacion(Consola consola, Contenedor contenedor) {
+        long runCliente = validarLongCap("Ingrese el RUN del cliente: ", consola, 99999999);
         Cliente cliente = contenedor.buscarClientePorRut(runCliente);
         if (cliente == null) {
             System.out.println("Error: Cliente no encontrado.");
             return null;
         }
 
-        String dia = validarDia("Ingrese el día de la semana en que se realizará la capacitación (ej:Lunes, etc): ", scanner);
-        String hora = validarHora("Ingrese la hora de la capacitación en formato (HH:MM): ", scanner, 5);
-        String lugar = validarString("Ingrese el lugar de la capacitación: ", scanner, 10, 50);
-        int duracion = validarEntero("Ingrese la duración de la capacitación en minutos: ", scanner, 5, 240);
-        int cantidadAsistentes = validarEntero("Ingrese la cantidad de asistentes: ", scanner, 1, 1000);
+        String dia = validarDia("Ingrese el día de la semana en que se realizará la capacitación (ej:Lunes, etc): ", consola);
+        String hora = validarHora("Ingrese la hora de la capacitación en formato (HH:MM): ", consola, 5);
+        String lugar = validarString("Ingrese el lugar de la capacitación: ", consola, 10, 50);
+        int duracion = validarEntero("Ingrese la duración de la capacitación en minutos: ", consola, 5, 240);
+        int cantidadAsistentes = validarEntero("Ingrese la cantidad de asistentes: ", consola, 1, 1000);
 
         return new Capacitacion(runCliente,  dia, hora, lugar, duracion, cantidadAsistentes);
     }
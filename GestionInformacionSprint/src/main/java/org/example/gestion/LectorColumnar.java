@@ -0,0 +1,727 @@
+package org.example.gestion;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/*
+ *
+ * @author Judith Vergara
+ * @version 1.0
+ */
+
+/**
+ * Lee archivos escritos por {@link ExportadorColumnar} y carga sus columnas en arreglos para análisis.
+ * <p>
+ * Al abrir el archivo solo se lee el pie, con los diccionarios y las estadísticas de cada bloque. Una lectura con
+ * {@link Filtro} descarta primero los grupos de filas cuyo mínimo y máximo no pueden cumplir alguna condición, sin
+ * tocar sus bytes; de los grupos que quedan, mapea en memoria solo los bloques de las columnas pedidas y de las
+ * filtradas, los descomprime y selecciona las filas que cumplen. En una consulta selectiva sobre un archivo grande
+ * la mayor parte del archivo nunca se lee del disco.
+ * </p>
+ */
+public class LectorColumnar implements AutoCloseable {
+
+    // Principio de Segregación de Interfaces (ISP): quien lee solo pide las columnas que usa y no recibe entidades completas.
+
+    /**
+     * Canal del archivo abierto.
+     */
+    private final FileChannel canal;
+    /**
+     * Nombre de la tabla.
+     */
+    private final String tabla;
+    /**
+     * Cantidad total de filas.
+     */
+    private final long filas;
+    /**
+     * Posición de cada columna por nombre.
+     */
+    private final Map<String, Integer> posiciones = new LinkedHashMap<>();
+    /**
+     * Codificación de cada columna, en orden.
+     */
+    private final List<TablaColumnar.Codificacion> codificaciones = new ArrayList<>();
+    /**
+     * Diccionario de cada columna codificada con diccionario, por posición de columna.
+     */
+    private final Map<Integer, String[]> diccionarios = new HashMap<>();
+    /**
+     * Código de cada texto de los diccionarios, por posición de columna.
+     */
+    private final Map<Integer, Map<String, Integer>> codigos = new HashMap<>();
+    /**
+     * Cantidad de filas de cada grupo.
+     */
+    private final int[] filasPorGrupo;
+    /**
+     * Bloques de cada grupo, por posición de columna.
+     */
+    private final Bloque[][] bloques;
+    /**
+     * Descompresor reutilizado entre bloques.
+     */
+    private final Inflater descompresor = new Inflater();
+
+    /**
+     * Condiciones de una lectura. Todas deben cumplirse.
+     */
+    public static final class Filtro {
+
+        /**
+         * Condiciones del filtro.
+         */
+        private final List<Condicion> condiciones;
+
+        /**
+         * Crea un filtro con las condiciones indicadas.
+         *
+         * @param condiciones Las condiciones.
+         */
+        private Filtro(List<Condicion> condiciones) {
+            this.condiciones = condiciones;
+        }
+
+        /**
+         * Crea un filtro que acepta todas las filas.
+         *
+         * @return El filtro.
+         */
+        public static Filtro todos() {
+            return new Filtro(List.of());
+        }
+
+        /**
+         * Agrega la condición de que una columna numérica esté dentro de un rango.
+         *
+         * @param columna El nombre de la columna.
+         * @param minimo El valor mínimo, inclusivo.
+         * @param maximo El valor máximo, inclusivo.
+         * @return Un filtro nuevo con la condición agregada.
+         */
+        public Filtro entre(String columna, long minimo, long maximo) {
+            return con(new Condicion(columna, minimo, maximo, null));
+        }
+
+        /**
+         * Agrega la condición de que una columna de fechas esté dentro de un rango.
+         *
+         * @param columna El nombre de la columna.
+         * @param desde La fecha mínima, inclusiva.
+         * @param hasta La fecha máxima, inclusiva.
+         * @return Un filtro nuevo con la condición agregada.
+         */
+        public Filtro fechaEntre(String columna, LocalDate desde, LocalDate hasta) {
+            return entre(columna, desde.toEpochDay(), hasta.toEpochDay());
+        }
+
+        /**
+         * Agrega la condición de que una columna numérica, o el código de una columna con diccionario, tenga un valor.
+         *
+         * @param columna El nombre de la columna.
+         * @param valor El valor o el código.
+         * @return Un filtro nuevo con la condición agregada.
+         */
+        public Filtro igual(String columna, long valor) {
+            return entre(columna, valor, valor);
+        }
+
+        /**
+         * Agrega la condición de que una columna con diccionario tenga un texto.
+         *
+         * @param columna El nombre de la columna.
+         * @param valor El texto exacto, tal como se exportó.
+         * @return Un filtro nuevo con la condición agregada.
+         */
+        public Filtro igual(String columna, String valor) {
+            return con(new Condicion(columna, 0, 0, valor));
+        }
+
+        /**
+         * Crea un filtro con una condición más.
+         *
+         * @param condicion La condición.
+         * @return El filtro nuevo.
+         */
+        private Filtro con(Condicion condicion) {
+            List<Condicion> nuevas = new ArrayList<>(condiciones);
+            nuevas.add(condicion);
+            return new Filtro(List.copyOf(nuevas));
+        }
+    }
+
+    /**
+     * Columnas leídas de un archivo, con las filas que cumplieron el filtro.
+     */
+    public static final class Datos {
+
+        /**
+         * Cantidad de filas leídas.
+         */
+        private final int filas;
+        /**
+         * Valores de las columnas numéricas y códigos de las columnas con diccionario.
+         */
+        private final Map<String, long[]> numeros;
+        /**
+         * Valores de las columnas de texto sin diccionario.
+         */
+        private final Map<String, String[]> textos;
+        /**
+         * Diccionarios de las columnas con diccionario.
+         */
+        private final Map<String, String[]> diccionarios;
+        /**
+         * Grupos de filas descomprimidos.
+         */
+        private final int gruposLeidos;
+        /**
+         * Grupos de filas descartados por sus estadísticas.
+         */
+        private final int gruposSaltados;
+        /**
+         * Bytes comprimidos leídos del archivo.
+         */
+        private final long bytesLeidos;
+
+        /**
+         * Crea el resultado de una lectura.
+         *
+         * @param filas La cantidad de filas.
+         * @param numeros Las columnas numéricas y los códigos.
+         * @param textos Las columnas de texto.
+         * @param diccionarios Los diccionarios.
+         * @param gruposLeidos Los grupos descomprimidos.
+         * @param gruposSaltados Los grupos descartados.
+         * @param bytesLeidos Los bytes leídos.
+         */
+        private Datos(int filas, Map<String, long[]> numeros, Map<String, String[]> textos,
+                      Map<String, String[]> diccionarios, int gruposLeidos, int gruposSaltados, long bytesLeidos) {
+            this.filas = filas;
+            this.numeros = numeros;
+            this.textos = textos;
+            this.diccionarios = diccionarios;
+            this.gruposLeidos = gruposLeidos;
+            this.gruposSaltados = gruposSaltados;
+            this.bytesLeidos = bytesLeidos;
+        }
+
+        /**
+         * Obtiene la cantidad de filas leídas.
+         *
+         * @return La cantidad de filas.
+         */
+        public int getFilas() {
+            return filas;
+        }
+
+        /**
+         * Obtiene los valores de una columna numérica, o los códigos de una columna con diccionario.
+         * Los valores ausentes son {@link Long#MIN_VALUE} y los códigos ausentes, -1.
+         *
+         * @param columna El nombre de la columna.
+         * @return Los valores, uno por fila; el arreglo es interno y no debe modificarse.
+         * @throws IllegalArgumentException si la columna no se leyó o es de texto sin diccionario.
+         */
+        public long[] numeros(String columna) {
+            long[] valores = numeros.get(columna);
+            if (valores == null) {
+                throw new IllegalArgumentException("La columna " + columna + " no se leyó como numérica.");
+            }
+            return valores;
+        }
+
+        /**
+         * Obtiene los textos de una columna, resolviendo los códigos si la columna usa diccionario.
+         *
+         * @param columna El nombre de la columna.
+         * @return Los textos, uno por fila.
+         * @throws IllegalArgumentException si la columna no se leyó o es numérica.
+         */
+        public String[] textos(String columna) {
+            String[] valores = textos.get(columna);
+            if (valores != null) {
+                return valores;
+            }
+            String[] diccionario = diccionarios.get(columna);
+            if (diccionario == null) {
+                throw new IllegalArgumentException("La columna " + columna + " no se leyó como texto.");
+            }
+            long[] codigos = numeros.get(columna);
+            String[] resultado = new String[filas];
+            for (int i = 0; i < filas; i++) {
+                resultado[i] = codigos[i] < 0 ? null : diccionario[(int) codigos[i]];
+            }
+            return resultado;
+        }
+
+        /**
+         * Obtiene el diccionario de una columna.
+         *
+         * @param columna El nombre de la columna.
+         * @return Los textos del diccionario, en el orden de sus códigos, o null si la columna no usa diccionario.
+         */
+        public String[] diccionario(String columna) {
+            return diccionarios.get(columna);
+        }
+
+        /**
+         * Obtiene la cantidad de grupos de filas que se descomprimieron.
+         *
+         * @return Los grupos leídos.
+         */
+        public int getGruposLeidos() {
+            return gruposLeidos;
+        }
+
+        /**
+         * Obtiene la cantidad de grupos de filas descartados sin leerlos, por sus estadísticas.
+         *
+         * @return Los grupos saltados.
+         */
+        public int getGruposSaltados() {
+            return gruposSaltados;
+        }
+
+        /**
+         * Obtiene los bytes comprimidos que se leyeron del archivo.
+         *
+         * @return Los bytes leídos.
+         */
+        public long getBytesLeidos() {
+            return bytesLeidos;
+        }
+    }
+
+    /**
+     * Abre un archivo columnar y lee su pie.
+     *
+     * @param archivo El archivo.
+     * @throws IOException si no se puede leer o no es un archivo columnar.
+     */
+    public LectorColumnar(Path archivo) throws IOException {
+        this.canal = FileChannel.open(archivo, StandardOpenOption.READ);
+        try {
+            long tamano = canal.size();
+            int cola = Integer.BYTES + FormatoColumnar.MAGICO.length;
+            if (tamano < FormatoColumnar.MAGICO.length + 1 + cola) {
+                throw new IOException("El archivo " + archivo + " no es un archivo columnar.");
+            }
+            ByteBuffer fin = canal.map(FileChannel.MapMode.READ_ONLY, tamano - cola, cola);
+            int largoPie = fin.getInt();
+            byte[] magico = new byte[FormatoColumnar.MAGICO.length];
+            fin.get(magico);
+            if (!Arrays.equals(magico, FormatoColumnar.MAGICO) || largoPie <= 0 || largoPie > tamano - cola) {
+                throw new IOException("El archivo " + archivo + " no es un archivo columnar.");
+            }
+            byte[] pie = new byte[largoPie];
+            canal.map(FileChannel.MapMode.READ_ONLY, tamano - cola - largoPie, largoPie).get(pie);
+            DataInputStream entrada = new DataInputStream(new ByteArrayInputStream(pie));
+            this.tabla = entrada.readUTF();
+            this.filas = entrada.readLong();
+            int cantidadColumnas = entrada.readInt();
+            TablaColumnar.Codificacion[] tipos = TablaColumnar.Codificacion.values();
+            for (int columna = 0; columna < cantidadColumnas; columna++) {
+                posiciones.put(entrada.readUTF(), columna);
+                TablaColumnar.Codificacion codificacion = tipos[entrada.readByte()];
+                codificaciones.add(codificacion);
+                if (codificacion == TablaColumnar.Codificacion.DICCIONARIO) {
+                    String[] valores = new String[entrada.readInt()];
+                    Map<String, Integer> porValor = new HashMap<>();
+                    for (int i = 0; i < valores.length; i++) {
+                        valores[i] = entrada.readUTF();
+                        porValor.put(valores[i], i);
+                    }
+                    diccionarios.put(columna, valores);
+                    codigos.put(columna, porValor);
+                }
+            }
+            int grupos = entrada.readInt();
+            this.filasPorGrupo = new int[grupos];
+            this.bloques = new Bloque[grupos][cantidadColumnas];
+            for (int grupo = 0; grupo < grupos; grupo++) {
+                filasPorGrupo[grupo] = entrada.readInt();
+                for (int columna = 0; columna < cantidadColumnas; columna++) {
+                    bloques[grupo][columna] = new Bloque(entrada.readLong(), entrada.readInt(), entrada.readInt(),
+                            entrada.readLong(), entrada.readLong());
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Obtiene el nombre de la tabla del archivo.
+     *
+     * @return El nombre de la tabla.
+     */
+    public String getTabla() {
+        return tabla;
+    }
+
+    /**
+     * Obtiene la cantidad total de filas del archivo.
+     *
+     * @return La cantidad de filas.
+     */
+    public long getFilas() {
+        return filas;
+    }
+
+    /**
+     * Obtiene los nombres de las columnas del archivo.
+     *
+     * @return Las columnas, en orden.
+     */
+    public List<String> getColumnas() {
+        return Collections.unmodifiableList(new ArrayList<>(posiciones.keySet()));
+    }
+
+    /**
+     * Obtiene el código de un texto en el diccionario de una columna.
+     *
+     * @param columna El nombre de la columna.
+     * @param valor El texto exacto.
+     * @return El código, o -1 si el texto no aparece en el archivo.
+     * @throws IllegalArgumentException si la columna no existe o no usa diccionario.
+     */
+    public int codigo(String columna, String valor) {
+        Map<String, Integer> porValor = codigos.get(posicion(columna));
+        if (porValor == null) {
+            throw new IllegalArgumentException("La columna " + columna + " no usa diccionario.");
+        }
+        return porValor.getOrDefault(valor, FormatoColumnar.CODIGO_NULO);
+    }
+
+    /**
+     * Lee columnas de las filas que cumplen un filtro.
+     *
+     * @param filtro El filtro.
+     * @param columnas Los nombres de las columnas a leer; si no se indica ninguna, se leen todas.
+     * @return Las columnas leídas.
+     * @throws IOException si no se puede leer el archivo o un bloque está dañado.
+     * @throws IllegalArgumentException si alguna columna no existe o se filtra por una columna de texto sin
+     *                                  diccionario.
+     */
+    public Datos leer(Filtro filtro, String... columnas) throws IOException {
+        List<String> pedidas = columnas.length == 0 ? getColumnas() : List.of(columnas);
+        int[] pedidasPosicion = pedidas.stream().mapToInt(this::posicion).toArray();
+
+        // Resuelve las condiciones a rangos sobre posiciones de columna
+        int cantidad = filtro.condiciones.size();
+        int[] filtradas = new int[cantidad];
+        long[] minimos = new long[cantidad];
+        long[] maximos = new long[cantidad];
+        boolean imposible = false;
+        for (int i = 0; i < cantidad; i++) {
+            Condicion condicion = filtro.condiciones.get(i);
+            filtradas[i] = posicion(condicion.columna());
+            if (codificaciones.get(filtradas[i]) == TablaColumnar.Codificacion.TEXTO) {
+                throw new IllegalArgumentException("No se puede filtrar por la columna de texto " + condicion.columna() + ".");
+            }
+            if (condicion.texto() != null) {
+                int codigo = codigo(condicion.columna(), condicion.texto());
+                imposible |= codigo < 0;
+                minimos[i] = codigo;
+                maximos[i] = codigo;
+            } else {
+                minimos[i] = condicion.minimo();
+                maximos[i] = condicion.maximo();
+            }
+        }
+
+        Map<Integer, long[]> numeros = new HashMap<>();
+        Map<Integer, String[]> textos = new HashMap<>();
+        int leidas = 0;
+        int gruposLeidos = 0;
+        int gruposSaltados = 0;
+        long bytesLeidos = 0;
+        byte[] descomprimido = new byte[0];
+        Map<Integer, Object> columnasGrupo = new HashMap<>();
+        for (int grupo = 0; grupo < filasPorGrupo.length; grupo++) {
+            if (imposible || !puedeCumplir(grupo, filtradas, minimos, maximos)) {
+                gruposSaltados++;
+                continue;
+            }
+            gruposLeidos++;
+            int filasGrupo = filasPorGrupo[grupo];
+            columnasGrupo.clear();
+
+            // Decodifica las columnas filtradas y marca las filas que cumplen
+            boolean[] cumple = new boolean[filasGrupo];
+            Arrays.fill(cumple, true);
+            int seleccionadas = filasGrupo;
+            for (int i = 0; i < cantidad; i++) {
+                Bloque bloque = bloques[grupo][filtradas[i]];
+                descomprimido = descomprimir(bloque, descomprimido);
+                bytesLeidos += bloque.largo();
+                long[] valores = decodificarNumeros(filtradas[i], descomprimido, bloque.original(), filasGrupo);
+                columnasGrupo.put(filtradas[i], valores);
+                for (int fila = 0; fila < filasGrupo; fila++) {
+                    if (cumple[fila] && (valores[fila] < minimos[i] || valores[fila] > maximos[i])) {
+                        cumple[fila] = false;
+                        seleccionadas--;
+                    }
+                }
+            }
+            if (seleccionadas == 0) {
+                continue;
+            }
+
+            // Decodifica las columnas pedidas y copia las filas seleccionadas
+            for (int columna : pedidasPosicion) {
+                Object valores = columnasGrupo.get(columna);
+                if (valores == null) {
+                    Bloque bloque = bloques[grupo][columna];
+                    descomprimido = descomprimir(bloque, descomprimido);
+                    bytesLeidos += bloque.largo();
+                    valores = codificaciones.get(columna) == TablaColumnar.Codificacion.TEXTO
+                            ? decodificarTextos(descomprimido, bloque.original(), filasGrupo)
+                            : decodificarNumeros(columna, descomprimido, bloque.original(), filasGrupo);
+                }
+                if (valores instanceof long[] enteros) {
+                    long[] destino = asegurar(numeros, columna, leidas + seleccionadas);
+                    int k = leidas;
+                    for (int fila = 0; fila < filasGrupo; fila++) {
+                        if (cumple[fila]) {
+                            destino[k++] = enteros[fila];
+                        }
+                    }
+                } else {
+                    String[] origen = (String[]) valores;
+                    String[] destino = asegurarTextos(textos, columna, leidas + seleccionadas);
+                    int k = leidas;
+                    for (int fila = 0; fila < filasGrupo; fila++) {
+                        if (cumple[fila]) {
+                            destino[k++] = origen[fila];
+                        }
+                    }
+                }
+            }
+            leidas += seleccionadas;
+        }
+
+        Map<String, long[]> numerosPorNombre = new HashMap<>();
+        Map<String, String[]> textosPorNombre = new HashMap<>();
+        Map<String, String[]> diccionariosPorNombre = new HashMap<>();
+        for (int i = 0; i < pedidas.size(); i++) {
+            int columna = pedidasPosicion[i];
+            if (codificaciones.get(columna) == TablaColumnar.Codificacion.TEXTO) {
+                textosPorNombre.put(pedidas.get(i), Arrays.copyOf(textos.getOrDefault(columna, new String[0]), leidas));
+            } else {
+                numerosPorNombre.put(pedidas.get(i), Arrays.copyOf(numeros.getOrDefault(columna, new long[0]), leidas));
+            }
+            if (diccionarios.containsKey(columna)) {
+                diccionariosPorNombre.put(pedidas.get(i), diccionarios.get(columna));
+            }
+        }
+        return new Datos(leidas, numerosPorNombre, textosPorNombre, diccionariosPorNombre, gruposLeidos,
+                gruposSaltados, bytesLeidos);
+    }
+
+    /**
+     * Cierra el archivo.
+     *
+     * @throws IOException si no se puede cerrar.
+     */
+    @Override
+    public void close() throws IOException {
+        descompresor.end();
+        canal.close();
+    }
+
+    /**
+     * Obtiene la posición de una columna.
+     *
+     * @param columna El nombre de la columna.
+     * @return La posición.
+     * @throws IllegalArgumentException si la columna no existe.
+     */
+    private int posicion(String columna) {
+        Integer posicion = posiciones.get(columna);
+        if (posicion == null) {
+            throw new IllegalArgumentException("La tabla " + tabla + " no tiene la columna " + columna + ".");
+        }
+        return posicion;
+    }
+
+    /**
+     * Indica si, según sus estadísticas, algún bloque de un grupo puede tener filas que cumplan las condiciones.
+     *
+     * @param grupo El grupo.
+     * @param filtradas Las columnas filtradas.
+     * @param minimos El mínimo de cada condición.
+     * @param maximos El máximo de cada condición.
+     * @return false si alguna condición no se puede cumplir en el grupo.
+     */
+    private boolean puedeCumplir(int grupo, int[] filtradas, long[] minimos, long[] maximos) {
+        for (int i = 0; i < filtradas.length; i++) {
+            Bloque bloque = bloques[grupo][filtradas[i]];
+            if (bloque.maximo() < minimos[i] || bloque.minimo() > maximos[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Mapea en memoria un bloque y lo descomprime.
+     *
+     * @param bloque El bloque.
+     * @param destino Un arreglo a reutilizar si tiene espacio suficiente.
+     * @return El arreglo con el bloque descomprimido al inicio.
+     * @throws IOException si no se puede leer o el bloque está dañado.
+     */
+    private byte[] descomprimir(Bloque bloque, byte[] destino) throws IOException {
+        MappedByteBuffer mapeado = canal.map(FileChannel.MapMode.READ_ONLY, bloque.posicion(), bloque.largo());
+        byte[] salida = destino.length >= bloque.original() ? destino : new byte[bloque.original()];
+        descompresor.reset();
+        descompresor.setInput(mapeado);
+        try {
+            int largo = 0;
+            while (largo < bloque.original() && !descompresor.finished()) {
+                int leidos = descompresor.inflate(salida, largo, bloque.original() - largo);
+                if (leidos == 0 && (descompresor.needsInput() || descompresor.needsDictionary())) {
+                    break;
+                }
+                largo += leidos;
+            }
+            if (largo != bloque.original()) {
+                throw new IOException("El bloque en la posición " + bloque.posicion() + " está incompleto.");
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("El bloque en la posición " + bloque.posicion() + " está dañado.", e);
+        }
+        return salida;
+    }
+
+    /**
+     * Decodifica un bloque numérico o de códigos de diccionario.
+     *
+     * @param columna La posición de la columna.
+     * @param datos El bloque descomprimido.
+     * @param largo El largo del bloque.
+     * @param filasGrupo La cantidad de filas del grupo.
+     * @return Los valores, uno por fila.
+     */
+    private long[] decodificarNumeros(int columna, byte[] datos, int largo, int filasGrupo) {
+        ByteBuffer entrada = ByteBuffer.wrap(datos, 0, largo);
+        long[] valores = new long[filasGrupo];
+        if (codificaciones.get(columna) == TablaColumnar.Codificacion.ENTERO) {
+            long anterior = 0;
+            for (int fila = 0; fila < filasGrupo; fila++) {
+                anterior += FormatoColumnar.leerZigzag(entrada);
+                valores[fila] = anterior;
+            }
+        } else {
+            int fila = 0;
+            while (fila < filasGrupo) {
+                long valor = FormatoColumnar.leerZigzag(entrada);
+                int racha = (int) FormatoColumnar.leerVarint(entrada);
+                Arrays.fill(valores, fila, fila + racha, valor);
+                fila += racha;
+            }
+        }
+        return valores;
+    }
+
+    /**
+     * Decodifica un bloque de textos sin diccionario.
+     *
+     * @param datos El bloque descomprimido.
+     * @param largo El largo del bloque.
+     * @param filasGrupo La cantidad de filas del grupo.
+     * @return Los textos, uno por fila.
+     */
+    private static String[] decodificarTextos(byte[] datos, int largo, int filasGrupo) {
+        ByteBuffer entrada = ByteBuffer.wrap(datos, 0, largo);
+        String[] valores = new String[filasGrupo];
+        for (int fila = 0; fila < filasGrupo; fila++) {
+            int bytes = (int) FormatoColumnar.leerVarint(entrada);
+            if (bytes > 0) {
+                valores[fila] = new String(datos, entrada.position(), bytes - 1, StandardCharsets.UTF_8);
+                entrada.position(entrada.position() + bytes - 1);
+            }
+        }
+        return valores;
+    }
+
+    /**
+     * Obtiene el arreglo de resultados de una columna numérica con espacio para la cantidad de filas indicada.
+     *
+     * @param numeros Los arreglos por columna.
+     * @param columna La posición de la columna.
+     * @param minimo La cantidad de filas necesaria.
+     * @return El arreglo, agrandado si hacía falta.
+     */
+    private static long[] asegurar(Map<Integer, long[]> numeros, int columna, int minimo) {
+        long[] actual = numeros.get(columna);
+        if (actual == null || actual.length < minimo) {
+            actual = actual == null ? new long[minimo]
+                    : Arrays.copyOf(actual, Math.max(actual.length * 2, minimo));
+            numeros.put(columna, actual);
+        }
+        return actual;
+    }
+
+    /**
+     * Obtiene el arreglo de resultados de una columna de texto con espacio para la cantidad de filas indicada.
+     *
+     * @param textos Los arreglos por columna.
+     * @param columna La posición de la columna.
+     * @param minimo La cantidad de filas necesaria.
+     * @return El arreglo, agrandado si hacía falta.
+     */
+    private static String[] asegurarTextos(Map<Integer, String[]> textos, int columna, int minimo) {
+        String[] actual = textos.get(columna);
+        if (actual == null || actual.length < minimo) {
+            actual = actual == null ? new String[minimo]
+                    : Arrays.copyOf(actual, Math.max(actual.length * 2, minimo));
+            textos.put(columna, actual);
+        }
+        return actual;
+    }
+
+    /**
+     * Condición de un filtro: una columna dentro de un rango, o igual a un texto de su diccionario.
+     *
+     * @param columna El nombre de la columna.
+     * @param minimo El valor mínimo, inclusivo.
+     * @param maximo El valor máximo, inclusivo.
+     * @param texto El texto buscado, o null si la condición es un rango.
+     */
+    private record Condicion(String columna, long minimo, long maximo, String texto) {
+    }
+
+    /**
+     * Ubicación y estadísticas de un bloque.
+     *
+     * @param posicion La posición en el archivo.
+     * @param largo El largo comprimido.
+     * @param original El largo descomprimido.
+     * @param minimo El mínimo de la columna en el bloque.
+     * @param maximo El máximo de la columna en el bloque.
+     */
+    private record Bloque(long posicion, int largo, int original, long minimo, long maximo) {
+    }
+}
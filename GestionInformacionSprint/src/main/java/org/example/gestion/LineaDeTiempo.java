@@ -0,0 +1,458 @@
+package org.example.gestion;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/*
+ *
+ * @author Judith Vergara
+ * @version 1.0
+ */
+
+/**
+ * Índice temporal de eventos con fecha ({@code LocalDate dia}) y hora ({@code "HH:MM"}), como {@link Accidente}
+ * y {@link VisitaEnTerreno}.
+ * <p>
+ * La fecha y el minuto del día se combinan en una sola clave numérica ordenable
+ * ({@code díasDesdeLaÉpoca * 1440 + minutoDelDía}). Sobre esa clave se mantienen un {@link IndiceOrdenado} global,
+ * uno por cliente y un {@link ConteoTemporal} del historial completo, todos actualizados al agregar o quitar un
+ * evento. Contar eventos en un intervalo o buscar los últimos eventos de un cliente cuesta tiempo logarítmico
+ * más el tamaño del resultado.
+ * </p>
+ * <p>
+ * Además se pueden registrar ventanas deslizantes ({@link Ventana}), cuyas cifras se mantienen al agregar eventos
+ * y al avanzar la ventana, restando solo los eventos que salen de ella. Una ventana que ya no se usa se cierra con
+ * {@link Ventana#close()}, para que la línea de tiempo deje de actualizarla.
+ * </p>
+ * <p>
+ * Los análisis pueden correr mientras se siguen agregando eventos: los cambios toman el bloqueo de escritura, las
+ * consultas por intervalo o por cliente devuelven una {@link VistaProtegida} y los conteos se entregan como copias
+ * tomadas con el bloqueo de lectura.
+ * </p>
+ *
+ * @param <T> El tipo de los eventos.
+ */
+public class LineaDeTiempo<T> {
+
+    // Principio de Responsabilidad Única (SRP): la línea de tiempo solo ordena eventos en el tiempo; no los almacena.
+
+    /**
+     * Minutos en un día.
+     */
+    static final long MINUTOS_POR_DIA = 1440;
+
+    /**
+     * Obtiene la fecha de un evento.
+     */
+    private final Function<T, LocalDate> fecha;
+    /**
+     * Obtiene la hora de un evento.
+     */
+    private final Function<T, String> hora;
+    /**
+     * Obtiene el RUT del cliente de un evento.
+     */
+    private final ToLongFunction<T> rutCliente;
+    /**
+     * Todos los eventos ordenados por clave temporal.
+     */
+    private final IndiceOrdenado<T> eventos = new IndiceOrdenado<>();
+    /**
+     * Eventos de cada cliente ordenados por clave temporal.
+     */
+    private final Map<Long, IndiceOrdenado<T>> eventosPorCliente = new HashMap<>();
+    /**
+     * Clave temporal y RUT del cliente con que se agregó cada evento, para quitarlo aunque después cambien.
+     */
+    private final Map<T, Agregado> agregados = new IdentityHashMap<>();
+    /**
+     * Conteo del historial completo.
+     */
+    private final ConteoTemporal historial = new ConteoTemporal();
+    /**
+     * Ventanas deslizantes registradas.
+     */
+    private final List<Ventana> ventanas = new ArrayList<>();
+    /**
+     * Bloqueo de la línea de tiempo y de sus ventanas: varias lecturas a la vez o un solo cambio.
+     */
+    private final ReentrantReadWriteLock bloqueo = new ReentrantReadWriteLock();
+
+    /**
+     * Clave temporal y RUT del cliente con que se agregó un evento.
+     *
+     * @param clave La clave temporal.
+     * @param rut El RUT del cliente.
+     */
+    private record Agregado(long clave, long rut) {}
+
+    /**
+     * Crea una línea de tiempo para eventos del tipo indicado.
+     *
+     * @param fecha Obtiene la fecha de un evento.
+     * @param hora Obtiene la hora de un evento, en formato HH:MM.
+     * @param rutCliente Obtiene el RUT del cliente de un evento.
+     */
+    public LineaDeTiempo(Function<T, LocalDate> fecha, Function<T, String> hora, ToLongFunction<T> rutCliente) {
+        this.fecha = fecha;
+        this.hora = hora;
+        this.rutCliente = rutCliente;
+    }
+
+    /**
+     * Calcula la clave temporal de una fecha y hora.
+     *
+     * @param dia La fecha.
+     * @param hora La hora en formato HH:MM (se acepta también H:MM).
+     * @return La clave temporal.
+     */
+    public static long clave(LocalDate dia, String hora) {
+        int separador = hora.indexOf(':');
+        int minutos = Integer.parseInt(hora.substring(0, separador)) * 60 + Integer.parseInt(hora.substring(separador + 1));
+        return dia.toEpochDay() * MINUTOS_POR_DIA + minutos;
+    }
+
+    /**
+     * Calcula la clave temporal de una fecha y hora, truncada al minuto.
+     *
+     * @param momento La fecha y hora.
+     * @return La clave temporal.
+     */
+    public static long clave(LocalDateTime momento) {
+        return momento.toLocalDate().toEpochDay() * MINUTOS_POR_DIA + momento.getHour() * 60L + momento.getMinute();
+    }
+
+    /**
+     * Agrega un evento. Si ya estaba agregado, no cambia nada.
+     *
+     * @param evento El evento a agregar.
+     */
+    void agregar(T evento) {
+        long clave = clave(evento);
+        long rut = rutCliente.applyAsLong(evento);
+        bloqueo.writeLock().lock();
+        try {
+            if (agregados.putIfAbsent(evento, new Agregado(clave, rut)) != null) {
+                return;
+            }
+            eventos.agregar(clave, evento);
+            eventosPorCliente.computeIfAbsent(rut, r -> new IndiceOrdenado<>()).agregar(clave, evento);
+            historial.sumar(clave, 1);
+            for (Ventana ventana : ventanas) {
+                if (clave >= ventana.inicio) {
+                    ventana.conteo.sumar(clave, 1);
+                }
+            }
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Quita un evento con la fecha, hora y cliente que tenía al agregarse, aunque después hayan cambiado.
+     * Si el evento no estaba agregado, no cambia nada.
+     *
+     * @param evento El evento a quitar.
+     */
+    void quitar(T evento) {
+        bloqueo.writeLock().lock();
+        try {
+            Agregado agregado = retirar(evento);
+            if (agregado != null) {
+                historial.sumar(agregado.clave(), -1);
+            }
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Quita un evento que se movió a un archivo: deja de estar en los índices y en las ventanas, pero sigue
+     * contado en el historial completo. Si el evento no estaba agregado, no cambia nada.
+     *
+     * @param evento El evento archivado.
+     */
+    void archivar(T evento) {
+        bloqueo.writeLock().lock();
+        try {
+            retirar(evento);
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Quita un evento de los índices y de las ventanas, con la clave y el cliente que tenía al agregarse.
+     * Se llama con el bloqueo de escritura tomado.
+     *
+     * @param evento El evento.
+     * @return La clave y el cliente con que se agregó, o null si no estaba agregado.
+     */
+    private Agregado retirar(T evento) {
+        Agregado agregado = agregados.remove(evento);
+        if (agregado == null) {
+            return null;
+        }
+        long clave = agregado.clave();
+        eventos.quitar(clave, evento);
+        IndiceOrdenado<T> delCliente = eventosPorCliente.get(agregado.rut());
+        if (delCliente != null) {
+            delCliente.quitar(clave, evento);
+            if (delCliente.tamano() == 0) {
+                eventosPorCliente.remove(agregado.rut());
+            }
+        }
+        for (Ventana ventana : ventanas) {
+            if (clave >= ventana.inicio) {
+                ventana.conteo.sumar(clave, -1);
+            }
+        }
+        return agregado;
+    }
+
+    /**
+     * Obtiene la cantidad de eventos indexados.
+     *
+     * @return La cantidad de eventos.
+     */
+    public int tamano() {
+        bloqueo.readLock().lock();
+        try {
+            return eventos.tamano();
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Obtiene los eventos ocurridos dentro de un intervalo, en orden cronológico.
+     *
+     * @param desde El inicio del intervalo, inclusivo.
+     * @param hasta El fin del intervalo, inclusivo.
+     * @return Una vista de los eventos del intervalo.
+     */
+    public Collection<T> entre(LocalDateTime desde, LocalDateTime hasta) {
+        long inicio = clave(desde);
+        long fin = clave(hasta);
+        return new VistaProtegida<>(bloqueo.readLock(), () -> eventos.rango(inicio, fin));
+    }
+
+    /**
+     * Cuenta los eventos ocurridos dentro de un intervalo, sin recorrerlos.
+     *
+     * @param desde El inicio del intervalo, inclusivo.
+     * @param hasta El fin del intervalo, inclusivo.
+     * @return La cantidad de eventos del intervalo.
+     */
+    public int contarEntre(LocalDateTime desde, LocalDateTime hasta) {
+        return entre(desde, hasta).size();
+    }
+
+    /**
+     * Obtiene los eventos más recientes de un cliente.
+     *
+     * @param rutCliente El RUT del cliente.
+     * @param cantidad La cantidad máxima de eventos.
+     * @return Los eventos más recientes del cliente, del más nuevo al más antiguo.
+     */
+    public List<T> ultimosDeCliente(long rutCliente, int cantidad) {
+        bloqueo.readLock().lock();
+        try {
+            IndiceOrdenado<T> delCliente = eventosPorCliente.get(rutCliente);
+            return delCliente == null ? List.of() : delCliente.ultimos(cantidad);
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Obtiene los eventos de un cliente en orden cronológico.
+     *
+     * @param rutCliente El RUT del cliente.
+     * @return Una vista de los eventos del cliente.
+     */
+    public Collection<T> deCliente(long rutCliente) {
+        return delClienteEntre(rutCliente, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Obtiene los eventos de un cliente ocurridos dentro de un intervalo, en orden cronológico.
+     *
+     * @param rutCliente El RUT del cliente.
+     * @param desde El inicio del intervalo, inclusivo.
+     * @param hasta El fin del intervalo, inclusivo.
+     * @return Una vista de los eventos del cliente en el intervalo.
+     */
+    public Collection<T> deClienteEntre(long rutCliente, LocalDateTime desde, LocalDateTime hasta) {
+        return delClienteEntre(rutCliente, clave(desde), clave(hasta));
+    }
+
+    /**
+     * Obtiene una vista de los eventos de un cliente entre dos claves temporales. El índice del cliente se busca en
+     * cada lectura, ya que se descarta cuando queda vacío.
+     *
+     * @param rutCliente El RUT del cliente.
+     * @param desde La clave mínima, inclusiva.
+     * @param hasta La clave máxima, inclusiva.
+     * @return Una vista de los eventos del cliente en el rango.
+     */
+    private Collection<T> delClienteEntre(long rutCliente, long desde, long hasta) {
+        return new VistaProtegida<>(bloqueo.readLock(), () -> {
+            IndiceOrdenado<T> delCliente = eventosPorCliente.get(rutCliente);
+            return delCliente == null ? List.of() : delCliente.rango(desde, hasta);
+        });
+    }
+
+    /**
+     * Obtiene el conteo del historial completo por hora, día de la semana y mes, incluidos los eventos archivados.
+     *
+     * @return Una copia del conteo del historial en este momento.
+     */
+    public ConteoTemporal getHistorial() {
+        bloqueo.readLock().lock();
+        try {
+            return historial.copiar();
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Registra una ventana deslizante que termina en el momento indicado.
+     * Su conteo inicial se calcula una sola vez a partir del índice. Los eventos posteriores al fin de la ventana
+     * también se cuentan, ya que la ventana solo avanza hacia ellos.
+     *
+     * @param duracionMinutos El largo de la ventana en minutos.
+     * @param ahora El momento en que termina la ventana.
+     * @return La ventana registrada, que se cierra cuando ya no se usa.
+     */
+    public Ventana registrarVentana(long duracionMinutos, LocalDateTime ahora) {
+        Ventana ventana = new Ventana(duracionMinutos, clave(ahora) - duracionMinutos + 1);
+        bloqueo.writeLock().lock();
+        try {
+            for (T evento : eventos.rango(ventana.inicio, Long.MAX_VALUE)) {
+                ventana.conteo.sumar(agregados.get(evento).clave(), 1);
+            }
+            ventanas.add(ventana);
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+        return ventana;
+    }
+
+    /**
+     * Calcula la clave temporal de un evento.
+     *
+     * @param evento El evento.
+     * @return La clave temporal.
+     */
+    private long clave(T evento) {
+        return clave(fecha.apply(evento), hora.apply(evento));
+    }
+
+    /**
+     * Ventana deslizante con su propio {@link ConteoTemporal}. Al avanzar solo resta los eventos que salen de ella.
+     * Al cerrarla, la línea de tiempo deja de actualizarla.
+     */
+    public class Ventana implements AutoCloseable {
+
+        /**
+         * Largo de la ventana en minutos.
+         */
+        private final long duracion;
+        /**
+         * Clave temporal del inicio de la ventana.
+         */
+        private long inicio;
+        /**
+         * Conteo de los eventos dentro de la ventana.
+         */
+        private final ConteoTemporal conteo = new ConteoTemporal();
+
+        /**
+         * Crea una ventana.
+         *
+         * @param duracion Largo de la ventana en minutos.
+         * @param inicio Clave temporal del inicio de la ventana.
+         */
+        private Ventana(long duracion, long inicio) {
+            this.duracion = duracion;
+            this.inicio = inicio;
+        }
+
+        /**
+         * Avanza la ventana para que termine en el momento indicado, restando los eventos que quedaron fuera.
+         *
+         * @param ahora El nuevo fin de la ventana.
+         */
+        public void avanzarA(LocalDateTime ahora) {
+            long nuevoInicio = clave(ahora) - duracion + 1;
+            bloqueo.writeLock().lock();
+            try {
+                if (nuevoInicio > inicio) {
+                    for (T evento : eventos.rango(inicio, nuevoInicio - 1)) {
+                        conteo.sumar(agregados.get(evento).clave(), -1);
+                    }
+                    inicio = nuevoInicio;
+                }
+            } finally {
+                bloqueo.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Obtiene el conteo de los eventos dentro de la ventana.
+         *
+         * @return Una copia del conteo de la ventana en este momento.
+         */
+        public ConteoTemporal getConteo() {
+            bloqueo.readLock().lock();
+            try {
+                return conteo.copiar();
+            } finally {
+                bloqueo.readLock().unlock();
+            }
+        }
+
+        /**
+         * Obtiene el inicio de la ventana.
+         *
+         * @return El primer minuto incluido en la ventana.
+         */
+        public LocalDateTime getInicio() {
+            long primero;
+            bloqueo.readLock().lock();
+            try {
+                primero = inicio;
+            } finally {
+                bloqueo.readLock().unlock();
+            }
+            return LocalDate.ofEpochDay(Math.floorDiv(primero, MINUTOS_POR_DIA)).atStartOfDay()
+                    .plus(Math.floorMod(primero, MINUTOS_POR_DIA), ChronoUnit.MINUTES);
+        }
+
+        /**
+         * Quita la ventana de la línea de tiempo. Su conteo queda como estaba al cerrarla y ya no cambia con los
+         * eventos que se agreguen o se quiten. Cerrarla otra vez no tiene efecto.
+         */
+        @Override
+        public void close() {
+            bloqueo.writeLock().lock();
+            try {
+                ventanas.remove(this);
+            } finally {
+                bloqueo.writeLock().unlock();
+            }
+        }
+    }
+}
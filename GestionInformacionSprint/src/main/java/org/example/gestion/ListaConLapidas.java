@@ -0,0 +1,586 @@
+package org.example.gestion;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/*
+ *
+ * @author Judith Vergara
+ * @version 1.0
+ */
+
+/**
+ * Lista de elementos únicos en la que eliminar cuesta O(1): el elemento eliminado queda como lápida en su posición,
+ * y los recorridos y búsquedas saltan las lápidas.
+ * <p>
+ * Cuando las lápidas superan {@link #PROPORCION_LAPIDAS} de las posiciones ocupadas, un hilo en segundo plano
+ * compacta la lista: copia los elementos vivos a un arreglo nuevo y lo reemplaza al terminar. Los cambios hechos
+ * mientras tanto se aplican al arreglo nuevo en el reemplazo, que es lo único que se hace con el candado tomado.
+ * </p>
+ * <p>
+ * Los cambios toman el candado de la lista, pero los recorridos no: cada iterador o {@link Spliterator} recorre una
+ * instantánea, con los elementos que había al crearlo, aunque otro hilo agregue, elimine o compacte mientras tanto.
+ * Para esto cada cambio sube la versión de la lista, y cada posición guarda la versión en que se eliminó su
+ * elemento; una instantánea es el arreglo, la cantidad de posiciones ocupadas y la versión vigentes al tomarla.
+ * </p>
+ * <p>
+ * Los elementos se reconocen por identidad, no por {@code equals}, y cada uno puede estar una sola vez en la lista.
+ * El acceso por índice recorre la lista saltando las lápidas cuando las hay; para recorrerla conviene usar el
+ * iterador o un stream. Solo se agrega al final: {@link #add(int, Object)} y {@link #set(int, Object)} no se
+ * permiten, porque cambiarían posiciones que los recorridos en curso siguen leyendo sin candado.
+ * </p>
+ *
+ * @param <T> El tipo de los elementos.
+ */
+public class ListaConLapidas<T> extends AbstractList<T> {
+
+    // Principio de Sustitución de Liskov (LSP): se usa como cualquier List, con el mismo orden de inserción.
+
+    /**
+     * Proporción de lápidas sobre las posiciones ocupadas desde la que se compacta la lista.
+     */
+    public static final double PROPORCION_LAPIDAS = 0.25;
+
+    /**
+     * Cantidad mínima de lápidas para compactar, de modo que las listas pequeñas no lancen hilos por pocas
+     * eliminaciones.
+     */
+    static final int MINIMO_LAPIDAS = 1024;
+
+    /**
+     * Cantidad mínima de posiciones de un tramo para dividirlo en un recorrido en paralelo.
+     */
+    static final int MINIMO_DIVISION = 1024;
+
+    /**
+     * Posiciones de los elementos; al final quedan posiciones libres en null.
+     */
+    private Entrada[] entradas = new Entrada[16];
+    /**
+     * Cantidad de posiciones ocupadas, por elementos o lápidas.
+     */
+    private int limite;
+    /**
+     * Cantidad de elementos vivos.
+     */
+    private int vivos;
+    /**
+     * Cantidad de lápidas.
+     */
+    private int lapidas;
+    /**
+     * Versión de la lista, que sube con cada cambio.
+     */
+    private long version;
+    /**
+     * Última instantánea publicada, que leen los recorridos sin tomar el candado.
+     */
+    private volatile Instantanea actual = new Instantanea(entradas, 0, 0, 0);
+    /**
+     * Posición de cada elemento vivo en {@code entradas}.
+     */
+    private Map<Object, Integer> posiciones = new IdentityHashMap<>();
+    /**
+     * Elementos eliminados durante la compactación en curso, o null si no hay una.
+     */
+    private List<Object> eliminadosDuranteCompactacion;
+    /**
+     * Cantidad de veces que se vació la lista, para descartar una compactación que empezó antes.
+     */
+    private int vaciados;
+    /**
+     * Cantidad de compactaciones terminadas.
+     */
+    private volatile int compactaciones;
+
+    /**
+     * Posición ocupada de la lista.
+     */
+    private static final class Entrada {
+        /**
+         * El elemento.
+         */
+        final Object valor;
+        /**
+         * Versión en que se eliminó el elemento, o {@link Long#MAX_VALUE} si sigue vivo.
+         */
+        volatile long baja = Long.MAX_VALUE;
+
+        /**
+         * Crea una posición con un elemento vivo.
+         *
+         * @param valor El elemento.
+         */
+        Entrada(Object valor) {
+            this.valor = valor;
+        }
+    }
+
+    /**
+     * Estado de la lista visible para los recorridos. Las posiciones hasta {@code limite} del arreglo ya no cambian,
+     * salvo la versión en que se elimina cada elemento.
+     *
+     * @param entradas El arreglo de posiciones.
+     * @param limite La cantidad de posiciones ocupadas.
+     * @param vivos La cantidad de elementos vivos en la versión.
+     * @param version La versión.
+     */
+    private record Instantanea(Entrada[] entradas, int limite, int vivos, long version) {
+    }
+
+    /**
+     * Agrega un elemento al final de la lista.
+     *
+     * @param elemento El elemento.
+     * @return true.
+     * @throws IllegalArgumentException si el elemento es nulo o ya está en la lista.
+     */
+    @Override
+    public synchronized boolean add(T elemento) {
+        agregar(elemento);
+        version++;
+        publicar();
+        return true;
+    }
+
+    /**
+     * Agrega varios elementos al final de la lista, reservando espacio una sola vez. El lote se valida antes de
+     * agregar: si se rechaza, la lista queda como estaba. Los recorridos ven el lote completo o ninguno de sus
+     * elementos.
+     *
+     * @param lote Los elementos.
+     * @return true si se agregó alguno.
+     * @throws IllegalArgumentException si algún elemento es nulo, está repetido en el lote o ya está en la lista.
+     */
+    @Override
+    public synchronized boolean addAll(Collection<? extends T> lote) {
+        Map<Object, Boolean> vistos = new IdentityHashMap<>(lote.size() * 2);
+        for (T elemento : lote) {
+            if (elemento == null || posiciones.containsKey(elemento) || vistos.put(elemento, Boolean.TRUE) != null) {
+                throw new IllegalArgumentException("El elemento es nulo, está repetido o ya está en la lista.");
+            }
+        }
+        if (limite + lote.size() > entradas.length) {
+            entradas = Arrays.copyOf(entradas, Math.max(limite + lote.size(), limite + (limite >> 1) + 1));
+        }
+        lote.forEach(this::agregar);
+        version++;
+        publicar();
+        return !lote.isEmpty();
+    }
+
+    /**
+     * Elimina un elemento dejando una lápida en su posición, en O(1).
+     *
+     * @param elemento El elemento.
+     * @return true si el elemento estaba en la lista.
+     */
+    @Override
+    public synchronized boolean remove(Object elemento) {
+        Integer posicion = posiciones.remove(elemento);
+        if (posicion == null) {
+            return false;
+        }
+        entradas[posicion].baja = ++version;
+        vivos--;
+        lapidas++;
+        modCount++;
+        if (eliminadosDuranteCompactacion != null) {
+            eliminadosDuranteCompactacion.add(elemento);
+        } else if (lapidas >= MINIMO_LAPIDAS && lapidas >= limite * PROPORCION_LAPIDAS) {
+            eliminadosDuranteCompactacion = new ArrayList<>();
+            Thread hilo = new Thread(this::compactarIniciada, "compactador-lista");
+            hilo.setDaemon(true);
+            hilo.start();
+        }
+        publicar();
+        return true;
+    }
+
+    /**
+     * Elimina el elemento vivo en una posición de la lista, dejando una lápida. Si hay lápidas, recorre la lista
+     * hasta esa posición para encontrarlo.
+     *
+     * @param indice La posición, contando solo los elementos vivos.
+     * @return El elemento eliminado.
+     * @throws IndexOutOfBoundsException si la posición no existe.
+     */
+    @Override
+    public synchronized T remove(int indice) {
+        T elemento = get(indice);
+        remove(elemento);
+        return elemento;
+    }
+
+    /**
+     * No se permite: reemplazar un elemento cambiaría una posición que los recorridos en curso leen sin candado.
+     * Para cambiarlo se elimina y se agrega el nuevo al final.
+     *
+     * @param indice La posición.
+     * @param elemento El elemento nuevo.
+     * @return Nunca retorna.
+     * @throws UnsupportedOperationException siempre.
+     */
+    @Override
+    public T set(int indice, T elemento) {
+        throw new UnsupportedOperationException("La lista no permite reemplazar elementos; elimínelo y agregue el nuevo.");
+    }
+
+    /**
+     * No se permite: los elementos solo se agregan al final con {@link #add(Object)}.
+     *
+     * @param indice La posición.
+     * @param elemento El elemento.
+     * @throws UnsupportedOperationException siempre.
+     */
+    @Override
+    public void add(int indice, T elemento) {
+        throw new UnsupportedOperationException("La lista solo permite agregar elementos al final.");
+    }
+
+    /**
+     * Indica si un elemento está en la lista, por identidad.
+     *
+     * @param elemento El elemento.
+     * @return true si el elemento está en la lista.
+     */
+    @Override
+    public synchronized boolean contains(Object elemento) {
+        return posiciones.containsKey(elemento);
+    }
+
+    /**
+     * Obtiene el elemento vivo en una posición de la lista. Si hay lápidas, recorre la lista hasta esa posición.
+     *
+     * @param indice La posición, contando solo los elementos vivos.
+     * @return El elemento.
+     * @throws IndexOutOfBoundsException si la posición no existe.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized T get(int indice) {
+        if (indice < 0 || indice >= vivos) {
+            throw new IndexOutOfBoundsException("Posición " + indice + " fuera de la lista de tamaño " + vivos + ".");
+        }
+        if (lapidas == 0) {
+            return (T) entradas[indice].valor;
+        }
+        for (int i = 0; ; i++) {
+            if (entradas[i].baja == Long.MAX_VALUE && indice-- == 0) {
+                return (T) entradas[i].valor;
+            }
+        }
+    }
+
+    /**
+     * Obtiene la cantidad de elementos vivos, sin tomar el candado.
+     *
+     * @return La cantidad de elementos en la última versión.
+     */
+    @Override
+    public int size() {
+        return actual.vivos();
+    }
+
+    /**
+     * Elimina todos los elementos.
+     */
+    @Override
+    public synchronized void clear() {
+        entradas = new Entrada[16];
+        posiciones = new IdentityHashMap<>();
+        limite = 0;
+        vivos = 0;
+        lapidas = 0;
+        vaciados++;
+        version++;
+        modCount++;
+        publicar();
+    }
+
+    /**
+     * Recorre los elementos vivos al crear el iterador, en orden de inserción, sin tomar el candado.
+     * El iterador no lanza {@link java.util.ConcurrentModificationException}: los cambios posteriores no lo afectan.
+     *
+     * @return El iterador, que permite eliminar de la lista el último elemento devuelto.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        Recorrido recorrido = new Recorrido(actual);
+        return new Iterator<>() {
+            private T siguiente;
+            private T ultimo;
+
+            @Override
+            public boolean hasNext() {
+                return siguiente != null || recorrido.tryAdvance(elemento -> siguiente = elemento);
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                ultimo = siguiente;
+                siguiente = null;
+                return ultimo;
+            }
+
+            @Override
+            public void remove() {
+                if (ultimo == null) {
+                    throw new IllegalStateException("No hay un elemento que eliminar.");
+                }
+                ListaConLapidas.this.remove(ultimo);
+                ultimo = null;
+            }
+        };
+    }
+
+    /**
+     * Crea un {@link Spliterator} sobre los elementos vivos en este momento, sin tomar el candado. Se divide por
+     * mitades del arreglo, de modo que un stream en paralelo reparte el recorrido sin copiar la lista.
+     *
+     * @return El spliterator, ordenado e inmutable; tiene tamaño exacto si la instantánea no tiene lápidas.
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return new Recorrido(actual);
+    }
+
+    /**
+     * Compacta la lista en el hilo actual, si no hay otra compactación en curso.
+     *
+     * @return true si la lista se compactó.
+     */
+    public boolean compactar() {
+        synchronized (this) {
+            if (eliminadosDuranteCompactacion != null) {
+                return false;
+            }
+            eliminadosDuranteCompactacion = new ArrayList<>();
+        }
+        compactarIniciada();
+        return true;
+    }
+
+    /**
+     * Obtiene la cantidad de lápidas pendientes de compactar.
+     *
+     * @return La cantidad de lápidas.
+     */
+    public synchronized int getLapidas() {
+        return lapidas;
+    }
+
+    /**
+     * Obtiene la cantidad de compactaciones terminadas.
+     *
+     * @return La cantidad de compactaciones.
+     */
+    public int getCompactaciones() {
+        return compactaciones;
+    }
+
+    /**
+     * Agrega un elemento al final del arreglo, sin publicar el cambio.
+     *
+     * @param elemento El elemento.
+     * @throws IllegalArgumentException si el elemento es nulo o ya está en la lista.
+     */
+    private void agregar(T elemento) {
+        if (elemento == null || posiciones.containsKey(elemento)) {
+            throw new IllegalArgumentException("El elemento es nulo o ya está en la lista.");
+        }
+        if (limite == entradas.length) {
+            entradas = Arrays.copyOf(entradas, limite + (limite >> 1) + 1);
+        }
+        posiciones.put(elemento, limite);
+        entradas[limite++] = new Entrada(elemento);
+        vivos++;
+        modCount++;
+    }
+
+    /**
+     * Publica el estado actual para los recorridos que empiecen desde ahora.
+     */
+    private void publicar() {
+        actual = new Instantanea(entradas, limite, vivos, version);
+    }
+
+    /**
+     * Hace una compactación ya registrada en {@code eliminadosDuranteCompactacion}.
+     * Copia los elementos vivos sin tomar el candado y luego, con el candado, aplica las eliminaciones registradas,
+     * agrega los elementos llegados mientras tanto y reemplaza el arreglo. Los recorridos que usan el arreglo
+     * anterior siguen sobre él.
+     */
+    private void compactarIniciada() {
+        Entrada[] origen;
+        int copiados;
+        int esperados;
+        int vaciadosAlIniciar;
+        synchronized (this) {
+            origen = entradas;
+            copiados = limite;
+            esperados = vivos;
+            vaciadosAlIniciar = vaciados;
+        }
+
+        // Si un elemento se elimina mientras se copia, la eliminación registrada lo corrige al reemplazar
+        Entrada[] destino = new Entrada[Math.max(16, esperados + (esperados >> 2))];
+        Map<Object, Integer> nuevas = new IdentityHashMap<>(esperados);
+        int nuevoLimite = 0;
+        for (int i = 0; i < copiados; i++) {
+            Entrada entrada = origen[i];
+            if (entrada.baja == Long.MAX_VALUE) {
+                if (nuevoLimite == destino.length) {
+                    destino = Arrays.copyOf(destino, nuevoLimite + (nuevoLimite >> 1) + 1);
+                }
+                nuevas.put(entrada.valor, nuevoLimite);
+                destino[nuevoLimite++] = entrada;
+            }
+        }
+
+        synchronized (this) {
+            if (vaciados != vaciadosAlIniciar) {
+                // La lista se vació durante la compactación: la copia ya no vale
+                eliminadosDuranteCompactacion = null;
+                return;
+            }
+            // Primero las eliminaciones sobre lo copiado, y después los elementos agregados mientras tanto,
+            // por si alguno se eliminó y se volvió a agregar. Lo copiado que se eliminó queda como lápida.
+            int nuevasLapidas = 0;
+            for (Object eliminado : eliminadosDuranteCompactacion) {
+                if (nuevas.remove(eliminado) != null) {
+                    nuevasLapidas++;
+                }
+            }
+            for (int i = copiados; i < limite; i++) {
+                Entrada entrada = entradas[i];
+                if (entrada.baja == Long.MAX_VALUE) {
+                    if (nuevoLimite == destino.length) {
+                        destino = Arrays.copyOf(destino, nuevoLimite + (nuevoLimite >> 1) + 1);
+                    }
+                    nuevas.put(entrada.valor, nuevoLimite);
+                    destino[nuevoLimite++] = entrada;
+                }
+            }
+            posiciones = nuevas;
+            limite = nuevoLimite;
+            lapidas = nuevasLapidas;
+            entradas = destino;
+            eliminadosDuranteCompactacion = null;
+            compactaciones++;
+            publicar();
+        }
+    }
+
+    /**
+     * Recorrido de un tramo de una instantánea, que se salta los elementos eliminados hasta su versión.
+     */
+    private final class Recorrido implements Spliterator<T> {
+        /**
+         * Arreglo de la instantánea.
+         */
+        private final Entrada[] arreglo;
+        /**
+         * Versión de la instantánea.
+         */
+        private final long version;
+        /**
+         * Indica si la instantánea no tiene lápidas, con lo que cada posición es un elemento.
+         */
+        private final boolean exacto;
+        /**
+         * Posición siguiente a la última del tramo.
+         */
+        private final int fin;
+        /**
+         * Próxima posición a recorrer.
+         */
+        private int inicio;
+
+        /**
+         * Crea un recorrido de una instantánea completa.
+         *
+         * @param instantanea La instantánea.
+         */
+        Recorrido(Instantanea instantanea) {
+            this(instantanea.entradas(), instantanea.version(), instantanea.vivos() == instantanea.limite(),
+                    0, instantanea.limite());
+        }
+
+        /**
+         * Crea un recorrido de un tramo.
+         *
+         * @param arreglo El arreglo de la instantánea.
+         * @param version La versión de la instantánea.
+         * @param exacto Si la instantánea no tiene lápidas.
+         * @param inicio La primera posición.
+         * @param fin La posición siguiente a la última.
+         */
+        private Recorrido(Entrada[] arreglo, long version, boolean exacto, int inicio, int fin) {
+            this.arreglo = arreglo;
+            this.version = version;
+            this.exacto = exacto;
+            this.inicio = inicio;
+            this.fin = fin;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean tryAdvance(Consumer<? super T> accion) {
+            while (inicio < fin) {
+                Entrada entrada = arreglo[inicio++];
+                if (entrada.baja > version) {
+                    accion.accept((T) entrada.valor);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void forEachRemaining(Consumer<? super T> accion) {
+            for (int i = inicio; i < fin; i++) {
+                Entrada entrada = arreglo[i];
+                if (entrada.baja > version) {
+                    accion.accept((T) entrada.valor);
+                }
+            }
+            inicio = fin;
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            if (fin - inicio < MINIMO_DIVISION) {
+                return null;
+            }
+            int medio = (inicio + fin) >>> 1;
+            Recorrido primeraMitad = new Recorrido(arreglo, version, exacto, inicio, medio);
+            inicio = medio;
+            return primeraMitad;
+        }
+
+        @Override
+        public long estimateSize() {
+            return fin - inicio;
+        }
+
+        @Override
+        public int characteristics() {
+            int caracteristicas = ORDERED | NONNULL | IMMUTABLE;
+            return exacto ? caracteristicas | SIZED | SUBSIZED : caracteristicas;
+        }
+    }
+}
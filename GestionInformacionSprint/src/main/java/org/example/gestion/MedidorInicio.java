@@ -0,0 +1,72 @@
+package org.example.gestion;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/*
+ *
+ * @author Judith Vergara
+ * @version 1.0
+ */
+
+/**
+ * Mide el tiempo de arranque del programa: desde que se inicia la JVM hasta que se muestra el primer menú y hasta
+ * que se almacena el primer registro.
+ * <p>
+ * Solo mide cuando se ejecuta con {@code -Dgestion.medirInicio=true}; cada tiempo se informa una sola vez por la
+ * salida de errores, para no mezclarse con la salida del menú. Sirve para comparar el arranque con y sin el archivo
+ * de clases compartidas (AppCDS) que genera el perfil {@code appcds}.
+ * </p>
+ */
+public final class MedidorInicio {
+
+    // Principio de Responsabilidad Única (SRP): solo mide e informa tiempos; no sabe qué ocurre en cada hito.
+
+    /**
+     * Indica si la medición está activada.
+     */
+    private static final boolean ACTIVO = Boolean.getBoolean("gestion.medirInicio");
+
+    /**
+     * Indica si ya se informó el primer menú.
+     */
+    private static boolean primerMenu;
+    /**
+     * Indica si ya se informó el primer almacenamiento.
+     */
+    private static boolean primerAlmacenamiento;
+
+    private MedidorInicio() {
+    }
+
+    /**
+     * Informa el tiempo hasta el primer menú, si aún no se informó.
+     */
+    public static void primerMenu() {
+        if (ACTIVO && !primerMenu) {
+            primerMenu = true;
+            informar("primer menú");
+        }
+    }
+
+    /**
+     * Informa el tiempo hasta el primer almacenamiento, si aún no se informó.
+     */
+    public static void primerAlmacenamiento() {
+        if (ACTIVO && !primerAlmacenamiento) {
+            primerAlmacenamiento = true;
+            informar("primer almacenamiento");
+        }
+    }
+
+    /**
+     * Escribe en la salida de errores el tiempo transcurrido desde el inicio del proceso.
+     *
+     * @param hito El nombre del hito medido.
+     */
+    private static void informar(String hito) {
+        ProcessHandle.current().info().startInstant().ifPresent(inicio ->
+                System.err.println("Tiempo hasta el " + hito + ": "
+                        + Duration.between(inicio, Instant.now()).toMillis() + " ms"));
+    }
+}
@@ -0,0 +1,614 @@
+package org.example.gestion;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/*
+ *
+ * @author Judith Vergara
+ * @version 1.0
+ */
+
+/**
+ * Registro de lugares de capacitación con su capacidad, y planificador de su ocupación semanal.
+ * <p>
+ * Cada lugar registrado tiene, por día de la semana, un árbol de segmentos sobre los tramos de
+ * {@value #MINUTOS_POR_TRAMO} minutos del día, que suma los asistentes de las capacitaciones que ocupan cada tramo.
+ * Así, saber cuántos asientos quedan libres en un horario cuesta tiempo logarítmico, sin comparar la capacitación
+ * nueva con cada una de las ya reservadas. Las horas de inicio se redondean hacia abajo y las de término hacia
+ * arriba al tramo más cercano, y una capacitación que pasa de la medianoche ocupa solo hasta el final de su día.
+ * </p>
+ * <p>
+ * Las capacitaciones en lugares no registrados, o con un día u hora que no se pueden interpretar, se aceptan sin
+ * restricción de capacidad; si más tarde se registra su lugar, pasan a ocuparlo.
+ * </p>
+ */
+public class PlanificadorLugares {
+
+    // Principio de Responsabilidad Única (SRP): controla la capacidad de los lugares; las capacitaciones las guarda el Contenedor.
+
+    /**
+     * Minutos que cubre cada tramo del día.
+     */
+    public static final int MINUTOS_POR_TRAMO = 5;
+    /**
+     * Cantidad de tramos de un día.
+     */
+    private static final int TRAMOS_POR_DIA = 24 * 60 / MINUTOS_POR_TRAMO;
+    /**
+     * Días de la semana normalizados, en el orden de sus índices.
+     */
+    private static final List<String> DIAS = List.of("LUNES", "MARTES", "MIERCOLES", "JUEVES", "VIERNES", "SABADO", "DOMINGO");
+    /**
+     * Campos de una capacitación que cambian su reserva.
+     */
+    static final Set<CampoCapacitacion> CAMPOS = Collections.unmodifiableSet(EnumSet.of(CampoCapacitacion.DIA,
+            CampoCapacitacion.HORA, CampoCapacitacion.LUGAR, CampoCapacitacion.DURACION,
+            CampoCapacitacion.CANTIDAD_ASISTENTES));
+    /**
+     * Margen sobre la utilización promedio desde el cual el optimizador intenta mover una capacitación.
+     */
+    private static final double TOLERANCIA = 0.10;
+    /**
+     * Cantidad de destinos, de menor a mayor utilización, que el optimizador prueba para cada capacitación.
+     */
+    private static final int INTENTOS_POR_CAPACITACION = 16;
+
+    /**
+     * Lugares registrados por nombre normalizado.
+     */
+    private final Map<String, Lugar> lugares = new HashMap<>();
+    /**
+     * Reservas vigentes por capacitación, con los valores que tenía al reservarse.
+     */
+    private final Map<Capacitacion, Reserva> reservas = new IdentityHashMap<>();
+
+    /**
+     * Sugerencia del optimizador: mover una capacitación a otro lugar o a otro día, a la misma hora.
+     *
+     * @param capacitacion La capacitación a mover.
+     * @param lugar El lugar sugerido, con el nombre con que se registró.
+     * @param dia El día sugerido.
+     */
+    public record Sugerencia(Capacitacion capacitacion, String lugar, String dia) {
+    }
+
+    /**
+     * Registra un lugar con su capacidad, o cambia la capacidad de uno ya registrado.
+     * Las capacitaciones ya reservadas en ese lugar pasan a ocuparlo, aunque excedan la capacidad.
+     *
+     * @param lugar El nombre del lugar.
+     * @param capacidad La cantidad máxima de asistentes simultáneos.
+     * @throws IllegalArgumentException si el nombre está vacío o la capacidad no es positiva.
+     */
+    public void registrarLugar(String lugar, int capacidad) {
+        if (lugar == null || lugar.isBlank()) {
+            throw new IllegalArgumentException("El nombre del lugar no puede estar vacío.");
+        }
+        if (capacidad <= 0) {
+            throw new IllegalArgumentException("La capacidad del lugar debe ser mayor que cero.");
+        }
+        String clave = Indices.clave(lugar);
+        Lugar existente = lugares.get(clave);
+        if (existente != null) {
+            existente.capacidad = capacidad;
+            return;
+        }
+        Lugar nuevo = new Lugar(lugar.trim(), capacidad);
+        lugares.put(clave, nuevo);
+        for (Reserva reserva : reservas.values()) {
+            if (reserva.lugar().equals(clave)) {
+                nuevo.sumar(reserva, 1);
+            }
+        }
+    }
+
+    /**
+     * Obtiene la capacidad de un lugar.
+     *
+     * @param lugar El nombre del lugar, sin normalizar.
+     * @return La capacidad, o 0 si el lugar no está registrado.
+     */
+    public int getCapacidad(String lugar) {
+        Lugar registrado = lugares.get(Indices.clave(lugar));
+        return registrado == null ? 0 : registrado.capacidad;
+    }
+
+    /**
+     * Calcula cuántos asistentes más caben en un lugar durante todo un horario.
+     *
+     * @param lugar El nombre del lugar, sin normalizar.
+     * @param dia El día de la semana.
+     * @param hora La hora de inicio, en formato HH:MM.
+     * @param duracion La duración en minutos.
+     * @return Los asientos libres en el tramo más ocupado del horario, negativo si ya está excedido, o
+     *         {@link Integer#MAX_VALUE} si el lugar no está registrado.
+     * @throws IllegalArgumentException si el día o la hora no son válidos.
+     */
+    public int capacidadDisponible(String lugar, String dia, String hora, int duracion) {
+        int indiceDia = indiceDia(dia);
+        int minuto = minutoDelDia(hora);
+        if (indiceDia < 0 || minuto < 0) {
+            throw new IllegalArgumentException("El día o la hora no son válidos.");
+        }
+        Lugar registrado = lugares.get(Indices.clave(lugar));
+        if (registrado == null) {
+            return Integer.MAX_VALUE;
+        }
+        return registrado.capacidad - registrado.maximo(indiceDia, tramoInicial(minuto), tramoFinal(minuto, duracion));
+    }
+
+    /**
+     * Verifica si una capacitación cabe en su lugar sin exceder la capacidad en ningún tramo de su horario.
+     * Si la capacitación ya está reservada, no se cuenta a sí misma.
+     *
+     * @param capacitacion La capacitación.
+     * @return true si cabe o si su lugar no tiene capacidad registrada; false en caso contrario.
+     */
+    public boolean cabe(Capacitacion capacitacion) {
+        Reserva reserva = Reserva.de(capacitacion);
+        Lugar lugar = reserva == null ? null : lugares.get(reserva.lugar());
+        if (lugar == null) {
+            return true;
+        }
+        Reserva actual = reservas.get(capacitacion);
+        boolean propia = actual != null && actual.lugar().equals(reserva.lugar());
+        if (propia) {
+            lugar.sumar(actual, -1);
+        }
+        boolean cabe = lugar.maximo(reserva.dia(), reserva.desde(), reserva.hasta()) + reserva.asistentes()
+                <= lugar.capacidad;
+        if (propia) {
+            lugar.sumar(actual, 1);
+        }
+        return cabe;
+    }
+
+    /**
+     * Reserva el horario de una capacitación si cabe en su lugar. Si ya estaba reservada, reemplaza su reserva.
+     *
+     * @param capacitacion La capacitación a reservar.
+     * @return true si quedó reservada, false si no cabe; en ese caso la reserva anterior se mantiene.
+     */
+    public boolean reservar(Capacitacion capacitacion) {
+        if (capacitacion == null || !cabe(capacitacion)) {
+            return false;
+        }
+        liberar(capacitacion);
+        ocupar(capacitacion);
+        return true;
+    }
+
+    /**
+     * Reserva un lote de capacitaciones, todas o ninguna.
+     *
+     * @param lote Las capacitaciones a reservar.
+     * @return true si todas quedaron reservadas, false si alguna no cabe; en ese caso no se reserva ninguna.
+     */
+    public boolean reservarTodas(List<Capacitacion> lote) {
+        Deque<Capacitacion> reservadas = new ArrayDeque<>();
+        for (Capacitacion capacitacion : lote) {
+            if (reservas.containsKey(capacitacion) || !reservar(capacitacion)) {
+                reservadas.forEach(this::liberar);
+                return false;
+            }
+            reservadas.push(capacitacion);
+        }
+        return true;
+    }
+
+    /**
+     * Libera la reserva de una capacitación.
+     *
+     * @param capacitacion La capacitación.
+     * @return true si estaba reservada, false en caso contrario.
+     */
+    public boolean liberar(Capacitacion capacitacion) {
+        Reserva reserva = reservas.remove(capacitacion);
+        if (reserva == null) {
+            return false;
+        }
+        Lugar lugar = lugares.get(reserva.lugar());
+        if (lugar != null) {
+            lugar.sumar(reserva, -1);
+        }
+        return true;
+    }
+
+    /**
+     * Reserva el horario de una capacitación sin verificar la capacidad. Se usa para cargar capacitaciones que
+     * ya estaban almacenadas y para restaurar una reserva anterior.
+     *
+     * @param capacitacion La capacitación, que no debe estar reservada.
+     */
+    void ocupar(Capacitacion capacitacion) {
+        Reserva reserva = Reserva.de(capacitacion);
+        if (reserva == null) {
+            reserva = new Reserva(Indices.clave(capacitacion.getLugar()), -1, 0, 0, 0);
+        }
+        reservas.put(capacitacion, reserva);
+        Lugar lugar = lugares.get(reserva.lugar());
+        if (lugar != null) {
+            lugar.sumar(reserva, 1);
+        }
+    }
+
+    /**
+     * Indica si una capacitación tiene una reserva vigente.
+     *
+     * @param capacitacion La capacitación.
+     * @return true si está reservada.
+     */
+    boolean contiene(Capacitacion capacitacion) {
+        return reservas.containsKey(capacitacion);
+    }
+
+    /**
+     * Sugiere movimientos de capacitaciones para equilibrar la carga entre lugares y días.
+     * <p>
+     * La carga de un lugar en un día es la suma de asistentes por minuto de sus capacitaciones, dividida por su
+     * capacidad. Se recorren primero las capacitaciones que exceden la capacidad de su lugar y luego las de los
+     * días más cargados; cada una se intenta mover, a la misma hora, a los días y lugares de menor carga, que se
+     * obtienen de un montículo. Un movimiento se acepta solo si cabe en el destino y deja la carga del destino
+     * por debajo de la que tenía el origen. Cada prueba de capacidad es una consulta al árbol de segmentos, por
+     * lo que el costo total es del orden de n log n para n capacitaciones.
+     * </p>
+     * <p>
+     * Las reservas no se modifican: para aplicar una sugerencia se actualiza la capacitación en el
+     * {@link Contenedor}, con {@link CampoCapacitacion#LUGAR} y {@link CampoCapacitacion#DIA}.
+     * </p>
+     *
+     * @return Los movimientos sugeridos, en el orden en que se decidieron.
+     */
+    public List<Sugerencia> optimizar() {
+        if (lugares.isEmpty()) {
+            return List.of();
+        }
+        long cargaTotal = 0;
+        long capacidadTotal = 0;
+        for (Lugar lugar : lugares.values()) {
+            capacidadTotal += (long) lugar.capacidad * DIAS.size();
+            for (long carga : lugar.carga) {
+                cargaTotal += carga;
+            }
+        }
+        double promedio = (double) cargaTotal / capacidadTotal;
+
+        PriorityQueue<Destino> destinos = new PriorityQueue<>(Comparator.comparingDouble(Destino::utilizacion));
+        for (Lugar lugar : lugares.values()) {
+            for (int dia = 0; dia < DIAS.size(); dia++) {
+                destinos.add(new Destino(lugar, dia, lugar.utilizacion(dia)));
+            }
+        }
+
+        // Excedidas primero, luego por utilización del origen y por tamaño, de mayor a menor
+        List<Map.Entry<Capacitacion, Reserva>> candidatas = new ArrayList<>();
+        Map<Reserva, Boolean> excedidas = new IdentityHashMap<>();
+        for (Map.Entry<Capacitacion, Reserva> entrada : reservas.entrySet()) {
+            Reserva reserva = entrada.getValue();
+            Lugar lugar = lugares.get(reserva.lugar());
+            if (lugar != null && reserva.dia() >= 0) {
+                candidatas.add(entrada);
+                excedidas.put(reserva, lugar.maximo(reserva.dia(), reserva.desde(), reserva.hasta()) > lugar.capacidad);
+            }
+        }
+        candidatas.sort(Comparator
+                .comparing((Map.Entry<Capacitacion, Reserva> e) -> excedidas.get(e.getValue())).reversed()
+                .thenComparing(e -> -lugares.get(e.getValue().lugar()).utilizacion(e.getValue().dia()))
+                .thenComparing(e -> -e.getValue().peso()));
+
+        List<Sugerencia> sugerencias = new ArrayList<>();
+        Deque<Reserva[]> movimientos = new ArrayDeque<>();
+        List<Destino> probados = new ArrayList<>(INTENTOS_POR_CAPACITACION);
+        for (Map.Entry<Capacitacion, Reserva> candidata : candidatas) {
+            Reserva origen = candidata.getValue();
+            Lugar lugarOrigen = lugares.get(origen.lugar());
+            double utilizacionOrigen = lugarOrigen.utilizacion(origen.dia());
+            if (!excedidas.get(origen) && utilizacionOrigen <= promedio * (1 + TOLERANCIA)) {
+                continue;
+            }
+            Reserva elegida = null;
+            probados.clear();
+            while (elegida == null && probados.size() < INTENTOS_POR_CAPACITACION && !destinos.isEmpty()) {
+                Destino destino = destinos.poll();
+                if (destino.utilizacion() != destino.lugar().utilizacion(destino.dia())) {
+                    continue; // Entrada desactualizada: el lugar ya tiene otra en el montículo
+                }
+                probados.add(destino);
+                Lugar lugar = destino.lugar();
+                if ((lugar == lugarOrigen && destino.dia() == origen.dia())
+                        || destino.utilizacion() + (double) origen.peso() / lugar.capacidad >= utilizacionOrigen
+                        || lugar.maximo(destino.dia(), origen.desde(), origen.hasta()) + origen.asistentes()
+                        > lugar.capacidad) {
+                    continue;
+                }
+                elegida = new Reserva(Indices.clave(lugar.nombre), destino.dia(), origen.desde(), origen.hasta(),
+                        origen.asistentes());
+            }
+            destinos.addAll(probados);
+            if (elegida == null) {
+                continue;
+            }
+            Lugar lugarDestino = lugares.get(elegida.lugar());
+            lugarOrigen.sumar(origen, -1);
+            lugarDestino.sumar(elegida, 1);
+            movimientos.push(new Reserva[]{origen, elegida});
+            destinos.add(new Destino(lugarOrigen, origen.dia(), lugarOrigen.utilizacion(origen.dia())));
+            destinos.add(new Destino(lugarDestino, elegida.dia(), lugarDestino.utilizacion(elegida.dia())));
+            sugerencias.add(new Sugerencia(candidata.getKey(), lugarDestino.nombre, DIAS.get(elegida.dia())));
+        }
+
+        // Deshace los movimientos para dejar las reservas como estaban
+        for (Reserva[] movimiento : movimientos) {
+            lugares.get(movimiento[1].lugar()).sumar(movimiento[1], -1);
+            lugares.get(movimiento[0].lugar()).sumar(movimiento[0], 1);
+        }
+        return sugerencias;
+    }
+
+    /**
+     * Obtiene el índice de un día de la semana.
+     *
+     * @param dia El día, sin normalizar.
+     * @return El índice desde 0 para el lunes, o -1 si no es un día válido.
+     */
+    private static int indiceDia(String dia) {
+        return DIAS.indexOf(Indices.clave(dia));
+    }
+
+    /**
+     * Convierte una hora en formato HH:MM a minutos desde la medianoche.
+     *
+     * @param hora La hora.
+     * @return Los minutos, o -1 si la hora no es válida.
+     */
+    private static int minutoDelDia(String hora) {
+        if (hora == null || !Validar.esHoraValida(hora.trim())) {
+            return -1;
+        }
+        String[] partes = hora.trim().split(":");
+        return Integer.parseInt(partes[0]) * 60 + Integer.parseInt(partes[1]);
+    }
+
+    /**
+     * Obtiene el tramo donde empieza un horario.
+     *
+     * @param minuto El minuto de inicio.
+     * @return El tramo, redondeado hacia abajo.
+     */
+    private static int tramoInicial(int minuto) {
+        return minuto / MINUTOS_POR_TRAMO;
+    }
+
+    /**
+     * Obtiene el tramo, exclusivo, donde termina un horario. Todo horario ocupa al menos un tramo.
+     *
+     * @param minuto El minuto de inicio.
+     * @param duracion La duración en minutos.
+     * @return El tramo, redondeado hacia arriba y acotado al final del día.
+     */
+    private static int tramoFinal(int minuto, int duracion) {
+        int fin = (minuto + Math.max(1, duracion) + MINUTOS_POR_TRAMO - 1) / MINUTOS_POR_TRAMO;
+        return Math.min(TRAMOS_POR_DIA, fin);
+    }
+
+    /**
+     * Horario de una capacitación, ya convertido a tramos.
+     *
+     * @param lugar El lugar normalizado.
+     * @param dia El índice del día, o -1 si no es válido.
+     * @param desde El tramo inicial, inclusivo.
+     * @param hasta El tramo final, exclusivo.
+     * @param asistentes La cantidad de asistentes.
+     */
+    private record Reserva(String lugar, int dia, int desde, int hasta, int asistentes) {
+
+        /**
+         * Convierte una capacitación en reserva.
+         *
+         * @param capacitacion La capacitación.
+         * @return La reserva, o null si el día o la hora no son válidos.
+         */
+        static Reserva de(Capacitacion capacitacion) {
+            int dia = indiceDia(capacitacion.getDia());
+            int minuto = minutoDelDia(capacitacion.getHora());
+            if (dia < 0 || minuto < 0) {
+                return null;
+            }
+            return new Reserva(Indices.clave(capacitacion.getLugar()), dia, tramoInicial(minuto),
+                    tramoFinal(minuto, capacitacion.getDuracion()), Math.max(0, capacitacion.getCantidadAsistentes()));
+        }
+
+        /**
+         * Obtiene la carga de la reserva, en asistentes por minuto.
+         *
+         * @return La carga.
+         */
+        long peso() {
+            return (long) asistentes * (hasta - desde) * MINUTOS_POR_TRAMO;
+        }
+    }
+
+    /**
+     * Entrada del montículo de destinos. Cuando cambia la carga de un lugar se agrega una entrada nueva, y las
+     * anteriores se descartan al salir porque su utilización ya no coincide.
+     *
+     * @param lugar El lugar.
+     * @param dia El índice del día.
+     * @param utilizacion La utilización del lugar ese día al crear la entrada.
+     */
+    private record Destino(Lugar lugar, int dia, double utilizacion) {
+    }
+
+    /**
+     * Lugar registrado, con su ocupación por día.
+     */
+    private static final class Lugar {
+
+        /**
+         * Nombre del lugar, tal como se registró.
+         */
+        private final String nombre;
+        /**
+         * Cantidad máxima de asistentes simultáneos.
+         */
+        private int capacidad;
+        /**
+         * Ocupación por día; se crea con la primera reserva del día.
+         */
+        private final Ocupacion[] porDia = new Ocupacion[DIAS.size()];
+        /**
+         * Carga por día, en asistentes por minuto.
+         */
+        private final long[] carga = new long[DIAS.size()];
+
+        /**
+         * Crea un lugar sin reservas.
+         *
+         * @param nombre El nombre del lugar.
+         * @param capacidad La capacidad del lugar.
+         */
+        Lugar(String nombre, int capacidad) {
+            this.nombre = nombre;
+            this.capacidad = capacidad;
+        }
+
+        /**
+         * Suma o resta una reserva de la ocupación del lugar.
+         *
+         * @param reserva La reserva.
+         * @param signo 1 para sumarla, -1 para restarla.
+         */
+        void sumar(Reserva reserva, int signo) {
+            if (reserva.dia() < 0) {
+                return;
+            }
+            if (porDia[reserva.dia()] == null) {
+                porDia[reserva.dia()] = new Ocupacion();
+            }
+            porDia[reserva.dia()].sumar(reserva.desde(), reserva.hasta(), signo * reserva.asistentes());
+            carga[reserva.dia()] += signo * reserva.peso();
+        }
+
+        /**
+         * Obtiene la ocupación máxima de un día en un rango de tramos.
+         *
+         * @param dia El índice del día.
+         * @param desde El tramo inicial, inclusivo.
+         * @param hasta El tramo final, exclusivo.
+         * @return La mayor cantidad de asistentes simultáneos en el rango.
+         */
+        int maximo(int dia, int desde, int hasta) {
+            return porDia[dia] == null ? 0 : porDia[dia].maximo(desde, hasta);
+        }
+
+        /**
+         * Obtiene la utilización de un día: su carga dividida por la capacidad.
+         *
+         * @param dia El índice del día.
+         * @return La utilización.
+         */
+        double utilizacion(int dia) {
+            return (double) carga[dia] / capacidad;
+        }
+    }
+
+    /**
+     * Árbol de segmentos sobre los tramos de un día, con suma por rango y máximo por rango.
+     * Cada nodo guarda lo sumado a todo su rango y el máximo de su subárbol incluyendo esa suma, de modo que las
+     * sumas no se propagan hacia los hijos.
+     */
+    private static final class Ocupacion {
+
+        /**
+         * Máximo de cada subárbol, incluyendo lo sumado en el propio nodo.
+         */
+        private final int[] maximos = new int[4 * TRAMOS_POR_DIA];
+        /**
+         * Lo sumado a todo el rango de cada nodo.
+         */
+        private final int[] sumados = new int[4 * TRAMOS_POR_DIA];
+
+        /**
+         * Suma un valor a un rango de tramos.
+         *
+         * @param desde El tramo inicial, inclusivo.
+         * @param hasta El tramo final, exclusivo.
+         * @param valor El valor a sumar.
+         */
+        void sumar(int desde, int hasta, int valor) {
+            sumar(1, 0, TRAMOS_POR_DIA, desde, hasta, valor);
+        }
+
+        /**
+         * Obtiene el máximo de un rango de tramos.
+         *
+         * @param desde El tramo inicial, inclusivo.
+         * @param hasta El tramo final, exclusivo.
+         * @return El máximo del rango.
+         */
+        int maximo(int desde, int hasta) {
+            return maximo(1, 0, TRAMOS_POR_DIA, desde, hasta);
+        }
+
+        /**
+         * Suma un valor a la parte de un rango que cae en el subárbol de un nodo.
+         *
+         * @param nodo El nodo.
+         * @param izquierda El primer tramo del nodo.
+         * @param derecha El tramo siguiente al último del nodo.
+         * @param desde El tramo inicial, inclusivo.
+         * @param hasta El tramo final, exclusivo.
+         * @param valor El valor a sumar.
+         */
+        private void sumar(int nodo, int izquierda, int derecha, int desde, int hasta, int valor) {
+            if (hasta <= izquierda || derecha <= desde) {
+                return;
+            }
+            if (desde <= izquierda && derecha <= hasta) {
+                maximos[nodo] += valor;
+                sumados[nodo] += valor;
+                return;
+            }
+            int medio = (izquierda + derecha) >>> 1;
+            sumar(2 * nodo, izquierda, medio, desde, hasta, valor);
+            sumar(2 * nodo + 1, medio, derecha, desde, hasta, valor);
+            maximos[nodo] = Math.max(maximos[2 * nodo], maximos[2 * nodo + 1]) + sumados[nodo];
+        }
+
+        /**
+         * Obtiene el máximo de la parte de un rango que cae en el subárbol de un nodo, que no debe ser vacía.
+         *
+         * @param nodo El nodo.
+         * @param izquierda El primer tramo del nodo.
+         * @param derecha El tramo siguiente al último del nodo.
+         * @param desde El tramo inicial, inclusivo.
+         * @param hasta El tramo final, exclusivo.
+         * @return El máximo, incluyendo lo sumado en los nodos superiores hasta este.
+         */
+        private int maximo(int nodo, int izquierda, int derecha, int desde, int hasta) {
+            if (desde <= izquierda && derecha <= hasta) {
+                return maximos[nodo];
+            }
+            int medio = (izquierda + derecha) >>> 1;
+            int resultado = Integer.MIN_VALUE;
+            if (desde < medio) {
+                resultado = maximo(2 * nodo, izquierda, medio, desde, hasta);
+            }
+            if (medio < hasta) {
+                resultado = Math.max(resultado, maximo(2 * nodo + 1, medio, derecha, desde, hasta));
+            }
+            return resultado + sumados[nodo];
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package org.example.gestion;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ *
+ * @author Judith Vergara
+ * @version 1.0
+ */
+
+/**
+ * Plantilla de revisión: la lista de ítems que se revisan en las visitas en terreno que siguen un mismo checklist.
+ * <p>
+ * Los nombres de los ítems se guardan una sola vez en la plantilla, y cada visita guarda solo el estado de cada ítem
+ * en un {@link ResultadosRevision}, con dos bits por ítem. Una misma plantilla se comparte entre todas las visitas
+ * que la usan.
+ * </p>
+ */
+public final class PlantillaRevision {
+
+    // Principio de Responsabilidad Única (SRP): la plantilla solo describe los ítems; los estados de cada visita van en ResultadosRevision.
+
+    /**
+     * Nombre de la plantilla.
+     */
+    private final String nombre;
+    /**
+     * Nombres de los ítems, en orden.
+     */
+    private final List<String> items;
+    /**
+     * Posición de cada ítem, por su clave normalizada.
+     */
+    private final Map<String, Integer> posiciones;
+
+    /**
+     * Resumen de los resultados de muchas visitas con una misma plantilla.
+     */
+    public static final class Resumen {
+        /**
+         * Cantidad de visitas resumidas.
+         */
+        private int visitas;
+        /**
+         * Cantidad de ítems por estado, en todas las visitas.
+         */
+        private final long[] totales = new long[4];
+        /**
+         * Cantidad de visitas por ítem y estado, como {@code item * 4 + estado}.
+         */
+        private final int[] porItem;
+
+        /**
+         * Crea un resumen vacío.
+         *
+         * @param cantidadItems La cantidad de ítems de la plantilla.
+         */
+        private Resumen(int cantidadItems) {
+            this.porItem = new int[cantidadItems * 4];
+        }
+
+        /**
+         * Obtiene la cantidad de visitas resumidas.
+         *
+         * @return La cantidad de visitas.
+         */
+        public int getVisitas() {
+            return visitas;
+        }
+
+        /**
+         * Obtiene la cantidad de ítems con un estado, sumando todas las visitas.
+         *
+         * @param estado El estado: 1 (sin problemas), 2 (con observaciones) o 3 (no aprueba).
+         * @return La cantidad de ítems.
+         * @throws IllegalArgumentException si el estado no está entre 1 y 3.
+         */
+        public long getTotal(int estado) {
+            return totales[ResultadosRevision.validarEstado(estado)];
+        }
+
+        /**
+         * Obtiene la cantidad de visitas en que un ítem quedó con un estado.
+         *
+         * @param item La posición del ítem en la plantilla.
+         * @param estado El estado: 1 (sin problemas), 2 (con observaciones) o 3 (no aprueba).
+         * @return La cantidad de visitas.
+         * @throws IllegalArgumentException si el estado no está entre 1 y 3.
+         * @throws IndexOutOfBoundsException si el ítem no existe.
+         */
+        public int getCantidad(int item, int estado) {
+            if (item < 0 || item * 4 >= porItem.length) {
+                throw new IndexOutOfBoundsException("La plantilla no tiene el ítem " + item + ".");
+            }
+            return porItem[item * 4 + ResultadosRevision.validarEstado(estado)];
+        }
+    }
+
+    /**
+     * Crea una plantilla.
+     *
+     * @param nombre El nombre de la plantilla.
+     * @param items Los nombres de los ítems, en orden. Cada uno debe tener entre 10 y 50 caracteres, como el nombre
+     *              de una {@link Revision}, y no puede repetirse.
+     * @throws IllegalArgumentException si el nombre está vacío, no hay ítems o algún ítem no es válido o se repite.
+     */
+    public PlantillaRevision(String nombre, List<String> items) {
+        if (nombre == null || nombre.isBlank()) {
+            throw new IllegalArgumentException("El nombre de la plantilla no puede estar vacío.");
+        }
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("La plantilla debe tener al menos un ítem.");
+        }
+        Map<String, Integer> indice = new HashMap<>(items.size() * 2);
+        for (int i = 0; i < items.size(); i++) {
+            String item = items.get(i);
+            if (item == null || item.length() < 10 || item.length() > 50) {
+                throw new IllegalArgumentException("El nombre de cada ítem debe tener entre 10 y 50 caracteres.");
+            }
+            if (indice.put(Indices.clave(item), i) != null) {
+                throw new IllegalArgumentException("El ítem " + item + " está repetido en la plantilla.");
+            }
+        }
+        this.nombre = nombre.trim();
+        this.items = List.copyOf(items);
+        this.posiciones = indice;
+    }
+
+    /**
+     * Obtiene el nombre de la plantilla.
+     *
+     * @return El nombre.
+     */
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Obtiene los nombres de los ítems.
+     *
+     * @return Los nombres, en orden; la lista no es modificable.
+     */
+    public List<String> getItems() {
+        return items;
+    }
+
+    /**
+     * Obtiene la cantidad de ítems.
+     *
+     * @return La cantidad de ítems.
+     */
+    public int getCantidadItems() {
+        return items.size();
+    }
+
+    /**
+     * Busca la posición de un ítem por su nombre, sin distinguir mayúsculas ni acentos.
+     *
+     * @param item El nombre del ítem.
+     * @return La posición del ítem, o -1 si la plantilla no lo tiene.
+     */
+    public int posicionDe(String item) {
+        return item == null ? -1 : posiciones.getOrDefault(Indices.clave(item), -1);
+    }
+
+    /**
+     * Crea los resultados de una visita con esta plantilla, con todos los ítems sin revisar.
+     *
+     * @return Los resultados.
+     */
+    public ResultadosRevision nuevosResultados() {
+        return new ResultadosRevision(this);
+    }
+
+    /**
+     * Resume los resultados de muchas visitas. Los totales por estado se cuentan por palabra de 64 bits, y los
+     * conteos por ítem recorren solo los ítems revisados de cada visita.
+     *
+     * @param resultados Los resultados de las visitas.
+     * @return El resumen.
+     * @throws IllegalArgumentException si algún resultado es de otra plantilla.
+     */
+    public Resumen resumir(Iterable<ResultadosRevision> resultados) {
+        Resumen resumen = new Resumen(items.size());
+        for (ResultadosRevision resultado : resultados) {
+            if (resultado.getPlantilla() != this) {
+                throw new IllegalArgumentException("Los resultados son de la plantilla " + resultado.getPlantilla().getNombre() + ".");
+            }
+            resultado.acumular(resumen.totales, resumen.porItem);
+            resumen.visitas++;
+        }
+        return resumen;
+    }
+
+    /**
+     * Devuelve una representación en cadena de texto de la plantilla.
+     *
+     * @return El nombre y la cantidad de ítems.
+     */
+    @Override
+    public String toString() {
+        return nombre + " (" + items.size() + " ítems)";
+    }
+}
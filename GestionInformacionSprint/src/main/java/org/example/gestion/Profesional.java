@@ -1,7 +1,6 @@
 package org.example.gestion;
 
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 
 /*
  *
@@ -61,6 +60,7 @@ public class Profesional extends Usuario{
      */
     public void setTitulo(String titulo) {
         this.titulo = titulo;
+        invalidarTexto();
     }
     /**
      * Obtiene la fecha de ingreso del profesional en la organización.
@@ -77,19 +77,20 @@ public class Profesional extends Usuario{
      */
     public void setFechaIngreso(LocalDate fechaIngreso) {
         this.fechaIngreso = fechaIngreso;
+        invalidarTexto();
     }
 
     /**
-     * Representa la información del profesional en formato de cadena, incluyendo información adicional a la de la clase {@link Usuario}.
+     * Genera la información del profesional en formato de cadena, incluyendo información adicional a la de la clase {@link Usuario}.
      *
      * @return Cadena con la información del profesional.
      */
     @Override
-    public String toString() {
+    protected String describir() {
         return "Profesional: " +
-                "\n" + super.toString()+
+                "\n" + super.describir()+
                 "\n  Título: '" + titulo + '\'' +
-                "\n  Fecha de Ingreso: " + fechaIngreso.format(DateTimeFormatter.ofPattern("dd/MM/yyyy"));
+                "\n  Fecha de Ingreso: " + fechaIngreso.format(Formatos.FECHA);
     }
 
     /**
@@ -99,7 +100,7 @@ public class Profesional extends Usuario{
     public void analizarUsuario() {
         super.analizarUsuario();
         System.out.println("Titulo: " + titulo);
-        System.out.println("Fecha de Ingreso: " + fechaIngreso.format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
+        System.out.println("Fecha de Ingreso: " + fechaIngreso.format(Formatos.FECHA));
     }
 
 }
@@ -0,0 +1,365 @@
+package org.example.gestion;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/*
+ *
+ * @author Judith Vergara
+ * @version 1.0
+ */
+
+/**
+ * Réplica de solo lectura de un {@link Contenedor}, alimentada por el archivo que escribe un {@link EmisorRegistro}.
+ * <p>
+ * Un hilo propio lee el archivo a medida que crece y aplica cada evento a un contenedor local, de modo que las
+ * consultas de listado y búsqueda se atienden aquí sin competir con el ingreso de datos en el líder. Solo se
+ * aplican líneas completas; una línea a medio escribir se retoma en la siguiente lectura.
+ * </p>
+ * <p>
+ * Las secuencias de {@link #getEstado()} son las del registro, que continúan aunque el líder se reinicie y su flujo
+ * de eventos vuelva a empezar; la réplica omite una línea solo si repite una secuencia ya aplicada. La réplica aplica
+ * los cambios con los mismos métodos del contenedor, pero su propio flujo de eventos tiene su propia numeración. Al
+ * promoverla con {@link #promover()} se obtiene un contenedor que puede seguir recibiendo cambios y emitir su propio
+ * registro con un nuevo {@link EmisorRegistro}.
+ * </p>
+ */
+public class ReplicaSeguidora implements AutoCloseable {
+
+    // Principio de Responsabilidad Única (SRP): la réplica solo aplica el registro y atiende lecturas; escribir el registro es tarea del emisor.
+
+    /**
+     * Tiempo de espera entre lecturas cuando el archivo no ha crecido.
+     */
+    private static final long ESPERA_MILIS = 20;
+
+    /**
+     * Estado de la replicación en un momento dado.
+     *
+     * @param secuenciaAplicada Secuencia del último evento aplicado, o -1 si no se ha aplicado ninguno.
+     * @param bytesPendientes Bytes del registro que todavía no se han aplicado.
+     * @param retrasoMilis Milisegundos transcurridos desde el último evento aplicado, o 0 si no hay nada pendiente.
+     */
+    public record EstadoReplicacion(long secuenciaAplicada, long bytesPendientes, long retrasoMilis) {}
+
+    /**
+     * Contenedor local con los datos replicados.
+     */
+    private final Contenedor contenedor = new Contenedor();
+    /**
+     * Bloqueo que separa la aplicación de eventos de las consultas.
+     */
+    private final ReentrantReadWriteLock bloqueo = new ReentrantReadWriteLock();
+    /**
+     * Canal de lectura del archivo de registro.
+     */
+    private final FileChannel canal;
+    /**
+     * Buffer de lectura, reutilizado en cada lectura.
+     */
+    private final ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+    /**
+     * Bytes de una línea que todavía no termina.
+     */
+    private final ByteArrayOutputStream lineaParcial = new ByteArrayOutputStream();
+    /**
+     * Hilo que aplica el registro.
+     */
+    private final Thread hilo;
+    /**
+     * Posición del archivo hasta la que se han aplicado líneas completas.
+     */
+    private volatile long posicionAplicada;
+    /**
+     * Secuencia del último evento aplicado.
+     */
+    private volatile long secuenciaAplicada = -1;
+    /**
+     * Instante del último evento aplicado.
+     */
+    private volatile long instanteAplicado;
+    /**
+     * Indica si la réplica debe detenerse.
+     */
+    private volatile boolean detenida;
+    /**
+     * Indica si la réplica fue promovida a líder.
+     */
+    private volatile boolean promovida;
+    /**
+     * Error que detuvo la replicación, si lo hubo.
+     */
+    private volatile Exception error;
+
+    /**
+     * Crea una réplica que comienza a aplicar el registro indicado desde el principio.
+     *
+     * @param registro El archivo de registro compartido con el líder, que la réplica solo lee.
+     * @throws IOException si el archivo no existe o no se puede abrir.
+     */
+    public ReplicaSeguidora(Path registro) throws IOException {
+        this.canal = FileChannel.open(registro, StandardOpenOption.READ);
+        this.hilo = new Thread(this::replicar, "replica-" + registro.getFileName());
+        this.hilo.setDaemon(true);
+        this.hilo.start();
+    }
+
+    /**
+     * Aplica el registro hasta que la réplica se detenga.
+     */
+    private void replicar() {
+        try {
+            while (!detenida) {
+                if (!aplicarDisponible()) {
+                    Thread.sleep(ESPERA_MILIS);
+                }
+            }
+            // Antes de detenerse aplica todo lo que el líder alcanzó a escribir
+            while (aplicarDisponible()) {
+                // continúa hasta llegar al final del archivo
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException e) {
+            error = e;
+        }
+    }
+
+    /**
+     * Lee un bloque del archivo y aplica las líneas completas que contiene.
+     *
+     * @return true si se leyeron datos, false si se llegó al final del archivo.
+     * @throws IOException si hay un error de lectura.
+     */
+    private boolean aplicarDisponible() throws IOException {
+        buffer.clear();
+        long posicionLectura = posicionAplicada + lineaParcial.size();
+        int leidos = canal.read(buffer, posicionLectura);
+        if (leidos <= 0) {
+            return false;
+        }
+        buffer.flip();
+        List<EventoContenedor> lote = new ArrayList<>();
+        long avance = 0;
+        while (buffer.hasRemaining()) {
+            byte b = buffer.get();
+            if (b == '\n') {
+                String linea = lineaParcial.toString(StandardCharsets.UTF_8);
+                avance += lineaParcial.size() + 1;
+                lineaParcial.reset();
+                lote.add(CodificadorRegistro.decodificar(linea));
+            } else {
+                lineaParcial.write(b);
+            }
+        }
+        if (!lote.isEmpty()) {
+            aplicar(lote);
+            posicionAplicada += avance;
+        }
+        return true;
+    }
+
+    /**
+     * Aplica un lote de eventos al contenedor local con el bloqueo de escritura.
+     *
+     * @param lote Los eventos a aplicar, en orden.
+     */
+    private void aplicar(List<EventoContenedor> lote) {
+        bloqueo.writeLock().lock();
+        try {
+            for (EventoContenedor evento : lote) {
+                if (evento.secuencia() <= secuenciaAplicada) {
+                    continue;
+                }
+                aplicar(contenedor, evento);
+                secuenciaAplicada = evento.secuencia();
+                instanteAplicado = evento.instante();
+            }
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Aplica un evento a un contenedor. Aplicar un almacenamiento que ya está en el contenedor no tiene efecto,
+     * de modo que un evento se puede aplicar sobre un estado que ya lo incluye.
+     *
+     * @param contenedor El contenedor.
+     * @param evento El evento.
+     */
+    static void aplicar(Contenedor contenedor, EventoContenedor evento) {
+        if (evento instanceof EventoContenedor.UsuarioAlmacenado e) {
+            almacenarUsuario(contenedor, e.usuario());
+        } else if (evento instanceof EventoContenedor.UsuariosAlmacenados e) {
+            almacenarFaltantes(contenedor, e.usuarios(), List.of());
+        } else if (evento instanceof EventoContenedor.Instantanea e) {
+            almacenarFaltantes(contenedor, e.usuarios(), e.capacitaciones());
+        } else if (evento instanceof EventoContenedor.UsuarioEliminado e) {
+            contenedor.eliminarSinAviso(e.run());
+        } else if (evento instanceof EventoContenedor.UsuariosEliminados e) {
+            contenedor.eliminarUsuarios(new LinkedHashSet<>(e.runs()));
+        } else if (evento instanceof EventoContenedor.CapacitacionAlmacenada e) {
+            if (contenedor.getIndices().capacitacion(e.capacitacion().getIdentificador()) == null) {
+                contenedor.almacenarCapacitacion(e.capacitacion());
+            }
+        } else if (evento instanceof EventoContenedor.CapacitacionesAlmacenadas e) {
+            almacenarFaltantes(contenedor, List.of(), e.capacitaciones());
+        } else if (evento instanceof EventoContenedor.UsuarioActualizado e) {
+            contenedor.actualizarUsuario(e.run(), e.cambios());
+        } else if (evento instanceof EventoContenedor.CapacitacionActualizada e) {
+            contenedor.actualizarCapacitacion(e.identificador(), e.cambios());
+        }
+        // Las capacitaciones en cascada ya se eliminaron al aplicar UsuarioEliminado o UsuariosEliminados
+    }
+
+    /**
+     * Almacena en lote los usuarios y capacitaciones que todavía no están en el contenedor.
+     *
+     * @param contenedor El contenedor.
+     * @param usuarios Los usuarios.
+     * @param capacitaciones Las capacitaciones.
+     */
+    private static void almacenarFaltantes(Contenedor contenedor, List<Usuario> usuarios, List<Capacitacion> capacitaciones) {
+        contenedor.almacenarUsuarios(usuarios.stream()
+                .filter(usuario -> contenedor.buscarUsuario(usuario.getRun()) == null)
+                .collect(Collectors.toList()));
+        contenedor.almacenarCapacitaciones(capacitaciones.stream()
+                .filter(capacitacion -> contenedor.getIndices().capacitacion(capacitacion.getIdentificador()) == null)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Almacena un usuario replicado según su tipo.
+     *
+     * @param contenedor El contenedor.
+     * @param usuario El usuario a almacenar.
+     */
+    private static void almacenarUsuario(Contenedor contenedor, Usuario usuario) {
+        if (usuario instanceof Cliente c) {
+            contenedor.almacenarCliente(c);
+        } else if (usuario instanceof Profesional p) {
+            contenedor.almacenarProfesional(p);
+        } else if (usuario instanceof Administrativo a) {
+            contenedor.almacenarAdministrativo(a);
+        }
+    }
+
+    /**
+     * Obtiene el estado de la replicación: la última secuencia aplicada y cuánto falta por aplicar.
+     *
+     * @return El estado de la replicación.
+     * @throws UncheckedIOException si no se puede consultar el tamaño del archivo.
+     */
+    public EstadoReplicacion getEstado() {
+        try {
+            long pendientes = Math.max(0, canal.size() - posicionAplicada);
+            long retraso = pendientes == 0 ? 0 : Math.max(0, System.currentTimeMillis() - instanteAplicado);
+            return new EstadoReplicacion(secuenciaAplicada, pendientes, retraso);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Obtiene los usuarios replicados.
+     *
+     * @return Una copia de los usuarios replicados.
+     */
+    public List<Usuario> listarUsuarios() {
+        return leer(c -> List.copyOf(c.getUsuarios()));
+    }
+
+    /**
+     * Obtiene los usuarios replicados de un tipo específico.
+     *
+     * @param tipo El tipo de usuario a listar.
+     * @return Los usuarios del tipo indicado.
+     */
+    public List<Usuario> listarUsuariosPorTipo(Class<?> tipo) {
+        return leer(c -> c.getUsuarios().stream().filter(tipo::isInstance).toList());
+    }
+
+    /**
+     * Obtiene las capacitaciones replicadas.
+     *
+     * @return Una copia de las capacitaciones replicadas.
+     */
+    public List<Capacitacion> listarCapacitaciones() {
+        return leer(c -> List.copyOf(c.getCapacitaciones()));
+    }
+
+    /**
+     * Busca un cliente replicado por su RUN.
+     *
+     * @param run El RUN del cliente a buscar.
+     * @return El cliente correspondiente al RUN especificado, o {@code null} si no se encuentra.
+     */
+    public Cliente buscarClientePorRut(long run) {
+        return leer(c -> c.buscarClientePorRut(run));
+    }
+
+    /**
+     * Ejecuta una consulta sobre el contenedor local con el bloqueo de lectura.
+     *
+     * @param consulta La consulta a ejecutar.
+     * @param <T> El tipo del resultado.
+     * @return El resultado de la consulta.
+     */
+    private <T> T leer(Function<Contenedor, T> consulta) {
+        if (promovida) {
+            throw new IllegalStateException("La réplica fue promovida; use el contenedor obtenido al promoverla.");
+        }
+        bloqueo.readLock().lock();
+        try {
+            return consulta.apply(contenedor);
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Promueve la réplica a líder: aplica todo lo que queda en el registro, deja de seguirlo y entrega el contenedor
+     * local para que reciba cambios. Para que otras réplicas la sigan, se crea un nuevo {@link EmisorRegistro}
+     * sobre el contenedor entregado.
+     *
+     * @return El contenedor con los datos replicados.
+     * @throws IllegalStateException si la replicación se había detenido por un error.
+     */
+    public Contenedor promover() {
+        close();
+        if (error != null) {
+            throw new IllegalStateException("La replicación se detuvo por un error.", error);
+        }
+        promovida = true;
+        return contenedor;
+    }
+
+    /**
+     * Detiene la réplica después de aplicar lo que queda en el registro.
+     */
+    @Override
+    public void close() {
+        detenida = true;
+        try {
+            hilo.join();
+            canal.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            error = e;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package org.example.gestion;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ *
+ * @author Judith Vergara
+ * @version 1.0
+ */
+
+/**
+ * Resultados de una visita en terreno para los ítems de una {@link PlantillaRevision}.
+ * <p>
+ * El estado de cada ítem ocupa dos bits, con los mismos valores que {@link Revision#getEstado()}: 1 (sin
+ * problemas), 2 (con observaciones) o 3 (no aprueba), y 0 si todavía no se revisa. Cada {@code long} guarda 32
+ * ítems, así que un checklist de 30 ítems ocupa un solo {@code long} por visita, y contar los ítems con un estado
+ * es una máscara y un {@link Long#bitCount(long)} por palabra.
+ * </p>
+ */
+public final class ResultadosRevision {
+
+    // Principio de Segregación de Interfaces (ISP): solo expone estados por ítem; quien necesite objetos Revision los pide con aRevisiones.
+
+    /**
+     * Estado de un ítem que todavía no se revisa.
+     */
+    public static final int SIN_REVISAR = 0;
+
+    /**
+     * Bit bajo de cada par de bits.
+     */
+    private static final long BITS_BAJOS = 0x5555_5555_5555_5555L;
+
+    /**
+     * Plantilla de los ítems.
+     */
+    private final PlantillaRevision plantilla;
+    /**
+     * Estados de los ítems, dos bits por ítem.
+     */
+    private final long[] estados;
+
+    /**
+     * Crea los resultados con todos los ítems sin revisar. Se crean con {@link PlantillaRevision#nuevosResultados()}.
+     *
+     * @param plantilla La plantilla.
+     */
+    ResultadosRevision(PlantillaRevision plantilla) {
+        this.plantilla = plantilla;
+        this.estados = new long[(plantilla.getCantidadItems() + 31) >>> 5];
+    }
+
+    /**
+     * Obtiene la plantilla de los resultados.
+     *
+     * @return La plantilla.
+     */
+    public PlantillaRevision getPlantilla() {
+        return plantilla;
+    }
+
+    /**
+     * Obtiene el estado de un ítem.
+     *
+     * @param item La posición del ítem en la plantilla.
+     * @return El estado, o {@link #SIN_REVISAR}.
+     * @throws IndexOutOfBoundsException si el ítem no existe.
+     */
+    public int getEstado(int item) {
+        validarItem(item);
+        return (int) (estados[item >>> 5] >>> ((item & 31) << 1)) & 3;
+    }
+
+    /**
+     * Establece el estado de un ítem.
+     *
+     * @param item La posición del ítem en la plantilla.
+     * @param estado El estado: 1 (sin problemas), 2 (con observaciones), 3 (no aprueba), o {@link #SIN_REVISAR}
+     *               para quitar el resultado.
+     * @throws IllegalArgumentException si el estado no está entre 0 y 3.
+     * @throws IndexOutOfBoundsException si el ítem no existe.
+     */
+    public void setEstado(int item, int estado) {
+        validarItem(item);
+        if (estado != SIN_REVISAR) {
+            validarEstado(estado);
+        }
+        int desplazamiento = (item & 31) << 1;
+        estados[item >>> 5] = estados[item >>> 5] & ~(3L << desplazamiento) | (long) estado << desplazamiento;
+    }
+
+    /**
+     * Establece el estado de un ítem por su nombre.
+     *
+     * @param item El nombre del ítem, sin distinguir mayúsculas ni acentos.
+     * @param estado El estado: 1 (sin problemas), 2 (con observaciones), 3 (no aprueba), o {@link #SIN_REVISAR}.
+     * @throws IllegalArgumentException si la plantilla no tiene el ítem o el estado no está entre 0 y 3.
+     */
+    public void setEstado(String item, int estado) {
+        int posicion = plantilla.posicionDe(item);
+        if (posicion < 0) {
+            throw new IllegalArgumentException("La plantilla " + plantilla.getNombre() + " no tiene el ítem " + item + ".");
+        }
+        setEstado(posicion, estado);
+    }
+
+    /**
+     * Cuenta los ítems con un estado.
+     *
+     * @param estado El estado: 1 (sin problemas), 2 (con observaciones), 3 (no aprueba), o {@link #SIN_REVISAR}.
+     * @return La cantidad de ítems.
+     * @throws IllegalArgumentException si el estado no está entre 0 y 3.
+     */
+    public int contar(int estado) {
+        if (estado == SIN_REVISAR) {
+            return plantilla.getCantidadItems() - contar(1) - contar(2) - contar(3);
+        }
+        validarEstado(estado);
+        int total = 0;
+        for (long palabra : estados) {
+            total += Long.bitCount(mascara(palabra, estado));
+        }
+        return total;
+    }
+
+    /**
+     * Indica si algún ítem no aprueba.
+     *
+     * @return true si hay al menos un ítem con estado 3.
+     */
+    public boolean tieneRechazos() {
+        for (long palabra : estados) {
+            if (mascara(palabra, 3) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Crea las revisiones de los ítems revisados, para quien trabaje con objetos {@link Revision}.
+     * El identificador de cada revisión es la posición del ítem más uno, y no tienen detalle.
+     *
+     * @param idVisitaTerreno El identificador de la visita.
+     * @return Las revisiones, en el orden de la plantilla.
+     */
+    public List<Revision> aRevisiones(int idVisitaTerreno) {
+        List<Revision> revisiones = new ArrayList<>();
+        for (int item = 0; item < plantilla.getCantidadItems(); item++) {
+            int estado = getEstado(item);
+            if (estado != SIN_REVISAR) {
+                revisiones.add(new Revision(item + 1, estado, null, plantilla.getItems().get(item), idVisitaTerreno));
+            }
+        }
+        return revisiones;
+    }
+
+    /**
+     * Suma estos resultados a un resumen.
+     *
+     * @param totales Los ítems por estado, que se suman por palabra con {@link Long#bitCount(long)}.
+     * @param porItem Las visitas por ítem y estado, como {@code item * 4 + estado}.
+     */
+    void acumular(long[] totales, int[] porItem) {
+        for (int i = 0; i < estados.length; i++) {
+            long palabra = estados[i];
+            if (palabra == 0) {
+                continue;
+            }
+            int base = i << 5;
+            for (int estado = 1; estado <= 3; estado++) {
+                long conEstado = mascara(palabra, estado);
+                totales[estado] += Long.bitCount(conEstado);
+                // Cada bit de la máscara está en la posición baja del par de su ítem
+                while (conEstado != 0) {
+                    int item = base + (Long.numberOfTrailingZeros(conEstado) >>> 1);
+                    porItem[item * 4 + estado]++;
+                    conEstado &= conEstado - 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Valida un estado de revisión.
+     *
+     * @param estado El estado.
+     * @return El mismo estado.
+     * @throws IllegalArgumentException si el estado no está entre 1 y 3.
+     */
+    static int validarEstado(int estado) {
+        if (estado < 1 || estado > 3) {
+            throw new IllegalArgumentException("El estado debe ser 1 (sin problemas), 2 (con observaciones) o 3 (no aprueba).");
+        }
+        return estado;
+    }
+
+    /**
+     * Marca los ítems de una palabra que tienen un estado, con un bit en la posición baja de cada par.
+     *
+     * @param palabra La palabra con 32 estados.
+     * @param estado El estado, entre 1 y 3.
+     * @return La máscara.
+     */
+    private static long mascara(long palabra, int estado) {
+        long bajos = palabra & BITS_BAJOS;
+        long altos = (palabra >>> 1) & BITS_BAJOS;
+        return switch (estado) {
+            case 1 -> bajos & ~altos;
+            case 2 -> altos & ~bajos;
+            default -> bajos & altos;
+        };
+    }
+
+    /**
+     * Valida la posición de un ítem.
+     *
+     * @param item La posición.
+     * @throws IndexOutOfBoundsException si la plantilla no tiene el ítem.
+     */
+    private void validarItem(int item) {
+        if (item < 0 || item >= plantilla.getCantidadItems()) {
+            throw new IndexOutOfBoundsException("La plantilla " + plantilla.getNombre() + " no tiene el ítem " + item + ".");
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package org.example.gestion;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/*
+ *
+ * @author Judith Vergara
+ * @version 1.0
+ */
+
+/**
+ * Esquema de una tabla del formato columnar: su nombre y sus columnas, cada una con su codificación y con la
+ * forma de obtener su valor desde la entidad exportada.
+ * <p>
+ * Las fechas se guardan como días desde la época, con {@link FormatoColumnar#NULO} si faltan. Los textos con pocos
+ * valores distintos, como la comuna, la AFP, el día o el lugar, usan diccionario; los enteros con valores repetidos,
+ * como el estado de una revisión, usan largo de rachas.
+ * </p>
+ *
+ * @param <T> El tipo de la entidad de cada fila.
+ */
+public final class TablaColumnar<T> {
+
+    // Principio Abierto/Cerrado (OCP): una tabla nueva se declara como constante, sin cambiar el exportador.
+
+    /**
+     * Codificación de una columna dentro de cada bloque.
+     */
+    public enum Codificacion {
+        /**
+         * Enteros como diferencias sucesivas en zigzag y varint.
+         */
+        ENTERO,
+        /**
+         * Enteros como rachas de valor y largo.
+         */
+        RLE,
+        /**
+         * Textos como códigos de un diccionario del archivo, en rachas de código y largo.
+         */
+        DICCIONARIO,
+        /**
+         * Textos tal cual, en UTF-8 con su largo.
+         */
+        TEXTO
+    }
+
+    /**
+     * Columna de una tabla.
+     *
+     * @param nombre El nombre de la columna.
+     * @param codificacion La codificación de la columna.
+     * @param numero Obtiene el valor de las columnas numéricas; null en las de texto.
+     * @param texto Obtiene el valor de las columnas de texto; null en las numéricas.
+     * @param <T> El tipo de la entidad de cada fila.
+     */
+    public record Columna<T>(String nombre, Codificacion codificacion, ToLongFunction<T> numero,
+                             Function<T, String> texto) {
+
+        /**
+         * Indica si la columna guarda textos.
+         *
+         * @return true para las codificaciones {@link Codificacion#DICCIONARIO} y {@link Codificacion#TEXTO}.
+         */
+        public boolean esTexto() {
+            return codificacion == Codificacion.DICCIONARIO || codificacion == Codificacion.TEXTO;
+        }
+    }
+
+    /**
+     * Clientes, con sus datos de usuario.
+     */
+    public static final TablaColumnar<Cliente> CLIENTES = new TablaColumnar<>("clientes", List.of(
+            entero("run", Cliente::getRun),
+            texto("nombre", Cliente::getNombre),
+            texto("apellidos", Cliente::getApellidos),
+            fecha("fechaNacimiento", Cliente::getFechaNacimiento),
+            texto("telefono", Cliente::getTelefono),
+            diccionario("afp", Cliente::getAfp),
+            rachas("sistemaSalud", Cliente::getSistemaSalud),
+            texto("direccion", Cliente::getDireccion),
+            diccionario("comuna", Cliente::getComuna),
+            entero("edad", Cliente::getEdad)));
+
+    /**
+     * Profesionales, con sus datos de usuario.
+     */
+    public static final TablaColumnar<Profesional> PROFESIONALES = new TablaColumnar<>("profesionales", List.of(
+            entero("run", Profesional::getRun),
+            texto("nombre", Profesional::getNombre),
+            texto("apellidos", Profesional::getApellidos),
+            fecha("fechaNacimiento", Profesional::getFechaNacimiento),
+            diccionario("titulo", Profesional::getTitulo),
+            fecha("fechaIngreso", Profesional::getFechaIngreso)));
+
+    /**
+     * Administrativos, con sus datos de usuario.
+     */
+    public static final TablaColumnar<Administrativo> ADMINISTRATIVOS = new TablaColumnar<>("administrativos", List.of(
+            entero("run", Administrativo::getRun),
+            texto("nombre", Administrativo::getNombre),
+            texto("apellidos", Administrativo::getApellidos),
+            fecha("fechaNacimiento", Administrativo::getFechaNacimiento),
+            diccionario("area", Administrativo::getArea),
+            texto("experienciaPrevia", Administrativo::getExperienciaPrevia)));
+
+    /**
+     * Capacitaciones.
+     */
+    public static final TablaColumnar<Capacitacion> CAPACITACIONES = new TablaColumnar<>("capacitaciones", List.of(
+            entero("identificador", Capacitacion::getIdentificador),
+            entero("rutCliente", Capacitacion::getRutCliente),
+            diccionario("dia", Capacitacion::getDia),
+            diccionario("hora", Capacitacion::getHora),
+            diccionario("lugar", Capacitacion::getLugar),
+            entero("duracion", Capacitacion::getDuracion),
+            entero("cantidadAsistentes", Capacitacion::getCantidadAsistentes)));
+
+    /**
+     * Accidentes.
+     */
+    public static final TablaColumnar<Accidente> ACCIDENTES = new TablaColumnar<>("accidentes", List.of(
+            entero("identificador", Accidente::getIdentificador),
+            entero("rutCliente", Accidente::getRutCliente),
+            fecha("dia", Accidente::getDia),
+            diccionario("hora", Accidente::getHora),
+            diccionario("lugar", Accidente::getLugar),
+            texto("origen", Accidente::getOrigen),
+            texto("consecuencias", Accidente::getConsecuencias)));
+
+    /**
+     * Fila de la tabla {@link #REVISIONES}: una {@link Revision} de una visita, o un ítem revisado del checklist de
+     * una {@link PlantillaRevision}.
+     *
+     * @param identificador El identificador de la revisión, o la posición del ítem más uno.
+     * @param idVisitaTerreno El identificador de la visita.
+     * @param plantilla El nombre de la plantilla del ítem, o null si es una revisión suelta.
+     * @param nombreRevision El nombre de la revisión o del ítem.
+     * @param detalleRevision El detalle de la revisión, o null.
+     * @param estado El estado: 1 (sin problemas), 2 (con observaciones) o 3 (no aprueba).
+     */
+    public record FilaRevision(int identificador, int idVisitaTerreno, String plantilla, String nombreRevision,
+                               String detalleRevision, int estado) {
+
+        /**
+         * Crea la fila de una revisión suelta.
+         *
+         * @param revision La revisión.
+         * @return La fila, sin plantilla.
+         */
+        public static FilaRevision de(Revision revision) {
+            return new FilaRevision(revision.getIdentificador(), revision.getIdVisitaTerreno(), null,
+                    revision.getNombreRevision(), revision.getDetalleRevision(), revision.getEstado());
+        }
+    }
+
+    /**
+     * Revisiones de las visitas en terreno, sueltas y de plantilla. Los nombres usan diccionario porque los ítems de
+     * una plantilla se repiten en cada visita que la usa.
+     */
+    public static final TablaColumnar<FilaRevision> REVISIONES = new TablaColumnar<>("revisiones", List.of(
+            entero("identificador", FilaRevision::identificador),
+            entero("idVisitaTerreno", FilaRevision::idVisitaTerreno),
+            diccionario("plantilla", FilaRevision::plantilla),
+            diccionario("nombreRevision", FilaRevision::nombreRevision),
+            texto("detalleRevision", FilaRevision::detalleRevision),
+            rachas("estado", FilaRevision::estado)));
+
+    /**
+     * Nombre de la tabla, que también da nombre a su archivo.
+     */
+    private final String nombre;
+    /**
+     * Columnas de la tabla, en orden.
+     */
+    private final List<Columna<T>> columnas;
+
+    /**
+     * Crea el esquema de una tabla.
+     *
+     * @param nombre El nombre de la tabla.
+     * @param columnas Las columnas, en orden.
+     */
+    private TablaColumnar(String nombre, List<Columna<T>> columnas) {
+        this.nombre = nombre;
+        this.columnas = columnas;
+    }
+
+    /**
+     * Obtiene el nombre de la tabla.
+     *
+     * @return El nombre.
+     */
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Obtiene las columnas de la tabla.
+     *
+     * @return Las columnas, en orden.
+     */
+    public List<Columna<T>> getColumnas() {
+        return columnas;
+    }
+
+    /**
+     * Obtiene el nombre del archivo de la tabla.
+     *
+     * @return El nombre del archivo, con su extensión.
+     */
+    public String getArchivo() {
+        return nombre + FormatoColumnar.EXTENSION;
+    }
+
+    /**
+     * Convierte una fecha al valor que se guarda en una columna.
+     *
+     * @param fecha La fecha, o null.
+     * @return Los días desde la época, o {@link FormatoColumnar#NULO} si la fecha es nula.
+     */
+    static long diaEpoca(LocalDate fecha) {
+        return fecha == null ? FormatoColumnar.NULO : fecha.toEpochDay();
+    }
+
+    /**
+     * Crea una columna de enteros.
+     *
+     * @param nombre El nombre de la columna.
+     * @param valor El valor de la columna en cada fila.
+     * @param <T> El tipo de la entidad de cada fila.
+     * @return La columna.
+     */
+    private static <T> Columna<T> entero(String nombre, ToLongFunction<T> valor) {
+        return new Columna<>(nombre, Codificacion.ENTERO, valor, null);
+    }
+
+    /**
+     * Crea una columna de fechas, guardadas como días desde la época.
+     *
+     * @param nombre El nombre de la columna.
+     * @param valor La fecha de cada fila.
+     * @param <T> El tipo de la entidad de cada fila.
+     * @return La columna.
+     */
+    private static <T> Columna<T> fecha(String nombre, Function<T, LocalDate> valor) {
+        return new Columna<>(nombre, Codificacion.ENTERO, fila -> diaEpoca(valor.apply(fila)), null);
+    }
+
+    /**
+     * Crea una columna de enteros codificada por rachas.
+     *
+     * @param nombre El nombre de la columna.
+     * @param valor El valor de la columna en cada fila.
+     * @param <T> El tipo de la entidad de cada fila.
+     * @return La columna.
+     */
+    private static <T> Columna<T> rachas(String nombre, ToLongFunction<T> valor) {
+        return new Columna<>(nombre, Codificacion.RLE, valor, null);
+    }
+
+    /**
+     * Crea una columna de textos codificada con diccionario.
+     *
+     * @param nombre El nombre de la columna.
+     * @param valor El texto de cada fila.
+     * @param <T> El tipo de la entidad de cada fila.
+     * @return La columna.
+     */
+    private static <T> Columna<T> diccionario(String nombre, Function<T, String> valor) {
+        return new Columna<>(nombre, Codificacion.DICCIONARIO, null, valor);
+    }
+
+    /**
+     * Crea una columna de textos sin diccionario.
+     *
+     * @param nombre El nombre de la columna.
+     * @param valor El texto de cada fila.
+     * @param <T> El tipo de la entidad de cada fila.
+     * @return La columna.
+     */
+    private static <T> Columna<T> texto(String nombre, Function<T, String> valor) {
+        return new Columna<>(nombre, Codificacion.TEXTO, null, valor);
+    }
+}
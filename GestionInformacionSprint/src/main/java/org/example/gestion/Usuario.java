@@ -1,7 +1,7 @@
 package org.example.gestion;
 
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.time.Period;
 /*
  *
  * @author Judith Vergara
@@ -73,6 +73,7 @@ public class Usuario implements Asesoria{
      */
     public void setApellidos(String apellidos) {
         this.apellidos = apellidos;
+        invalidarTexto();
     }
 
     /**
@@ -91,6 +92,7 @@ public class Usuario implements Asesoria{
      */
     public void setNombre(String nombre) {
         this.nombre = nombre;
+        invalidarTexto();
     }
 
     /**
@@ -108,6 +110,7 @@ public class Usuario implements Asesoria{
      */
     public void setFechaNacimiento(LocalDate fechaNacimiento) {
         this.fechaNacimiento = fechaNacimiento;
+        invalidarTexto();
     }
 
     /**
@@ -126,6 +129,7 @@ public class Usuario implements Asesoria{
      */
     public void setRun(long run) {
         this.run = run;
+        invalidarTexto();
     }
 
     /**
@@ -140,22 +144,52 @@ public class Usuario implements Asesoria{
 
     /**
      * Representa la información del usuario en formato de cadena.
+     * <p>
+     * El texto se genera con {@link #describir()} y se guarda en {@link CacheTexto} hasta que algún setter modifique al usuario.
+     * </p>
      *
      * @return Cadena con la información del usuario.
      */
     @Override
     public String toString() {
+        return CacheTexto.DESCRIPCIONES.obtener(this, this::describir);
+    }
+
+    /**
+     * Genera la información del usuario en formato de cadena.
+     * Las subclases la extienden para agregar sus propios atributos.
+     *
+     * @return Cadena con la información del usuario.
+     */
+    protected String describir() {
         return " Nombre: '" + nombre + '\'' +
                 "\n  Apellidos: '" + apellidos + '\'' +
-                "\n  Fecha de Nacimiento: " + fechaNacimiento.format(DateTimeFormatter.ofPattern("dd/MM/yyyy")) +
+                "\n  Fecha de Nacimiento: " + fechaNacimiento.format(Formatos.FECHA) +
                 "\n  RUT: " + run;
     }
 
+    /**
+     * Descarta el texto guardado del usuario. Se llama desde cada setter.
+     */
+    protected void invalidarTexto() {
+        CacheTexto.DESCRIPCIONES.invalidar(this);
+    }
+
+    /**
+     * Calcula la edad del usuario en una fecha, considerando si ya estuvo de cumpleaños ese año.
+     *
+     * @param fecha La fecha en que se calcula la edad.
+     * @return La edad en años cumplidos.
+     */
+    public int calcularEdad(LocalDate fecha) {
+        return Period.between(fechaNacimiento, fecha).getYears();
+    }
+
     /**
      * Muestra la edad del usuario calculada a partir de la fecha de nacimiento.
      */
     public void mostrarEdad() {
-        int edad = LocalDate.now().getYear() - fechaNacimiento.getYear();
+        int edad = calcularEdad(LocalDate.now());
         System.out.println("El usuario tiene " + edad + " años");
     }
 
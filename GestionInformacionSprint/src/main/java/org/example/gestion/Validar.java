@@ -5,6 +5,7 @@ import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.regex.Pattern;
 
 /*
  *
@@ -21,21 +22,51 @@ public class Validar {
 
     // Validar sigue el principio SRP, ya que cada método tiene una responsabilidad específica en la validación de datos.
 
+    /**
+     * Expresiones regulares precompiladas. Se compilan la primera vez que se usan y no al cargar la clase.
+     */
+    private static final class Patrones {
+        /**
+         * Marcas diacríticas que quedan separadas al descomponer un texto.
+         */
+        static final Pattern DIACRITICOS = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
+        /**
+         * Puntos y guiones de un RUN.
+         */
+        static final Pattern SEPARADORES_RUN = Pattern.compile("[.\\-]");
+        /**
+         * Teléfono de exactamente 9 dígitos.
+         */
+        static final Pattern TELEFONO = Pattern.compile("\\d{9}");
+        /**
+         * Un dígito en cualquier parte del texto.
+         */
+        static final Pattern DIGITO = Pattern.compile("\\d");
+        /**
+         * Texto formado solo por letras y espacios.
+         */
+        static final Pattern SOLO_LETRAS = Pattern.compile("[a-zA-Z\\s]+");
+        /**
+         * Hora en formato HH:MM, sin validar el rango.
+         */
+        static final Pattern HORA = Pattern.compile("\\d{2}:\\d{2}");
+    }
+
 
     /**
      * Valida una entrada de texto asegurándose de que no esté vacía y que tenga una longitud dentro del rango especificado.
      *
      * @param mensaje El mensaje que se muestra al usuario para ingresar el texto.
-     * @param scanner El objeto {@link Scanner} usado para leer la entrada del usuario.
+     * @param consola La {@link Consola} usada para leer la entrada del usuario.
      * @param min El número mínimo de caracteres permitidos.
      * @param max El número máximo de caracteres permitidos.
      * @return El texto validado ingresado por el usuario.
      */
-    public static String validarString(String mensaje, Scanner scanner, int min, int max) {
+    public static String validarString(String mensaje, Consola consola, int min, int max) {
         String input;
         while (true) {
             System.out.print(mensaje);
-            input = scanner.nextLine().trim().toUpperCase();
+            input = consola.leerLinea().trim().toUpperCase();
             if (!input.isEmpty() && input.length() >= min && input.length() <= max) {
                 break;
             }
@@ -53,7 +84,7 @@ public class Validar {
     public static String normalizarString(String input) {
         // Normaliza el texto eliminando acentos y convirtiéndolo a mayúsculas
         return Normalizer.normalize(input, Normalizer.Form.NFD)
-                .replaceAll("\\p{InCombiningDiacriticalMarks}+", "")
+                .transform(texto -> Patrones.DIACRITICOS.matcher(texto).replaceAll(""))
                 .toUpperCase();
     }
 
@@ -61,10 +92,10 @@ public class Validar {
      * Valida un día de la semana asegurándose de que sea uno de los días permitidos.
      *
      * @param mensaje El mensaje que se muestra al usuario para ingresar el día.
-     * @param scanner El objeto {@link Scanner} usado para leer la entrada del usuario.
+     * @param consola La {@link Consola} usada para leer la entrada del usuario.
      * @return El día de la semana validado ingresado por el usuario.
      */
-    public static String validarDia(String mensaje, Scanner scanner) {
+    public static String validarDia(String mensaje, Consola consola) {
         List<String> diasPermitidos = Arrays.asList("LUNES", "MARTES", "MIERCOLES", "JUEVES", "VIERNES", "SABADO", "DOMINGO");
         // Normaliza los días permitidos
         List<String> diasPermitidosNormalizados = diasPermitidos.stream()
@@ -74,7 +105,7 @@ public class Validar {
         String dia;
         while (true) {
             System.out.print(mensaje);
-            dia = scanner.nextLine().trim().toUpperCase();
+            dia = consola.leerLinea().trim().toUpperCase();
             String diaNormalizado = normalizarString(dia);
             if (diasPermitidosNormalizados.contains(diaNormalizado)) {
                 break;
@@ -88,21 +119,22 @@ public class Validar {
      * Valida una fecha ingresada por el usuario asegurándose de que esté en el formato especificado.
      *
      * @param mensaje El mensaje que se muestra al usuario para ingresar la fecha.
-     * @param scanner El objeto {@link Scanner} usado para leer la entrada del usuario.
+     * @param consola La {@link Consola} usada para leer la entrada del usuario.
      * @param formato El formato esperado de la fecha.
      * @return La fecha validada ingresada por el usuario.
      */
-    public static LocalDate validarFecha(String mensaje, Scanner scanner, String formato) {
+    public static LocalDate validarFecha(String mensaje, Consola consola, String formato) {
         LocalDate fecha;
+        DateTimeFormatter formateador = formato.equals("dd/MM/yyyy") ? Formatos.FECHA : DateTimeFormatter.ofPattern(formato);
         while (true) {
             System.out.print(mensaje);
-            String inputFecha = scanner.nextLine();
+            String inputFecha = consola.leerLinea();
             if (inputFecha.isEmpty()) {
                 System.out.println("Error: La fecha no puede estar vacía.");
                 continue;
             }
             try {
-                fecha = LocalDate.parse(inputFecha, DateTimeFormatter.ofPattern(formato));
+                fecha = LocalDate.parse(inputFecha, formateador);
                 break;
             } catch (DateTimeParseException e) {
                 System.out.println("Error: Fecha no válida. Use el formato " + formato + ".");
@@ -120,15 +152,15 @@ public class Validar {
      * Valida que el valor ingresado sea un número entero de tipo long y que no se repita.
      *
      * @param mensaje El mensaje a mostrar al usuario para solicitar el RUN.
-     * @param scanner El objeto Scanner para leer la entrada del usuario.
+     * @param consola La {@link Consola} usada para leer la entrada del usuario.
      * @param max El valor máximo permitido para el RUN.
      * @return El RUN validado como un número long.
      */
-    public static long validarLong(String mensaje, Scanner scanner, long max) {
+    public static long validarLong(String mensaje, Consola consola, long max) {
         long numero;
         while (true) {
             System.out.print(mensaje);
-            String input = scanner.nextLine().replaceAll("[.\\-]", "");
+            String input = Patrones.SEPARADORES_RUN.matcher(consola.leerLinea()).replaceAll("");
             if (input.isEmpty()) {
                 System.out.println("Error: El valor no puede estar vacío.");
                 continue;
@@ -155,15 +187,15 @@ public class Validar {
      * Valida un número largo (long) ingresado por el usuario, asegurándose de que sea menor que el valor máximo permitido.
      *
      * @param mensaje El mensaje que se muestra al usuario para ingresar el número.
-     * @param scanner El objeto {@link Scanner} usado para leer la entrada del usuario.
+     * @param consola La {@link Consola} usada para leer la entrada del usuario.
      * @param max El valor máximo permitido para el número.
      * @return El número largo validado ingresado por el usuario.
      */
-    public static long validarLongCap(String mensaje, Scanner scanner, long max) {
+    public static long validarLongCap(String mensaje, Consola consola, long max) {
         long numero;
         while (true) {
             System.out.print(mensaje);
-            String input = scanner.nextLine().replaceAll("[.\\-]", "");
+            String input = Patrones.SEPARADORES_RUN.matcher(consola.leerLinea()).replaceAll("");
             if (input.isEmpty()) {
                 System.out.println("Error: El valor no puede estar vacío.");
                 continue;
@@ -185,15 +217,15 @@ public class Validar {
      * Valida un número de teléfono asegurándose de que tenga exactamente 9 dígitos.
      *
      * @param mensaje El mensaje que se muestra al usuario para ingresar el teléfono.
-     * @param scanner El objeto {@link Scanner} usado para leer la entrada del usuario.
+     * @param consola La {@link Consola} usada para leer la entrada del usuario.
      * @return El número de teléfono validado ingresado por el usuario.
      */
-    public static String validarTelefono(String mensaje, Scanner scanner) {
+    public static String validarTelefono(String mensaje, Consola consola) {
         String telefono;
         while (true) {
             System.out.print(mensaje);
-            telefono = scanner.nextLine().trim();
-            if (telefono.matches("\\d{9}")) {
+            telefono = consola.leerLinea().trim();
+            if (Patrones.TELEFONO.matcher(telefono).matches()) {
                 break;
             }
             System.out.println("Error: El teléfono debe ser un número de 9 dígitos.");
@@ -205,16 +237,16 @@ public class Validar {
      * Valida un número entero asegurándose de que esté dentro del rango especificado.
      *
      * @param mensaje El mensaje que se muestra al usuario para ingresar el número.
-     * @param scanner El objeto {@link Scanner} usado para leer la entrada del usuario.
+     * @param consola La {@link Consola} usada para leer la entrada del usuario.
      * @param min El valor mínimo permitido para el número.
      * @param max El valor máximo permitido para el número.
      * @return El número entero validado ingresado por el usuario.
      */
-    public static int validarEntero(String mensaje, Scanner scanner, int min, int max) {
+    public static int validarEntero(String mensaje, Consola consola, int min, int max) {
         int numero;
         while (true) {
             System.out.print(mensaje);
-            String input = scanner.nextLine().trim();
+            String input = consola.leerLinea().trim();
             try {
                 numero = Integer.parseInt(input);
                 if (numero >= min && numero <= max) {
@@ -232,20 +264,20 @@ public class Validar {
      * Método que valida una cadena de caracteres.
      *
      * @param mensaje El mensaje a mostrar al usuario.
-     * @param scanner El objeto Scanner para leer la entrada del usuario.
+     * @param consola La {@link Consola} usada para leer la entrada del usuario.
      * @param minLen  La longitud mínima permitida de la cadena.
      * @param maxLen  La longitud máxima permitida de la cadena.
      * @return La cadena de caracteres validada.
      */
-    public static String validarSinNumeros(String mensaje, Scanner scanner, int minLen, int maxLen) {
+    public static String validarSinNumeros(String mensaje, Consola consola, int minLen, int maxLen) {
         String input;
         boolean valido;
 
         do {
             System.out.print(mensaje);
-            input = scanner.nextLine().trim().toUpperCase();
+            input = consola.leerLinea().trim().toUpperCase();
 
-            valido = input.length() >= minLen && input.length() <= maxLen && !input.matches(".*\\d.*");
+            valido = input.length() >= minLen && input.length() <= maxLen && !Patrones.DIGITO.matcher(input).find();
 
             if (!valido) {
                 System.out.println("Error: No debe contener números y debe tener una longitud entre " + minLen + " y " + maxLen + " caracteres.");
@@ -259,18 +291,18 @@ public class Validar {
      * Valida una cadena de texto asegurándose de que contenga solo letras y tenga una longitud dentro del rango especificado.
      *
      * @param mensaje El mensaje que se muestra al usuario para ingresar el texto.
-     * @param scanner El objeto {@link Scanner} usado para leer la entrada del usuario.
+     * @param consola La {@link Consola} usada para leer la entrada del usuario.
      * @param minLength La longitud mínima permitida para el texto.
      * @param maxLength La longitud máxima permitida para el texto.
      * @return El texto validado ingresado por el usuario.
      */
-    public static String validarSoloLetras(String mensaje, Scanner scanner, int minLength, int maxLength) {
+    public static String validarSoloLetras(String mensaje, Consola consola, int minLength, int maxLength) {
         String input;
         boolean isValid;
         do {
             System.out.print(mensaje);
-            input = scanner.nextLine().trim().toUpperCase();
-            isValid = input.length() >= minLength && input.length() <= maxLength && input.matches("[a-zA-Z\\s]+");
+            input = consola.leerLinea().trim().toUpperCase();
+            isValid = input.length() >= minLength && input.length() <= maxLength && Patrones.SOLO_LETRAS.matcher(input).matches();
             if (!isValid) {
                 System.out.println("Entrada inválida. Por favor, ingrese un título que contenga solo letras y tenga entre " + minLength + " y " + maxLength + " caracteres.");
             }
@@ -282,17 +314,17 @@ public class Validar {
      * Valida una hora ingresada por el usuario asegurándose de que esté en el formato HH:MM y que sea una hora válida.
      *
      * @param mensaje El mensaje que se muestra al usuario para ingresar la hora.
-     * @param scanner El objeto {@link Scanner} usado para leer la entrada del usuario.
+     * @param consola La {@link Consola} usada para leer la entrada del usuario.
      * @param minLength La longitud exacta requerida para la hora (debe ser 5 para formato HH:MM).
      * @return La hora validada ingresada por el usuario.
      */
-    public static String validarHora(String mensaje, Scanner scanner, int minLength) {
+    public static String validarHora(String mensaje, Consola consola, int minLength) {
         String input;
         boolean isValid;
         do {
             System.out.print(mensaje);
-            input = scanner.nextLine().trim();
-            isValid = input.length() == minLength && input.matches("\\d{2}:\\d{2}") && esHoraValida(input);
+            input = consola.leerLinea().trim();
+            isValid = input.length() == minLength && Patrones.HORA.matcher(input).matches() && esHoraValida(input);
             if (!isValid) {
                 System.out.println("Entrada inválida. Por favor, ingrese una hora válida en formato HH:MM.");
             }
@@ -1,8 +1,8 @@
 package org.example.gestion;
 
-import java.text.SimpleDateFormat;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /*
@@ -46,6 +46,10 @@ public class VisitaEnTerreno {
      * Lista de revisiones asociadas a la visita en terreno.
      */
     private List<Revision> revisiones;
+    /**
+     * Resultados del checklist de la visita, si sigue una {@link PlantillaRevision}.
+     */
+    private ResultadosRevision resultados;
 
 
     /**
@@ -92,6 +96,7 @@ public class VisitaEnTerreno {
      */
     public void setIdentificador(int identificador) {
         this.identificador = identificador;
+        invalidarTexto();
     }
     /**
      * Obtiene el RUT del cliente asociado a la visita en terreno.
@@ -112,6 +117,7 @@ public class VisitaEnTerreno {
             throw new IllegalArgumentException("El RUT del cliente debe ser un número menor a 99.999.999.");
         }
         this.rutCliente = rutCliente;
+        invalidarTexto();
     }
     /**
      * Obtiene la fecha de la visita en terreno.
@@ -132,6 +138,7 @@ public class VisitaEnTerreno {
             throw new IllegalArgumentException("La fecha del accidente no puede ser nula.");
         }
         this.dia = dia;
+        invalidarTexto();
     }
     /**
      * Obtiene la hora de la visita en terreno.
@@ -152,6 +159,7 @@ public class VisitaEnTerreno {
             throw new IllegalArgumentException("La hora debe estar en formato HH:MM (24 horas).");
         }
         this.hora = hora;
+        invalidarTexto();
     }
     /**
      * Obtiene el lugar de la visita en terreno.
@@ -172,6 +180,7 @@ public class VisitaEnTerreno {
             throw new IllegalArgumentException("El lugar debe tener entre 10 y 50 caracteres.");
         }
         this.lugar = lugar;
+        invalidarTexto();
     }
     /**
      * Obtiene los comentarios adicionales sobre la visita en terreno.
@@ -192,22 +201,53 @@ public class VisitaEnTerreno {
             throw new IllegalArgumentException("Los comentarios no pueden tener más de 100 caracteres.");
         }
         this.comentarios = comentarios;
+        invalidarTexto();
     }
     /**
      * Obtiene la lista de revisiones asociadas a la visita en terreno.
+     * <p>
+     * La lista no se puede modificar; las revisiones se agregan con {@link #agregarRevision(Revision)}.
+     * </p>
      *
-     * @return La lista de revisiones asociadas a la visita en terreno.
+     * @return La lista de revisiones asociadas a la visita en terreno, o null si no tiene lista.
      */
     public List<Revision> getRevisiones() {
-        return revisiones;
+        return revisiones == null ? null : Collections.unmodifiableList(revisiones);
     }
     /**
-     * Establece la lista de revisiones asociadas a la visita en terreno.
+     * Establece la lista de revisiones asociadas a la visita en terreno. La visita guarda una copia de la lista.
      *
      * @param revisiones La nueva lista de revisiones asociadas a la visita en terreno.
      */
     public void setRevisiones(List<Revision> revisiones) {
-        this.revisiones = revisiones;
+        this.revisiones = revisiones == null ? null : new ArrayList<>(revisiones);
+    }
+    /**
+     * Obtiene los resultados del checklist de la visita.
+     *
+     * @return Los resultados, o null si la visita no sigue una plantilla.
+     */
+    public ResultadosRevision getResultados() {
+        return resultados;
+    }
+    /**
+     * Establece los resultados del checklist de la visita.
+     *
+     * @param resultados Los resultados, o null para quitarlos.
+     */
+    public void setResultados(ResultadosRevision resultados) {
+        this.resultados = resultados;
+        invalidarTexto();
+    }
+    /**
+     * Hace que la visita siga una plantilla de revisión, con todos sus ítems sin revisar.
+     *
+     * @param plantilla La plantilla.
+     * @return Los resultados de la visita, donde se registra el estado de cada ítem.
+     */
+    public ResultadosRevision usarPlantilla(PlantillaRevision plantilla) {
+        setResultados(plantilla.nuevosResultados());
+        return resultados;
     }
     /**
      * Agrega una revisión a la lista de revisiones asociadas a la visita en terreno.
@@ -223,26 +263,53 @@ public class VisitaEnTerreno {
     /**
      * Devuelve una representación en cadena de texto de la visita en terreno.
      * <p>
-     * La representación incluye el identificador, la fecha, la hora, el lugar, los comentarios y una lista de las revisiones asociadas.
+     * La representación incluye el identificador, la fecha, la hora, el lugar, los comentarios, la plantilla de revisión si tiene una
+     * y una lista de las revisiones asociadas. De la plantilla se muestra solo el nombre, no cada uno de sus ítems.
+     * </p>
+     * <p>
+     * Los datos de la visita se guardan en {@link CacheTexto} hasta que algún setter la modifique. Las revisiones se
+     * agregan en cada llamada, porque cada {@link Revision} puede cambiar de nombre sin que la visita se entere.
      * </p>
      *
      * @return Una cadena que representa la visita en terreno.
      */
     @Override
     public String toString() {
-        SimpleDateFormat dateFormat = new SimpleDateFormat("dd/MM/yyyy");
-        StringBuilder revisionString = new StringBuilder();
-        if (revisiones != null) {
-            for (Revision revision : revisiones) {
-                revisionString.append("\n  - ").append(revision.getNombreRevision());
-            }
+        String encabezado = CacheTexto.DESCRIPCIONES.obtener(this, this::describir);
+        if (revisiones == null || revisiones.isEmpty()) {
+            return encabezado;
+        }
+        StringBuilder texto = new StringBuilder(encabezado);
+        for (Revision revision : revisiones) {
+            texto.append("\n  - ").append(revision.getNombreRevision());
+        }
+        return texto.toString();
+    }
+
+    /**
+     * Genera la representación en cadena de texto de los datos de la visita en terreno, sin sus revisiones.
+     *
+     * @return Una cadena que representa los datos de la visita en terreno.
+     */
+    private String describir() {
+        StringBuilder texto = new StringBuilder()
+                .append("Visita en Terreno #").append(identificador)
+                .append("\nFecha: ").append(Formatos.FECHA.format(dia))
+                .append("\nHora: ").append(hora)
+                .append("\nLugar: ").append(lugar)
+                .append("\nComentarios: ").append(comentarios);
+        if (resultados != null) {
+            texto.append("\nPlantilla: ").append(resultados.getPlantilla());
         }
-        return "Visita en Terreno #" + identificador +
-                "\nFecha: " + dateFormat.format(dia) +
-                "\nHora: " + hora +
-                "\nLugar: " + lugar +
-                "\nComentarios: " + comentarios +
-                "\nRevisiones:" + (revisiones != null && !revisiones.isEmpty() ? revisionString.toString() : "");
+        texto.append("\nRevisiones:");
+        return texto.toString();
+    }
+
+    /**
+     * Descarta el texto guardado de la visita. Se llama desde cada setter.
+     */
+    private void invalidarTexto() {
+        CacheTexto.DESCRIPCIONES.invalidar(this);
     }
 
 }
@@ -0,0 +1,274 @@
+package org.example.gestion;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/*
+ *
+ * @author Judith Vergara
+ * @version 1.0
+ */
+
+/**
+ * Vista materializada de la cobertura de capacitaciones: minutos totales, asistentes totales y cantidad de sesiones,
+ * por cliente, por día de la semana y por cliente y día de la semana.
+ * <p>
+ * El {@link Contenedor} la actualiza en tiempo constante cada vez que almacena una capacitación y cada vez que la
+ * elimina en cascada junto a su cliente, de modo que leer las cifras nunca recorre la lista de capacitaciones.
+ * {@link #verificar(Collection)} compara la vista con un recálculo completo.
+ * </p>
+ */
+public class VistaCoberturaCapacitaciones {
+
+    // Principio de Segregación de Interfaces (ISP): quien solo necesita cifras de cobertura no depende del contenedor completo.
+
+    /**
+     * Campos de una capacitación de los que dependen las cifras de la vista.
+     */
+    static final Set<CampoCapacitacion> CAMPOS = Collections.unmodifiableSet(EnumSet.of(CampoCapacitacion.RUT_CLIENTE,
+            CampoCapacitacion.DIA, CampoCapacitacion.DURACION, CampoCapacitacion.CANTIDAD_ASISTENTES));
+
+    /**
+     * Cifras de cobertura de un grupo de capacitaciones.
+     *
+     * @param sesiones Cantidad de capacitaciones.
+     * @param minutos Suma de la duración de las capacitaciones.
+     * @param asistentes Suma de la cantidad de asistentes.
+     */
+    public record Cobertura(int sesiones, long minutos, long asistentes) {
+
+        /**
+         * Cobertura de un grupo sin capacitaciones.
+         */
+        public static final Cobertura VACIA = new Cobertura(0, 0, 0);
+    }
+
+    /**
+     * Acumulador mutable de una entrada de la vista.
+     */
+    private static final class Acumulado {
+
+        /**
+         * Cantidad de capacitaciones.
+         */
+        private int sesiones;
+        /**
+         * Suma de la duración.
+         */
+        private long minutos;
+        /**
+         * Suma de los asistentes.
+         */
+        private long asistentes;
+
+        /**
+         * Suma o resta una capacitación.
+         *
+         * @param capacitacion La capacitación.
+         * @param signo 1 para sumarla, -1 para restarla.
+         */
+        void sumar(Capacitacion capacitacion, int signo) {
+            sesiones += signo;
+            minutos += (long) signo * capacitacion.getDuracion();
+            asistentes += (long) signo * capacitacion.getCantidadAsistentes();
+        }
+
+        /**
+         * Obtiene las cifras del acumulador.
+         *
+         * @return Las cifras actuales.
+         */
+        Cobertura cobertura() {
+            return new Cobertura(sesiones, minutos, asistentes);
+        }
+    }
+
+    /**
+     * Cobertura por RUT de cliente.
+     */
+    private final Map<Long, Acumulado> porCliente = new HashMap<>();
+    /**
+     * Cobertura por día de la semana, con el día normalizado.
+     */
+    private final Map<String, Acumulado> porDia = new HashMap<>();
+    /**
+     * Cobertura de cada cliente por día de la semana, con el día normalizado.
+     */
+    private final Map<Long, Map<String, Acumulado>> porClienteYDia = new HashMap<>();
+    /**
+     * Cobertura de todas las capacitaciones.
+     */
+    private final Acumulado total = new Acumulado();
+
+    /**
+     * Suma una capacitación almacenada.
+     *
+     * @param capacitacion La capacitación almacenada.
+     */
+    void agregar(Capacitacion capacitacion) {
+        sumar(capacitacion, 1);
+    }
+
+    /**
+     * Resta una capacitación eliminada.
+     *
+     * @param capacitacion La capacitación eliminada.
+     */
+    void quitar(Capacitacion capacitacion) {
+        sumar(capacitacion, -1);
+    }
+
+    /**
+     * Obtiene la cobertura de un cliente.
+     *
+     * @param rutCliente El RUT del cliente.
+     * @return La cobertura del cliente, vacía si no tiene capacitaciones.
+     */
+    public Cobertura deCliente(long rutCliente) {
+        Acumulado acumulado = porCliente.get(rutCliente);
+        return acumulado == null ? Cobertura.VACIA : acumulado.cobertura();
+    }
+
+    /**
+     * Obtiene la cobertura de un día de la semana.
+     *
+     * @param dia El día, sin importar mayúsculas ni tildes.
+     * @return La cobertura del día, vacía si no tiene capacitaciones.
+     */
+    public Cobertura deDia(String dia) {
+        Acumulado acumulado = porDia.get(Indices.clave(dia));
+        return acumulado == null ? Cobertura.VACIA : acumulado.cobertura();
+    }
+
+    /**
+     * Obtiene la cobertura de un cliente en un día de la semana.
+     *
+     * @param rutCliente El RUT del cliente.
+     * @param dia El día, sin importar mayúsculas ni tildes.
+     * @return La cobertura del cliente ese día, vacía si no tiene capacitaciones ese día.
+     */
+    public Cobertura deClienteEnDia(long rutCliente, String dia) {
+        Map<String, Acumulado> dias = porClienteYDia.get(rutCliente);
+        return dias == null ? Cobertura.VACIA : cobertura(dias.get(Indices.clave(dia)));
+    }
+
+    /**
+     * Obtiene la cobertura de un cliente separada por día de la semana.
+     *
+     * @param rutCliente El RUT del cliente.
+     * @return La cobertura de cada día con capacitaciones del cliente, por día normalizado.
+     */
+    public Map<String, Cobertura> deClientePorDia(long rutCliente) {
+        Map<String, Cobertura> coberturas = new HashMap<>();
+        porClienteYDia.getOrDefault(rutCliente, Map.of())
+                .forEach((dia, acumulado) -> coberturas.put(dia, acumulado.cobertura()));
+        return coberturas;
+    }
+
+    /**
+     * Obtiene la cobertura de todas las capacitaciones.
+     *
+     * @return La cobertura total.
+     */
+    public Cobertura getTotal() {
+        return total.cobertura();
+    }
+
+    /**
+     * Compara la vista con un recálculo completo a partir de las capacitaciones indicadas.
+     *
+     * @param capacitaciones Todas las capacitaciones del contenedor.
+     * @return Las diferencias encontradas, una por línea; vacía si la vista es consistente.
+     */
+    public List<String> verificar(Collection<Capacitacion> capacitaciones) {
+        VistaCoberturaCapacitaciones recalculada = new VistaCoberturaCapacitaciones();
+        capacitaciones.forEach(recalculada::agregar);
+        List<String> diferencias = new ArrayList<>();
+        comparar("cliente", porCliente, recalculada.porCliente, diferencias);
+        comparar("día", porDia, recalculada.porDia, diferencias);
+        Set<Long> clientes = new HashSet<>(porClienteYDia.keySet());
+        clientes.addAll(recalculada.porClienteYDia.keySet());
+        for (Long rut : clientes) {
+            comparar("cliente " + rut + " día", porClienteYDia.getOrDefault(rut, Map.of()),
+                    recalculada.porClienteYDia.getOrDefault(rut, Map.of()), diferencias);
+        }
+        if (!total.cobertura().equals(recalculada.total.cobertura())) {
+            diferencias.add("total: vista " + total.cobertura() + ", recálculo " + recalculada.total.cobertura());
+        }
+        return diferencias;
+    }
+
+    /**
+     * Suma o resta una capacitación en todas las entradas que le corresponden.
+     *
+     * @param capacitacion La capacitación.
+     * @param signo 1 para sumarla, -1 para restarla.
+     */
+    private void sumar(Capacitacion capacitacion, int signo) {
+        sumarEn(porCliente, capacitacion.getRutCliente(), capacitacion, signo);
+        sumarEn(porDia, Indices.clave(capacitacion.getDia()), capacitacion, signo);
+        Map<String, Acumulado> dias = porClienteYDia.computeIfAbsent(capacitacion.getRutCliente(), r -> new HashMap<>());
+        sumarEn(dias, Indices.clave(capacitacion.getDia()), capacitacion, signo);
+        if (dias.isEmpty()) {
+            porClienteYDia.remove(capacitacion.getRutCliente());
+        }
+        total.sumar(capacitacion, signo);
+    }
+
+    /**
+     * Suma o resta una capacitación en una entrada, descartándola cuando queda sin sesiones.
+     *
+     * @param vista La vista a actualizar.
+     * @param clave La clave de la entrada.
+     * @param capacitacion La capacitación.
+     * @param signo 1 para sumarla, -1 para restarla.
+     * @param <K> El tipo de la clave.
+     */
+    private static <K> void sumarEn(Map<K, Acumulado> vista, K clave, Capacitacion capacitacion, int signo) {
+        Acumulado acumulado = vista.computeIfAbsent(clave, k -> new Acumulado());
+        acumulado.sumar(capacitacion, signo);
+        if (acumulado.sesiones == 0) {
+            vista.remove(clave);
+        }
+    }
+
+    /**
+     * Agrega a la lista las entradas que difieren entre la vista y el recálculo.
+     *
+     * @param nombre El nombre de la vista, para el mensaje.
+     * @param vista Las entradas mantenidas incrementalmente.
+     * @param recalculo Las entradas recalculadas.
+     * @param diferencias La lista de diferencias.
+     * @param <K> El tipo de la clave.
+     */
+    private static <K> void comparar(String nombre, Map<K, Acumulado> vista, Map<K, Acumulado> recalculo,
+                                     List<String> diferencias) {
+        Map<K, Object> claves = new HashMap<>(vista);
+        claves.putAll(recalculo);
+        for (K clave : claves.keySet()) {
+            Cobertura esperada = cobertura(recalculo.get(clave));
+            Cobertura actual = cobertura(vista.get(clave));
+            if (!Objects.equals(esperada, actual)) {
+                diferencias.add(nombre + " " + clave + ": vista " + actual + ", recálculo " + esperada);
+            }
+        }
+    }
+
+    /**
+     * Obtiene las cifras de una entrada que puede no existir.
+     *
+     * @param acumulado La entrada, o null.
+     * @return Las cifras de la entrada, vacías si no existe.
+     */
+    private static Cobertura cobertura(Acumulado acumulado) {
+        return acumulado == null ? Cobertura.VACIA : acumulado.cobertura();
+    }
+}
@@ -0,0 +1,99 @@
+package org.example.gestion;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Supplier;
+
+/*
+ *
+ * @author Judith Vergara
+ * @version 1.0
+ */
+
+/**
+ * Vista de solo lectura sobre una colección que otros hilos siguen modificando bajo un bloqueo.
+ * <p>
+ * El tamaño se consulta con el bloqueo de lectura, sin copiar nada, para que el planificador de {@link Consulta}
+ * pueda comparar fuentes a bajo costo. Cada recorrido copia primero los elementos con el bloqueo de lectura y luego
+ * recorre la copia sin bloqueo, por lo que nunca ve una estructura a medio modificar. La colección se obtiene de
+ * nuevo en cada consulta, así que la vista sigue siendo válida aunque la entrada del índice se elimine y se vuelva
+ * a crear.
+ * </p>
+ *
+ * @param <T> El tipo de los elementos.
+ */
+final class VistaProtegida<T> extends AbstractCollection<T> {
+
+    // Principio de Responsabilidad Única (SRP): solo protege la lectura; qué colección se lee lo decide el índice.
+
+    /**
+     * Bloqueo de lectura de la estructura.
+     */
+    private final Lock lectura;
+    /**
+     * Obtiene la colección actual; solo se llama con el bloqueo tomado.
+     */
+    private final Supplier<Collection<T>> coleccion;
+
+    /**
+     * Crea una vista protegida.
+     *
+     * @param lectura El bloqueo de lectura de la estructura.
+     * @param coleccion Obtiene la colección actual, que puede ser una vista de la estructura.
+     */
+    VistaProtegida(Lock lectura, Supplier<Collection<T>> coleccion) {
+        this.lectura = lectura;
+        this.coleccion = coleccion;
+    }
+
+    /**
+     * Copia los elementos actuales con el bloqueo de lectura.
+     *
+     * @return Una copia no modificable de los elementos.
+     */
+    private List<T> copia() {
+        lectura.lock();
+        try {
+            return Collections.unmodifiableList(new ArrayList<>(coleccion.get()));
+        } finally {
+            lectura.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lectura.lock();
+        try {
+            return coleccion.get().size();
+        } finally {
+            lectura.unlock();
+        }
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return copia().iterator();
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        // El tamaño informado al stream debe coincidir con los elementos que se recorren
+        return copia().spliterator();
+    }
+
+    @Override
+    public Object[] toArray() {
+        return copia().toArray();
+    }
+
+    @Override
+    public <A> A[] toArray(A[] destino) {
+        return copia().toArray(destino);
+    }
+}
@@ -0,0 +1,152 @@
+package org.example.gestion;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/*
+ *
+ * @author Judith Vergara
+ * @version 1.0
+ */
+
+/**
+ * Prueba que mover un usuario a otro fragmento al cambiar su RUN no pierda datos cuando el fragmento de destino lo
+ * rechaza, y que las entidades nulas se rechacen como en {@link Contenedor}.
+ * <p>
+ * Se ejecuta con {@code main}, sin dependencias externas.
+ * </p>
+ */
+public class ContenedorFragmentadoTest {
+
+    // Principio de Responsabilidad Única (SRP): cada prueba verifica un solo caso de rechazo.
+
+    /**
+     * Empresa de prueba.
+     */
+    private static final String EMPRESA = "Empresa de prueba";
+
+    /**
+     * Cantidad de fragmentos por empresa.
+     */
+    private static final int FRAGMENTOS = 2;
+
+    /**
+     * Si el fragmento de destino rechaza las capacitaciones, el cambio de RUN se revierte y el usuario sigue en su
+     * fragmento con todas sus capacitaciones.
+     */
+    public void testMovimientoRechazadoNoPierdeDatos() {
+        ContenedorFragmentado contenedor = new ContenedorFragmentado(FRAGMENTOS);
+        long run = 10_000_001L;
+        long otroRun = runEnOtroFragmento(run, run + 1);
+        long runNuevo = runEnOtroFragmento(run, otroRun + 1);
+        contenedor.almacenarCliente(EMPRESA, cliente(run));
+        contenedor.almacenarCliente(EMPRESA, cliente(otroRun));
+        // Se fuerza el rechazo: la misma capacitación queda almacenada también en el fragmento de destino
+        Capacitacion compartida = new Capacitacion(otroRun, "lunes", "10:00", "Sala principal", 60, 10);
+        contenedor.almacenarCapacitacion(EMPRESA, compartida);
+        compartida.setRutCliente(run);
+        contenedor.almacenarCapacitacion(EMPRESA, compartida);
+
+        comprobar(!contenedor.actualizarUsuario(EMPRESA, run, Map.of(CampoUsuario.RUN, runNuevo)),
+                "El movimiento rechazado por el destino debe retornar false.");
+        Cliente cliente = contenedor.buscarClientePorRut(EMPRESA, run);
+        comprobar(cliente != null && cliente.getRun() == run, "El usuario debe seguir con su RUN anterior.");
+        comprobar(contenedor.buscarClientePorRut(EMPRESA, runNuevo) == null, "El RUN nuevo no debe quedar registrado.");
+        comprobar(compartida.getRutCliente() == run, "La capacitación debe volver a su cliente.");
+        comprobar(contenedor.listarUsuarios(EMPRESA).size() == 2, "No se debe perder ni duplicar ningún usuario.");
+    }
+
+    /**
+     * Un cambio de RUN hacia otro fragmento mueve al usuario y sus capacitaciones.
+     */
+    public void testMovimientoEntreFragmentos() {
+        ContenedorFragmentado contenedor = new ContenedorFragmentado(FRAGMENTOS);
+        long run = 10_000_001L;
+        long runNuevo = runEnOtroFragmento(run, run + 1);
+        contenedor.almacenarCliente(EMPRESA, cliente(run));
+        contenedor.almacenarCapacitacion(EMPRESA, new Capacitacion(run, "lunes", "10:00", "Sala principal", 60, 10));
+
+        comprobar(contenedor.actualizarUsuario(EMPRESA, run, Map.of(CampoUsuario.RUN, runNuevo)),
+                "El movimiento debe realizarse.");
+        comprobar(contenedor.buscarClientePorRut(EMPRESA, run) == null, "El RUN anterior ya no debe existir.");
+        comprobar(contenedor.buscarClientePorRut(EMPRESA, runNuevo) != null, "El usuario debe estar con su RUN nuevo.");
+        comprobar(contenedor.listarCapacitaciones(EMPRESA).size() == 1
+                        && contenedor.listarCapacitaciones(EMPRESA).get(0).getRutCliente() == runNuevo,
+                "La capacitación debe moverse con el usuario.");
+    }
+
+    /**
+     * Almacenar entidades nulas retorna false sin lanzar excepciones.
+     */
+    public void testEntidadesNulasSeRechazan() {
+        ContenedorFragmentado contenedor = new ContenedorFragmentado(FRAGMENTOS);
+        comprobar(!contenedor.almacenarCliente(EMPRESA, null), "Un cliente nulo se debe rechazar.");
+        comprobar(!contenedor.almacenarProfesional(EMPRESA, null), "Un profesional nulo se debe rechazar.");
+        comprobar(!contenedor.almacenarAdministrativo(EMPRESA, null), "Un administrativo nulo se debe rechazar.");
+        comprobar(!contenedor.almacenarCapacitacion(EMPRESA, null), "Una capacitación nula se debe rechazar.");
+        comprobar(!contenedor.almacenarAccidente(EMPRESA, null), "Un accidente nulo se debe rechazar.");
+        comprobar(!contenedor.almacenarVisitaEnTerreno(EMPRESA, null), "Una visita nula se debe rechazar.");
+    }
+
+    /**
+     * Busca, desde un RUN inicial, el primero que cae en un fragmento distinto al de otro RUN. Usa la misma mezcla
+     * de bits que {@link ContenedorFragmentado}.
+     *
+     * @param run El RUN de referencia.
+     * @param desde El primer RUN candidato.
+     * @return Un RUN de otro fragmento.
+     */
+    private static long runEnOtroFragmento(long run, long desde) {
+        long candidato = desde;
+        while (fragmento(candidato) == fragmento(run)) {
+            candidato++;
+        }
+        return candidato;
+    }
+
+    /**
+     * Calcula el fragmento de un RUN.
+     *
+     * @param run El RUN.
+     * @return El índice del fragmento.
+     */
+    private static int fragmento(long run) {
+        return Math.floorMod(Long.hashCode(run * 0x9E3779B97F4A7C15L), FRAGMENTOS);
+    }
+
+    /**
+     * Crea un cliente de prueba.
+     *
+     * @param run El RUN del cliente.
+     * @return El cliente.
+     */
+    private static Cliente cliente(long run) {
+        return new Cliente("Cliente", "Prueba Fragmentos", LocalDate.of(1990, 1, 1), run,
+                "912345678", "Modelo", 1, "Calle Uno 123", "Santiago");
+    }
+
+    /**
+     * Falla la prueba si la condición no se cumple.
+     *
+     * @param condicion La condición.
+     * @param mensaje El mensaje del error.
+     */
+    private static void comprobar(boolean condicion, String mensaje) {
+        if (!condicion) {
+            throw new AssertionError(mensaje);
+        }
+    }
+
+    /**
+     * Ejecuta las pruebas.
+     *
+     * @param args No se usan.
+     */
+    public static void main(String[] args) {
+        ContenedorFragmentadoTest prueba = new ContenedorFragmentadoTest();
+        prueba.testMovimientoRechazadoNoPierdeDatos();
+        prueba.testMovimientoEntreFragmentos();
+        prueba.testEntidadesNulasSeRechazan();
+        System.out.println("ContenedorFragmentadoTest: 3 pruebas correctas.");
+    }
+}
@@ -0,0 +1,246 @@
+package org.example.gestion;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.LongStream;
+
+/*
+ *
+ * @author Judith Vergara
+ * @version 1.0
+ */
+
+/**
+ * Prueba que el contenedor rechace sin efectos parciales las capacitaciones ya almacenadas o repetidas, tanto una a
+ * una como en lote, con un {@link PlanificadorLugares} configurado, y que varios hilos no almacenen dos usuarios
+ * con el mismo RUN. También prueba que la edad de un cliente con fecha de nacimiento nunca cambie esa fecha.
+ * <p>
+ * Se ejecuta con {@code main}, sin dependencias externas.
+ * </p>
+ */
+public class ContenedorTest {
+
+    // Principio de Responsabilidad Única (SRP): cada prueba verifica un solo caso de rechazo.
+
+    /**
+     * Lugar de las capacitaciones de prueba.
+     */
+    private static final String LUGAR = "Sala principal";
+
+    /**
+     * Capacidad del lugar de prueba.
+     */
+    private static final int CAPACIDAD = 100;
+
+    /**
+     * Almacenar otra vez una capacitación ya almacenada retorna false y no deja una reserva de más.
+     */
+    public void testCapacitacionRepetidaSeRechaza() {
+        Contenedor contenedor = contenedorConCliente();
+        Capacitacion capacitacion = capacitacion();
+        comprobar(contenedor.almacenarCapacitacion(capacitacion), "La primera vez se debe almacenar.");
+        comprobar(!contenedor.almacenarCapacitacion(capacitacion), "Una capacitación almacenada no se debe repetir.");
+        comprobar(contenedor.getCapacitaciones().size() == 1, "Debe haber una capacitación.");
+        comprobar(disponible(contenedor) == CAPACIDAD - 10, "La capacitación debe reservar su lugar una sola vez.");
+    }
+
+    /**
+     * Un lote con la misma capacitación dos veces se rechaza sin almacenar, indexar ni reservar ninguna.
+     */
+    public void testLoteConRepetidasSeRechaza() {
+        Contenedor contenedor = contenedorConCliente();
+        Capacitacion capacitacion = capacitacion();
+        comprobar(!contenedor.almacenarCapacitaciones(List.of(capacitacion, capacitacion)),
+                "Un lote con repetidas se debe rechazar.");
+        comprobarSinEfectos(contenedor);
+    }
+
+    /**
+     * Un lote con una capacitación ya almacenada se rechaza completo: la capacitación nueva del lote tampoco se
+     * almacena ni se reserva.
+     */
+    public void testLoteConAlmacenadaSeRechaza() {
+        Contenedor contenedor = contenedorConCliente();
+        Capacitacion almacenada = capacitacion();
+        contenedor.almacenarCapacitacion(almacenada);
+        Capacitacion nueva = capacitacion();
+        comprobar(!contenedor.almacenarCapacitaciones(List.of(nueva, almacenada)),
+                "Un lote con una capacitación almacenada se debe rechazar.");
+        comprobar(contenedor.getCapacitaciones().size() == 1, "Solo debe quedar la capacitación almacenada antes.");
+        comprobar(contenedor.getIndices().capacitacion(nueva.getIdentificador()) == null,
+                "La capacitación nueva no se debe indexar.");
+        comprobar(disponible(contenedor) == CAPACIDAD - 10, "La capacitación nueva no debe reservar su lugar.");
+    }
+
+    /**
+     * Varios hilos que almacenan a la vez usuarios con RUN superpuestos, uno a uno y en lotes, dejan cada RUN a lo
+     * sumo una vez en la lista, y la lista coincide con el índice por RUN.
+     *
+     * @throws InterruptedException si se interrumpe la espera de los hilos.
+     */
+    public void testRunsConcurrentesNoSeRepiten() throws InterruptedException {
+        int hilos = 4;
+        int runs = 500;
+        for (int ronda = 0; ronda < 50; ronda++) {
+            Contenedor contenedor = new Contenedor();
+            CountDownLatch partida = new CountDownLatch(1);
+            List<Thread> escritores = new ArrayList<>();
+            for (int h = 0; h < hilos; h++) {
+                boolean enLotes = h % 2 == 1;
+                Thread escritor = new Thread(() -> {
+                    try {
+                        partida.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    for (int i = 0; i < runs; i += 2) {
+                        Cliente primero = cliente(20_000_000L + i);
+                        Cliente segundo = cliente(20_000_001L + i);
+                        if (enLotes) {
+                            contenedor.almacenarUsuarios(List.of(primero, segundo));
+                        } else {
+                            contenedor.almacenarCliente(primero);
+                            contenedor.almacenarCliente(segundo);
+                        }
+                    }
+                });
+                escritor.start();
+                escritores.add(escritor);
+            }
+            partida.countDown();
+            for (Thread escritor : escritores) {
+                escritor.join();
+            }
+            Set<Long> almacenados = new HashSet<>();
+            for (Usuario usuario : contenedor.getUsuarios()) {
+                comprobar(almacenados.add(usuario.getRun()), "El RUN " + usuario.getRun() + " se almacenó dos veces.");
+                comprobar(contenedor.buscarUsuario(usuario.getRun()) == usuario,
+                        "La lista y el índice por RUN deben tener el mismo usuario.");
+            }
+            // Un lote que pierde la carrera libera sus RUN, por lo que algunos pueden quedar sin almacenar
+            long registrados = LongStream.range(20_000_000L, 20_000_000L + runs)
+                    .filter(run -> contenedor.buscarUsuario(run) != null)
+                    .count();
+            comprobar(almacenados.size() == registrados, "El índice por RUN no debe tener RUN fuera de la lista.");
+        }
+    }
+
+    /**
+     * Una edad que no corresponde a la fecha de nacimiento se rechaza sin cambiar la fecha ni el índice por edad;
+     * la edad que ya tiene el cliente se acepta sin cambios.
+     */
+    public void testEdadContradictoriaSeRechaza() {
+        Contenedor contenedor = contenedorConCliente();
+        Cliente cliente = (Cliente) contenedor.buscarUsuario(10_000_001L);
+        LocalDate nacimiento = cliente.getFechaNacimiento();
+        int edad = cliente.getEdad();
+        try {
+            contenedor.actualizarUsuario(10_000_001L, Map.of(CampoUsuario.EDAD, edad + 2));
+            throw new AssertionError("Una edad que contradice la fecha de nacimiento se debe rechazar.");
+        } catch (IllegalArgumentException esperado) {
+            // La edad no corresponde a la fecha
+        }
+        comprobar(nacimiento.equals(cliente.getFechaNacimiento()), "La fecha de nacimiento no debe cambiar.");
+        comprobar(contenedor.getIndices().usuariosConEdadEntre(edad, edad, LocalDate.now()).contains(cliente),
+                "El cliente debe seguir en el índice con su edad.");
+        comprobar(contenedor.actualizarUsuario(10_000_001L, Map.of(CampoUsuario.EDAD, edad)),
+                "La edad que ya tiene el cliente se debe aceptar.");
+        try {
+            new Cliente("Cliente", "Prueba Contenedor", nacimiento, 10_000_002L, "912345678", "Modelo", 1,
+                    "Calle Uno 123", "Santiago", edad - 2);
+            throw new AssertionError("El constructor debe rechazar una edad que contradice la fecha de nacimiento.");
+        } catch (IllegalArgumentException esperado) {
+            // La edad no corresponde a la fecha
+        }
+    }
+
+    /**
+     * Comprueba que el contenedor no tenga capacitaciones, ni en la lista, ni en el índice por cliente, ni reservadas.
+     *
+     * @param contenedor El contenedor.
+     */
+    private static void comprobarSinEfectos(Contenedor contenedor) {
+        comprobar(contenedor.getCapacitaciones().isEmpty(), "No se debe almacenar ninguna capacitación.");
+        comprobar(contenedor.getIndices().capacitacionesDeCliente(10_000_001L).isEmpty(),
+                "No se debe indexar ninguna capacitación.");
+        comprobar(disponible(contenedor) == CAPACIDAD, "No se debe reservar el lugar.");
+    }
+
+    /**
+     * Crea un contenedor con un cliente y un planificador con el lugar de prueba registrado.
+     *
+     * @return El contenedor.
+     */
+    private static Contenedor contenedorConCliente() {
+        Contenedor contenedor = new Contenedor();
+        PlanificadorLugares planificador = new PlanificadorLugares();
+        planificador.registrarLugar(LUGAR, CAPACIDAD);
+        contenedor.usarPlanificador(planificador);
+        contenedor.almacenarCliente(cliente(10_000_001L));
+        return contenedor;
+    }
+
+    /**
+     * Crea un cliente de prueba.
+     *
+     * @param run El RUN del cliente.
+     * @return El cliente.
+     */
+    private static Cliente cliente(long run) {
+        return new Cliente("Cliente", "Prueba Contenedor", LocalDate.of(1990, 1, 1), run,
+                "912345678", "Modelo", 1, "Calle Uno 123", "Santiago");
+    }
+
+    /**
+     * Crea una capacitación de 10 asistentes para el cliente de prueba.
+     *
+     * @return La capacitación.
+     */
+    private static Capacitacion capacitacion() {
+        return new Capacitacion(10_000_001L, "lunes", "10:00", LUGAR, 60, 10);
+    }
+
+    /**
+     * Obtiene los asientos libres del lugar de prueba en el horario de las capacitaciones.
+     *
+     * @param contenedor El contenedor.
+     * @return Los asientos libres.
+     */
+    private static int disponible(Contenedor contenedor) {
+        return contenedor.getPlanificador().capacidadDisponible(LUGAR, "lunes", "10:00", 60);
+    }
+
+    /**
+     * Falla la prueba si la condición no se cumple.
+     *
+     * @param condicion La condición.
+     * @param mensaje El mensaje del error.
+     */
+    private static void comprobar(boolean condicion, String mensaje) {
+        if (!condicion) {
+            throw new AssertionError(mensaje);
+        }
+    }
+
+    /**
+     * Ejecuta las pruebas.
+     *
+     * @param args No se usan.
+     * @throws InterruptedException si se interrumpe la espera de los hilos.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        ContenedorTest prueba = new ContenedorTest();
+        prueba.testCapacitacionRepetidaSeRechaza();
+        prueba.testLoteConRepetidasSeRechaza();
+        prueba.testLoteConAlmacenadaSeRechaza();
+        prueba.testRunsConcurrentesNoSeRepiten();
+        prueba.testEdadContradictoriaSeRechaza();
+        System.out.println("ContenedorTest: 5 pruebas correctas.");
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.gestion;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+ *
+ * @author Judith Vergara
+ * @version 1.0
+ */
+
+/**
+ * Prueba que un suscriptor de {@link FlujoEventos} nunca reciba un evento distinto del que le corresponde, aunque
+ * el publicador lo expulse y sobrescriba su posición mientras la lee.
+ * <p>
+ * Se ejecuta con {@code main}, sin dependencias externas.
+ * </p>
+ */
+public class FlujoEventosTest {
+
+    // Principio de Responsabilidad Única (SRP): la prueba verifica solo el orden de lectura de un suscriptor.
+
+    /**
+     * Cantidad de flujos que se prueban.
+     */
+    private static final int RONDAS = 300;
+
+    /**
+     * Cantidad de eventos que se publican en cada flujo.
+     */
+    private static final int EVENTOS = 5_000;
+
+    /**
+     * Un publicador que no espera a nadie sobrescribe el buffer mientras el suscriptor lee: cada evento entregado
+     * tiene la secuencia pedida, y cuando ya no la tiene el suscriptor recibe una excepción. Tras cada expulsión el
+     * suscriptor vuelve a suscribirse, para repetir la carrera muchas veces en cada flujo.
+     *
+     * @throws InterruptedException si se interrumpe la espera del publicador.
+     */
+    public void testLecturaNuncaEntregaOtroEvento() throws InterruptedException {
+        for (int ronda = 0; ronda < RONDAS; ronda++) {
+            FlujoEventos flujo = new FlujoEventos(8, 0, TimeUnit.MILLISECONDS);
+            AtomicBoolean terminado = new AtomicBoolean();
+            Thread publicador = new Thread(() -> {
+                for (int i = 0; i < EVENTOS; i++) {
+                    flujo.publicar(secuencia -> new EventoContenedor.UsuariosEliminados(secuencia, 0L, List.of(), List.of()));
+                }
+                terminado.set(true);
+            });
+            FlujoEventos.Suscripcion suscripcion = flujo.suscribir();
+            publicador.start();
+            while (!terminado.get()) {
+                long esperada = suscripcion.getProximaSecuencia();
+                try {
+                    EventoContenedor evento = suscripcion.siguiente();
+                    if (evento != null) {
+                        comprobar(evento.secuencia() == esperada,
+                                "Se pidió el evento " + esperada + " y se entregó el " + evento.secuencia() + ".");
+                    }
+                } catch (IllegalStateException esperado) {
+                    // El suscriptor fue expulsado o su evento sobrescrito: se vuelve a suscribir para seguir probando
+                    suscripcion.cancelar();
+                    suscripcion = flujo.suscribir();
+                }
+            }
+            publicador.join();
+        }
+    }
+
+    /**
+     * Falla la prueba si la condición no se cumple.
+     *
+     * @param condicion La condición.
+     * @param mensaje El mensaje del error.
+     */
+    private static void comprobar(boolean condicion, String mensaje) {
+        if (!condicion) {
+            throw new AssertionError(mensaje);
+        }
+    }
+
+    /**
+     * Ejecuta las pruebas.
+     *
+     * @param args No se usan.
+     * @throws InterruptedException si se interrumpe la espera de los hilos.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        FlujoEventosTest prueba = new FlujoEventosTest();
+        prueba.testLecturaNuncaEntregaOtroEvento();
+        System.out.println("FlujoEventosTest: 1 prueba correcta.");
+    }
+}
@@ -0,0 +1,193 @@
+package org.example.gestion;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ *
+ * @author Judith Vergara
+ * @version 1.0
+ */
+
+/**
+ * Prueba el historial de auditoría: la reconstrucción de instantes anteriores a partir de los puntos de control, y
+ * la carga del historial desde el registro que escribe un {@link EmisorRegistro}.
+ * <p>
+ * Se ejecuta con {@code main}, sin dependencias externas.
+ * </p>
+ */
+public class HistorialAuditoriaTest {
+
+    // Principio de Responsabilidad Única (SRP): cada prueba verifica una sola forma de armar el historial.
+
+    /**
+     * Cada etapa de cambios reconstruye el estado que tenía el contenedor al terminarla, aunque haya varios puntos
+     * de control entre medio.
+     *
+     * @throws Exception si se interrumpe la espera entre etapas.
+     */
+    public void testReconstruirInstantesAnteriores() throws Exception {
+        Contenedor contenedor = new Contenedor();
+        contenedor.almacenarUsuarios(List.of(cliente(1), cliente(2)));
+        HistorialAuditoria historial = new HistorialAuditoria(2);
+        contenedor.usarHistorial(historial);
+        String inicial = resumen(contenedor);
+        long instanteInicial = cerrarEtapa();
+
+        String primera = aplicarPrimeraEtapa(contenedor);
+        long instantePrimera = cerrarEtapa();
+        String segunda = aplicarSegundaEtapa(contenedor);
+
+        comprobar(historial.getEstadisticas().puntosControl() > 1, "El historial debe tener puntos de control después del inicial.");
+        comprobar(resumen(historial.reconstruir(instanteInicial)).equals(inicial),
+                "Se debe reconstruir el estado inicial.");
+        comprobar(resumen(historial.reconstruir(instantePrimera)).equals(primera),
+                "Se debe reconstruir el estado después de la primera etapa.");
+        comprobar(resumen(historial.reconstruir(Long.MAX_VALUE)).equals(segunda),
+                "Se debe reconstruir el estado actual.");
+    }
+
+    /**
+     * Un historial cargado del registro de un emisor reconstruye los mismos instantes que el historial que auditó al
+     * contenedor, incluidas las eliminaciones en lote y las actualizaciones.
+     *
+     * @throws Exception si la prueba no puede usar el archivo de registro.
+     */
+    public void testCargarDesdeElRegistro() throws Exception {
+        Path registro = Files.createTempFile("historial", ".log");
+        try {
+            Contenedor contenedor = new Contenedor();
+            contenedor.almacenarUsuarios(List.of(cliente(1), cliente(2)));
+            EmisorRegistro emisor = new EmisorRegistro(contenedor, registro);
+            HistorialAuditoria auditado = new HistorialAuditoria(2);
+            contenedor.usarHistorial(auditado);
+            long instanteInicial = cerrarEtapa();
+            aplicarPrimeraEtapa(contenedor);
+            long instantePrimera = cerrarEtapa();
+            String actual = aplicarSegundaEtapa(contenedor);
+            emisor.close();
+
+            HistorialAuditoria cargado = HistorialAuditoria.cargar(registro, 2);
+            comprobar(cargado.getEstadisticas().eventos() > 0, "El historial cargado debe tener eventos.");
+            for (long instante : new long[] {instanteInicial, instantePrimera, Long.MAX_VALUE}) {
+                comprobar(resumen(cargado.reconstruir(instante)).equals(resumen(auditado.reconstruir(instante))),
+                        "El historial cargado debe reconstruir lo mismo que el auditado en " + instante + ".");
+            }
+            comprobar(resumen(cargado.reconstruir(Long.MAX_VALUE)).equals(actual),
+                    "El historial cargado debe llegar al estado actual del contenedor.");
+        } finally {
+            Files.deleteIfExists(registro);
+        }
+    }
+
+    /**
+     * Agrega clientes y capacitaciones y actualiza un cliente.
+     *
+     * @param contenedor El contenedor.
+     * @return El resumen del contenedor al terminar.
+     */
+    private static String aplicarPrimeraEtapa(Contenedor contenedor) {
+        contenedor.almacenarCliente(cliente(3));
+        contenedor.almacenarUsuarios(List.of(cliente(4), cliente(5)));
+        contenedor.almacenarCapacitacion(capacitacion(1));
+        contenedor.almacenarCapacitaciones(List.of(capacitacion(3), capacitacion(4), capacitacion(5)));
+        contenedor.actualizarUsuario(10_000_002L, Map.of(CampoUsuario.COMUNA, "Valparaiso"));
+        return resumen(contenedor);
+    }
+
+    /**
+     * Elimina clientes uno a uno y en lote, y actualiza una capacitación.
+     *
+     * @param contenedor El contenedor.
+     * @return El resumen del contenedor al terminar.
+     */
+    private static String aplicarSegundaEtapa(Contenedor contenedor) {
+        contenedor.eliminarSinAviso(10_000_001L);
+        contenedor.eliminarUsuarios(Set.of(10_000_003L, 10_000_004L));
+        Capacitacion restante = contenedor.getIndices().capacitacionesDeCliente(10_000_005L).iterator().next();
+        contenedor.actualizarCapacitacion(restante.getIdentificador(), Map.of(CampoCapacitacion.DIA, "martes"));
+        return resumen(contenedor);
+    }
+
+    /**
+     * Termina una etapa: espera a que cambie el milisegundo, para que los eventos siguientes queden después del
+     * instante devuelto.
+     *
+     * @return El instante del fin de la etapa.
+     * @throws InterruptedException si se interrumpe la espera.
+     */
+    private static long cerrarEtapa() throws InterruptedException {
+        long instante = System.currentTimeMillis();
+        while (System.currentTimeMillis() <= instante) {
+            Thread.sleep(1);
+        }
+        return instante;
+    }
+
+    /**
+     * Resume los usuarios y capacitaciones de un contenedor en un texto comparable, sin depender del orden.
+     *
+     * @param contenedor El contenedor.
+     * @return El resumen.
+     */
+    private static String resumen(Contenedor contenedor) {
+        List<String> usuarios = contenedor.getUsuarios().stream()
+                .map(usuario -> usuario.getRun() + ":" + ((Cliente) usuario).getComuna())
+                .sorted().toList();
+        List<String> capacitaciones = contenedor.getCapacitaciones().stream()
+                .map(capacitacion -> capacitacion.getIdentificador() + ":" + capacitacion.getRutCliente() + ":"
+                        + capacitacion.getDia())
+                .sorted().toList();
+        return usuarios + " " + capacitaciones;
+    }
+
+    /**
+     * Crea un cliente de prueba.
+     *
+     * @param numero El número del cliente, que determina su RUN.
+     * @return El cliente.
+     */
+    private static Cliente cliente(int numero) {
+        return new Cliente("Cliente", "Prueba Historial", LocalDate.of(1990, 1, numero), 10_000_000L + numero,
+                "912345678", "Modelo", 1, "Calle Uno 123", "Santiago");
+    }
+
+    /**
+     * Crea una capacitación de prueba para un cliente.
+     *
+     * @param numero El número del cliente.
+     * @return La capacitación.
+     */
+    private static Capacitacion capacitacion(int numero) {
+        return new Capacitacion(10_000_000L + numero, "lunes", "10:00", "Sala principal", 60, 10);
+    }
+
+    /**
+     * Falla la prueba si la condición no se cumple.
+     *
+     * @param condicion La condición.
+     * @param mensaje El mensaje del error.
+     */
+    private static void comprobar(boolean condicion, String mensaje) {
+        if (!condicion) {
+            throw new AssertionError(mensaje);
+        }
+    }
+
+    /**
+     * Ejecuta las pruebas.
+     *
+     * @param args No se usan.
+     * @throws Exception si alguna prueba falla.
+     */
+    public static void main(String[] args) throws Exception {
+        HistorialAuditoriaTest prueba = new HistorialAuditoriaTest();
+        prueba.testReconstruirInstantesAnteriores();
+        prueba.testCargarDesdeElRegistro();
+        System.out.println("HistorialAuditoriaTest: 2 pruebas correctas.");
+    }
+}
@@ -0,0 +1,265 @@
+package org.example.gestion;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/*
+ *
+ * @author Judith Vergara
+ * @version 1.0
+ */
+
+/**
+ * Prueba que los índices y las líneas de tiempo del contenedor se puedan consultar mientras otro hilo sigue
+ * almacenando y eliminando datos, y que los índices que se crean al usarlos se creen una sola vez.
+ * <p>
+ * Se ejecuta con {@code main}, sin dependencias externas.
+ * </p>
+ */
+public class LecturasConcurrentesTest {
+
+    // Principio de Responsabilidad Única (SRP): cada prueba verifica una estructura leída durante las escrituras.
+
+    /**
+     * Cantidad de lectores que consultan a la vez.
+     */
+    private static final int LECTORES = 4;
+
+    /**
+     * Cantidad de clientes o accidentes que almacena el escritor.
+     */
+    private static final int ESCRITURAS = 10_000;
+
+    /**
+     * Primer RUN de los clientes de prueba.
+     */
+    private static final long PRIMER_RUN = 10_000_000L;
+
+    /**
+     * Las consultas por comuna, por edad y por cliente no fallan ni devuelven datos de otra entrada mientras se
+     * almacenan y eliminan clientes y capacitaciones; al terminar, los índices coinciden con lo almacenado.
+     */
+    public void testIndicesDuranteEscrituras() throws InterruptedException {
+        Contenedor contenedor = new Contenedor();
+        ejecutar(() -> {
+            for (int i = 1; i <= ESCRITURAS; i++) {
+                long run = PRIMER_RUN + i;
+                contenedor.almacenarCliente(cliente(run, i % 2 == 0 ? "Santiago" : "Ñuñoa", i));
+                contenedor.almacenarCapacitacion(new Capacitacion(run, "lunes", "10:00", "Sala " + i % 7, 60, 10));
+                if (i % 3 == 0) {
+                    contenedor.eliminarSinAviso(run - 1);
+                }
+            }
+        }, () -> {
+            for (Cliente cliente : contenedor.getIndices().clientesEnComuna("santiago")) {
+                comprobar("Santiago".equals(cliente.getComuna()), "El índice por comuna mezcló comunas.");
+            }
+            long enRango = contenedor.getIndices().usuariosConEdadEntre(0, 200, LocalDate.now()).stream().count();
+            comprobar(enRango <= ESCRITURAS, "La consulta por edad no debe repetir usuarios.");
+            long run = PRIMER_RUN + 1 + (long) (Math.random() * ESCRITURAS);
+            for (Capacitacion capacitacion : new ArrayList<>(contenedor.getIndices().capacitacionesDeCliente(run))) {
+                comprobar(capacitacion.getRutCliente() == run, "El índice por cliente mezcló clientes.");
+            }
+        });
+        long santiago = contenedor.getUsuarios().stream()
+                .filter(usuario -> usuario instanceof Cliente cliente && "Santiago".equals(cliente.getComuna()))
+                .count();
+        comprobar(contenedor.getIndices().clientesEnComuna("Santiago").size() == santiago,
+                "El índice por comuna debe coincidir con los clientes almacenados.");
+        comprobar(contenedor.getIndices().usuariosConEdadEntre(0, 200, LocalDate.now()).size()
+                == contenedor.getUsuarios().size(), "El índice por edad debe coincidir con los usuarios almacenados.");
+    }
+
+    /**
+     * Una consulta que usa el índice por comuna se puede ejecutar mientras se almacenan y eliminan clientes: recorre
+     * los candidatos copiados al empezar, sin fallar, sin repetir clientes y sin mezclar comunas.
+     */
+    public void testConsultaIndexadaDuranteEscrituras() throws InterruptedException {
+        Contenedor contenedor = new Contenedor();
+        ejecutar(() -> {
+            for (int i = 1; i <= ESCRITURAS; i++) {
+                long run = PRIMER_RUN + i;
+                contenedor.almacenarCliente(cliente(run, i % 2 == 0 ? "Santiago" : "Ñuñoa", i));
+                if (i % 3 == 0) {
+                    contenedor.eliminarSinAviso(run - 1);
+                }
+            }
+        }, () -> {
+            Set<Long> runs = new HashSet<>();
+            Iterator<Cliente> resultados = contenedor.consultarClientes().enComuna("Santiago").conSistemaSalud(1).ejecutar();
+            while (resultados.hasNext()) {
+                Cliente cliente = resultados.next();
+                comprobar("Santiago".equals(cliente.getComuna()), "La consulta indexada mezcló comunas.");
+                comprobar(runs.add(cliente.getRun()), "La consulta indexada repitió un cliente.");
+            }
+        });
+        ConsultaClientes consulta = contenedor.consultarClientes().enComuna("Santiago").conSistemaSalud(1);
+        comprobar(consulta.explicar().startsWith("Índice por comuna"), "La consulta debe usar el índice por comuna.");
+        long santiago = contenedor.getUsuarios().stream()
+                .filter(usuario -> usuario instanceof Cliente cliente && "Santiago".equals(cliente.getComuna()))
+                .count();
+        comprobar(consulta.obtenerLista().size() == santiago,
+                "La consulta indexada debe encontrar a todos los clientes de la comuna.");
+    }
+
+    /**
+     * Los conteos de la línea de tiempo de accidentes y de una ventana deslizante se pueden leer mientras se
+     * almacenan accidentes; el historial nunca retrocede y al terminar cuenta todos los accidentes.
+     */
+    public void testLineaDeTiempoDuranteEscrituras() throws InterruptedException {
+        Contenedor contenedor = new Contenedor();
+        LocalDate inicio = LocalDate.of(2024, 1, 1);
+        LocalDateTime fin = inicio.plusDays(ESCRITURAS / 24 + 1).atStartOfDay();
+        LineaDeTiempo<Accidente>.Ventana ventana = contenedor.getLineaAccidentes().registrarVentana(60L * 24 * 30, fin);
+        ejecutar(() -> {
+            for (int i = 0; i < ESCRITURAS; i++) {
+                contenedor.almacenarAccidente(new Accidente(i + 1, PRIMER_RUN + i % 50, inicio.plusDays(i / 24),
+                        String.format("%02d:00", i % 24), "Bodega central", "Caída de carga", "Golpe leve"));
+            }
+        }, () -> {
+            int antes = contenedor.getLineaAccidentes().getHistorial().getTotal();
+            int enMes = contenedor.getLineaAccidentes().contarEntre(inicio.atStartOfDay(), inicio.plusDays(30).atStartOfDay());
+            int recorridos = 0;
+            for (Accidente accidente : contenedor.getLineaAccidentes().entre(inicio.atStartOfDay(), fin)) {
+                comprobar(accidente != null, "El recorrido no debe devolver posiciones vacías.");
+                recorridos++;
+            }
+            comprobar(enMes <= 30 * 24 + 1, "El conteo del mes no debe superar un accidente por hora.");
+            comprobar(recorridos <= contenedor.getLineaAccidentes().tamano(),
+                    "El recorrido no debe repetir accidentes.");
+            comprobar(ventana.getConteo().getTotal() >= 0, "El conteo de la ventana no puede ser negativo.");
+            for (Accidente accidente : contenedor.getLineaAccidentes().ultimosDeCliente(PRIMER_RUN, 5)) {
+                comprobar(accidente.getRutCliente() == PRIMER_RUN, "Los últimos accidentes deben ser del cliente.");
+            }
+            comprobar(contenedor.getLineaAccidentes().getHistorial().getTotal() >= antes,
+                    "El historial no debe retroceder.");
+        });
+        comprobar(contenedor.getLineaAccidentes().getHistorial().getTotal() == ESCRITURAS,
+                "El historial debe contar todos los accidentes.");
+        comprobar(contenedor.getLineaAccidentes().tamano() == ESCRITURAS,
+                "La línea de tiempo debe tener todos los accidentes.");
+        comprobar(contenedor.getIndiceCausas().getDocumentos() == ESCRITURAS,
+                "El índice de causas debe tener todos los accidentes.");
+    }
+
+    /**
+     * Varios hilos que piden a la vez las líneas de tiempo y el índice de causas reciben la misma instancia.
+     */
+    public void testIndicesPerezososUnaSolaInstancia() throws InterruptedException {
+        for (int intento = 0; intento < 200; intento++) {
+            Contenedor contenedor = new Contenedor();
+            Set<Object> instancias = ConcurrentHashMap.newKeySet();
+            CountDownLatch partida = new CountDownLatch(1);
+            List<Thread> hilos = new ArrayList<>();
+            for (int i = 0; i < LECTORES; i++) {
+                Thread hilo = new Thread(() -> {
+                    try {
+                        partida.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    instancias.add(contenedor.getLineaAccidentes());
+                    instancias.add(contenedor.getIndiceCausas());
+                    instancias.add(contenedor.getLineaVisitas());
+                });
+                hilo.start();
+                hilos.add(hilo);
+            }
+            partida.countDown();
+            for (Thread hilo : hilos) {
+                hilo.join();
+            }
+            comprobar(instancias.size() == 3, "Cada índice se debe crear una sola vez.");
+        }
+    }
+
+    /**
+     * Ejecuta un escritor y varios lectores a la vez. Los lectores repiten su consulta hasta que el escritor
+     * termina; cualquier error de un hilo hace fallar la prueba.
+     *
+     * @param escritor Las escrituras.
+     * @param lectura Una consulta de los lectores.
+     * @throws InterruptedException si se interrumpe la espera.
+     */
+    private static void ejecutar(Runnable escritor, Runnable lectura) throws InterruptedException {
+        AtomicBoolean terminado = new AtomicBoolean();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        List<Thread> hilos = new ArrayList<>();
+        for (int i = 0; i < LECTORES; i++) {
+            hilos.add(new Thread(() -> {
+                try {
+                    while (!terminado.get() && error.get() == null) {
+                        lectura.run();
+                    }
+                } catch (Throwable e) {
+                    error.compareAndSet(null, e);
+                }
+            }));
+        }
+        hilos.forEach(Thread::start);
+        try {
+            escritor.run();
+        } catch (Throwable e) {
+            error.compareAndSet(null, e);
+        } finally {
+            terminado.set(true);
+        }
+        for (Thread hilo : hilos) {
+            hilo.join();
+        }
+        if (error.get() != null) {
+            throw new AssertionError("Falló una lectura concurrente: " + error.get(), error.get());
+        }
+    }
+
+    /**
+     * Crea un cliente de prueba.
+     *
+     * @param run El RUN del cliente.
+     * @param comuna La comuna del cliente.
+     * @param i Número de la escritura, para variar la fecha de nacimiento.
+     * @return El cliente.
+     */
+    private static Cliente cliente(long run, String comuna, int i) {
+        LocalDate nacimiento = LocalDate.of(1950, 1, 1).plusDays(i % 18_000);
+        return new Cliente("Cliente", "Prueba Concurrente", nacimiento, run, "912345678", "Modelo", 1,
+                "Calle Uno 123", comuna);
+    }
+
+    /**
+     * Falla la prueba si la condición no se cumple.
+     *
+     * @param condicion La condición.
+     * @param mensaje El mensaje del error.
+     */
+    private static void comprobar(boolean condicion, String mensaje) {
+        if (!condicion) {
+            throw new AssertionError(mensaje);
+        }
+    }
+
+    /**
+     * Ejecuta las pruebas.
+     *
+     * @param args No se usan.
+     * @throws InterruptedException si se interrumpe la espera de los hilos.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        LecturasConcurrentesTest prueba = new LecturasConcurrentesTest();
+        prueba.testIndicesDuranteEscrituras();
+        prueba.testConsultaIndexadaDuranteEscrituras();
+        prueba.testLineaDeTiempoDuranteEscrituras();
+        prueba.testIndicesPerezososUnaSolaInstancia();
+        System.out.println("LecturasConcurrentesTest: 4 pruebas correctas.");
+    }
+}
@@ -0,0 +1,203 @@
+package org.example.gestion;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/*
+ *
+ * @author Judith Vergara
+ * @version 1.0
+ */
+
+/**
+ * Prueba la lista con lápidas: los recorridos sobre una instantánea no se alteran con eliminaciones, agregados ni
+ * compactaciones de otros hilos, y los agregados en lote se aplican completos o no se aplican.
+ * <p>
+ * Se ejecuta con {@code main}, sin dependencias externas.
+ * </p>
+ */
+public class ListaConLapidasTest {
+
+    // Principio de Responsabilidad Única (SRP): cada prueba verifica un solo comportamiento de la lista.
+
+    /**
+     * Tiempo máximo que se espera a la compactación en segundo plano.
+     */
+    private static final long ESPERA_MAXIMA_MILIS = 5_000;
+
+    /**
+     * Elemento de prueba. La lista los reconoce por identidad.
+     *
+     * @param numero El número del elemento.
+     */
+    private record Elemento(int numero) {
+    }
+
+    /**
+     * Un iterador creado antes de eliminar y compactar recorre exactamente los elementos que había al crearlo, aunque
+     * otro hilo elimine la mayoría, agregue otros y la lista se compacte en segundo plano mientras tanto.
+     *
+     * @throws Exception si se interrumpe la espera.
+     */
+    public void testIteradorNoVeEliminacionesNiCompactacion() throws Exception {
+        ListaConLapidas<Elemento> lista = new ListaConLapidas<>();
+        List<Elemento> originales = elementos(0, 4 * ListaConLapidas.MINIMO_LAPIDAS);
+        lista.addAll(originales);
+        Iterator<Elemento> instantanea = lista.iterator();
+        // Lee la mitad antes de que empiecen los cambios y el resto mientras ocurren
+        List<Elemento> recorridos = new ArrayList<>();
+        for (int i = 0; i < originales.size() / 2; i++) {
+            recorridos.add(instantanea.next());
+        }
+
+        CountDownLatch inicio = new CountDownLatch(1);
+        List<Elemento> agregados = elementos(originales.size(), originales.size() + 500);
+        Thread escritor = new Thread(() -> {
+            esperar(inicio);
+            for (int i = 0; i < originales.size(); i++) {
+                if (i % 4 != 0) {
+                    lista.remove(originales.get(i));
+                }
+                if (i % 8 == 0 && i / 8 < agregados.size()) {
+                    lista.add(agregados.get(i / 8));
+                }
+            }
+        });
+        escritor.start();
+        inicio.countDown();
+        while (instantanea.hasNext()) {
+            recorridos.add(instantanea.next());
+        }
+        escritor.join();
+
+        comprobar(recorridos.equals(originales), "El iterador debe recorrer exactamente la instantánea.");
+        long limite = System.currentTimeMillis() + ESPERA_MAXIMA_MILIS;
+        while (lista.getCompactaciones() == 0) {
+            if (System.currentTimeMillis() > limite) {
+                throw new AssertionError("La lista no se compactó en segundo plano.");
+            }
+            Thread.sleep(10);
+        }
+        List<Elemento> esperados = new ArrayList<>();
+        for (int i = 0; i < originales.size(); i += 4) {
+            esperados.add(originales.get(i));
+        }
+        List<Elemento> vivos = new ArrayList<>(lista);
+        comprobar(vivos.size() == esperados.size() + agregados.size(), "La lista debe tener los elementos vivos.");
+        comprobar(vivos.containsAll(esperados) && vivos.containsAll(agregados),
+                "La compactación no debe perder elementos vivos.");
+        for (int i = 1; i < originales.size(); i += 4) {
+            comprobar(!lista.contains(originales.get(i)), "Un elemento eliminado no debe volver con la compactación.");
+        }
+    }
+
+    /**
+     * Un stream en paralelo sobre una instantánea suma los mismos elementos que había al crearlo, mientras otro hilo
+     * compacta la lista.
+     *
+     * @throws Exception si se interrumpe la espera.
+     */
+    public void testStreamParaleloDuranteCompactacion() throws Exception {
+        ListaConLapidas<Elemento> lista = new ListaConLapidas<>();
+        List<Elemento> originales = elementos(0, 8 * ListaConLapidas.MINIMO_DIVISION);
+        lista.addAll(originales);
+        for (int i = 0; i < originales.size(); i += 2) {
+            lista.remove(originales.get(i));
+        }
+        long esperado = lista.stream().mapToLong(Elemento::numero).sum();
+        var stream = lista.parallelStream();
+        Thread compactador = new Thread(lista::compactar);
+        compactador.start();
+        long suma = stream.mapToLong(Elemento::numero).sum();
+        compactador.join();
+        comprobar(suma == esperado, "El stream en paralelo debe sumar la instantánea.");
+        comprobar(lista.getLapidas() == 0, "La compactación debe quitar las lápidas.");
+        comprobar(lista.stream().mapToLong(Elemento::numero).sum() == esperado,
+                "La lista compactada debe tener los mismos elementos.");
+    }
+
+    /**
+     * Un lote con un elemento ya almacenado o repetido se rechaza sin agregar ninguno.
+     */
+    public void testAgregarEnLoteEsAtomico() {
+        ListaConLapidas<Elemento> lista = new ListaConLapidas<>();
+        Elemento almacenado = new Elemento(1);
+        Elemento nuevo = new Elemento(2);
+        lista.add(almacenado);
+        rechazaLote(lista, List.of(nuevo, almacenado));
+        rechazaLote(lista, List.of(nuevo, nuevo));
+        comprobar(lista.size() == 1 && !lista.contains(nuevo), "Un lote rechazado no debe agregar elementos.");
+        comprobar(lista.addAll(List.of(nuevo)) && lista.size() == 2, "Un lote válido debe agregarse.");
+    }
+
+    /**
+     * Comprueba que la lista rechace un lote.
+     *
+     * @param lista La lista.
+     * @param lote El lote.
+     */
+    private static void rechazaLote(ListaConLapidas<Elemento> lista, List<Elemento> lote) {
+        try {
+            lista.addAll(lote);
+            throw new AssertionError("La lista debe rechazar el lote " + lote + ".");
+        } catch (IllegalArgumentException e) {
+            // esperado
+        }
+    }
+
+    /**
+     * Crea elementos con números consecutivos.
+     *
+     * @param desde El primer número, inclusivo.
+     * @param hasta El último número, exclusivo.
+     * @return Los elementos.
+     */
+    private static List<Elemento> elementos(int desde, int hasta) {
+        List<Elemento> elementos = new ArrayList<>();
+        for (int i = desde; i < hasta; i++) {
+            elementos.add(new Elemento(i));
+        }
+        return elementos;
+    }
+
+    /**
+     * Espera la señal de inicio.
+     *
+     * @param senal La señal.
+     */
+    private static void esperar(CountDownLatch senal) {
+        try {
+            senal.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Falla la prueba si la condición no se cumple.
+     *
+     * @param condicion La condición.
+     * @param mensaje El mensaje del error.
+     */
+    private static void comprobar(boolean condicion, String mensaje) {
+        if (!condicion) {
+            throw new AssertionError(mensaje);
+        }
+    }
+
+    /**
+     * Ejecuta las pruebas.
+     *
+     * @param args No se usan.
+     * @throws Exception si alguna prueba falla.
+     */
+    public static void main(String[] args) throws Exception {
+        ListaConLapidasTest prueba = new ListaConLapidasTest();
+        prueba.testIteradorNoVeEliminacionesNiCompactacion();
+        prueba.testStreamParaleloDuranteCompactacion();
+        prueba.testAgregarEnLoteEsAtomico();
+        System.out.println("ListaConLapidasTest: 3 pruebas correctas.");
+    }
+}
@@ -0,0 +1,128 @@
+package org.example.gestion;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+/*
+ *
+ * @author Judith Vergara
+ * @version 1.0
+ */
+
+/**
+ * Mide el {@link AsignadorVisitas} con 1.000 profesionales y 100.000 visitas.
+ * <p>
+ * Los profesionales tienen uno de cuatro títulos y un cuarto de las visitas exige la especialidad de uno de ellos;
+ * las visitas se reparten en 60 días hábiles, entre las 08:00 y las 17:30. Se mide la planificación completa, la
+ * búsqueda local, y luego agregar y cancelar visitas de a una sobre la planificación ya hecha. Se ejecuta con
+ * {@code main}:
+ * </p>
+ * <pre>
+ * java -cp target/classes:target/test-classes org.example.gestion.MedicionAsignadorVisitas [profesionales] [visitas]
+ * </pre>
+ */
+public class MedicionAsignadorVisitas {
+
+    // Principio de Responsabilidad Única (SRP): solo genera datos y mide tiempos; la asignación es del asignador.
+
+    /**
+     * Profesionales por defecto.
+     */
+    private static final int PROFESIONALES_POR_DEFECTO = 1_000;
+    /**
+     * Visitas por defecto.
+     */
+    private static final int VISITAS_POR_DEFECTO = 100_000;
+    /**
+     * Cantidad de visitas que se agregan y cancelan de a una.
+     */
+    private static final int OPERACIONES_INCREMENTALES = 10_000;
+    /**
+     * Títulos de los profesionales.
+     */
+    private static final String[] TITULOS = {"Ingeniero en Prevención", "Técnico en Prevención", "Ingeniero Civil", "Enfermera"};
+    /**
+     * Especialidades que pueden exigir las visitas, en el mismo orden que los títulos.
+     */
+    private static final String[] ESPECIALIDADES = {"prevencion", "tecnico", "civil", "enfermera"};
+
+    /**
+     * Ejecuta la medición.
+     *
+     * @param args La cantidad de profesionales y la de visitas.
+     */
+    public static void main(String[] args) {
+        int cantidadProfesionales = args.length > 0 ? Integer.parseInt(args[0]) : PROFESIONALES_POR_DEFECTO;
+        int cantidadVisitas = args.length > 1 ? Integer.parseInt(args[1]) : VISITAS_POR_DEFECTO;
+        Random azar = new Random(43);
+
+        List<VisitaEnTerreno> visitas = new ArrayList<>(cantidadVisitas);
+        for (int i = 0; i < cantidadVisitas; i++) {
+            visitas.add(visita(i, azar));
+        }
+        Function<VisitaEnTerreno, String> especialidad =
+                visita -> visita.getIdentificador() % 4 == 0 ? ESPECIALIDADES[visita.getIdentificador() / 4 % ESPECIALIDADES.length] : null;
+        AsignadorVisitas asignador = new AsignadorVisitas(especialidad, AsignadorVisitas.DURACION_POR_DEFECTO);
+
+        long inicio = System.nanoTime();
+        for (int i = 0; i < cantidadProfesionales; i++) {
+            asignador.agregarProfesional(new Profesional("Nombre", "Apellido Apellido", LocalDate.of(1980, 1, 1),
+                    10_000_000L + i, TITULOS[i % TITULOS.length], LocalDate.of(2010, 1, 1)));
+        }
+        informar("Agregar " + cantidadProfesionales + " profesionales", inicio, cantidadProfesionales);
+
+        inicio = System.nanoTime();
+        int asignadas = asignador.planificar(visitas);
+        informar("Planificar " + cantidadVisitas + " visitas", inicio, cantidadVisitas);
+        System.out.println("  asignadas " + asignadas + ", pendientes " + asignador.getPendientes().size());
+
+        inicio = System.nanoTime();
+        int movidas = asignador.rebalancear();
+        informar("Rebalancear", inicio, 1);
+        System.out.println("  visitas movidas " + movidas);
+
+        List<VisitaEnTerreno> nuevas = new ArrayList<>(OPERACIONES_INCREMENTALES);
+        for (int i = 0; i < OPERACIONES_INCREMENTALES; i++) {
+            nuevas.add(visita(cantidadVisitas + i, azar));
+        }
+        inicio = System.nanoTime();
+        for (VisitaEnTerreno visita : nuevas) {
+            asignador.agregar(visita);
+        }
+        informar("Agregar de a una", inicio, OPERACIONES_INCREMENTALES);
+
+        inicio = System.nanoTime();
+        for (int i = 0; i < OPERACIONES_INCREMENTALES; i++) {
+            asignador.cancelar(visitas.get(azar.nextInt(visitas.size())));
+        }
+        informar("Cancelar de a una", inicio, OPERACIONES_INCREMENTALES);
+    }
+
+    /**
+     * Crea una visita en un día hábil y una hora al azar.
+     *
+     * @param id El identificador de la visita.
+     * @param azar El generador de números al azar.
+     * @return La visita.
+     */
+    private static VisitaEnTerreno visita(int id, Random azar) {
+        LocalDate dia = LocalDate.of(2024, 3, 4).plusWeeks(azar.nextInt(12)).plusDays(azar.nextInt(5));
+        String hora = String.format("%02d:%02d", 8 + azar.nextInt(10), azar.nextBoolean() ? 0 : 30);
+        return new VisitaEnTerreno(id, 11_111_111L, dia, hora, "Faena Norte " + id % 100, "");
+    }
+
+    /**
+     * Muestra el tiempo total y por operación de una etapa.
+     *
+     * @param etapa El nombre de la etapa.
+     * @param inicio El instante en que empezó, en nanosegundos.
+     * @param operaciones La cantidad de operaciones de la etapa.
+     */
+    private static void informar(String etapa, long inicio, int operaciones) {
+        long nanos = System.nanoTime() - inicio;
+        System.out.printf("%-32s %8.1f ms, %8.2f µs por operación%n", etapa, nanos / 1e6, nanos / 1e3 / operaciones);
+    }
+}
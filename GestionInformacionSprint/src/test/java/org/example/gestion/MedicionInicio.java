@@ -0,0 +1,115 @@
+package org.example.gestion;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+ *
+ * @author Judith Vergara
+ * @version 1.0
+ */
+
+/**
+ * Mide el arranque del programa en procesos nuevos: el tiempo hasta el primer menú y hasta el primer almacenamiento,
+ * que informa {@link MedidorInicio}.
+ * <p>
+ * Cada repetición inicia una JVM con {@code -Dgestion.medirInicio=true}, le envía por tubería un cliente y la
+ * opción de salir, y lee los tiempos de su salida de errores. Al final muestra el mínimo, la mediana y el máximo de
+ * cada hito. Se ejecuta con {@code main}:
+ * </p>
+ * <pre>
+ * java -cp target/classes:target/test-classes org.example.gestion.MedicionInicio [repeticiones] [opciones de la JVM...]
+ * </pre>
+ * <p>
+ * Las opciones se pasan a cada proceso medido, por ejemplo {@code -XX:SharedArchiveFile=target/GestionInformacionSprint.jsa}
+ * para comparar con el archivo de clases compartidas del perfil {@code appcds}.
+ * </p>
+ */
+public class MedicionInicio {
+
+    // Principio de Responsabilidad Única (SRP): solo lanza procesos y resume sus tiempos; los mide MedidorInicio.
+
+    /**
+     * Repeticiones por defecto.
+     */
+    private static final int REPETICIONES_POR_DEFECTO = 10;
+
+    /**
+     * Entrada enviada a cada proceso: almacena un cliente y sale.
+     */
+    private static final String GUION = String.join("\n",
+            "1", "JUAN CARLOS", "PEREZ SOTO", "01/02/1980", "11111111", "912345678", "MODELO", "1",
+            "CALLE UNO 123", "NUNOA", "44", "9", "");
+
+    /**
+     * Línea con que {@link MedidorInicio} informa un hito.
+     */
+    private static final Pattern TIEMPO = Pattern.compile("Tiempo hasta el (.+): (\\d+) ms");
+
+    /**
+     * Ejecuta la medición.
+     *
+     * @param args La cantidad de repeticiones, seguida de las opciones de la JVM para los procesos medidos.
+     * @throws IOException si no se puede iniciar un proceso.
+     * @throws InterruptedException si se interrumpe la espera de un proceso.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int repeticiones = args.length > 0 ? Integer.parseInt(args[0]) : REPETICIONES_POR_DEFECTO;
+        List<String> opciones = args.length > 1 ? Arrays.asList(args).subList(1, args.length) : List.of();
+        Map<String, List<Long>> tiempos = new LinkedHashMap<>();
+        for (int i = 0; i < repeticiones; i++) {
+            medir(opciones).forEach((hito, milis) -> tiempos.computeIfAbsent(hito, h -> new ArrayList<>()).add(milis));
+        }
+        System.out.println("Arranque en " + repeticiones + " procesos" + (opciones.isEmpty() ? "" : " con " + opciones) + ":");
+        tiempos.forEach((hito, medidos) -> {
+            medidos.sort(null);
+            System.out.printf("  %-22s mín %4d ms, mediana %4d ms, máx %4d ms%n", hito,
+                    medidos.get(0), medidos.get(medidos.size() / 2), medidos.get(medidos.size() - 1));
+        });
+    }
+
+    /**
+     * Inicia un proceso del programa y lee los tiempos que informa.
+     *
+     * @param opciones Las opciones de la JVM.
+     * @return Los milisegundos de cada hito, en el orden en que se informaron.
+     * @throws IOException si no se puede iniciar el proceso.
+     * @throws InterruptedException si se interrumpe la espera.
+     * @throws IllegalStateException si el proceso termina con error.
+     */
+    private static Map<String, Long> medir(List<String> opciones) throws IOException, InterruptedException {
+        List<String> comando = new ArrayList<>();
+        comando.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        comando.addAll(opciones);
+        comando.add("-Dgestion.medirInicio=true");
+        comando.add("-cp");
+        comando.add(System.getProperty("java.class.path"));
+        comando.add("org.example.Main");
+        comando.add("--tuberia");
+        Process proceso = new ProcessBuilder(comando)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try (OutputStream entrada = proceso.getOutputStream()) {
+            entrada.write(GUION.getBytes(StandardCharsets.UTF_8));
+        }
+        String errores = new String(proceso.getErrorStream().readAllBytes(), StandardCharsets.UTF_8);
+        if (proceso.waitFor() != 0) {
+            throw new IllegalStateException("El proceso terminó con error:" + System.lineSeparator() + errores);
+        }
+        Map<String, Long> tiempos = new LinkedHashMap<>();
+        Matcher linea = TIEMPO.matcher(errores);
+        while (linea.find()) {
+            tiempos.put(linea.group(1), Long.parseLong(linea.group(2)));
+        }
+        return tiempos;
+    }
+}
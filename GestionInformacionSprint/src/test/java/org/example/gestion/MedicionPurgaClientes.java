@@ -0,0 +1,119 @@
+package org.example.gestion;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/*
+ *
+ * @author Judith Vergara
+ * @version 1.0
+ */
+
+/**
+ * Mide el ritmo de eliminación durante una purga masiva de clientes, que deja lápidas en las listas del
+ * {@link Contenedor} y las compacta en segundo plano.
+ * <p>
+ * Se almacenan los clientes con una capacitación cada uno y se elimina, de a uno y en orden aleatorio, la proporción
+ * indicada de ellos, como al dar de baja los clientes que dejaron de contratar. Como referencia se mide la forma
+ * anterior, un {@code removeIf} sobre un {@link ArrayList} por cada eliminación, con una cantidad menor de
+ * eliminaciones porque cada una recorre la lista completa. Se ejecuta con {@code main}:
+ * </p>
+ * <pre>
+ * java -cp target/classes:target/test-classes org.example.gestion.MedicionPurgaClientes [clientes] [proporción]
+ * </pre>
+ */
+public class MedicionPurgaClientes {
+
+    // Principio de Responsabilidad Única (SRP): solo prepara la purga y mide tiempos; las lápidas son de ListaConLapidas.
+
+    /**
+     * Clientes por defecto.
+     */
+    private static final int CLIENTES_POR_DEFECTO = 200_000;
+    /**
+     * Proporción de clientes eliminados por defecto.
+     */
+    private static final double PROPORCION_POR_DEFECTO = 0.5;
+    /**
+     * Eliminaciones medidas con la forma anterior.
+     */
+    private static final int ELIMINACIONES_REFERENCIA = 2_000;
+    /**
+     * Comunas de los clientes.
+     */
+    private static final String[] COMUNAS = {"Santiago", "Providencia", "Nunoa", "Maipu", "La Florida", "Puente Alto",
+            "Las Condes", "Valparaiso", "Vina del Mar", "Concepcion"};
+
+    /**
+     * Ejecuta la medición.
+     *
+     * @param args La cantidad de clientes y la proporción que se elimina.
+     */
+    public static void main(String[] args) {
+        int cantidad = args.length > 0 ? Integer.parseInt(args[0]) : CLIENTES_POR_DEFECTO;
+        double proporcion = args.length > 1 ? Double.parseDouble(args[1]) : PROPORCION_POR_DEFECTO;
+        int eliminaciones = (int) (cantidad * proporcion);
+
+        List<Cliente> clientes = new ArrayList<>(cantidad);
+        List<Capacitacion> capacitaciones = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            long run = 10_000_000L + i;
+            // Fechas de nacimiento y comunas variadas, como en una cartera real de clientes
+            clientes.add(new Cliente("Ana", "Perez Soto", LocalDate.of(1950, 1, 1).plusDays(i % 18_000), run,
+                    "912345678", "Modelo", 1, "Calle Uno 123", COMUNAS[i % COMUNAS.length]));
+            capacitaciones.add(new Capacitacion(run, "lunes", "10:00", "Sala principal", 60, 10));
+        }
+        List<Long> purga = new ArrayList<>(cantidad);
+        clientes.forEach(cliente -> purga.add(cliente.getRun()));
+        Collections.shuffle(purga, new Random(47));
+
+        Contenedor contenedor = new Contenedor();
+        contenedor.almacenarUsuarios(clientes);
+        contenedor.almacenarCapacitaciones(capacitaciones);
+        long inicio = System.nanoTime();
+        for (int i = 0; i < eliminaciones; i++) {
+            contenedor.eliminarSinAviso(purga.get(i));
+        }
+        long nanos = System.nanoTime() - inicio;
+        informar("Contenedor con lápidas", eliminaciones, nanos);
+        System.out.printf("  quedan %d usuarios y %d capacitaciones%n", contenedor.getUsuarios().size(),
+                contenedor.getCapacitaciones().size());
+
+        ListaConLapidas<Cliente> lista = new ListaConLapidas<>();
+        lista.addAll(clientes);
+        inicio = System.nanoTime();
+        for (int i = 0; i < eliminaciones; i++) {
+            lista.remove(clientes.get((int) (purga.get(i) - 10_000_000L)));
+        }
+        nanos = System.nanoTime() - inicio;
+        informar("ListaConLapidas sola", eliminaciones, nanos);
+        System.out.printf("  %d lápidas pendientes, %d compactaciones%n", lista.getLapidas(), lista.getCompactaciones());
+
+        List<Usuario> usuarios = new ArrayList<>(clientes);
+        List<Capacitacion> referencia = new ArrayList<>(capacitaciones);
+        int medidas = Math.min(ELIMINACIONES_REFERENCIA, eliminaciones);
+        inicio = System.nanoTime();
+        for (int i = 0; i < medidas; i++) {
+            long run = purga.get(i);
+            usuarios.removeIf(usuario -> usuario.getRun() == run);
+            referencia.removeIf(capacitacion -> capacitacion.getRutCliente() == run);
+        }
+        nanos = System.nanoTime() - inicio;
+        informar("ArrayList con removeIf", medidas, nanos);
+    }
+
+    /**
+     * Muestra el tiempo total y el ritmo de una serie de eliminaciones.
+     *
+     * @param forma La forma de eliminar.
+     * @param eliminaciones La cantidad de eliminaciones.
+     * @param nanos La duración, en nanosegundos.
+     */
+    private static void informar(String forma, int eliminaciones, long nanos) {
+        System.out.printf("%-24s %8d eliminaciones en %8.1f ms (%.0f eliminaciones/s)%n", forma, eliminaciones,
+                nanos / 1e6, eliminaciones * 1e9 / Math.max(1, nanos));
+    }
+}
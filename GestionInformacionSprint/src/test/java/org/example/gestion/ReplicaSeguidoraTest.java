@@ -0,0 +1,313 @@
+package org.example.gestion;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/*
+ *
+ * @author Judith Vergara
+ * @version 1.0
+ */
+
+/**
+ * Prueba la conmutación por error: un líder escribe su registro, una réplica lo sigue y se promueve, y el contenedor
+ * promovido sigue recibiendo cambios y alimenta a su propia réplica. También prueba el reinicio del líder sobre el
+ * mismo registro.
+ * <p>
+ * Se ejecuta con {@code main}, sin dependencias externas.
+ * </p>
+ */
+public class ReplicaSeguidoraTest {
+
+    // Principio de Responsabilidad Única (SRP): cada prueba verifica una sola etapa de la conmutación.
+
+    /**
+     * Tiempo máximo que se espera a que una réplica alcance al líder.
+     */
+    private static final long ESPERA_MAXIMA_MILIS = 5_000;
+
+    /**
+     * Los datos almacenados antes de crear el emisor llegan a la réplica por la instantánea inicial, y los
+     * posteriores, por los eventos.
+     *
+     * @throws Exception si la prueba no puede usar el archivo de registro.
+     */
+    public void testReplicaParteConElEstadoDelLider() throws Exception {
+        Path registro = Files.createTempFile("registro", ".log");
+        try {
+            Contenedor lider = new Contenedor();
+            lider.almacenarUsuarios(clientes(1, 3));
+            EmisorRegistro emisor = new EmisorRegistro(lider, registro);
+            lider.almacenarCliente(cliente(4));
+            lider.almacenarCapacitaciones(List.of(capacitacion(1), capacitacion(4)));
+            emisor.close();
+            try (ReplicaSeguidora replica = new ReplicaSeguidora(registro)) {
+                esperarAlcance(replica);
+                comprobar(replica.listarUsuarios().size() == 4, "La réplica debe tener los 4 clientes.");
+                comprobar(replica.listarCapacitaciones().size() == 2, "La réplica debe tener las 2 capacitaciones.");
+            }
+        } finally {
+            Files.deleteIfExists(registro);
+        }
+    }
+
+    /**
+     * La réplica abre el registro solo para leer: no lo crea si no existe.
+     *
+     * @throws Exception si la prueba no puede usar el directorio temporal.
+     */
+    public void testReplicaNoCreaElRegistro() throws Exception {
+        Path registro = Files.createTempDirectory("replica").resolve("inexistente.log");
+        try {
+            new ReplicaSeguidora(registro).close();
+            throw new AssertionError("La réplica no debe abrir un registro inexistente.");
+        } catch (IOException e) {
+            comprobar(Files.notExists(registro), "La réplica no debe crear el registro.");
+        } finally {
+            Files.deleteIfExists(registro.getParent());
+        }
+    }
+
+    /**
+     * Al promover una réplica en un proceso nuevo, las capacitaciones que se crean después no repiten los
+     * identificadores replicados, y una segunda réplica del contenedor promovido recibe todo su estado.
+     *
+     * @throws Exception si la prueba no puede usar los archivos de registro.
+     */
+    public void testPromoverReplica() throws Exception {
+        Path registroLider = Files.createTempFile("lider", ".log");
+        Path registroPromovido = Files.createTempFile("promovido", ".log");
+        try {
+            Contenedor lider = new Contenedor();
+            Set<Integer> identificadores = new HashSet<>();
+            EmisorRegistro emisorLider = new EmisorRegistro(lider, registroLider);
+            lider.almacenarUsuarios(clientes(1, 5));
+            for (int i = 1; i <= 5; i++) {
+                Capacitacion capacitacion = capacitacion(i);
+                lider.almacenarCapacitacion(capacitacion);
+                identificadores.add(capacitacion.getIdentificador());
+            }
+            lider.actualizarUsuario(10_000_002L, Map.of(CampoUsuario.COMUNA, "Valparaiso"));
+            lider.eliminarUsuarios(Set.of(10_000_005L));
+            emisorLider.close();
+            // La réplica corre en otro proceso, donde el contador de identificadores parte de cero
+            reiniciarContadorCapacitaciones();
+            Contenedor promovido;
+            try (ReplicaSeguidora replica = new ReplicaSeguidora(registroLider)) {
+                esperarAlcance(replica);
+                promovido = replica.promover();
+            }
+            comprobar(promovido.getUsuarios().size() == 4, "El contenedor promovido debe tener 4 usuarios.");
+            comprobar(promovido.getCapacitaciones().size() == 4, "El contenedor promovido debe tener 4 capacitaciones.");
+            comprobar("Valparaiso".equals(promovido.buscarClientePorRut(10_000_002L).getComuna()),
+                    "El contenedor promovido debe tener la comuna actualizada.");
+
+            EmisorRegistro emisorPromovido = new EmisorRegistro(promovido, registroPromovido);
+            Capacitacion nueva = capacitacion(1);
+            comprobar(!identificadores.contains(nueva.getIdentificador()),
+                    "Una capacitación nueva no debe repetir un identificador replicado.");
+            comprobar(promovido.almacenarCapacitacion(nueva), "El contenedor promovido debe aceptar cambios.");
+            emisorPromovido.close();
+            try (ReplicaSeguidora replica = new ReplicaSeguidora(registroPromovido)) {
+                esperarAlcance(replica);
+                comprobar(replica.listarUsuarios().size() == 4, "La nueva réplica debe tener los 4 usuarios.");
+                comprobar(replica.listarCapacitaciones().size() == 5, "La nueva réplica debe tener las 5 capacitaciones.");
+            }
+        } finally {
+            Files.deleteIfExists(registroLider);
+            Files.deleteIfExists(registroPromovido);
+        }
+    }
+
+    /**
+     * Cuando el líder se reinicia sobre el mismo registro, su flujo de eventos vuelve a empezar en cero, pero el
+     * emisor sigue la numeración del archivo: la réplica que ya seguía el registro y el historial cargado de él
+     * reciben los cambios posteriores al reinicio.
+     *
+     * @throws Exception si la prueba no puede usar el archivo de registro.
+     */
+    public void testReinicioDelLider() throws Exception {
+        Path registro = Files.createTempFile("reinicio", ".log");
+        try (ReplicaSeguidora replica = new ReplicaSeguidora(registro)) {
+            Contenedor lider = new Contenedor();
+            EmisorRegistro emisor = new EmisorRegistro(lider, registro);
+            lider.almacenarUsuarios(clientes(1, 3));
+            lider.almacenarCliente(cliente(4));
+            emisor.close();
+            esperarAlcance(replica);
+            long antesDelReinicio = replica.getEstado().secuenciaAplicada();
+
+            Contenedor reiniciado = new Contenedor();
+            EmisorRegistro emisorReiniciado = new EmisorRegistro(reiniciado, registro);
+            comprobar(emisorReiniciado.getProximaSecuencia() > antesDelReinicio,
+                    "El emisor reiniciado debe seguir la numeración del registro.");
+            reiniciado.almacenarCliente(cliente(10));
+            reiniciado.almacenarCliente(cliente(11));
+            emisorReiniciado.close();
+            esperarAlcance(replica);
+            comprobar(replica.getEstado().bytesPendientes() == 0, "La réplica no debe tener bytes pendientes.");
+            comprobar(replica.buscarClientePorRut(10_000_010L) != null && replica.buscarClientePorRut(10_000_011L) != null,
+                    "La réplica debe recibir los clientes almacenados después del reinicio.");
+            comprobar(replica.listarUsuarios().size() == 6, "La réplica debe tener los 6 clientes.");
+
+            Contenedor reconstruido = HistorialAuditoria.cargar(registro, 2).reconstruir(Long.MAX_VALUE);
+            comprobar(reconstruido.getUsuarios().size() == 6, "El historial cargado debe tener los 6 clientes.");
+        } finally {
+            Files.deleteIfExists(registro);
+        }
+    }
+
+    /**
+     * Un registro que termina con una línea incompleta no se reabre, porque la réplica uniría esa línea con la
+     * primera que escribiera el nuevo emisor.
+     *
+     * @throws Exception si la prueba no puede usar el archivo de registro.
+     */
+    public void testNoReabreRegistroIncompleto() throws Exception {
+        Path registro = Files.createTempFile("incompleto", ".log");
+        try {
+            Files.writeString(registro, "0\t0\tUE\t10000001\n1\t0\tUE");
+            Contenedor lider = new Contenedor();
+            try {
+                new EmisorRegistro(lider, registro).close();
+                throw new AssertionError("No se debe reabrir un registro con una línea incompleta.");
+            } catch (IOException e) {
+                comprobar(lider.almacenarCliente(cliente(1)), "El contenedor debe seguir aceptando cambios.");
+            }
+        } finally {
+            Files.deleteIfExists(registro);
+        }
+    }
+
+    /**
+     * Un emisor que se queda atrás no se expulsa: con un flujo de 8 eventos que no espera a nadie, el contenedor
+     * aguarda al emisor en cada ráfaga y el registro termina con todos los cambios.
+     *
+     * @throws Exception si la prueba no puede usar el archivo de registro o el flujo del contenedor.
+     */
+    public void testEmisorRetrasadoNoPierdeEventos() throws Exception {
+        Path registro = Files.createTempFile("retrasado", ".log");
+        try {
+            Contenedor lider = new Contenedor();
+            Field eventos = Contenedor.class.getDeclaredField("eventos");
+            eventos.setAccessible(true);
+            eventos.set(lider, new FlujoEventos(8, 0, TimeUnit.MILLISECONDS));
+            EmisorRegistro emisor = new EmisorRegistro(lider, registro);
+            int cantidad = 2_000;
+            for (int i = 1; i <= cantidad; i++) {
+                lider.almacenarCliente(new Cliente("Cliente", "Prueba Retraso", LocalDate.of(1990, 1, 1),
+                        20_000_000L + i, "912345678", "Modelo", 1, "Calle Uno 123", "Santiago"));
+            }
+            comprobar(emisor.getUltimoError() == null, "El emisor no debe detenerse por retraso.");
+            emisor.close();
+            try (ReplicaSeguidora replica = new ReplicaSeguidora(registro)) {
+                esperarAlcance(replica);
+                comprobar(replica.listarUsuarios().size() == cantidad,
+                        "La réplica debe tener los " + cantidad + " clientes, tiene " + replica.listarUsuarios().size() + ".");
+            }
+        } finally {
+            Files.deleteIfExists(registro);
+        }
+    }
+
+    /**
+     * Espera a que una réplica aplique todo el registro.
+     *
+     * @param replica La réplica.
+     * @throws InterruptedException si se interrumpe la espera.
+     */
+    private static void esperarAlcance(ReplicaSeguidora replica) throws InterruptedException {
+        long limite = System.currentTimeMillis() + ESPERA_MAXIMA_MILIS;
+        while (replica.getEstado().bytesPendientes() > 0 || replica.getEstado().secuenciaAplicada() < 0) {
+            if (System.currentTimeMillis() > limite) {
+                throw new AssertionError("La réplica no alcanzó al líder: " + replica.getEstado());
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Deja el contador de identificadores de capacitaciones como en un proceso recién iniciado.
+     *
+     * @throws ReflectiveOperationException si no se puede acceder al contador.
+     */
+    private static void reiniciarContadorCapacitaciones() throws ReflectiveOperationException {
+        Field contador = Capacitacion.class.getDeclaredField("contadorIdentificadores");
+        contador.setAccessible(true);
+        contador.setInt(null, 0);
+    }
+
+    /**
+     * Crea clientes con RUN consecutivos.
+     *
+     * @param desde El primer número de cliente.
+     * @param hasta El último número de cliente.
+     * @return Los clientes.
+     */
+    private static List<Cliente> clientes(int desde, int hasta) {
+        List<Cliente> clientes = new ArrayList<>();
+        for (int i = desde; i <= hasta; i++) {
+            clientes.add(cliente(i));
+        }
+        return clientes;
+    }
+
+    /**
+     * Crea un cliente de prueba.
+     *
+     * @param numero El número del cliente, que determina su RUN.
+     * @return El cliente.
+     */
+    private static Cliente cliente(int numero) {
+        return new Cliente("Cliente", "Prueba Replica", LocalDate.of(1990, 1, numero), 10_000_000L + numero,
+                "912345678", "Modelo", 1, "Calle Uno 123", "Santiago");
+    }
+
+    /**
+     * Crea una capacitación de prueba para un cliente.
+     *
+     * @param numero El número del cliente.
+     * @return La capacitación.
+     */
+    private static Capacitacion capacitacion(int numero) {
+        return new Capacitacion(10_000_000L + numero, "lunes", "10:00", "Sala principal", 60, 10);
+    }
+
+    /**
+     * Falla la prueba si la condición no se cumple.
+     *
+     * @param condicion La condición.
+     * @param mensaje El mensaje del error.
+     */
+    private static void comprobar(boolean condicion, String mensaje) {
+        if (!condicion) {
+            throw new AssertionError(mensaje);
+        }
+    }
+
+    /**
+     * Ejecuta las pruebas.
+     *
+     * @param args No se usan.
+     * @throws Exception si alguna prueba falla.
+     */
+    public static void main(String[] args) throws Exception {
+        ReplicaSeguidoraTest prueba = new ReplicaSeguidoraTest();
+        prueba.testReplicaParteConElEstadoDelLider();
+        prueba.testReplicaNoCreaElRegistro();
+        prueba.testPromoverReplica();
+        prueba.testReinicioDelLider();
+        prueba.testNoReabreRegistroIncompleto();
+        prueba.testEmisorRetrasadoNoPierdeEventos();
+        System.out.println("ReplicaSeguidoraTest: 6 pruebas correctas.");
+    }
+}